@@ -0,0 +1,77 @@
+package org.opentripplanner.ext.batchplan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.Month;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.routing.api.request.RouteRequest;
+
+class BatchRouterTest {
+
+  private BatchRouter subject;
+  private String feedId;
+
+  @BeforeEach
+  void setUp() {
+    var model = ConstantsForTests.buildGtfsGraph(ConstantsForTests.CALTRAIN_GTFS);
+    var serverContext = TestServerContext.createServerContext(model.graph(), model.transitModel());
+    feedId = model.transitModel().getFeedIds().iterator().next();
+
+    var request = new RouteRequest();
+    request.setDateTime(
+      LocalDateTime.of(2009, Month.AUGUST, 7, 12, 0).atZone(ZoneIds.LOS_ANGELES).toInstant()
+    );
+    subject = new BatchRouter(serverContext, request);
+  }
+
+  @Test
+  void routePairs() {
+    var first = subject.route(pair("1", "Millbrae Caltrain", "Mountain View Caltrain"));
+    var second = subject.route(pair("2", "Millbrae Caltrain", "Palo Alto Caltrain"));
+
+    assertEquals("1", first.id());
+    assertNull(first.error());
+    assertFalse(first.itineraries().isEmpty());
+    assertNull(second.error());
+    assertFalse(second.itineraries().isEmpty());
+  }
+
+  @Test
+  void unknownLocationIsReturnedAsAnError() {
+    var result = subject.route(
+      new BatchPlanRequest.ODPair("1", null, feedId + ":Palo Alto Caltrain", null)
+    );
+
+    assertEquals("LOCATION_NOT_FOUND", result.error());
+    assertTrue(result.itineraries().isEmpty());
+  }
+
+  @Test
+  void writeResults() throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (var writer = new BatchPlanResultWriter(out)) {
+      writer.write(subject.route(pair("1", "Millbrae Caltrain", "Mountain View Caltrain")));
+      writer.write(BatchPlanResult.error("2", "NO_TRANSIT_CONNECTION"));
+    }
+
+    var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("{\"id\":\"1\",\"itineraries\":[{\"startTime\":"), lines[0]);
+    assertEquals("{\"id\":\"2\",\"error\":\"NO_TRANSIT_CONNECTION\"}", lines[1]);
+  }
+
+  private BatchPlanRequest.ODPair pair(String id, String fromStop, String toStop) {
+    return new BatchPlanRequest.ODPair(id, feedId + ":" + fromStop, feedId + ":" + toStop, null);
+  }
+}
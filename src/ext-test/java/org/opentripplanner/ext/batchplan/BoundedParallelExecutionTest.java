@@ -0,0 +1,158 @@
+package org.opentripplanner.ext.batchplan;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.CancellationToken;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+
+class BoundedParallelExecutionTest {
+
+  private static final CancellationToken TOKEN = CancellationToken.create();
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void allResultsAreConsumed() {
+    var inputs = IntStream.range(0, 1000).boxed().toList();
+    var results = new ArrayList<Integer>();
+
+    BoundedParallelExecution.run(executor, TOKEN, 8, inputs.iterator(), i -> 2 * i, results::add);
+
+    assertEquals(1000, results.size());
+    assertEquals(
+      new HashSet<>(inputs.stream().map(i -> 2 * i).toList()),
+      new HashSet<>(results)
+    );
+  }
+
+  @Test
+  void numberOfInputsInFlightIsBounded() {
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    var inputs = IntStream.range(0, 200).boxed().toList();
+
+    BoundedParallelExecution.run(
+      executor,
+      TOKEN,
+      3,
+      inputs.iterator(),
+      i -> {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        return i;
+      },
+      // The result is consumed, so the input is not in flight anymore
+      i -> inFlight.decrementAndGet()
+    );
+
+    assertTrue(maxInFlight.get() <= 3, "Max in flight: " + maxInFlight.get());
+  }
+
+  @Test
+  void noMoreInputsAreStartedAfterAFailure() {
+    var started = new AtomicInteger();
+    var inputs = IntStream.range(0, 1000).boxed().toList();
+
+    var e = assertThrows(
+      IllegalStateException.class,
+      () ->
+        BoundedParallelExecution.run(
+          executor,
+          TOKEN,
+          2,
+          inputs.iterator(),
+          i -> {
+            started.incrementAndGet();
+            return i;
+          },
+          i -> {
+            throw new IllegalStateException("Client gone");
+          }
+        )
+    );
+
+    assertEquals("Client gone", e.getMessage());
+    assertTrue(started.get() <= 3, "Started: " + started.get());
+  }
+
+  @Test
+  void exceptionInFunctionIsThrown() {
+    List<Integer> inputs = List.of(1, 2, 3);
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () ->
+        BoundedParallelExecution.run(
+          executor,
+          TOKEN,
+          2,
+          inputs.iterator(),
+          i -> {
+            if (i == 2) {
+              throw new IllegalArgumentException();
+            }
+            return i;
+          },
+          i -> {}
+        )
+    );
+  }
+
+  @Test
+  void inputsInProgressAreCancelledWhenInterrupted() throws InterruptedException {
+    var token = CancellationToken.create();
+    var started = new CountDownLatch(2);
+    var interrupted = new CountDownLatch(2);
+    var thrown = new AtomicReference<Throwable>();
+    var caller = new Thread(() -> {
+      try {
+        BoundedParallelExecution.run(
+          executor,
+          token,
+          2,
+          List.of(1, 2, 3).iterator(),
+          i -> {
+            started.countDown();
+            try {
+              Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+              interrupted.countDown();
+            }
+            return i;
+          },
+          i -> {}
+        );
+      } catch (RuntimeException e) {
+        thrown.set(e);
+      }
+    });
+    caller.start();
+    assertTrue(started.await(10, SECONDS));
+
+    caller.interrupt();
+    caller.join(10_000);
+
+    assertInstanceOf(OTPRequestTimeoutException.class, thrown.get());
+    assertTrue(token.isCancelled());
+    assertTrue(interrupted.await(10, SECONDS));
+  }
+}
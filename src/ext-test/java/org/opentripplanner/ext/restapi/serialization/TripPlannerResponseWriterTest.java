@@ -0,0 +1,100 @@
+package org.opentripplanner.ext.restapi.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newTime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ext.restapi.mapping.TripPlanMapper;
+import org.opentripplanner.ext.restapi.model.ApiTripPlan;
+import org.opentripplanner.ext.restapi.model.TripPlannerResponse;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.PlanTestConstants;
+import org.opentripplanner.model.plan.StreetLeg;
+import org.opentripplanner.model.plan.TripPlan;
+import org.opentripplanner.street.search.TraverseMode;
+
+class TripPlannerResponseWriterTest implements PlanTestConstants {
+
+  private static final ObjectMapper MAPPER = new JSONObjectMapperProvider()
+    .getContext(TripPlannerResponse.class);
+
+  private static final TripPlan TRIP_PLAN = new TripPlan(
+    A,
+    C,
+    Instant.parse("2020-02-02T11:00:00Z"),
+    List.of(walk(T11_00, T11_28), walk(T11_05, T11_30))
+  );
+
+  private final TripPlanMapper mapper = new TripPlanMapper(Locale.ENGLISH, true);
+
+  @Test
+  void streamedResponseIsTheSameAsTheSerializedResponse() throws IOException {
+    var expected = response(mapper.mapTripPlan(TRIP_PLAN));
+    var streamed = response(mapper.mapTripPlanForStreaming(TRIP_PLAN));
+
+    var out = new ByteArrayOutputStream();
+    new TripPlannerResponseWriter(streamed, false).write(out);
+
+    assertEquals(MAPPER.writeValueAsString(expected), out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void acceptsGzip() {
+    assertTrue(TripPlannerResponseWriter.acceptsGzip("gzip"));
+    assertTrue(TripPlannerResponseWriter.acceptsGzip("deflate, GZIP;q=0.5"));
+    assertTrue(TripPlannerResponseWriter.acceptsGzip("br, *"));
+    assertFalse(TripPlannerResponseWriter.acceptsGzip(null));
+    assertFalse(TripPlannerResponseWriter.acceptsGzip("identity"));
+    assertFalse(TripPlannerResponseWriter.acceptsGzip("gzip;q=0"));
+    assertFalse(TripPlannerResponseWriter.acceptsGzip("gzip; q=0.000, deflate"));
+    assertFalse(TripPlannerResponseWriter.acceptsGzip("*;q=0"));
+    assertFalse(TripPlannerResponseWriter.acceptsGzip("*, gzip;q=0"));
+  }
+
+  @Test
+  void gzipResponse() throws IOException {
+    var response = response(mapper.mapTripPlanForStreaming(TRIP_PLAN));
+
+    var out = new ByteArrayOutputStream();
+    new TripPlannerResponseWriter(response, true).write(out);
+
+    try (var in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertEquals(
+        MAPPER.writeValueAsString(response),
+        new String(in.readAllBytes(), StandardCharsets.UTF_8)
+      );
+    }
+  }
+
+  private static Itinerary walk(int startTime, int endTime) {
+    var leg = StreetLeg
+      .create()
+      .withMode(TraverseMode.WALK)
+      .withStartTime(newTime(startTime))
+      .withEndTime(newTime(endTime))
+      .withFrom(A)
+      .withTo(C)
+      .withDistanceMeters(1500)
+      .withGeometry(GeometryUtils.makeLineString(A.coordinate, C.coordinate))
+      .build();
+    return new Itinerary(List.of(leg));
+  }
+
+  private static TripPlannerResponse response(ApiTripPlan plan) {
+    var response = new TripPlannerResponse(null);
+    response.setPlan(plan);
+    return response;
+  }
+}
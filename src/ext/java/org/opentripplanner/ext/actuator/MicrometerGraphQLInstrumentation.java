@@ -18,11 +18,14 @@ import graphql.execution.instrumentation.parameters.InstrumentationValidationPar
 import graphql.language.Document;
 import graphql.schema.GraphQLTypeUtil;
 import graphql.validation.ValidationError;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import org.opentripplanner.apis.support.graphql.PreparsedDocumentCache;
 
 /**
  * Using this instrumentation we can precisely measure how queries and data fetchers are executed
@@ -31,6 +34,10 @@ import java.util.concurrent.CompletableFuture;
  * There are two types of metrics: one for query execution, and another for resolver timing. The
  * timers are registered to micrometer using graphql.timer.query and graphql.timer.resolver.
  * <p>
+ * The use of the {@link PreparsedDocumentCache} is counted by graphql.cache.document, tagged
+ * with hit or miss, and the parse and validation time saved by the cache is recorded using
+ * graphql.timer.cache.saved.
+ * <p>
  * ### See also: - https://github.com/symbaloo/graphql-micrometer/blob/main/src/main/kotlin/com/symbaloo/graphqlmicrometer/MicrometerInstrumentation.kt
  * - https://github.com/graphql-java-kickstart/graphql-spring-boot/blob/master/graphql-spring-boot-autoconfigure/src/main/java/graphql/kickstart/autoconfigure/web/servlet/metrics/MetricsInstrumentation.java
  * - https://github.com/apollographql/apollo-tracing - [TracingInstrumentation]
@@ -39,10 +46,13 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
 
   private static final String QUERY_TIME_METRIC_NAME = "graphql.timer.query";
   private static final String RESOLVER_TIME_METRIC_NAME = "graphql.timer.resolver";
+  private static final String DOCUMENT_CACHE_METRIC_NAME = "graphql.cache.document";
+  private static final String DOCUMENT_CACHE_SAVED_METRIC_NAME = "graphql.timer.cache.saved";
   private static final String OPERATION_NAME_TAG = "operationName";
   private static final String OPERATION = "operation";
   private static final String PARENT = "parent";
   private static final String FIELD = "field";
+  private static final String RESULT = "result";
   private static final String TIMER_DESCRIPTION =
     "Timer that records the time to fetch the data by Operation Name";
 
@@ -97,6 +107,17 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
     InstrumentationExecuteOperationParameters parameters,
     InstrumentationState state
   ) {
+    String operationName = ((TraceState) state).operationName;
+    Duration saved = parameters
+      .getExecutionContext()
+      .getGraphQLContext()
+      .get(PreparsedDocumentCache.PARSE_AND_VALIDATE_TIME_SAVED);
+    if (saved != null) {
+      buildDocumentCacheCounter(operationName, "hit").increment();
+      buildDocumentCacheSavedTimer(operationName).record(saved);
+    } else {
+      buildDocumentCacheCounter(operationName, "miss").increment();
+    }
     return noOp();
   }
 
@@ -161,6 +182,25 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
       .register(meterRegistry);
   }
 
+  private Counter buildDocumentCacheCounter(String operationName, String result) {
+    return Counter
+      .builder(DOCUMENT_CACHE_METRIC_NAME)
+      .description("Number of requests using a cached parsed and validated document")
+      .tag(OPERATION_NAME_TAG, operationName)
+      .tag(RESULT, result)
+      .tags(tags)
+      .register(meterRegistry);
+  }
+
+  private Timer buildDocumentCacheSavedTimer(String operationName) {
+    return Timer
+      .builder(DOCUMENT_CACHE_SAVED_METRIC_NAME)
+      .description("Parse and validation time saved by using a cached document")
+      .tag(OPERATION_NAME_TAG, operationName)
+      .tags(tags)
+      .register(meterRegistry);
+  }
+
   private record TraceState(String operationName) implements InstrumentationState {
     private TraceState(String operationName) {
       this.operationName = operationName == null ? "__UNKNOWN__" : operationName;
@@ -0,0 +1,39 @@
+package org.opentripplanner.ext.batchplan;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The body of a batch plan request. The preferences are shared by all the origin-destination
+ * pairs, each pair has its own origin, destination and optionally time.
+ *
+ * @param dateTime       The departure time, or arrival time if {@code arriveBy} is set, as an
+ *                       ISO-8601 date-time with offset. Used for the pairs without a time. The
+ *                       default is the current time.
+ * @param arriveBy       Search for the latest departures arriving before the time.
+ * @param modes          A comma-separated list of modes, like in the REST API.
+ * @param numItineraries The maximum number of itineraries returned for each pair.
+ * @param searchWindow   The length of the search window, as an ISO-8601 duration. The default is
+ *                       the dynamic search window.
+ * @param parallelism    The number of pairs routed at the same time, limited by the number of
+ *                       CPUs.
+ * @param pairs          The origin-destination pairs.
+ */
+public record BatchPlanRequest(
+  @Nullable String dateTime,
+  boolean arriveBy,
+  @Nullable String modes,
+  @Nullable Integer numItineraries,
+  @Nullable String searchWindow,
+  @Nullable Integer parallelism,
+  List<ODPair> pairs
+) {
+  /**
+   * @param id       Returned with the result, so the client can match the results, which are
+   *                 returned in the order they are ready.
+   * @param from     The origin, {@code latitude,longitude} or a stop id.
+   * @param to       The destination, {@code latitude,longitude} or a stop id.
+   * @param dateTime Overrides the time of the batch for this pair.
+   */
+  public record ODPair(String id, String from, String to, @Nullable String dateTime) {}
+}
@@ -0,0 +1,128 @@
+package org.opentripplanner.ext.batchplan;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.opentripplanner.api.parameter.QualifiedModeSet;
+import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.basic.MainAndSubMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Route a batch of origin-destination pairs with shared preferences. The results are streamed
+ * back as newline delimited JSON in the order they are ready, see {@link BatchPlanResultWriter}.
+ */
+@Path("/batch/plan")
+public class BatchPlanResource {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BatchPlanResource.class);
+
+  private static final int MAX_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The routing is CPU bound, so the pool is shared by all the batches and has one thread per
+   * CPU. Running many big batches at the same time does not use more threads.
+   */
+  private static final ExecutorService THREAD_POOL = Executors.newFixedThreadPool(
+    MAX_PARALLELISM,
+    OtpRequestThreadFactory.of("batch-plan-%d")
+  );
+
+  private final OtpServerRequestContext serverContext;
+
+  public BatchPlanResource(@Context OtpServerRequestContext serverContext) {
+    this.serverContext = serverContext;
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(BatchPlanResultWriter.MEDIA_TYPE)
+  public Response plan(BatchPlanRequest batch) {
+    if (batch == null || batch.pairs() == null) {
+      throw new BadRequestException("No origin-destination pairs found in body");
+    }
+    var router = new BatchRouter(serverContext, baseRequest(batch));
+    int parallelism = parallelism(batch);
+    var cancellationToken = serverContext.cancellationToken();
+
+    StreamingOutput output = outputStream -> {
+      try (var writer = new BatchPlanResultWriter(outputStream)) {
+        BoundedParallelExecution.run(
+          THREAD_POOL,
+          cancellationToken,
+          // Keep the threads busy while the results are written
+          2 * parallelism,
+          batch.pairs().iterator(),
+          pair -> {
+            try (var ignore = cancellationToken.bind()) {
+              return router.route(pair);
+            }
+          },
+          result -> {
+            try {
+              writer.write(result);
+            } catch (UncheckedIOException e) {
+              // The client is gone, stop the pairs in progress
+              cancellationToken.cancel();
+              LOG.info("Batch plan aborted, the client disconnected: {}", e.getMessage());
+              throw e;
+            }
+          }
+        );
+      }
+    };
+    return Response.ok(output, BatchPlanResultWriter.MEDIA_TYPE).build();
+  }
+
+  private RouteRequest baseRequest(BatchPlanRequest batch) {
+    var request = serverContext.defaultRouteRequest();
+    request.setArriveBy(batch.arriveBy());
+    try {
+      if (batch.dateTime() != null) {
+        request.setDateTime(OffsetDateTime.parse(batch.dateTime()).toInstant());
+      }
+      if (batch.searchWindow() != null) {
+        request.setSearchWindow(DurationUtils.duration(batch.searchWindow()));
+      }
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException(e.getMessage());
+    }
+    if (batch.numItineraries() != null) {
+      request.setNumItineraries(batch.numItineraries());
+    }
+    if (batch.modes() != null) {
+      var modeSet = new QualifiedModeSet(batch.modes());
+      request.journey().setModes(modeSet.getRequestModes());
+      var transitModes = modeSet.getTransitModes().stream().map(MainAndSubMode::new).toList();
+      var select = SelectRequest.of().withTransportModes(transitModes).build();
+      var filter = TransitFilterRequest.of().addSelect(select).build();
+      request.journey().transit().setFilters(List.of(filter));
+    }
+    return request;
+  }
+
+  private static int parallelism(BatchPlanRequest batch) {
+    if (batch.parallelism() == null) {
+      return MAX_PARALLELISM;
+    }
+    return Math.max(1, Math.min(batch.parallelism(), MAX_PARALLELISM));
+  }
+}
@@ -0,0 +1,18 @@
+package org.opentripplanner.ext.batchplan;
+
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.plan.Itinerary;
+
+/**
+ * The result of one origin-destination pair, either the itineraries or an error.
+ */
+record BatchPlanResult(String id, List<Itinerary> itineraries, @Nullable String error) {
+  static BatchPlanResult ok(String id, List<Itinerary> itineraries) {
+    return new BatchPlanResult(id, itineraries, null);
+  }
+
+  static BatchPlanResult error(String id, String error) {
+    return new BatchPlanResult(id, List.of(), error);
+  }
+}
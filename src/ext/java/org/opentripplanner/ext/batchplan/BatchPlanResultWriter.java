@@ -0,0 +1,111 @@
+package org.opentripplanner.ext.batchplan;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.Leg;
+import org.opentripplanner.model.plan.Place;
+import org.opentripplanner.model.plan.StreetLeg;
+import org.opentripplanner.model.plan.TransitLeg;
+
+/**
+ * Write the results as newline delimited JSON, one line for each origin-destination pair. Each
+ * line is flushed when written, so the client can process the results while the batch is running.
+ * The itineraries are summarized, the geometry and the walk steps are not included.
+ * <p>
+ * This class is NOT THREAD-SAFE.
+ */
+class BatchPlanResultWriter implements AutoCloseable {
+
+  static final String MEDIA_TYPE = "application/x-ndjson";
+
+  private final OutputStream out;
+  private final JsonGenerator generator;
+
+  BatchPlanResultWriter(OutputStream out) throws IOException {
+    this.out = out;
+    this.generator =
+      new JsonFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Separate the root values with a newline instead of a space
+    generator.setRootValueSeparator(null);
+  }
+
+  /**
+   * @throws UncheckedIOException if the client has disconnected.
+   */
+  void write(BatchPlanResult result) {
+    try {
+      generator.writeStartObject();
+      generator.writeStringField("id", result.id());
+      if (result.error() != null) {
+        generator.writeStringField("error", result.error());
+      } else {
+        generator.writeArrayFieldStart("itineraries");
+        for (Itinerary itinerary : result.itineraries()) {
+          writeItinerary(itinerary);
+        }
+        generator.writeEndArray();
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+      generator.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+    out.flush();
+  }
+
+  private void writeItinerary(Itinerary itinerary) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("startTime", itinerary.startTime().toOffsetDateTime().toString());
+    generator.writeStringField("endTime", itinerary.endTime().toOffsetDateTime().toString());
+    generator.writeNumberField("duration", itinerary.getDuration().toSeconds());
+    generator.writeNumberField("transfers", itinerary.getNumberOfTransfers());
+    generator.writeNumberField("generalizedCost", itinerary.getGeneralizedCost());
+    generator.writeNumberField(
+      "nonTransitDistance",
+      Math.round(itinerary.getNonTransitDistanceMeters())
+    );
+    generator.writeArrayFieldStart("legs");
+    for (Leg leg : itinerary.getLegs()) {
+      writeLeg(leg);
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+  }
+
+  private void writeLeg(Leg leg) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("mode", mode(leg));
+    generator.writeStringField("from", name(leg.getFrom()));
+    generator.writeStringField("to", name(leg.getTo()));
+    generator.writeStringField("startTime", leg.getStartTime().toOffsetDateTime().toString());
+    generator.writeStringField("endTime", leg.getEndTime().toOffsetDateTime().toString());
+    if (leg.getRoute() != null) {
+      generator.writeStringField("route", leg.getRoute().getName());
+    }
+    generator.writeEndObject();
+  }
+
+  private static String mode(Leg leg) {
+    if (leg instanceof TransitLeg transitLeg) {
+      return transitLeg.getMode().name();
+    }
+    if (leg instanceof StreetLeg streetLeg) {
+      return streetLeg.getMode().name();
+    }
+    return null;
+  }
+
+  private static String name(Place place) {
+    return place.name == null ? null : place.name.toString();
+  }
+}
@@ -0,0 +1,326 @@
+package org.opentripplanner.ext.batchplan;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import org.opentripplanner.api.common.LocationStringParser;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.routing.algorithm.mapping.RaptorPathToItineraryMapper;
+import org.opentripplanner.routing.algorithm.mapping.RouteRequestToFilterChainMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSearchDays;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressPenaltyDecorator;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgresses;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.DefaultAccessEgress;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.RaptorRequestMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.response.InputField;
+import org.opentripplanner.routing.api.response.RoutingError;
+import org.opentripplanner.routing.api.response.RoutingErrorCode;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+
+/**
+ * Route many origin-destination pairs with the same preferences. The work shared between the
+ * pairs is done once:
+ * <ul>
+ *   <li>The access and egress of each distinct origin and destination are cached. Locations
+ *   closer than about a meter share the same access or egress.</li>
+ *   <li>One {@link RaptorRoutingRequestTransitData} is created for each service date and used by
+ *   all the pairs on that date.</li>
+ * </ul>
+ * Only transit itineraries are returned, the direct street and flex searches are not done.
+ * <p>
+ * The access and egress are computed with the time of the first pair using the location, this is
+ * exact for walking and cycling.
+ * <p>
+ * This class is THREAD-SAFE, the pairs of a batch are routed in parallel.
+ */
+class BatchRouter {
+
+  /**
+   * The maximum number of cached access or egress lists. This keeps the memory bounded for big
+   * batches with many distinct locations.
+   */
+  private static final int ACCESS_EGRESS_CACHE_SIZE = 10_000;
+
+  /** About a meter. */
+  private static final double COORDINATE_RESOLUTION = 1e5;
+
+  private final OtpServerRequestContext serverContext;
+  private final RouteRequest baseRequest;
+  private final ZoneId zoneId;
+  private final TransitLayer transitLayer;
+  private final RaptorService<TripSchedule> raptorService;
+  private final Cache<LocationKey, Collection<DefaultAccessEgress>> accessCache;
+  private final Cache<LocationKey, Collection<DefaultAccessEgress>> egressCache;
+  private final Map<LocalDate, DateTransitData> transitDataByDate = new ConcurrentHashMap<>();
+
+  BatchRouter(OtpServerRequestContext serverContext, RouteRequest baseRequest) {
+    this.serverContext = serverContext;
+    this.baseRequest = baseRequest;
+    this.zoneId = serverContext.transitService().getTimeZone();
+    this.transitLayer =
+      baseRequest.preferences().transit().ignoreRealtimeUpdates()
+        ? serverContext.transitService().getTransitLayer()
+        : serverContext.transitService().getRealtimeTransitLayer();
+    this.raptorService = new RaptorService<>(serverContext.raptorConfig());
+    this.accessCache = CacheBuilder.newBuilder().maximumSize(ACCESS_EGRESS_CACHE_SIZE).build();
+    this.egressCache = CacheBuilder.newBuilder().maximumSize(ACCESS_EGRESS_CACHE_SIZE).build();
+  }
+
+  /**
+   * Route one pair. The routing errors are returned in the result, other exceptions are thrown.
+   */
+  BatchPlanResult route(BatchPlanRequest.ODPair pair) {
+    try {
+      return BatchPlanResult.ok(pair.id(), routeTransit(pair));
+    } catch (RoutingValidationException e) {
+      return BatchPlanResult.error(pair.id(), errorCodes(e.getRoutingErrors()));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return BatchPlanResult.error(pair.id(), "INVALID_PAIR: " + e.getMessage());
+    }
+  }
+
+  private List<Itinerary> routeTransit(BatchPlanRequest.ODPair pair) {
+    var request = baseRequest.clone();
+    request.setFrom(location(pair.from(), InputField.FROM_PLACE));
+    request.setTo(location(pair.to(), InputField.TO_PLACE));
+    if (pair.dateTime() != null) {
+      request.setDateTime(OffsetDateTime.parse(pair.dateTime()).toInstant());
+    }
+
+    if (!serverContext.transitService().transitFeedCovers(request.dateTime())) {
+      throw error(RoutingErrorCode.OUTSIDE_SERVICE_PERIOD, InputField.DATE_TIME);
+    }
+
+    var transitData = transitData(LocalDate.ofInstant(request.dateTime(), zoneId));
+    var accessEgresses = new AccessEgresses(
+      accessEgress(accessCache, request, AccessEgressType.ACCESS),
+      accessEgress(egressCache, request, AccessEgressType.EGRESS)
+    );
+
+    var raptorRequest = RaptorRequestMapper.mapRequest(
+      request,
+      transitData.transitSearchTimeZero(),
+      // The pairs are routed in parallel
+      false,
+      accessEgresses.getAccesses(),
+      accessEgresses.getEgresses(),
+      accessEgresses.calculateMaxAccessTimePenalty(),
+      serverContext.meterRegistry()
+    );
+    var response = raptorService.route(raptorRequest, transitData.requestTransitData());
+    if (response.noConnectionFound()) {
+      throw error(RoutingErrorCode.NO_TRANSIT_CONNECTION, null);
+    }
+
+    var itineraryMapper = new RaptorPathToItineraryMapper<>(
+      serverContext.graph(),
+      serverContext.transitService(),
+      transitLayer,
+      transitData.transitSearchTimeZero(),
+      request
+    );
+    List<Itinerary> itineraries = response
+      .paths()
+      .stream()
+      .map(itineraryMapper::createItinerary)
+      .filter(Objects::nonNull)
+      .toList();
+
+    var searchParams = response.requestUsed().searchParams();
+    var earliestDepartureTimeUsed = searchParams.isEarliestDepartureTimeSet()
+      ? transitData
+        .transitSearchTimeZero()
+        .plusSeconds(searchParams.earliestDepartureTime())
+        .toInstant()
+      : null;
+    var filterChain = RouteRequestToFilterChainMapper.createFilterChain(
+      request,
+      serverContext,
+      earliestDepartureTimeUsed,
+      Duration.ofSeconds(searchParams.searchWindowInSeconds()),
+      false,
+      it -> {}
+    );
+    return filterChain
+      .filter(itineraries)
+      .stream()
+      .filter(it -> !it.isFlaggedForDeletion())
+      .toList();
+  }
+
+  /**
+   * The transit data of a service date is created the first time it is needed. It covers all the
+   * times of the date, so it is created with the search days of the latest departure, or the
+   * earliest arrival if arriving by.
+   */
+  private DateTransitData transitData(LocalDate date) {
+    return transitDataByDate.computeIfAbsent(
+      date,
+      it -> {
+        var transitSearchTimeZero = ServiceDateUtils.asStartOfService(date, zoneId);
+        var worstCaseTime = baseRequest.arriveBy()
+          ? transitSearchTimeZero
+          : transitSearchTimeZero.plusDays(1).minusSeconds(1);
+        var additionalSearchDays = new AdditionalSearchDays(
+          baseRequest.arriveBy(),
+          worstCaseTime,
+          baseRequest.searchWindow(),
+          serverContext.raptorTuningParameters().dynamicSearchWindowCoefficients().maxWindow(),
+          baseRequest.preferences().system().maxJourneyDuration()
+        );
+        var requestTransitData = new RaptorRoutingRequestTransitData(
+          transitLayer,
+          transitSearchTimeZero,
+          additionalSearchDays.additionalSearchDaysInPast(),
+          additionalSearchDays.additionalSearchDaysInFuture(),
+          new RouteRequestTransitDataProviderFilter(baseRequest),
+          baseRequest
+        );
+        return new DateTransitData(transitSearchTimeZero, requestTransitData);
+      }
+    );
+  }
+
+  private Collection<DefaultAccessEgress> accessEgress(
+    Cache<LocationKey, Collection<DefaultAccessEgress>> cache,
+    RouteRequest request,
+    AccessEgressType type
+  ) {
+    var location = type.isAccess() ? request.from() : request.to();
+    try {
+      var result = cache.get(LocationKey.of(location), () -> findAccessEgress(request, type));
+      if (result.isEmpty()) {
+        throw error(
+          RoutingErrorCode.NO_STOPS_IN_RANGE,
+          type.isAccess() ? InputField.FROM_PLACE : InputField.TO_PLACE
+        );
+      }
+      return result;
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Find the access or egress of one end of the request, like the {@code TransitRouter}, but
+   * without the flex and ride-hailing access.
+   */
+  private Collection<DefaultAccessEgress> findAccessEgress(
+    RouteRequest request,
+    AccessEgressType type
+  ) {
+    var accessRequest = request.clone();
+    var streetRequest = type.isAccess()
+      ? accessRequest.journey().access()
+      : accessRequest.journey().egress();
+    var otherEnd = new GenericLocation(null, null);
+    if (type.isAccess()) {
+      accessRequest.setTo(otherEnd);
+      accessRequest.withPreferences(p -> {
+        p.withBike(b -> b.withRental(r -> r.withAllowArrivingInRentedVehicleAtDestination(false)));
+        p.withCar(c -> c.withRental(r -> r.withAllowArrivingInRentedVehicleAtDestination(false)));
+      });
+    } else {
+      accessRequest.setFrom(otherEnd);
+    }
+
+    var accessEgressPreferences = accessRequest.preferences().street().accessEgress();
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        accessRequest,
+        type.isAccess() ? streetRequest.mode() : StreetMode.NOT_SET,
+        type.isEgress() ? streetRequest.mode() : StreetMode.NOT_SET
+      )
+    ) {
+      var nearbyStops = AccessEgressRouter.streetSearch(
+        accessRequest,
+        temporaryVertices,
+        serverContext.transitService(),
+        streetRequest,
+        serverContext.dataOverlayContext(accessRequest),
+        type.isEgress(),
+        accessEgressPreferences.maxDuration().valueOf(streetRequest.mode()),
+        accessEgressPreferences.maxStopCount()
+      );
+      var results = AccessEgressMapper.mapNearbyStops(nearbyStops, type.isEgress());
+
+      var penaltyDecorator = new AccessEgressPenaltyDecorator(
+        accessRequest.journey().access().mode(),
+        accessRequest.journey().egress().mode(),
+        accessEgressPreferences.penalty()
+      );
+      return type.isAccess()
+        ? penaltyDecorator.decorateAccess(results)
+        : penaltyDecorator.decorateEgress(results);
+    }
+  }
+
+  private static GenericLocation location(String place, InputField field) {
+    var location = place == null ? null : LocationStringParser.fromOldStyleString(place);
+    if (location == null || !location.isSpecified()) {
+      throw error(RoutingErrorCode.LOCATION_NOT_FOUND, field);
+    }
+    return location;
+  }
+
+  private static RoutingValidationException error(RoutingErrorCode code, InputField field) {
+    return new RoutingValidationException(List.of(new RoutingError(code, field)));
+  }
+
+  private static String errorCodes(List<RoutingError> errors) {
+    return String.join(",", errors.stream().map(it -> it.code.name()).toList());
+  }
+
+  private record DateTransitData(
+    ZonedDateTime transitSearchTimeZero,
+    RaptorRoutingRequestTransitData requestTransitData
+  ) {}
+
+  /**
+   * Stop locations are matched by id, coordinates are snapped to a grid of about a meter.
+   */
+  record LocationKey(String stopId, long lat, long lng) {
+    static LocationKey of(GenericLocation location) {
+      if (location.getCoordinate() == null) {
+        return new LocationKey(String.valueOf(location.stopId), 0, 0);
+      }
+      return new LocationKey(
+        null,
+        Math.round(location.lat * COORDINATE_RESOLUTION),
+        Math.round(location.lng * COORDINATE_RESOLUTION)
+      );
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package org.opentripplanner.ext.batchplan;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.opentripplanner.framework.application.CancellationToken;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+
+/**
+ * Run a function for each input on an executor, and pass the results to a consumer on the calling
+ * thread in the order they are ready. At most {@code maxInFlight} inputs are processed or waiting
+ * to be consumed at any time, so the memory used does not grow with the number of inputs.
+ */
+class BoundedParallelExecution {
+
+  private BoundedParallelExecution() {}
+
+  /**
+   * If the function or the consumer throws an exception, no more inputs are started and the
+   * exception is thrown when the inputs in progress are done. If the calling thread is
+   * interrupted, the {@code cancellationToken} is cancelled and the inputs in progress are
+   * interrupted, and an {@link OTPRequestTimeoutException} is thrown.
+   */
+  static <T, R> void run(
+    Executor executor,
+    CancellationToken cancellationToken,
+    int maxInFlight,
+    Iterator<T> inputs,
+    Function<T, R> function,
+    Consumer<R> consumer
+  ) {
+    var completionService = new ExecutorCompletionService<R>(executor);
+    var inProgress = new HashSet<Future<R>>();
+    int inFlight = 0;
+    RuntimeException failure = null;
+    while (true) {
+      while (failure == null && inFlight < maxInFlight && inputs.hasNext()) {
+        T input = inputs.next();
+        inProgress.add(completionService.submit(() -> function.apply(input)));
+        ++inFlight;
+      }
+      if (inFlight == 0) {
+        break;
+      }
+      try {
+        var future = completionService.take();
+        inProgress.remove(future);
+        --inFlight;
+        R result = future.get();
+        if (failure == null) {
+          consumer.accept(result);
+        }
+      } catch (InterruptedException e) {
+        // Nobody is waiting for the result anymore, stop the inputs in progress
+        cancellationToken.cancel();
+        inProgress.forEach(it -> it.cancel(true));
+        Thread.currentThread().interrupt();
+        throw new OTPRequestTimeoutException();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure =
+            e.getCause() instanceof RuntimeException cause
+              ? cause
+              : new RuntimeException(e.getCause());
+        }
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
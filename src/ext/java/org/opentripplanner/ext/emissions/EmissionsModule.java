@@ -1,13 +1,17 @@
 package org.opentripplanner.ext.emissions;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.EMISSIONS;
+
 import dagger.Module;
 import jakarta.inject.Inject;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.opentripplanner.graph_builder.ConfiguredDataSource;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.gtfs.graphbuilder.GtfsFeedParameters;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -39,6 +43,16 @@ public class EmissionsModule implements GraphBuilderModule {
     this.issueStore = issueStore;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(EMISSIONS);
+  }
+
   public void buildGraph() {
     if (config.emissions != null) {
       LOG.info("Start emissions building");
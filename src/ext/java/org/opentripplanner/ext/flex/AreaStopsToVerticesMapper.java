@@ -1,14 +1,20 @@
 package org.opentripplanner.ext.flex;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STOP_LINKS;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STREET_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import jakarta.inject.Inject;
+import java.util.Set;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import org.locationtech.jts.geom.Point;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.StreetIndex;
 import org.opentripplanner.street.model.vertex.StreetVertex;
@@ -34,6 +40,16 @@ public class AreaStopsToVerticesMapper implements GraphBuilderModule {
     this.transitModel = transitModel;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of(STREET_GRAPH, TRANSIT_MODEL);
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(STOP_LINKS);
+  }
+
   @Override
   @SuppressWarnings("Convert2MethodRef")
   public void buildGraph() {
@@ -1,5 +1,6 @@
 package org.opentripplanner.ext.restapi.mapping;
 
+import java.util.AbstractList;
 import java.util.Collection;
 import java.util.GregorianCalendar;
 import java.util.List;
@@ -25,6 +26,28 @@ public class ItineraryMapper {
     return domain.stream().map(this::mapItinerary).collect(Collectors.toList());
   }
 
+  /**
+   * Return a view of the itineraries where each itinerary is mapped when it is read. Use this
+   * when the result is serialized once, so only one mapped itinerary is kept in memory at the
+   * time. Each read maps the itinerary again.
+   */
+  public List<ApiItinerary> mapItinerariesOnDemand(List<Itinerary> domain) {
+    if (domain == null) {
+      return null;
+    }
+    return new AbstractList<>() {
+      @Override
+      public ApiItinerary get(int index) {
+        return mapItinerary(domain.get(index));
+      }
+
+      @Override
+      public int size() {
+        return domain.size();
+      }
+    };
+  }
+
   public ApiItinerary mapItinerary(Itinerary domain) {
     if (domain == null) {
       return null;
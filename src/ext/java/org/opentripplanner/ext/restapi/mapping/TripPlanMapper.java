@@ -1,6 +1,7 @@
 package org.opentripplanner.ext.restapi.mapping;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import org.opentripplanner.ext.restapi.model.ApiTripPlan;
 import org.opentripplanner.model.plan.TripPlan;
@@ -16,6 +17,26 @@ public class TripPlanMapper {
   }
 
   public ApiTripPlan mapTripPlan(TripPlan domain) {
+    ApiTripPlan api = mapTripPlanWithoutItineraries(domain);
+    if (api != null) {
+      api.itineraries = itineraryMapper.mapItineraries(domain.itineraries);
+    }
+    return api;
+  }
+
+  /**
+   * Same as {@link #mapTripPlan(TripPlan)}, but the itineraries are mapped one at a time when they
+   * are serialized, see {@link ItineraryMapper#mapItinerariesOnDemand(List)}.
+   */
+  public ApiTripPlan mapTripPlanForStreaming(TripPlan domain) {
+    ApiTripPlan api = mapTripPlanWithoutItineraries(domain);
+    if (api != null) {
+      api.itineraries = itineraryMapper.mapItinerariesOnDemand(domain.itineraries);
+    }
+    return api;
+  }
+
+  private ApiTripPlan mapTripPlanWithoutItineraries(TripPlan domain) {
     if (domain == null) {
       return null;
     }
@@ -24,7 +45,6 @@ public class TripPlanMapper {
     // The origin/destination do not have arrival/departure times; Hence {@code null} is used.
     api.from = placeMapper.mapPlace(domain.from, null, null, null, null);
     api.to = placeMapper.mapPlace(domain.to, null, null, null, null);
-    api.itineraries = itineraryMapper.mapItineraries(domain.itineraries);
     return api;
   }
 }
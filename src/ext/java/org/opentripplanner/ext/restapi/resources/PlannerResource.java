@@ -5,6 +5,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
@@ -16,6 +17,7 @@ import org.opentripplanner.ext.restapi.mapping.TripPlanMapper;
 import org.opentripplanner.ext.restapi.mapping.TripSearchMetadataMapper;
 import org.opentripplanner.ext.restapi.model.ElevationMetadata;
 import org.opentripplanner.ext.restapi.model.TripPlannerResponse;
+import org.opentripplanner.ext.restapi.serialization.TripPlannerResponseWriter;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.response.RoutingResponse;
@@ -73,7 +75,8 @@ public class PlannerResource extends RoutingResource {
       // Map to API
       // TODO VIA (Leonard) - we should store the default showIntermediateStops somewhere
       TripPlanMapper tripPlanMapper = new TripPlanMapper(request.locale(), showIntermediateStops);
-      response.setPlan(tripPlanMapper.mapTripPlan(res.getTripPlan()));
+      // The itineraries are mapped while the response is written, see TripPlannerResponseWriter
+      response.setPlan(tripPlanMapper.mapTripPlanForStreaming(res.getTripPlan()));
       if (res.getPreviousPageCursor() != null) {
         response.setPreviousPageCursor(res.getPreviousPageCursor().encode());
       }
@@ -110,6 +113,26 @@ public class PlannerResource extends RoutingResource {
       LOG.error("System error", e);
       response.setError(new PlannerError(Message.SYSTEM_ERROR));
     }
-    return Response.ok().entity(response).build();
+
+    boolean gzip = acceptsGzip(grizzlyRequest);
+    var builder = Response.ok(
+      new TripPlannerResponseWriter(response, gzip),
+      MediaType.APPLICATION_JSON
+    );
+    if (gzip) {
+      // Grizzly does not compress the response again when the content encoding is set. The Vary
+      // header is set for all responses by the VaryRequestFilter.
+      builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return builder.build();
+  }
+
+  private static boolean acceptsGzip(Request grizzlyRequest) {
+    if (grizzlyRequest == null) {
+      return false;
+    }
+    return TripPlannerResponseWriter.acceptsGzip(
+      grizzlyRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)
+    );
   }
 }
@@ -0,0 +1,105 @@
+package org.opentripplanner.ext.restapi.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import org.opentripplanner.ext.restapi.mapping.TripPlanMapper;
+import org.opentripplanner.ext.restapi.model.TripPlannerResponse;
+import org.opentripplanner.model.plan.TripPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write the {@link TripPlannerResponse} directly to the HTTP output stream with a Jackson
+ * generator. Together with {@link TripPlanMapper#mapTripPlanForStreaming(TripPlan)} the
+ * itineraries are mapped and written one at a time, so neither the API model of all the
+ * itineraries nor the serialized response body is kept in memory.
+ * <p>
+ * The JSON is the same as when Jersey serializes the response, the same {@link ObjectMapper}
+ * configuration is used.
+ */
+public class TripPlannerResponseWriter implements StreamingOutput {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TripPlannerResponseWriter.class);
+
+  private static final ObjectMapper MAPPER = new JSONObjectMapperProvider()
+    .getContext(TripPlannerResponse.class);
+
+  private final TripPlannerResponse response;
+  private final boolean gzip;
+
+  /**
+   * @param gzip compress the response, the caller must set the {@code Content-Encoding} header.
+   */
+  public TripPlannerResponseWriter(TripPlannerResponse response, boolean gzip) {
+    this.response = response;
+    this.gzip = gzip;
+  }
+
+  /**
+   * Return {@code true} if the given {@code Accept-Encoding} header value allows a gzip
+   * compressed response. A coding with the quality value 0 is not acceptable, and gzip is also
+   * accepted through the {@code *} wildcard if it is not listed itself.
+   */
+  public static boolean acceptsGzip(@Nullable String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Boolean wildcard = null;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parts = element.split(";");
+      String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      boolean acceptable = quality(parts) > 0;
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        return acceptable;
+      }
+      if (coding.equals("*")) {
+        wildcard = acceptable;
+      }
+    }
+    return wildcard != null && wildcard;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    OutputStream out = gzip ? new GZIPOutputStream(output) : output;
+    try (
+      JsonGenerator generator = MAPPER
+        .getFactory()
+        .createGenerator(out)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+    ) {
+      MAPPER.writeValue(generator, response);
+    } catch (RuntimeException e) {
+      // The status code is already sent, so the client only gets a truncated response
+      LOG.error("Failed to write the trip plan response", e);
+      throw e;
+    }
+    if (out instanceof GZIPOutputStream gzipOut) {
+      gzipOut.finish();
+    }
+    out.flush();
+  }
+
+  /**
+   * The quality value of a coding, 1 if not given. An invalid value is treated as 0.
+   */
+  private static double quality(String[] codingParts) {
+    for (int i = 1; i < codingParts.length; i++) {
+      String param = codingParts[i].trim().toLowerCase(Locale.ROOT);
+      if (param.startsWith("q=")) {
+        try {
+          return Double.parseDouble(param.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
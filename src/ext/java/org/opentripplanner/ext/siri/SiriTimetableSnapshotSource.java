@@ -12,6 +12,8 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.time.CountdownTimer;
 import org.opentripplanner.model.Timetable;
@@ -32,6 +34,7 @@ import org.opentripplanner.updater.spi.DataValidationExceptionMapper;
 import org.opentripplanner.updater.spi.UpdateError;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.UpdateSuccess;
+import org.opentripplanner.updater.trip.TimetableSnapshotCommitSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
@@ -84,6 +87,8 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
    */
   private volatile TimetableSnapshot snapshot = null;
 
+  private final TimetableSnapshotCommitSupport commitSupport;
+
   /** Should expired real-time data be purged from the graph. */
   private final boolean purgeExpiredData;
 
@@ -100,6 +105,8 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     this.purgeExpiredData = parameters.purgeExpiredData();
     this.tripPatternCache =
       new SiriTripPatternCache(tripPatternIdGenerator, transitService::getPatternForTrip);
+    this.commitSupport =
+      new TimetableSnapshotCommitSupport(buffer, bufferLock, () -> commitTimetableSnapshot(true));
 
     transitModel.initTimetableSnapshotProvider(this);
 
@@ -107,6 +114,20 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     commitTimetableSnapshot(true);
   }
 
+  /**
+   * @see TimetableSnapshotCommitSupport#addCommitListener(Consumer)
+   */
+  public void addCommitListener(Consumer<TimetableSnapshot> listener) {
+    commitSupport.addCommitListener(listener);
+  }
+
+  /**
+   * @see TimetableSnapshotCommitSupport#restore(ToIntFunction)
+   */
+  public int restore(ToIntFunction<TimetableSnapshot> restoreFunction) {
+    return commitSupport.restore(restoreFunction);
+  }
+
   /**
    * @return an up-to-date snapshot mapping TripPatterns to Timetables. This snapshot and the
    * timetable objects it references are guaranteed to never change, so the requesting thread is
@@ -252,6 +273,7 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
       if (force || buffer.isDirty()) {
         LOG.debug("Committing {}", buffer);
         snapshot = buffer.commit(transitLayerUpdater, force);
+        commitSupport.notifyCommitListeners(snapshot);
 
         // We only reset the timer when the snapshot is updated. This will cause the first
         // update to be committed after a silent period. This should not have any effect in
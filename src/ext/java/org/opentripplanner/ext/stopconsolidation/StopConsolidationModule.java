@@ -1,15 +1,19 @@
 package org.opentripplanner.ext.stopconsolidation;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.stopconsolidation.internal.DefaultStopConsolidationService;
 import org.opentripplanner.ext.stopconsolidation.model.ConsolidatedStopGroup;
 import org.opentripplanner.ext.stopconsolidation.model.StopReplacement;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.service.TransitModel;
 import org.slf4j.Logger;
@@ -42,6 +46,16 @@ public class StopConsolidationModule implements GraphBuilderModule {
     this.groups = Objects.requireNonNull(groups);
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(TRANSIT_MODEL);
+  }
+
   @Override
   public void buildGraph() {
     repository.addGroups(groups);
@@ -0,0 +1,273 @@
+package org.opentripplanner.apis.gtfs;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * The data loaders of the GTFS GraphQL API. A new registry is created for each request, so the
+ * data loaded is cached for the duration of the request only.
+ * <p>
+ * Data fetchers of lists, like the departures of 50 stops on a departure board, are called once
+ * for each element of the list. The data loaders collect the keys requested on one level of the
+ * query, and load all of them in one batch when the level is dispatched. This way, timetables
+ * shared by several stops are resolved once, and the alerts are scanned once.
+ */
+public class GraphQLDataLoaders {
+
+  private static final String STOP_TIMES_FOR_STOP = "stopTimesForStop";
+  private static final String PATTERNS_FOR_STOP = "patternsForStop";
+  private static final String TRIP_ALERTS = "tripAlerts";
+  private static final String STOP_ENTITY_ALERTS = "stopEntityAlerts";
+  private static final String REALTIME_VEHICLES_FOR_PATTERN = "realtimeVehiclesForPattern";
+
+  public static DataLoaderRegistry createRegistry(GraphQLRequestContext context) {
+    return DataLoaderRegistry
+      .newRegistry()
+      .register(STOP_TIMES_FOR_STOP, DataLoaderFactory.newDataLoader(stopTimesForStop(context)))
+      .register(
+        PATTERNS_FOR_STOP,
+        DataLoaderFactory.newDataLoader(
+          list((StopLocation stop) -> context.transitService().getPatternsForStop(stop, true))
+        )
+      )
+      .register(
+        TRIP_ALERTS,
+        DataLoaderFactory.newDataLoader(
+          list((FeedScopedId trip) ->
+            context.transitService().getTransitAlertService().getTripAlerts(trip, null)
+          )
+        )
+      )
+      .register(STOP_ENTITY_ALERTS, DataLoaderFactory.newDataLoader(stopEntityAlerts(context)))
+      .register(
+        REALTIME_VEHICLES_FOR_PATTERN,
+        DataLoaderFactory.newDataLoader(
+          list((TripPattern pattern) ->
+            context.realTimeVehicleService().getRealtimeVehicles(pattern)
+          )
+        )
+      )
+      .build();
+  }
+
+  /**
+   * graphql-java accepts a {@link CompletableFuture} as the result of any data fetcher, but the
+   * generated data fetcher interfaces are declared with the type of the resolved value.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> DataFetcher<T> async(
+    DataFetcher<? extends CompletableFuture<? extends T>> dataFetcher
+  ) {
+    return (DataFetcher<T>) (DataFetcher<?>) dataFetcher;
+  }
+
+  /**
+   * Load the stop times of the given stops, and return them as one list.
+   */
+  public static CompletableFuture<List<StopTimesInPattern>> stopTimesForStops(
+    DataFetchingEnvironment environment,
+    Collection<? extends StopLocation> stops,
+    StopTimesArgs args
+  ) {
+    DataLoader<StopTimesKey, List<StopTimesInPattern>> loader = environment.getDataLoader(
+      STOP_TIMES_FOR_STOP
+    );
+    return loader
+      .loadMany(stops.stream().map(stop -> new StopTimesKey(stop, args)).toList())
+      .thenApply(result -> result.stream().flatMap(List::stream).toList());
+  }
+
+  public static CompletableFuture<Collection<TripPattern>> patternsForStop(
+    DataFetchingEnvironment environment,
+    StopLocation stop
+  ) {
+    DataLoader<StopLocation, Collection<TripPattern>> loader = environment.getDataLoader(
+      PATTERNS_FOR_STOP
+    );
+    return loader.load(stop);
+  }
+
+  /**
+   * Load the alerts of the given trips on any service date.
+   */
+  public static CompletableFuture<Map<FeedScopedId, Collection<TransitAlert>>> tripAlerts(
+    DataFetchingEnvironment environment,
+    List<FeedScopedId> trips
+  ) {
+    DataLoader<FeedScopedId, Collection<TransitAlert>> loader = environment.getDataLoader(
+      TRIP_ALERTS
+    );
+    return loader
+      .loadMany(trips)
+      .thenApply(alerts -> {
+        Map<FeedScopedId, Collection<TransitAlert>> result = new LinkedHashMap<>();
+        for (int i = 0; i < trips.size(); i++) {
+          result.put(trips.get(i), alerts.get(i));
+        }
+        return result;
+      });
+  }
+
+  /**
+   * Load the alerts on the stop for a route or for a trip.
+   */
+  public static CompletableFuture<List<TransitAlert>> stopEntityAlerts(
+    DataFetchingEnvironment environment,
+    FeedScopedId stop,
+    boolean stopOnRoutes,
+    boolean stopOnTrips
+  ) {
+    DataLoader<StopEntityAlertsKey, List<TransitAlert>> loader = environment.getDataLoader(
+      STOP_ENTITY_ALERTS
+    );
+    return loader.load(new StopEntityAlertsKey(stop, stopOnRoutes, stopOnTrips));
+  }
+
+  public static CompletableFuture<List<RealtimeVehicle>> realtimeVehicles(
+    DataFetchingEnvironment environment,
+    TripPattern pattern
+  ) {
+    DataLoader<TripPattern, List<RealtimeVehicle>> loader = environment.getDataLoader(
+      REALTIME_VEHICLES_FOR_PATTERN
+    );
+    return loader.load(pattern);
+  }
+
+  /**
+   * Keys with the same arguments are loaded together, and the current time is resolved once for
+   * the whole batch.
+   */
+  private static BatchLoader<StopTimesKey, List<StopTimesInPattern>> stopTimesForStop(
+    GraphQLRequestContext context
+  ) {
+    return keys -> {
+      Instant now = Instant.now();
+      Map<StopTimesArgs, List<StopLocation>> stopsByArgs = new LinkedHashMap<>();
+      for (StopTimesKey key : keys) {
+        stopsByArgs.computeIfAbsent(key.args(), args -> new ArrayList<>()).add(key.stop());
+      }
+      Map<StopTimesKey, List<StopTimesInPattern>> result = new HashMap<>();
+      stopsByArgs.forEach((args, stops) -> {
+        var stopTimes = context
+          .transitService()
+          .stopTimesForStops(
+            stops,
+            args.startTime() == 0 ? now : Instant.ofEpochSecond(args.startTime()),
+            Duration.ofSeconds(args.timeRange()),
+            args.numberOfDepartures(),
+            args.arrivalDeparture(),
+            args.includeCancelledTrips()
+          );
+        for (int i = 0; i < stops.size(); i++) {
+          result.put(new StopTimesKey(stops.get(i), args), stopTimes.get(i));
+        }
+      });
+      return CompletableFuture.completedFuture(keys.stream().map(result::get).toList());
+    };
+  }
+
+  /**
+   * The alerts are scanned once for all the stops in the batch.
+   */
+  private static BatchLoader<StopEntityAlertsKey, List<TransitAlert>> stopEntityAlerts(
+    GraphQLRequestContext context
+  ) {
+    return keys -> {
+      // The alerts of each stop, in the order of all alerts, with the kinds of entities matched
+      Map<FeedScopedId, Map<TransitAlert, EnumSet<StopEntity>>> alertsByStop = new HashMap<>();
+      for (TransitAlert alert : context.transitService().getTransitAlertService().getAllAlerts()) {
+        for (EntitySelector entity : alert.entities()) {
+          if (entity instanceof EntitySelector.StopAndRoute stopAndRoute) {
+            add(alertsByStop, stopAndRoute.stopId(), alert, StopEntity.ROUTE);
+          } else if (entity instanceof EntitySelector.StopAndTrip stopAndTrip) {
+            add(alertsByStop, stopAndTrip.stopId(), alert, StopEntity.TRIP);
+          }
+        }
+      }
+      List<List<TransitAlert>> result = new ArrayList<>(keys.size());
+      for (StopEntityAlertsKey key : keys) {
+        result.add(
+          alertsByStop
+            .getOrDefault(key.stop(), Map.of())
+            .entrySet()
+            .stream()
+            .filter(e ->
+              (key.stopOnRoutes() && e.getValue().contains(StopEntity.ROUTE)) ||
+              (key.stopOnTrips() && e.getValue().contains(StopEntity.TRIP))
+            )
+            .map(Map.Entry::getKey)
+            .toList()
+        );
+      }
+      return CompletableFuture.completedFuture(result);
+    };
+  }
+
+  private static void add(
+    Map<FeedScopedId, Map<TransitAlert, EnumSet<StopEntity>>> alertsByStop,
+    FeedScopedId stop,
+    TransitAlert alert,
+    StopEntity entity
+  ) {
+    alertsByStop
+      .computeIfAbsent(stop, id -> new LinkedHashMap<>())
+      .computeIfAbsent(alert, a -> EnumSet.noneOf(StopEntity.class))
+      .add(entity);
+  }
+
+  /**
+   * A batch loader for lookups which are not cheaper in batches, the data loader still makes
+   * sure each key is only looked up once in a request.
+   */
+  private static <K, V> BatchLoader<K, V> list(Function<K, V> lookup) {
+    return keys -> CompletableFuture.completedFuture(keys.stream().map(lookup).toList());
+  }
+
+  /**
+   * The arguments of the stop times fields of a stop, {@code startTime} is in epoch seconds with
+   * 0 meaning now.
+   */
+  public record StopTimesArgs(
+    long startTime,
+    int timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {}
+
+  private record StopTimesKey(StopLocation stop, StopTimesArgs args) {}
+
+  private enum StopEntity {
+    ROUTE,
+    TRIP,
+  }
+
+  private record StopEntityAlertsKey(
+    FeedScopedId stop,
+    boolean stopOnRoutes,
+    boolean stopOnTrips
+  ) {}
+}
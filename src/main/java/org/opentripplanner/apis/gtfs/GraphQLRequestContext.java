@@ -1,6 +1,7 @@
 package org.opentripplanner.apis.gtfs;
 
 import javax.annotation.Nonnull;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.fares.FareService;
@@ -19,7 +20,8 @@ public record GraphQLRequestContext(
   VehicleRentalService vehicleRentalService,
   RealtimeVehicleService realTimeVehicleService,
   GraphFinder graphFinder,
-  RouteRequest defaultRouteRequest
+  RouteRequest defaultRouteRequest,
+  CancellationToken cancellationToken
 ) {
   public static GraphQLRequestContext ofServerContext(OtpServerRequestContext context) {
     return new GraphQLRequestContext(
@@ -30,7 +32,8 @@ public record GraphQLRequestContext(
       context.vehicleRentalService(),
       context.realtimeVehicleService(),
       context.graphFinder(),
-      context.defaultRouteRequest()
+      context.defaultRouteRequest(),
+      context.cancellationToken()
     );
   }
 
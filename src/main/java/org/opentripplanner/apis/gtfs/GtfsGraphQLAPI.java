@@ -2,6 +2,7 @@ package org.opentripplanner.apis.gtfs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import graphql.ExecutionResult;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.HeaderParam;
@@ -21,6 +22,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import org.opentripplanner.apis.support.graphql.PreparsedDocumentCache;
 import org.opentripplanner.framework.graphql.GraphQLResponseSerializer;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
@@ -55,7 +57,7 @@ public class GtfsGraphQLAPI {
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    if (queryParameters == null) {
       LOG.debug("No query found in body");
       return Response
         .status(Response.Status.BAD_REQUEST)
@@ -68,7 +70,29 @@ public class GtfsGraphQLAPI {
       ? headers.getAcceptableLanguages().get(0)
       : serverContext.defaultLocale();
 
+    Map<String, Object> extensions;
+    try {
+      extensions = parseExtensions(queryParameters.get("extensions"));
+    } catch (IOException e) {
+      return Response
+        .status(Response.Status.BAD_REQUEST)
+        .type(MediaType.TEXT_PLAIN_TYPE)
+        .entity("Extensions must be a valid json object")
+        .build();
+    }
+
     String query = (String) queryParameters.get("query");
+    if (query == null) {
+      if (PreparsedDocumentCache.persistedQueryHash(extensions) == null) {
+        LOG.debug("No query found in body");
+        return Response
+          .status(Response.Status.BAD_REQUEST)
+          .type(MediaType.TEXT_PLAIN_TYPE)
+          .entity("No query found in body")
+          .build();
+      }
+      query = PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+    }
     Object queryVariables = queryParameters.getOrDefault("variables", null);
     String operationName = (String) queryParameters.getOrDefault("operationName", null);
     Map<String, Object> variables;
@@ -91,6 +115,7 @@ public class GtfsGraphQLAPI {
     return GtfsGraphQLIndex.getGraphQLResponse(
       query,
       variables,
+      extensions,
       operationName,
       maxResolves,
       timeout,
@@ -114,6 +139,7 @@ public class GtfsGraphQLAPI {
       query,
       null,
       null,
+      null,
       maxResolves,
       timeout,
       locale,
@@ -155,16 +181,31 @@ public class GtfsGraphQLAPI {
         variables = null;
       }
       String operationName = (String) query.getOrDefault("operationName", null);
+      Map<String, Object> extensions;
+      try {
+        extensions = parseExtensions(query.get("extensions"));
+      } catch (IOException e) {
+        return Response
+          .status(Response.Status.BAD_REQUEST)
+          .type(MediaType.TEXT_PLAIN_TYPE)
+          .entity("Extensions must be a valid json object")
+          .build();
+      }
+      String queryText = query.get("query") instanceof String text
+        ? text
+        : PersistedQuerySupport.PERSISTED_QUERY_MARKER;
 
       futures.add(() ->
         GtfsGraphQLIndex.getGraphQLExecutionResult(
-          (String) query.get("query"),
+          queryText,
           variables,
+          extensions,
           operationName,
           maxResolves,
           timeout,
           locale,
-          GraphQLRequestContext.ofServerContext(serverContext)
+          // Each query has its own token, a query timing out must not cancel the others
+          GraphQLRequestContext.ofServerContext(serverContext.withNewCancellationToken())
         )
       );
     }
@@ -180,4 +221,16 @@ public class GtfsGraphQLAPI {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * The extensions are used to send the hash of automatic persisted queries.
+   */
+  private Map<String, Object> parseExtensions(Object extensions) throws IOException {
+    if (extensions instanceof Map) {
+      return (Map) extensions;
+    } else if (extensions instanceof String && !((String) extensions).isEmpty()) {
+      return deserializer.readValue((String) extensions, Map.class);
+    }
+    return null;
+  }
 }
@@ -23,7 +23,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.opentripplanner.apis.gtfs.datafetchers.AgencyImpl;
@@ -84,9 +83,10 @@ import org.opentripplanner.apis.gtfs.datafetchers.serviceTimeRangeImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.stepImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.stopAtDistanceImpl;
 import org.opentripplanner.apis.gtfs.model.StopPosition;
+import org.opentripplanner.apis.support.graphql.PreparsedDocumentCache;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.framework.application.OTPFeature;
-import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutors;
 import org.opentripplanner.framework.graphql.GraphQLResponseSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,9 +97,7 @@ class GtfsGraphQLIndex {
 
   private static final GraphQLSchema indexSchema = buildSchema();
 
-  static final ExecutorService threadPool = Executors.newCachedThreadPool(
-    OtpRequestThreadFactory.of("gtfs-api-%d")
-  );
+  static final ExecutorService threadPool = OtpRequestExecutors.newCachedThreadPool("gtfs-api-%d");
 
   protected static GraphQLSchema buildSchema() {
     try {
@@ -185,6 +183,7 @@ class GtfsGraphQLIndex {
   static ExecutionResult getGraphQLExecutionResult(
     String query,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     int maxResolves,
     int timeoutMs,
@@ -201,7 +200,11 @@ class GtfsGraphQLIndex {
         );
     }
 
-    GraphQL graphQL = GraphQL.newGraphQL(indexSchema).instrumentation(instrumentation).build();
+    GraphQL graphQL = GraphQL
+      .newGraphQL(indexSchema)
+      .instrumentation(instrumentation)
+      .preparsedDocumentProvider(PreparsedDocumentCache.shared().forSchema(indexSchema))
+      .build();
 
     if (variables == null) {
       variables = new HashMap<>();
@@ -212,12 +215,18 @@ class GtfsGraphQLIndex {
       .query(query)
       .operationName(operationName)
       .context(requestContext)
+      .dataLoaderRegistry(GraphQLDataLoaders.createRegistry(requestContext))
       .variables(variables)
+      .extensions(extensions == null ? Map.of() : extensions)
       .locale(locale)
       .build();
     try {
       return graphQL.executeAsync(executionInput).get(timeoutMs, TimeUnit.MILLISECONDS);
-    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+    } catch (InterruptedException | TimeoutException e) {
+      // Nobody is waiting for the result anymore, stop the routing running in the background
+      requestContext.cancellationToken().cancel();
+      return new AbortExecutionException(e).toExecutionResult();
+    } catch (ExecutionException e) {
       return new AbortExecutionException(e).toExecutionResult();
     }
   }
@@ -225,6 +234,7 @@ class GtfsGraphQLIndex {
   static Response getGraphQLResponse(
     String query,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     int maxResolves,
     int timeoutMs,
@@ -234,6 +244,7 @@ class GtfsGraphQLIndex {
     ExecutionResult executionResult = getGraphQLExecutionResult(
       query,
       variables,
+      extensions,
       operationName,
       maxResolves,
       timeoutMs,
@@ -13,6 +13,7 @@ import java.util.Arrays;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutors;
 
 class IntrospectionTypeWiring {
 
@@ -80,7 +81,10 @@ class IntrospectionTypeWiring {
                           .anyMatch(directive -> directive.getName().equals("async"))
                       )
                   ) {
-                    return AsyncDataFetcher.async(dataFetcher);
+                    return AsyncDataFetcher.async(
+                      dataFetcher,
+                      OtpRequestExecutors.asyncExecutor()
+                    );
                   }
 
                   return dataFetcher;
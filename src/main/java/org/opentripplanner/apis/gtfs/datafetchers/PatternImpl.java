@@ -13,6 +13,7 @@ import java.util.stream.Collectors;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.apis.gtfs.GraphQLDataLoaders;
 import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
 import org.opentripplanner.apis.gtfs.generated.GraphQLDataFetchers;
 import org.opentripplanner.apis.gtfs.generated.GraphQLTypes;
@@ -22,7 +23,6 @@ import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.routing.alertpatch.EntitySelector;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.services.TransitAlertService;
-import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.Route;
@@ -228,8 +228,9 @@ public class PatternImpl implements GraphQLDataFetchers.GraphQLPattern {
 
   @Override
   public DataFetcher<Iterable<RealtimeVehicle>> vehiclePositions() {
-    return environment ->
-      getRealtimeVehiclesService(environment).getRealtimeVehicles(this.getSource(environment));
+    return GraphQLDataLoaders.async(environment ->
+      GraphQLDataLoaders.realtimeVehicles(environment, getSource(environment))
+    );
   }
 
   private Agency getAgency(DataFetchingEnvironment environment) {
@@ -248,10 +249,6 @@ public class PatternImpl implements GraphQLDataFetchers.GraphQLPattern {
     return getSource(environment).scheduledTripsAsStream().collect(Collectors.toList());
   }
 
-  private RealtimeVehicleService getRealtimeVehiclesService(DataFetchingEnvironment environment) {
-    return environment.<GraphQLRequestContext>getContext().realTimeVehicleService();
-  }
-
   private TransitService getTransitService(DataFetchingEnvironment environment) {
     return environment.<GraphQLRequestContext>getContext().transitService();
   }
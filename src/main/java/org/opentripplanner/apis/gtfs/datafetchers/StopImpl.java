@@ -11,9 +11,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.opentripplanner.apis.gtfs.GraphQLDataLoaders;
 import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
 import org.opentripplanner.apis.gtfs.GraphQLUtils;
 import org.opentripplanner.apis.gtfs.generated.GraphQLDataFetchers;
@@ -40,84 +43,79 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TransitAlert>> alerts() {
-    return environment -> {
+    return GraphQLDataLoaders.async(environment -> {
       TransitAlertService alertService = getTransitService(environment).getTransitAlertService();
       var args = new GraphQLTypes.GraphQLStopAlertsArgs(environment.getArguments());
       List<GraphQLTypes.GraphQLStopAlertType> types = args.getGraphQLTypes();
       FeedScopedId id = getValue(environment, StopLocation::getId, AbstractTransitEntity::getId);
-      if (types != null) {
-        Collection<TransitAlert> alerts = new ArrayList<>();
-        if (types.contains(GraphQLTypes.GraphQLStopAlertType.STOP)) {
-          alerts.addAll(alertService.getStopAlerts(id));
-        }
-        if (
-          types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_ROUTES) ||
-          types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_TRIPS)
-        ) {
-          alerts.addAll(
-            alertService
-              .getAllAlerts()
-              .stream()
-              .filter(alert ->
-                alert
-                  .entities()
-                  .stream()
-                  .anyMatch(entity ->
-                    (
-                      types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_ROUTES) &&
-                      entity instanceof StopAndRoute stopAndRoute &&
-                      stopAndRoute.stopId().equals(id)
-                    ) ||
-                    (
-                      types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_TRIPS) &&
-                      entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                      stopAndTrip.stopId().equals(id)
-                    )
-                  )
-              )
-              .toList()
-          );
-        }
-        if (
-          types.contains(GraphQLTypes.GraphQLStopAlertType.PATTERNS) ||
-          types.contains(GraphQLTypes.GraphQLStopAlertType.TRIPS)
-        ) {
-          getPatterns(environment)
-            .forEach(pattern -> {
-              if (types.contains(GraphQLTypes.GraphQLStopAlertType.PATTERNS)) {
-                alerts.addAll(
-                  alertService.getDirectionAndRouteAlerts(
-                    pattern.getDirection(),
-                    pattern.getRoute().getId()
-                  )
-                );
-              }
-              if (types.contains(GraphQLTypes.GraphQLStopAlertType.TRIPS)) {
-                pattern
-                  .scheduledTripsAsStream()
-                  .forEach(trip -> alerts.addAll(alertService.getTripAlerts(trip.getId(), null)));
-              }
-            });
-        }
-        if (
-          types.contains(GraphQLTypes.GraphQLStopAlertType.ROUTES) ||
-          types.contains(GraphQLTypes.GraphQLStopAlertType.AGENCIES_OF_ROUTES)
-        ) {
-          getRoutes(environment)
-            .forEach(route -> {
-              if (types.contains(GraphQLTypes.GraphQLStopAlertType.ROUTES)) {
-                alerts.addAll(alertService.getRouteAlerts(route.getId()));
-              }
-              if (types.contains(GraphQLTypes.GraphQLStopAlertType.AGENCIES_OF_ROUTES)) {
-                alerts.addAll(alertService.getAgencyAlerts(route.getAgency().getId()));
-              }
-            });
-        }
-        return alerts.stream().distinct().collect(Collectors.toList());
-      } else {
-        return alertService.getStopAlerts(id);
+      if (types == null) {
+        return CompletableFuture.completedFuture(alertService.getStopAlerts(id));
       }
-    };
+
+      boolean stopOnRoutes = types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_ROUTES);
+      boolean stopOnTrips = types.contains(GraphQLTypes.GraphQLStopAlertType.STOP_ON_TRIPS);
+      boolean patternAlerts = types.contains(GraphQLTypes.GraphQLStopAlertType.PATTERNS);
+      boolean tripAlerts = types.contains(GraphQLTypes.GraphQLStopAlertType.TRIPS);
+
+      CompletableFuture<List<TransitAlert>> stopEntityAlerts = stopOnRoutes || stopOnTrips
+        ? GraphQLDataLoaders.stopEntityAlerts(environment, id, stopOnRoutes, stopOnTrips)
+        : CompletableFuture.completedFuture(List.of());
+      Collection<TripPattern> patterns = patternAlerts || tripAlerts
+        ? getPatterns(environment)
+        : List.of();
+      CompletableFuture<Map<FeedScopedId, Collection<TransitAlert>>> alertsByTrip = tripAlerts
+        ? GraphQLDataLoaders.tripAlerts(
+          environment,
+          patterns
+            .stream()
+            .flatMap(TripPattern::scheduledTripsAsStream)
+            .map(AbstractTransitEntity::getId)
+            .distinct()
+            .toList()
+        )
+        : CompletableFuture.completedFuture(Map.of());
+
+      return stopEntityAlerts.thenCombine(
+        alertsByTrip,
+        (alertsOnStopEntities, alertsOfTrips) -> {
+          Collection<TransitAlert> alerts = new ArrayList<>();
+          if (types.contains(GraphQLTypes.GraphQLStopAlertType.STOP)) {
+            alerts.addAll(alertService.getStopAlerts(id));
+          }
+          alerts.addAll(alertsOnStopEntities);
+          patterns.forEach(pattern -> {
+            if (patternAlerts) {
+              alerts.addAll(
+                alertService.getDirectionAndRouteAlerts(
+                  pattern.getDirection(),
+                  pattern.getRoute().getId()
+                )
+              );
+            }
+            if (tripAlerts) {
+              pattern
+                .scheduledTripsAsStream()
+                .forEach(trip -> alerts.addAll(alertsOfTrips.get(trip.getId())));
+            }
+          });
+          if (
+            types.contains(GraphQLTypes.GraphQLStopAlertType.ROUTES) ||
+            types.contains(GraphQLTypes.GraphQLStopAlertType.AGENCIES_OF_ROUTES)
+          ) {
+            getRoutes(environment)
+              .forEach(route -> {
+                if (types.contains(GraphQLTypes.GraphQLStopAlertType.ROUTES)) {
+                  alerts.addAll(alertService.getRouteAlerts(route.getId()));
+                }
+                if (types.contains(GraphQLTypes.GraphQLStopAlertType.AGENCIES_OF_ROUTES)) {
+                  alerts.addAll(alertService.getAgencyAlerts(route.getAgency().getId()));
+                }
+              });
+          }
+          return alerts.stream().distinct().collect(Collectors.toList());
+        }
+      );
+    });
   }
 
   @Override
@@ -233,7 +231,13 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TripPattern>> patterns() {
-    return this::getPatterns;
+    return GraphQLDataLoaders.async(environment ->
+      getValue(
+        environment,
+        stop -> GraphQLDataLoaders.patternsForStop(environment, stop),
+        station -> CompletableFuture.completedFuture(null)
+      )
+    );
   }
 
   @Override
@@ -299,32 +303,16 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<StopTimesInPattern>> stoptimesForPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
-      var args = new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments());
-
-      Function<StopLocation, List<StopTimesInPattern>> stopTFunction = stop ->
-        transitService.stopTimesForStop(
-          stop,
-          GraphQLUtils.getTimeOrNow(args.getGraphQLStartTime()),
-          Duration.ofSeconds(args.getGraphQLTimeRange()),
-          args.getGraphQLNumberOfDepartures(),
-          args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
-          !args.getGraphQLOmitCanceled()
-        );
-
+    return GraphQLDataLoaders.async(environment -> {
+      var args = stopTimesArgs(
+        new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments())
+      );
       return getValue(
         environment,
-        stopTFunction,
-        station ->
-          station
-            .getChildStops()
-            .stream()
-            .map(stopTFunction)
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList())
+        stop -> GraphQLDataLoaders.stopTimesForStops(environment, List.of(stop), args),
+        station -> GraphQLDataLoaders.stopTimesForStops(environment, station.getChildStops(), args)
       );
-    };
+    });
   }
 
   @Override
@@ -365,34 +353,29 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
 
   @Override
   public DataFetcher<Iterable<TripTimeOnDate>> stoptimesWithoutPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
-      var args = new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments());
-
-      Function<StopLocation, Stream<StopTimesInPattern>> stopTFunction = stop ->
-        transitService
-          .stopTimesForStop(
-            stop,
-            GraphQLUtils.getTimeOrNow(args.getGraphQLStartTime()),
-            Duration.ofSeconds(args.getGraphQLTimeRange()),
-            args.getGraphQLNumberOfDepartures(),
-            args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
-            !args.getGraphQLOmitCanceled()
-          )
-          .stream();
+    return GraphQLDataLoaders.async(environment -> {
+      var args = stopTimesArgs(
+        new GraphQLTypes.GraphQLStopStoptimesForPatternsArgs(environment.getArguments())
+      );
 
-      Stream<StopTimesInPattern> stream = getValue(
+      CompletableFuture<List<StopTimesInPattern>> stopTimes = getValue(
         environment,
-        stopTFunction,
-        station -> station.getChildStops().stream().flatMap(stopTFunction)
+        stop -> GraphQLDataLoaders.stopTimesForStops(environment, List.of(stop), args),
+        station -> GraphQLDataLoaders.stopTimesForStops(environment, station.getChildStops(), args)
       );
 
-      return stream
-        .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
-        .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
-        .limit(args.getGraphQLNumberOfDepartures())
-        .collect(Collectors.toList());
-    };
+      if (stopTimes == null) {
+        return null;
+      }
+      return stopTimes.thenApply(stoptimesWithPatterns ->
+        stoptimesWithPatterns
+          .stream()
+          .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
+          .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
+          .limit(args.numberOfDepartures())
+          .collect(Collectors.toList())
+      );
+    });
   }
 
   @Override
@@ -486,6 +469,18 @@ public class StopImpl implements GraphQLDataFetchers.GraphQLStop {
     );
   }
 
+  private static GraphQLDataLoaders.StopTimesArgs stopTimesArgs(
+    GraphQLTypes.GraphQLStopStoptimesForPatternsArgs args
+  ) {
+    return new GraphQLDataLoaders.StopTimesArgs(
+      args.getGraphQLStartTime(),
+      args.getGraphQLTimeRange(),
+      args.getGraphQLNumberOfDepartures(),
+      args.getGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
+      !args.getGraphQLOmitCanceled()
+    );
+  }
+
   private Collection<Route> getRoutes(DataFetchingEnvironment environment) {
     return getValue(
       environment,
@@ -0,0 +1,152 @@
+package org.opentripplanner.apis.support.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryError;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.schema.GraphQLSchema;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache of parsed and validated GraphQL documents, keyed by the schema, the query text
+ * and the operation name. The same few queries are sent over and over again by the clients, so
+ * parsing and validating each of them once is enough. Only documents without errors are cached.
+ * <p>
+ * The cache also supports
+ * <a href="https://www.apollographql.com/docs/apollo-server/performance/apq/">automatic persisted
+ * queries</a>: a client may send the SHA-256 hash of the query text in the
+ * {@code extensions.persistedQuery.sha256Hash} request field instead of the query text. If the
+ * hash is unknown a {@code PersistedQueryNotFound} error is returned, and the client sends the
+ * hash together with the full query text.
+ * <p>
+ * When a document is found in the cache, the time it took to parse and validate it originally is
+ * put in the {@link graphql.GraphQLContext} of the request under the
+ * {@link #PARSE_AND_VALIDATE_TIME_SAVED} key, so it can be reported as a metric.
+ */
+public class PreparsedDocumentCache {
+
+  public static final String PARSE_AND_VALIDATE_TIME_SAVED = "parseAndValidateTimeSaved";
+
+  private static final int MAX_NUMBER_OF_DOCUMENTS = 1000;
+  private static final int MAX_NUMBER_OF_PERSISTED_QUERIES = 1000;
+
+  private static final PreparsedDocumentCache SHARED = new PreparsedDocumentCache(
+    MAX_NUMBER_OF_DOCUMENTS,
+    MAX_NUMBER_OF_PERSISTED_QUERIES
+  );
+
+  private final Cache<Key, CachedDocument> documents;
+  private final Cache<String, String> persistedQueries;
+
+  public PreparsedDocumentCache(int maxNumberOfDocuments, int maxNumberOfPersistedQueries) {
+    this.documents = CacheBuilder.newBuilder().maximumSize(maxNumberOfDocuments).build();
+    this.persistedQueries =
+      CacheBuilder.newBuilder().maximumSize(maxNumberOfPersistedQueries).build();
+  }
+
+  /**
+   * The cache shared by the GTFS and the Transmodel GraphQL APIs.
+   */
+  public static PreparsedDocumentCache shared() {
+    return SHARED;
+  }
+
+  /**
+   * Create a provider to be set on the {@link graphql.GraphQL} instance executing requests
+   * against the given schema.
+   */
+  public PreparsedDocumentProvider forSchema(GraphQLSchema schema) {
+    return (executionInput, parseAndValidate) ->
+      getDocument(schema, executionInput, parseAndValidate);
+  }
+
+  /**
+   * Return the persisted query hash of the request, or {@code null} if the request is not a
+   * persisted query.
+   */
+  @Nullable
+  public static String persistedQueryHash(@Nullable Map<String, Object> extensions) {
+    if (
+      extensions != null &&
+      extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery &&
+      persistedQuery.get("sha256Hash") instanceof String hash
+    ) {
+      return hash;
+    }
+    return null;
+  }
+
+  long size() {
+    return documents.size();
+  }
+
+  private PreparsedDocumentEntry getDocument(
+    GraphQLSchema schema,
+    ExecutionInput executionInput,
+    Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate
+  ) {
+    String hash = persistedQueryHash(executionInput.getExtensions());
+    String query = executionInput.getQuery();
+
+    if (hash != null) {
+      if (isMissing(query)) {
+        query = persistedQueries.getIfPresent(hash);
+        if (query == null) {
+          return error(new PersistedQueryNotFound(hash));
+        }
+        final String persistedQuery = query;
+        executionInput = executionInput.transform(b -> b.query(persistedQuery));
+      } else if (!hash.equalsIgnoreCase(sha256(query))) {
+        return error(new PersistedQueryIdInvalid(hash));
+      }
+    }
+
+    var key = new Key(schema, query, executionInput.getOperationName());
+    var cached = documents.getIfPresent(key);
+    if (cached != null) {
+      executionInput.getGraphQLContext().put(PARSE_AND_VALIDATE_TIME_SAVED, cached.time());
+      return cached.entry();
+    }
+
+    long start = System.nanoTime();
+    var entry = parseAndValidate.apply(executionInput);
+    if (!entry.hasErrors()) {
+      documents.put(key, new CachedDocument(entry, Duration.ofNanos(System.nanoTime() - start)));
+      if (hash != null) {
+        persistedQueries.put(hash, query);
+      }
+    }
+    return entry;
+  }
+
+  private static boolean isMissing(String query) {
+    return (
+      query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)
+    );
+  }
+
+  private static String sha256(String query) {
+    return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+  }
+
+  private static PreparsedDocumentEntry error(PersistedQueryError error) {
+    return new PreparsedDocumentEntry(
+      GraphqlErrorBuilder.newError().errorType(error).message(error.getMessage()).build()
+    );
+  }
+
+  private record Key(GraphQLSchema schema, String query, String operationName) {}
+
+  private record CachedDocument(PreparsedDocumentEntry entry, Duration time) {}
+}
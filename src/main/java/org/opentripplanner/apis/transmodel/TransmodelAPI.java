@@ -1,6 +1,7 @@
 package org.opentripplanner.apis.transmodel;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
 import graphql.schema.GraphQLSchema;
 import io.micrometer.core.instrument.Tag;
 import jakarta.ws.rs.BadRequestException;
@@ -22,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.opentripplanner.apis.support.graphql.PreparsedDocumentCache;
 import org.opentripplanner.apis.transmodel.mapping.TransitIdMapper;
 import org.opentripplanner.apis.transmodel.support.GqlUtil;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -94,13 +96,39 @@ public class TransmodelAPI {
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    if (queryParameters == null) {
       LOG.debug("No query found in body");
       throw new BadRequestException("No query found in body");
     }
 
-    if (!(queryParameters.get("query") instanceof String query)) {
+    Object queryExtensions = queryParameters.getOrDefault("extensions", null);
+    Map<String, Object> extensions;
+    if (queryExtensions instanceof Map queryExtensionsAsMap) {
+      extensions = queryExtensionsAsMap;
+    } else if (
+      queryExtensions instanceof String queryExtensionsAsString &&
+      !queryExtensionsAsString.isEmpty()
+    ) {
+      try {
+        extensions = deserializer.readValue(queryExtensionsAsString, Map.class);
+      } catch (IOException e) {
+        throw new BadRequestException("Extensions must be a valid json object");
+      }
+    } else {
+      extensions = Collections.emptyMap();
+    }
+
+    String query;
+    if (queryParameters.get("query") instanceof String queryAsString) {
+      query = queryAsString;
+    } else if (queryParameters.get("query") != null) {
       throw new BadRequestException("Invalid format for query");
+    } else if (PreparsedDocumentCache.persistedQueryHash(extensions) != null) {
+      // An automatic persisted query, the query text is looked up using the hash
+      query = PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+    } else {
+      LOG.debug("No query found in body");
+      throw new BadRequestException("No query found in body");
     }
 
     Object queryVariables = queryParameters.getOrDefault("variables", null);
@@ -123,6 +151,7 @@ public class TransmodelAPI {
       query,
       serverContext,
       variables,
+      extensions,
       operationName,
       maxResolves,
       getTagsFromHeaders(headers)
@@ -142,6 +171,7 @@ public class TransmodelAPI {
       serverContext,
       null,
       null,
+      null,
       maxResolves,
       getTagsFromHeaders(headers)
     );
@@ -16,13 +16,14 @@ import jakarta.ws.rs.core.Response;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import org.opentripplanner.apis.support.graphql.PreparsedDocumentCache;
 import org.opentripplanner.apis.transmodel.support.AbortOnTimeoutExecutionStrategy;
 import org.opentripplanner.apis.transmodel.support.ExecutionResultMapper;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.OTPRequestRejectedException;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
-import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutors;
 import org.opentripplanner.framework.lang.ObjectUtils;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
@@ -38,8 +39,7 @@ class TransmodelGraph {
   final ExecutorService threadPool;
 
   TransmodelGraph(GraphQLSchema schema) {
-    this.threadPool =
-      Executors.newCachedThreadPool(OtpRequestThreadFactory.of("transmodel-api-%d"));
+    this.threadPool = OtpRequestExecutors.newCachedThreadPool("transmodel-api-%d");
     this.indexSchema = schema;
   }
 
@@ -47,18 +47,21 @@ class TransmodelGraph {
     String query,
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     int maxResolves,
     Iterable<Tag> tracingTags
   ) {
     try (var executionStrategy = new AbortOnTimeoutExecutionStrategy()) {
       variables = ObjectUtils.ifNotNull(variables, new HashMap<>());
+      extensions = ObjectUtils.ifNotNull(extensions, Map.of());
       var instrumentation = createInstrumentation(maxResolves, tracingTags);
       var transmodelRequestContext = createRequestContext(serverContext);
       var executionInput = createExecutionInput(
         query,
         serverContext,
         variables,
+        extensions,
         operationName,
         transmodelRequestContext
       );
@@ -69,7 +72,11 @@ class TransmodelGraph {
 
       return ExecutionResultMapper.okResponse(result);
     } catch (OTPRequestTimeoutException te) {
+      // Stop the data fetchers still running for this request
+      serverContext.cancellationToken().cancel();
       return ExecutionResultMapper.timeoutResponse();
+    } catch (OTPRequestRejectedException re) {
+      return ExecutionResultMapper.serviceUnavailableResponse();
     } catch (CoercingParseValueException | UnknownOperationException e) {
       return ExecutionResultMapper.badRequestResponse(e.getMessage());
     } catch (Exception systemError) {
@@ -105,6 +112,7 @@ class TransmodelGraph {
     String query,
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     TransmodelRequestContext transmodelRequestContext
   ) {
@@ -115,6 +123,7 @@ class TransmodelGraph {
       .context(transmodelRequestContext)
       .root(serverContext)
       .variables(variables)
+      .extensions(extensions)
       .build();
   }
 
@@ -126,6 +135,7 @@ class TransmodelGraph {
       .newGraphQL(indexSchema)
       .instrumentation(instrumentation)
       .queryExecutionStrategy(executionStrategy)
+      .preparsedDocumentProvider(PreparsedDocumentCache.shared().forSchema(indexSchema))
       .build();
   }
 
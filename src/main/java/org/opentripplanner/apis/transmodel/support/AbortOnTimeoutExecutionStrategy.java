@@ -4,6 +4,7 @@ import graphql.execution.AsyncExecutionStrategy;
 import graphql.schema.DataFetchingEnvironment;
 import java.io.Closeable;
 import java.util.concurrent.CompletableFuture;
+import org.opentripplanner.framework.application.OTPRequestRejectedException;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.slf4j.Logger;
@@ -12,7 +13,7 @@ import org.slf4j.LoggerFactory;
 /**
  * To abort fetching data when a timeout occurs we have to rethrow the time-out-exception.
  * This will prevent unresolved data-fetchers to be called. The exception is not handled
- * gracefully.
+ * gracefully. The same is done when a request is rejected because the server is overloaded.
  */
 public class AbortOnTimeoutExecutionStrategy extends AsyncExecutionStrategy implements Closeable {
 
@@ -33,6 +34,9 @@ public class AbortOnTimeoutExecutionStrategy extends AsyncExecutionStrategy impl
       logTimeoutProgress();
       throw te;
     }
+    if (e instanceof OTPRequestRejectedException re) {
+      throw re;
+    }
     return super.handleFetchingException(environment, e);
   }
 
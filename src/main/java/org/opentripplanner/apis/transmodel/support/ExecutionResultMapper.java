@@ -4,6 +4,7 @@ import graphql.ErrorClassification;
 import graphql.ExecutionResult;
 import graphql.GraphQLError;
 import jakarta.ws.rs.core.Response;
+import org.opentripplanner.framework.application.OTPRequestRejectedException;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.graphql.GraphQLResponseSerializer;
 import org.opentripplanner.framework.http.OtpHttpStatus;
@@ -20,6 +21,10 @@ public class ExecutionResultMapper {
     "BadRequestError"
   );
 
+  private static final ErrorClassification SERVICE_UNAVAILABLE = ErrorClassification.errorClassification(
+    "ServiceUnavailable"
+  );
+
   private static final ErrorClassification INTERNAL_SERVER_ERROR = ErrorClassification.errorClassification(
     "InternalServerError"
   );
@@ -38,6 +43,16 @@ public class ExecutionResultMapper {
     return response(result, OtpHttpStatus.STATUS_UNPROCESSABLE_ENTITY);
   }
 
+  public static Response serviceUnavailableResponse() {
+    var error = GraphQLError
+      .newError()
+      .errorType(SERVICE_UNAVAILABLE)
+      .message(OTPRequestRejectedException.MESSAGE)
+      .build();
+    var result = ExecutionResult.newExecutionResult().addError(error).build();
+    return response(result, Response.Status.SERVICE_UNAVAILABLE);
+  }
+
   public static Response badRequestResponse(String message) {
     var error = GraphQLError.newError().errorType(BAD_REQUEST_ERROR).message(message).build();
     var result = ExecutionResult.newExecutionResult().addError(error).build();
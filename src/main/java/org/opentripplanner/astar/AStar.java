@@ -19,6 +19,7 @@ import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.time.DateUtils;
 import org.slf4j.Logger;
@@ -38,6 +39,9 @@ public class AStar<
 
   private static final boolean verbose = LOG.isDebugEnabled();
 
+  /** Check the cancellation token after visiting this many states. */
+  private static final int CANCELLATION_CHECK_INTERVAL = 1000;
+
   private final boolean arriveBy;
   private final Set<Vertex> fromVertices;
   private final Set<Vertex> toVertices;
@@ -53,6 +57,7 @@ public class AStar<
 
   private State u;
   private int nVisited;
+  private CancellationToken cancellationToken = CancellationToken.NONE;
 
   AStar(
     RemainingWeightHeuristic<State> heuristic,
@@ -128,6 +133,10 @@ public class AStar<
 
     nVisited += 1;
 
+    if (nVisited % CANCELLATION_CHECK_INTERVAL == 0) {
+      cancellationToken.throwIfCancelled();
+    }
+
     Vertex u_vertex = u.getVertex();
 
     if (verbose) {
@@ -185,6 +194,7 @@ public class AStar<
 
   private void runSearch() {
     OTPRequestTimeoutException.checkForTimeout();
+    cancellationToken = CancellationToken.current();
     long abortTime = DateUtils.absoluteTimeout(timeout);
 
     /* the core of the A* algorithm */
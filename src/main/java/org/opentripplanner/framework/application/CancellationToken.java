@@ -0,0 +1,91 @@
+package org.opentripplanner.framework.application;
+
+/**
+ * A request-scoped token used to stop the work of a request when nobody is waiting for the
+ * result anymore, like a GraphQL query giving up after its timeout. Without it, the routing keeps
+ * running and uses CPU for nobody.
+ * <p>
+ * The token is bound to the threads doing work for the request, see {@link #bind()} and
+ * {@link #wrap(Runnable)}. The long-running loops check the token of the current thread, through
+ * {@link OTPRequestTimeoutException#checkForTimeout()} or {@link #throwIfCancelled()}, and abort
+ * with an {@link OTPRequestCancelledException}.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public class CancellationToken {
+
+  /**
+   * The token of threads not bound to a request, it is never cancelled.
+   */
+  public static final CancellationToken NONE = new CancellationToken(false);
+
+  private static final ThreadLocal<CancellationToken> CURRENT = ThreadLocal.withInitial(() ->
+    NONE
+  );
+
+  private final boolean cancellable;
+  private volatile boolean cancelled = false;
+
+  private CancellationToken(boolean cancellable) {
+    this.cancellable = cancellable;
+  }
+
+  public static CancellationToken create() {
+    return new CancellationToken(true);
+  }
+
+  /**
+   * The token bound to the current thread, or {@link #NONE}.
+   */
+  public static CancellationToken current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Cancel the request, the work in progress is aborted the next time the token is checked.
+   */
+  public void cancel() {
+    if (cancellable) {
+      cancelled = true;
+    }
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * This is cheap, a volatile read, so it can be called in the inner loops.
+   */
+  public void throwIfCancelled() {
+    if (cancelled) {
+      throw new OTPRequestCancelledException();
+    }
+  }
+
+  /**
+   * Bind this token to the current thread, until the returned scope is closed.
+   */
+  public Scope bind() {
+    var previous = CURRENT.get();
+    CURRENT.set(this);
+    return () -> CURRENT.set(previous);
+  }
+
+  /**
+   * Bind this token to the thread running the task, while it is running. Use this for tasks
+   * submitted to another thread.
+   */
+  public Runnable wrap(Runnable task) {
+    return () -> {
+      try (var ignore = bind()) {
+        task.run();
+      }
+    };
+  }
+
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
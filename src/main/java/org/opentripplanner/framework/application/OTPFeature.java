@@ -60,7 +60,27 @@ public enum OTPFeature {
     "OTP will inspect all itineraries found and optimize where (which stops) the transfer will happen. Waiting time, priority and guaranteed transfers are taken into account."
   ),
 
+  ParallelGraphBuilderModules(
+    false,
+    false,
+    "Run the graph builder modules which do not read or write the same data in parallel. For " +
+    "example, the OSM and the transit data are imported at the same time."
+  ),
+  ParallelIslandDetection(
+    false,
+    false,
+    "Find the street islands to prune with a parallel union-find pass instead of a search per " +
+    "island. Experimental: the pruning matches the searches on the test graphs, but it has not " +
+    "been compared or timed on a large regional graph yet."
+  ),
   ParallelRouting(false, false, "Enable performing parts of the trip planning in parallel."),
+  ParallelStopLinking(
+    false,
+    false,
+    "Link the transit stops to the street network in parallel, in tiles which do not share " +
+    "any streets. The links are the same as when linking one stop at a time, but are made in " +
+    "another order and the split vertices are labeled `split_<n>_<tile>_<i>`."
+  ),
   TransferConstraints(
     true,
     false,
@@ -71,6 +91,13 @@ public enum OTPFeature {
     true,
     "Enable the [Transmodel (NeTEx) GraphQL API](apis/TransmodelApi.md)."
   ),
+  VirtualThreads(
+    false,
+    false,
+    "Handle HTTP requests, GraphQL data fetchers and the parallel parts of the trip planning on " +
+    "virtual threads. The Raptor search thread pool is not affected. The number of HTTP " +
+    "handler threads is set with the `--maxVirtualThreads` command line parameter."
+  ),
 
   /* Sandbox extension features - Must be turned OFF by default */
 
@@ -101,6 +128,7 @@ public enum OTPFeature {
     false,
     "Enable a default RouteRequest to be passed in as JSON on the REST API - FOR DEBUGGING ONLY!"
   ),
+  SandboxAPIBatchPlan(false, true, "Enable the batch plan API for many origin-destination pairs."),
   SandboxAPIGeocoder(false, true, "Enable the Geocoder API."),
   SandboxAPIMapboxVectorTilesApi(false, true, "Enable Mapbox vector tiles API."),
   SandboxAPIParkAndRideApi(false, true, "Enable park-and-ride endpoint."),
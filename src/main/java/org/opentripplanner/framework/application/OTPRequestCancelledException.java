@@ -0,0 +1,12 @@
+package org.opentripplanner.framework.application;
+
+/**
+ * This Exception is used to signal that the current request is cancelled, because nobody is
+ * waiting for the result anymore. It is handled like a timeout by the APIs.
+ *
+ * @see CancellationToken
+ */
+public class OTPRequestCancelledException extends OTPRequestTimeoutException {
+
+  private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,17 @@
+package org.opentripplanner.framework.application;
+
+/**
+ * This Exception is used to signal that the current (HTTP) request is rejected, because the
+ * server is overloaded. The client should try again later.
+ */
+public class OTPRequestRejectedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final String MESSAGE = "The server is overloaded, please try again later.";
+
+  @Override
+  public String getMessage() {
+    return MESSAGE;
+  }
+}
@@ -22,6 +22,8 @@ public class OTPRequestTimeoutException extends RuntimeException {
    * interrupted flag, so instead we need to do the check manually. The check has a small
    * performance overhead so try to place the check in the beginning of significantly big block of
    * calculations.
+   * <p>
+   * The {@link CancellationToken} bound to the current thread is checked as well.
    */
   public static void checkForTimeout() {
     // We call yield() to allow monitoring thread to interrupt current thread. If this work or not
@@ -33,6 +35,7 @@ public class OTPRequestTimeoutException extends RuntimeException {
       logDebug();
       throw new OTPRequestTimeoutException();
     }
+    CancellationToken.current().throwIfCancelled();
   }
 
   /**
@@ -0,0 +1,52 @@
+package org.opentripplanner.framework.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.opentripplanner.framework.application.OTPFeature;
+
+/**
+ * Create the executors used to handle "user" requests, see {@link OtpRequestThreadFactory}. If
+ * the {@link OTPFeature#VirtualThreads} feature is on, the tasks run on virtual threads. A
+ * virtual thread waiting for another task, like a GraphQL fetcher waiting for the routing or the
+ * routing waiting for the access and egress search, does not block a platform thread. So there
+ * is no need to size the thread pools for the worst case.
+ * <p>
+ * CPU-bound work, like the Raptor search, should use a bounded pool of platform threads instead.
+ */
+public class OtpRequestExecutors {
+
+  private OtpRequestExecutors() {}
+
+  /**
+   * Create an executor which starts a thread for each task if needed. With virtual threads, a new
+   * thread is started for each task, otherwise idle threads are reused.
+   */
+  public static ExecutorService newCachedThreadPool(String nameFormat) {
+    return OTPFeature.VirtualThreads.isOn()
+      ? Executors.newThreadPerTaskExecutor(OtpRequestThreadFactory.ofVirtual(nameFormat))
+      : Executors.newCachedThreadPool(OtpRequestThreadFactory.of(nameFormat));
+  }
+
+  /**
+   * The executor used to run the asynchronous parts of a request, like the parallel parts of the
+   * routing and the asynchronous GraphQL data fetchers. This is the common fork-join pool, unless
+   * virtual threads are enabled.
+   */
+  public static Executor asyncExecutor() {
+    return OTPFeature.VirtualThreads.isOn()
+      ? VirtualAsyncExecutor.INSTANCE
+      : ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Create the executor lazily, it is not needed unless virtual threads are enabled.
+   */
+  private static class VirtualAsyncExecutor {
+
+    private static final ExecutorService INSTANCE = Executors.newThreadPerTaskExecutor(
+      OtpRequestThreadFactory.ofVirtual("otp-async-%d")
+    );
+  }
+}
@@ -33,6 +33,15 @@ public class OtpRequestThreadFactory implements ThreadFactory {
     return new OtpRequestThreadFactory(defaultFactory);
   }
 
+  /**
+   * Create a factory for virtual threads. The {@code %d} in the name format is replaced by a
+   * counter, like for the platform threads.
+   */
+  public static ThreadFactory ofVirtual(String nameFormat) {
+    var prefix = nameFormat.replace("%d", "");
+    return new OtpRequestThreadFactory(Thread.ofVirtual().name(prefix, 0).factory());
+  }
+
   @Override
   public Thread newThread(@Nonnull Runnable r) {
     if (LogMDCSupport.isRequestTracingInLoggingEnabled()) {
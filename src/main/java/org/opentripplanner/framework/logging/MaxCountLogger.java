@@ -1,5 +1,6 @@
 package org.opentripplanner.framework.logging;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 
 /**
@@ -14,7 +15,8 @@ import org.slf4j.Logger;
  * The primary use-case for this class is to prevent a logger form spamming the log with the same
  * message. After a given limit this logger will be muted and no more log events are logged.
  * <p>
- * THREAD SAFETY - The implementation is not thread safe.
+ * THREAD SAFETY - The events are counted atomically, so the same logger can be used by several
+ * threads, for example when NeTEx files are parsed in parallel.
  * <p>
  * @deprecated TODO: Rewrite the same way as the {@link Throttle} is done. See
  *             {@link AbstractFilterLogger} for deprecation details.
@@ -23,7 +25,7 @@ import org.slf4j.Logger;
 public class MaxCountLogger extends AbstractFilterLogger {
 
   private static final int MAX_COUNT = 10;
-  private int count = 0;
+  private final AtomicInteger count = new AtomicInteger();
 
   private MaxCountLogger(Logger delegate) {
     super(delegate);
@@ -42,14 +44,14 @@ public class MaxCountLogger extends AbstractFilterLogger {
    * like this: {@code "TOTAL: n - %message%" }.
    */
   public void logTotal(String message) {
-    if (mute()) {
-      getDelegate().warn("TOTAL: {} - {}", count, message);
+    int total = count.incrementAndGet();
+    if (total > MAX_COUNT) {
+      getDelegate().warn("TOTAL: {} - {}", total, message);
     }
   }
 
   @Override
   boolean mute() {
-    ++count;
-    return count > MAX_COUNT;
+    return count.incrementAndGet() > MAX_COUNT;
   }
 }
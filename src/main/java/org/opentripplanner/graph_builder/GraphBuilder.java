@@ -29,7 +29,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This makes a Graph out of various inputs like GTFS and OSM. It is modular: GraphBuilderModules
- * are placed in a list and run in sequence.
+ * are placed in a list and run in sequence, or in parallel where they do not use the same parts of
+ * the model, see {@link GraphBuilderScheduler}.
  */
 public class GraphBuilder implements Runnable {
 
@@ -187,9 +188,11 @@ public class GraphBuilder implements Runnable {
       builder.checkInputs();
     }
 
-    for (GraphBuilderModule load : graphBuilderModules) {
-      load.buildGraph();
-    }
+    new GraphBuilderScheduler(
+      graphBuilderModules,
+      OTPFeature.ParallelGraphBuilderModules.isOn()
+    )
+      .run();
 
     new DataImportIssueSummary(issueStore.listIssues()).logSummary();
 
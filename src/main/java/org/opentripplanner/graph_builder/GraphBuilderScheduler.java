@@ -0,0 +1,162 @@
+package org.opentripplanner.graph_builder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run the graph builder modules, in parallel if possible. A module waits for each module added
+ * before it that writes something it reads or writes, or reads something it writes. So modules
+ * which use the same parts of the model run in the order they are added, and the result is the
+ * same as when all modules run in sequence. See {@link GraphBuilderModule#reads()}.
+ * <p>
+ * A timeline with the start and end time of each module is logged at the end.
+ */
+class GraphBuilderScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GraphBuilderScheduler.class);
+
+  private final List<GraphBuilderModule> modules;
+  private final boolean parallel;
+  private final List<ModuleTiming> timeline = Collections.synchronizedList(new ArrayList<>());
+  private long startTime;
+
+  GraphBuilderScheduler(List<GraphBuilderModule> modules, boolean parallel) {
+    this.modules = List.copyOf(modules);
+    this.parallel = parallel;
+  }
+
+  /**
+   * For each module, the indexes of the modules added before it that it must wait for.
+   */
+  static List<List<Integer>> dependencies(List<GraphBuilderModule> modules) {
+    var result = new ArrayList<List<Integer>>();
+    for (int i = 0; i < modules.size(); ++i) {
+      var dependencies = new ArrayList<Integer>();
+      for (int j = 0; j < i; ++j) {
+        if (conflicts(modules.get(j), modules.get(i))) {
+          dependencies.add(j);
+        }
+      }
+      result.add(dependencies);
+    }
+    return result;
+  }
+
+  void run() {
+    startTime = System.nanoTime();
+    if (parallel) {
+      runInParallel();
+    } else {
+      for (GraphBuilderModule module : modules) {
+        runModule(module);
+      }
+    }
+    logTimeline();
+  }
+
+  List<ModuleTiming> timeline() {
+    return List.copyOf(timeline);
+  }
+
+  private void runInParallel() {
+    var dependencies = dependencies(modules);
+    ExecutorService executor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("graph-builder-%d").setDaemon(true).build()
+    );
+    try {
+      var done = new ArrayList<CompletableFuture<Void>>();
+      for (int i = 0; i < modules.size(); ++i) {
+        var module = modules.get(i);
+        var waitFor = dependencies.get(i).stream().map(done::get).toArray(CompletableFuture[]::new);
+        done.add(CompletableFuture.allOf(waitFor).thenRunAsync(() -> runModule(module), executor));
+      }
+      // A failed module makes the modules that wait for it fail too, so the first failure in the
+      // order of the modules is the cause.
+      for (var it : done) {
+        try {
+          it.join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException re) {
+            throw re;
+          }
+          if (e.getCause() instanceof Error error) {
+            throw error;
+          }
+          throw e;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void runModule(GraphBuilderModule module) {
+    long start = System.nanoTime();
+    try {
+      module.buildGraph();
+    } finally {
+      timeline.add(
+        new ModuleTiming(
+          name(module),
+          Thread.currentThread().getName(),
+          Duration.ofNanos(start - startTime),
+          Duration.ofNanos(System.nanoTime() - startTime)
+        )
+      );
+    }
+  }
+
+  private void logTimeline() {
+    var buf = new StringBuilder("Graph builder module timeline:");
+    var sorted = timeline().stream().sorted(Comparator.comparing(ModuleTiming::start)).toList();
+    for (ModuleTiming it : sorted) {
+      buf.append(
+        String.format(
+          "%n  %-32s %8s - %-8s (%s) %s",
+          it.module(),
+          DurationUtils.durationToStr(it.start()),
+          DurationUtils.durationToStr(it.end()),
+          DurationUtils.durationToStr(it.end().minus(it.start())),
+          it.thread()
+        )
+      );
+    }
+    LOG.info(buf.toString());
+  }
+
+  private static boolean conflicts(GraphBuilderModule before, GraphBuilderModule after) {
+    return (
+      intersects(before.writes(), after.reads()) ||
+      intersects(before.writes(), after.writes()) ||
+      intersects(before.reads(), after.writes())
+    );
+  }
+
+  private static boolean intersects(Set<GraphBuilderResource> a, Set<GraphBuilderResource> b) {
+    return a.stream().anyMatch(b::contains);
+  }
+
+  private static String name(GraphBuilderModule module) {
+    var name = module.getClass().getSimpleName();
+    return name.isEmpty() ? module.getClass().getName() : name;
+  }
+
+  /**
+   * When a module started and ended, relative to the start of the build.
+   */
+  record ModuleTiming(String module, String thread, Duration start, Duration end) {}
+}
@@ -1,6 +1,7 @@
 package org.opentripplanner.graph_builder.issue.api;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 import org.opentripplanner.framework.error.OtpError;
 
 /**
@@ -44,6 +45,12 @@ public interface DataImportIssueStore {
    */
   void stopProcessingSource();
 
+  /**
+   * The source is kept for each thread. Wrap the tasks submitted to a worker pool with this, so
+   * the issues added by the task get the source processed by the thread submitting it.
+   */
+  <T> Callable<T> withCurrentSource(Callable<T> task);
+
   /** List all issues added */
   List<DataImportIssue> listIssues();
 }
@@ -1,6 +1,7 @@
 package org.opentripplanner.graph_builder.issue.api;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 import org.opentripplanner.framework.error.OtpError;
 
 /**
@@ -27,6 +28,11 @@ class NoopDataImportIssueStore implements DataImportIssueStore {
   @Override
   public void stopProcessingSource() {}
 
+  @Override
+  public <T> Callable<T> withCurrentSource(Callable<T> task) {
+    return task;
+  }
+
   @Override
   public List<DataImportIssue> listIssues() {
     return List.of();
@@ -2,7 +2,9 @@ package org.opentripplanner.graph_builder.issue.service;
 
 import jakarta.inject.Singleton;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 import org.opentripplanner.framework.error.OtpError;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -16,16 +18,22 @@ public class DefaultDataImportIssueStore implements DataImportIssueStore {
 
   private static final Logger ISSUE_LOG = LoggerFactory.getLogger(ISSUES_LOG_NAME);
 
-  private final List<DataImportIssue> issues = new ArrayList<>();
-  private String currentSource = null;
+  private final List<DataImportIssue> issues = Collections.synchronizedList(new ArrayList<>());
+
+  /**
+   * The source is kept for each thread, the graph builder modules may run in parallel. It is
+   * passed on to worker threads with {@link #withCurrentSource(Callable)}.
+   */
+  private final ThreadLocal<String> currentSource = new ThreadLocal<>();
 
   public DefaultDataImportIssueStore() {}
 
   @Override
   public void add(DataImportIssue issue) {
     ISSUE_LOG.debug("{} - {}", issue.getType(), issue.getMessage());
-    if (currentSource != null) {
-      this.issues.add(new IssueWithSource(issue, currentSource));
+    String source = currentSource.get();
+    if (source != null) {
+      this.issues.add(new IssueWithSource(issue, source));
     } else {
       this.issues.add(issue);
     }
@@ -48,12 +56,26 @@ public class DefaultDataImportIssueStore implements DataImportIssueStore {
 
   @Override
   public void startProcessingSource(String source) {
-    this.currentSource = source;
+    this.currentSource.set(source);
   }
 
   @Override
   public void stopProcessingSource() {
-    this.currentSource = null;
+    this.currentSource.remove();
+  }
+
+  @Override
+  public <T> Callable<T> withCurrentSource(Callable<T> task) {
+    String source = currentSource.get();
+    return () -> {
+      String previous = currentSource.get();
+      currentSource.set(source);
+      try {
+        return task.call();
+      } finally {
+        currentSource.set(previous);
+      }
+    };
   }
 
   @Override
@@ -1,5 +1,7 @@
 package org.opentripplanner.graph_builder.model;
 
+import java.util.Set;
+
 /** Modules that add elements to a graph. These are plugins to the GraphBuilder. */
 public interface GraphBuilderModule {
   /**
@@ -12,4 +14,22 @@ public interface GraphBuilderModule {
   default void checkInputs() {
     // the vast majority of modules don't have any checks
   }
+
+  /**
+   * The parts of the model this module reads. A module is only run at the same time as other
+   * modules if it reads and writes parts the others do not write. The default is everything, so
+   * the module runs alone.
+   */
+  default Set<GraphBuilderResource> reads() {
+    return GraphBuilderResource.all();
+  }
+
+  /**
+   * The parts of the model this module changes. The default is everything.
+   *
+   * @see #reads()
+   */
+  default Set<GraphBuilderResource> writes() {
+    return GraphBuilderResource.all();
+  }
 }
@@ -0,0 +1,35 @@
+package org.opentripplanner.graph_builder.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The parts of the model a {@link GraphBuilderModule} reads and writes. Modules which do not
+ * read or write the same parts can run at the same time.
+ */
+public enum GraphBuilderResource {
+  /** The street vertices and edges in the graph, and the street index. */
+  STREET_GRAPH,
+  /** The elevation profiles of the street edges. */
+  ELEVATION,
+  /** The transit stop vertices, entrances and pathways in the graph and the fare service. */
+  TRANSIT_GRAPH,
+  /**
+   * The links between the streets and the stops, area stops, vehicle rental stations and other
+   * places that are linked to the street graph.
+   */
+  STOP_LINKS,
+  /** The stops, routes, patterns and timetables of the transit model. */
+  TRANSIT_MODEL,
+  /** The street transfers and the constrained transfers between stops. */
+  TRANSFERS,
+  /** The CO2 emissions of the routes. */
+  EMISSIONS,
+  /** The envelope of the streets and stops, and the center of the transit. */
+  WORLD_ENVELOPE;
+
+  /** Use this for modules that have not declared what they use. */
+  public static Set<GraphBuilderResource> all() {
+    return EnumSet.allOf(GraphBuilderResource.class);
+  }
+}
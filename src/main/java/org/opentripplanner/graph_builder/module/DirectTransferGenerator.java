@@ -1,17 +1,26 @@
 package org.opentripplanner.graph_builder.module;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.ELEVATION;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STOP_LINKS;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STREET_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSFERS;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimaps;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.StopNotLinkedForTransfers;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
@@ -60,6 +69,16 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     this.transferRequests = transferRequests;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of(STREET_GRAPH, ELEVATION, TRANSIT_GRAPH, STOP_LINKS);
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(TRANSIT_MODEL, TRANSFERS);
+  }
+
   @Override
   public void buildGraph() {
     /* Initialize transit model index which is needed by the nearby stop finder. */
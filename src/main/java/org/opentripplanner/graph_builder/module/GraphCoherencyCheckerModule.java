@@ -1,8 +1,14 @@
 package org.opentripplanner.graph_builder.module;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STOP_LINKS;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STREET_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_GRAPH;
+
 import jakarta.inject.Inject;
+import java.util.Set;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
@@ -26,6 +32,16 @@ public class GraphCoherencyCheckerModule implements GraphBuilderModule {
     this.issueStore = issueStore;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of(STREET_GRAPH, TRANSIT_GRAPH, STOP_LINKS);
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of();
+  }
+
   @Override
   public void buildGraph() {
     boolean coherent = true;
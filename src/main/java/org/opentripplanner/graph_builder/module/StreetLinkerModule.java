@@ -2,16 +2,22 @@ package org.opentripplanner.graph_builder.module;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.annotation.Nonnull;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.ParkAndRideEntranceRemoved;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.LinkingDirection;
+import org.opentripplanner.routing.linking.VertexLinker;
 import org.opentripplanner.routing.vehicle_parking.VehicleParking;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingHelper;
 import org.opentripplanner.street.model.edge.Edge;
@@ -44,6 +50,11 @@ public class StreetLinkerModule implements GraphBuilderModule {
   private static final Logger LOG = LoggerFactory.getLogger(StreetLinkerModule.class);
   private static final TraverseModeSet CAR_ONLY = new TraverseModeSet(TraverseMode.CAR);
   private static final TraverseModeSet WALK_ONLY = new TraverseModeSet(TraverseMode.WALK);
+  /**
+   * The size of the tiles stops are linked in parallel in, about 5 km north-south. Smaller tiles
+   * give more tiles to link in parallel, but more stops close to the tile borders.
+   */
+  private static final double TILE_SIZE_DEGREES = 0.05;
   private final Graph graph;
   private final TransitModel transitModel;
   private final DataImportIssueStore issueStore;
@@ -102,6 +113,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
       );
     }
 
+    List<StopToLink> stopsToLink = new ArrayList<>();
     for (TransitStopVertex tStop : vertices) {
       // Stops with pathways do not need to be connected to the street network, since there are explicit entrances defined for that
       if (tStop.hasPathways()) {
@@ -121,12 +133,122 @@ public class StreetLinkerModule implements GraphBuilderModule {
         linkType = StopLinkType.WALK_AND_CAR;
       }
 
-      linkStopToStreetNetwork(tStop, linkType);
+      stopsToLink.add(new StopToLink(tStop, linkType));
+    }
+
+    if (OTPFeature.ParallelStopLinking.isOn()) {
+      linkTransitStopsInTiles(stopsToLink, progress);
+    } else {
+      linkTransitStops(graph.getLinker(), stopsToLink, progress);
+    }
+    LOG.info(progress.completeMessage());
+  }
+
+  private void linkTransitStops(
+    VertexLinker linker,
+    List<StopToLink> stops,
+    ProgressTracker progress
+  ) {
+    for (StopToLink stop : stops) {
+      linkStopToStreetNetwork(linker, stop.vertex(), stop.linkType());
 
       //noinspection Convert2MethodRef
       progress.step(m -> LOG.info(m));
     }
-    LOG.info(progress.completeMessage());
+  }
+
+  /**
+   * Link the stops in parallel, tile by tile. A stop belongs to a tile if everything linking it
+   * may read or change is inside the tile, so stops in different tiles never split the same edge
+   * or connect to the same vertex. The stops of a tile are linked in order, with split vertex
+   * labels of their own, so the result is the same as linking the tiles one after another. The
+   * stops crossing a tile border get a second chance in tiles shifted by half a tile, the rest
+   * are linked one at a time at the end.
+   * <p>
+   * The result is the same as linking the stops one by one, except for the order the stops are
+   * linked in and the labels of the split vertices.
+   */
+  private void linkTransitStopsInTiles(List<StopToLink> stops, ProgressTracker progress) {
+    var linker = graph.getLinker();
+    linker.runWithConcurrentLinking(() -> linkTransitStopsInTiles(linker, stops, progress));
+  }
+
+  private void linkTransitStopsInTiles(
+    VertexLinker linker,
+    List<StopToLink> stops,
+    ProgressTracker progress
+  ) {
+    var envelopes = linkingEnvelopes(linker, stops);
+    var tiles = TilePartition.of(stops, envelopes::get, TILE_SIZE_DEGREES, 0);
+    linkTiles(linker, tiles.tiles(), progress);
+
+    // The first pass splits edges and adds edges to areas, so the envelopes are out of date
+    envelopes = linkingEnvelopes(linker, tiles.crossingTileBorders());
+    var shiftedTiles = TilePartition.of(
+      tiles.crossingTileBorders(),
+      envelopes::get,
+      TILE_SIZE_DEGREES,
+      TILE_SIZE_DEGREES / 2
+    );
+    linkTiles(linker, shiftedTiles.tiles(), progress);
+
+    long start = System.currentTimeMillis();
+    linkTransitStops(linker, shiftedTiles.crossingTileBorders(), progress);
+    LOG.info(
+      "Linked {} stops crossing tile borders in {}",
+      shiftedTiles.crossingTileBorders().size(),
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+    );
+  }
+
+  private static Map<StopToLink, Envelope> linkingEnvelopes(
+    VertexLinker linker,
+    List<StopToLink> stops
+  ) {
+    long start = System.currentTimeMillis();
+    Map<StopToLink, Envelope> envelopes = stops
+      .parallelStream()
+      .collect(Collectors.toMap(Function.identity(), stop -> linkingEnvelope(linker, stop)));
+    LOG.info(
+      "Found the streets close to {} stops in {}",
+      stops.size(),
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+    );
+    return envelopes;
+  }
+
+  private void linkTiles(
+    VertexLinker linker,
+    List<List<StopToLink>> tiles,
+    ProgressTracker progress
+  ) {
+    long start = System.currentTimeMillis();
+    // The split vertices of tile i are labeled split_<n>_<i>_0, split_<n>_<i>_1 and so on
+    String splitLabelPrefix = "split_" + graph.nextSplitNumber++;
+    IntStream
+      .range(0, tiles.size())
+      .parallel()
+      .forEach(i ->
+        linkTransitStops(
+          linker.withSplitLabelPrefix(splitLabelPrefix + "_" + i),
+          tiles.get(i),
+          progress
+        )
+      );
+    LOG.info(
+      "Linked {} stops in {} tiles in {}",
+      tiles.stream().mapToInt(List::size).sum(),
+      tiles.size(),
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+    );
+  }
+
+  private static Envelope linkingEnvelope(VertexLinker linker, StopToLink stop) {
+    Envelope envelope = linker.linkingEnvelope(stop.vertex(), WALK_ONLY);
+    if (stop.linkType() == StopLinkType.WALK_AND_CAR) {
+      envelope.expandToInclude(linker.linkingEnvelope(stop.vertex(), CAR_ONLY));
+    }
+    return envelope;
   }
 
   /**
@@ -136,23 +258,25 @@ public class StreetLinkerModule implements GraphBuilderModule {
    * car-accessible. Therefore, flex stops are ensured to be connected to the car-accessible
    * edge. This may lead to several links being created.
    */
-  private void linkStopToStreetNetwork(TransitStopVertex tStop, StopLinkType linkType) {
-    graph
-      .getLinker()
-      .linkVertexPermanently(
-        tStop,
-        WALK_ONLY,
-        LinkingDirection.BOTH_WAYS,
-        (transitVertex, streetVertex) -> {
-          var linkEdges = createStopLinkEdges((TransitStopVertex) transitVertex, streetVertex);
-
-          if (linkType == StopLinkType.WALK_AND_CAR && !streetVertex.isConnectedToDriveableEdge()) {
-            linkToDriveableEdge(tStop);
-          }
-
-          return linkEdges;
+  private static void linkStopToStreetNetwork(
+    VertexLinker linker,
+    TransitStopVertex tStop,
+    StopLinkType linkType
+  ) {
+    linker.linkVertexPermanently(
+      tStop,
+      WALK_ONLY,
+      LinkingDirection.BOTH_WAYS,
+      (transitVertex, streetVertex) -> {
+        var linkEdges = createStopLinkEdges((TransitStopVertex) transitVertex, streetVertex);
+
+        if (linkType == StopLinkType.WALK_AND_CAR && !streetVertex.isConnectedToDriveableEdge()) {
+          linkToDriveableEdge(linker, tStop);
         }
-      );
+
+        return linkEdges;
+      }
+    );
   }
 
   /**
@@ -163,16 +287,14 @@ public class StreetLinkerModule implements GraphBuilderModule {
    *
    * @see https://github.com/opentripplanner/OpenTripPlanner/issues/5498
    */
-  private void linkToDriveableEdge(TransitStopVertex tStop) {
-    graph
-      .getLinker()
-      .linkVertexPermanently(
-        tStop,
-        CAR_ONLY,
-        LinkingDirection.BOTH_WAYS,
-        (transitVertex, streetVertex) ->
-          createStopLinkEdges((TransitStopVertex) transitVertex, streetVertex)
-      );
+  private static void linkToDriveableEdge(VertexLinker linker, TransitStopVertex tStop) {
+    linker.linkVertexPermanently(
+      tStop,
+      CAR_ONLY,
+      LinkingDirection.BOTH_WAYS,
+      (transitVertex, streetVertex) ->
+        createStopLinkEdges((TransitStopVertex) transitVertex, streetVertex)
+    );
   }
 
   @Nonnull
@@ -355,6 +477,8 @@ public class StreetLinkerModule implements GraphBuilderModule {
     }
   }
 
+  private record StopToLink(TransitStopVertex vertex, StopLinkType linkType) {}
+
   private enum StopLinkType {
     /**
      * Only ensure that the link leads to a walkable edge.
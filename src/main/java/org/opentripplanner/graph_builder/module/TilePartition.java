@@ -0,0 +1,72 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Groups items by the square tile of a grid their envelope is inside, so the items of different
+ * tiles have disjoint envelopes. The items whose envelope crosses the border of a tile are kept
+ * separately. The tiles are ordered by their first item, and the items keep their order, so the
+ * partition is the same in every run.
+ */
+class TilePartition<T> {
+
+  private final List<List<T>> tiles;
+  private final List<T> crossingTileBorders;
+
+  private TilePartition(List<List<T>> tiles, List<T> crossingTileBorders) {
+    this.tiles = tiles;
+    this.crossingTileBorders = crossingTileBorders;
+  }
+
+  /**
+   * @param tileSize the width and height of a tile, in degrees
+   * @param offset   the position of the grid, the tile borders are at {@code offset + n * tileSize}
+   */
+  static <T> TilePartition<T> of(
+    List<T> items,
+    Function<T, Envelope> envelope,
+    double tileSize,
+    double offset
+  ) {
+    Map<Tile, List<T>> tiles = new LinkedHashMap<>();
+    List<T> crossingTileBorders = new ArrayList<>();
+
+    for (T item : items) {
+      Envelope env = envelope.apply(item);
+      var tile = new Tile(
+        tileIndex(env.getMinX(), tileSize, offset),
+        tileIndex(env.getMinY(), tileSize, offset)
+      );
+      if (
+        tile.x() == tileIndex(env.getMaxX(), tileSize, offset) &&
+        tile.y() == tileIndex(env.getMaxY(), tileSize, offset)
+      ) {
+        tiles.computeIfAbsent(tile, it -> new ArrayList<>()).add(item);
+      } else {
+        crossingTileBorders.add(item);
+      }
+    }
+    return new TilePartition<>(List.copyOf(tiles.values()), crossingTileBorders);
+  }
+
+  /** The items of each tile. */
+  List<List<T>> tiles() {
+    return tiles;
+  }
+
+  /** The items whose envelope is not inside a single tile. */
+  List<T> crossingTileBorders() {
+    return crossingTileBorders;
+  }
+
+  private static long tileIndex(double coordinate, double tileSize, double offset) {
+    return (long) Math.floor((coordinate - offset) / tileSize);
+  }
+
+  private record Tile(long x, long y) {}
+}
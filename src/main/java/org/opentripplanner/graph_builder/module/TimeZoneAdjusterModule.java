@@ -1,12 +1,16 @@
 package org.opentripplanner.graph_builder.module;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
 import jakarta.inject.Inject;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.transit.service.TransitModel;
 
 /**
@@ -21,6 +25,16 @@ public class TimeZoneAdjusterModule implements GraphBuilderModule {
     this.transitModel = transitModel;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(TRANSIT_MODEL);
+  }
+
   @Override
   public void buildGraph() {
     // TODO: We assume that all time zones follow the same DST rules. In reality we need to split up
@@ -1,5 +1,7 @@
 package org.opentripplanner.graph_builder.module;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import jakarta.inject.Inject;
@@ -8,6 +10,7 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.transit.model.network.Route;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopLocation;
@@ -26,6 +29,16 @@ public class TripPatternNamer implements GraphBuilderModule {
     this.transitModel = transitModel;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(TRANSIT_MODEL);
+  }
+
   @Override
   public void buildGraph() {
     /* Generate unique human-readable names for all the TableTripPatterns. */
@@ -79,6 +79,7 @@ public class GraphBuilderModules {
       .withStaticParkAndRide(config.staticParkAndRide)
       .withStaticBikeParkAndRide(config.staticBikeParkAndRide)
       .withMaxAreaNodes(config.maxAreaNodes)
+      .withMemoryMappedNodeStore(config.osmMemoryMappedNodeStore)
       .withBoardingAreaRefTags(config.boardingLocationTags)
       .withIssueStore(issueStore)
       .build();
@@ -107,7 +108,8 @@ public class GraphBuilderModules {
       graph,
       issueStore,
       config.getTransitServicePeriod(),
-      config.fareServiceFactory
+      config.fareServiceFactory,
+      config.gtfsBundlesReadAhead
     );
   }
 
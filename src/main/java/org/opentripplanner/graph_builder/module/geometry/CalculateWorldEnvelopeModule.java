@@ -1,9 +1,16 @@
 package org.opentripplanner.graph_builder.module.geometry;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STREET_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.WORLD_ENVELOPE;
+
 import jakarta.inject.Inject;
 import java.util.Collection;
+import java.util.Set;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.service.worldenvelope.model.WorldEnvelope;
@@ -42,6 +49,16 @@ public class CalculateWorldEnvelopeModule implements GraphBuilderModule {
     this.worldEnvelopeRepository = worldEnvelopeRepository;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of(STREET_GRAPH, TRANSIT_GRAPH, TRANSIT_MODEL);
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(WORLD_ENVELOPE);
+  }
+
   @Override
   public void buildGraph() {
     var vertices = graph.getVertices();
@@ -0,0 +1,54 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Union-find data structure over the integers {@code 0..size-1}, which can be updated from many
+ * threads at the same time without locks. A set is always linked to the set with the smaller
+ * root, so when all unions are done the root of a set is its smallest element, independent of
+ * the order of the unions.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE
+ */
+class ConcurrentDisjointSet {
+
+  private final AtomicIntegerArray parents;
+
+  ConcurrentDisjointSet(int size) {
+    this.parents = new AtomicIntegerArray(size);
+    for (int i = 0; i < size; ++i) {
+      parents.set(i, i);
+    }
+  }
+
+  void union(int a, int b) {
+    while (true) {
+      int rootA = find(a);
+      int rootB = find(b);
+      if (rootA == rootB) {
+        return;
+      }
+      int larger = Math.max(rootA, rootB);
+      // Fails if another thread linked the root while we looked, then try again
+      if (parents.compareAndSet(larger, larger, Math.min(rootA, rootB))) {
+        return;
+      }
+    }
+  }
+
+  int find(int element) {
+    int i = element;
+    while (true) {
+      int parent = parents.get(i);
+      if (parent == i) {
+        return i;
+      }
+      int grandParent = parents.get(parent);
+      if (grandParent != parent) {
+        // Path halving, the parent of an element can only get smaller
+        parents.compareAndSet(i, parent, grandParent);
+      }
+      i = grandParent;
+    }
+  }
+}
@@ -0,0 +1,474 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TByteArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Finds the same islands as the breadth-first searches in {@link PruneIslands}, with union-find
+ * over dense vertex indexes instead. The edges are traversed once, in parallel over partitions of
+ * the vertices, and the sets are joined in parallel too. A {@link Subgraph} is only created for
+ * the islands which are small enough to be pruned, the other islands are only counted. The
+ * islands, and the order they are found in, are the same as with the searches.
+ * <p>
+ * As in {@link PruneIslands}, the islands are found in three steps:
+ * <ol>
+ *   <li>The islands without noThruTraffic edges. The vertices of these are <em>anchored</em> to
+ *   their island.</li>
+ *   <li>The islands with all edges.</li>
+ *   <li>Each island from step 1 is expanded with the vertices which are only reachable through
+ *   noThruTraffic edges, without entering another island. A free set of such vertices goes to
+ *   the first island next to it, in the order of the graph vertices, except for stops which go
+ *   to all islands next to them. The free sets which are not next to any island are islands of
+ *   their own.</li>
+ * </ol>
+ */
+class IslandFinder {
+
+  /** The number of vertices traversed in each parallel task */
+  private static final int PARTITION_SIZE = 10_000;
+
+  private static final byte THRU_TRAFFIC = 0;
+  private static final byte NO_THRU_TRAFFIC = 1;
+
+  private static final int NONE = Integer.MAX_VALUE;
+
+  private final Vertex[] vertices;
+  private final List<EdgePartition> partitions;
+  private final boolean[] hasThruTrafficNeighbors;
+  private final boolean[] hasNeighbors;
+  private final ConcurrentDisjointSet thruTrafficSets;
+  private final ConcurrentDisjointSet allSets;
+
+  IslandFinder(Collection<Vertex> graphVertices, TraverseMode traverseMode) {
+    var graphVertexArray = graphVertices.toArray(Vertex[]::new);
+    TObjectIntMap<Vertex> index = new TObjectIntHashMap<>(graphVertexArray.length, 0.5f, -1);
+    for (int i = 0; i < graphVertexArray.length; ++i) {
+      index.put(graphVertexArray[i], i);
+    }
+    var request = PruneIslands.streetSearchRequest(traverseMode);
+
+    this.partitions =
+      IntStream
+        .range(0, (graphVertexArray.length + PARTITION_SIZE - 1) / PARTITION_SIZE)
+        .parallel()
+        .mapToObj(p -> traverse(graphVertexArray, p, index, request, traverseMode))
+        .toList();
+    this.vertices = indexVerticesOutsideGraph(graphVertexArray, index);
+
+    int n = vertices.length;
+    this.hasThruTrafficNeighbors = new boolean[n];
+    this.hasNeighbors = new boolean[n];
+    this.thruTrafficSets = new ConcurrentDisjointSet(n);
+    this.allSets = new ConcurrentDisjointSet(n);
+
+    partitions
+      .parallelStream()
+      .forEach(p -> {
+        for (int e = 0; e < p.size(); ++e) {
+          int from = p.from.get(e);
+          int to = p.to.get(e);
+          hasNeighbors[from] = true;
+          hasNeighbors[to] = true;
+          allSets.union(from, to);
+          if (p.kinds.get(e) != NO_THRU_TRAFFIC) {
+            hasThruTrafficNeighbors[from] = true;
+            hasThruTrafficNeighbors[to] = true;
+            thruTrafficSets.union(from, to);
+          }
+        }
+      });
+  }
+
+  /** The number of islands without noThruTraffic edges, step 1. */
+  int countIslandsWithoutNoThruTraffic() {
+    return islandStarts(i -> hasThruTrafficNeighbors[i], thruTrafficSets).size();
+  }
+
+  /** The islands with all edges, step 2. */
+  Islands islandsWithNoThruTraffic(double maxStreetSize) {
+    var starts = islandStarts(i -> hasNeighbors[i], allSets);
+    int[] streetSizeBySet = new int[vertices.length];
+    boolean[] hasStopsBySet = new boolean[vertices.length];
+    for (int i = 0; i < vertices.length; ++i) {
+      if (hasNeighbors[i]) {
+        if (isStop(i)) {
+          hasStopsBySet[allSets.find(i)] = true;
+        } else {
+          ++streetSizeBySet[allSets.find(i)];
+        }
+      }
+    }
+    int[] streetSizes = new int[starts.size()];
+    boolean[] hasStops = new boolean[starts.size()];
+    for (int k = 0; k < starts.size(); ++k) {
+      streetSizes[k] = streetSizeBySet[allSets.find(starts.get(k))];
+      hasStops[k] = hasStopsBySet[allSets.find(starts.get(k))];
+    }
+
+    int largest = largest(streetSizes);
+    var candidates = candidates(streetSizes, largest, maxStreetSize);
+    var candidateBySet = new int[vertices.length];
+    Arrays.fill(candidateBySet, NONE);
+    for (int c = 0; c < candidates.size(); ++c) {
+      candidateBySet[allSets.find(starts.get(candidates.get(c)))] = c;
+    }
+    var members = newMemberSets(candidates.size());
+    for (int i = 0; i < vertices.length; ++i) {
+      if (hasNeighbors[i]) {
+        int c = candidateBySet[allSets.find(i)];
+        if (c != NONE) {
+          members.get(c).add(i);
+        }
+      }
+    }
+    return new Islands(
+      starts.size(),
+      countWithStops(hasStops, largest),
+      subgraphs(candidates, members)
+    );
+  }
+
+  /**
+   * The islands from step 1 expanded with the vertices only reachable through noThruTraffic
+   * edges, followed by the islands of the free vertices, step 3.
+   */
+  Islands expandedIslands(double maxStreetSize) {
+    int n = vertices.length;
+    var anchorStarts = islandStarts(i -> hasThruTrafficNeighbors[i], thruTrafficSets);
+    int[] anchorBySet = new int[n];
+    Arrays.fill(anchorBySet, NONE);
+    for (int k = 0; k < anchorStarts.size(); ++k) {
+      anchorBySet[thruTrafficSets.find(anchorStarts.get(k))] = k;
+    }
+
+    // The sets of the vertices which are not anchored, and the first anchor next to each set
+    var freeSets = new ConcurrentDisjointSet(n);
+    var ownerBySet = new AtomicIntegerArray(n);
+    for (int i = 0; i < n; ++i) {
+      ownerBySet.set(i, NONE);
+    }
+    partitions
+      .parallelStream()
+      .forEach(p -> {
+        for (int e = 0; e < p.size(); ++e) {
+          if (!isAnchored(p.from.get(e)) && !isAnchored(p.to.get(e))) {
+            freeSets.union(p.from.get(e), p.to.get(e));
+          }
+        }
+      });
+    partitions
+      .parallelStream()
+      .forEach(p -> {
+        for (int e = 0; e < p.size(); ++e) {
+          claim(p.from.get(e), p.to.get(e), anchorBySet, freeSets, ownerBySet);
+          claim(p.to.get(e), p.from.get(e), anchorBySet, freeSets, ownerBySet);
+        }
+      });
+
+    // Only sets with other vertices than stops are owned, stops go to all anchors next to them
+    int[] freeStreetSizeBySet = new int[n];
+    for (int i = 0; i < n; ++i) {
+      if (hasNeighbors[i] && !isAnchored(i) && !isStop(i)) {
+        ++freeStreetSizeBySet[freeSets.find(i)];
+      }
+    }
+    IntPredicate isOwned = i -> ownerBySet.get(i) != NONE && freeStreetSizeBySet[i] > 0;
+
+    var freeStarts = islandStarts(
+      i -> hasNeighbors[i] && !isAnchored(i) && !isOwned.test(freeSets.find(i)),
+      freeSets
+    );
+
+    var starts = new TIntArrayList(anchorStarts);
+    starts.addAll(freeStarts);
+    int nAnchors = anchorStarts.size();
+    int[] streetSizes = new int[starts.size()];
+    for (int i = 0; i < n; ++i) {
+      if (isAnchored(i)) {
+        ++streetSizes[anchorBySet[thruTrafficSets.find(i)]];
+      } else if (hasNeighbors[i] && !isStop(i) && isOwned.test(freeSets.find(i))) {
+        ++streetSizes[ownerBySet.get(freeSets.find(i))];
+      }
+    }
+    for (int k = nAnchors; k < starts.size(); ++k) {
+      streetSizes[k] = freeStreetSizeBySet[freeSets.find(starts.get(k))];
+    }
+
+    int largest = largest(streetSizes);
+    var candidates = candidates(streetSizes, largest, maxStreetSize);
+    int[] candidateByIsland = new int[starts.size()];
+    Arrays.fill(candidateByIsland, NONE);
+    for (int c = 0; c < candidates.size(); ++c) {
+      candidateByIsland[candidates.get(c)] = c;
+    }
+    int[] freeIslandBySet = new int[n];
+    Arrays.fill(freeIslandBySet, NONE);
+    for (int k = nAnchors; k < starts.size(); ++k) {
+      freeIslandBySet[freeSets.find(starts.get(k))] = k;
+    }
+
+    var members = newMemberSets(candidates.size());
+    boolean[] hasStops = new boolean[starts.size()];
+    for (int i = 0; i < n; ++i) {
+      int island = NONE;
+      if (isAnchored(i)) {
+        island = anchorBySet[thruTrafficSets.find(i)];
+      } else if (hasNeighbors[i]) {
+        int set = freeSets.find(i);
+        island = isOwned.test(set) ? ownerBySet.get(set) : freeIslandBySet[set];
+      }
+      if (island != NONE) {
+        addMember(i, island, candidateByIsland, members, hasStops);
+      }
+    }
+    // The stops next to an anchored island belong to it, even if another island owns them
+    for (EdgePartition p : partitions) {
+      for (int e = 0; e < p.size(); ++e) {
+        addStop(p.from.get(e), p.to.get(e), anchorBySet, candidateByIsland, members, hasStops);
+        addStop(p.to.get(e), p.from.get(e), anchorBySet, candidateByIsland, members, hasStops);
+      }
+    }
+    return new Islands(
+      starts.size(),
+      countWithStops(hasStops, largest),
+      subgraphs(candidates, members)
+    );
+  }
+
+  /**
+   * The number of islands, the number of islands with stops except the largest island, and the
+   * islands which may be pruned in the order they are found. The largest island and the islands
+   * with more street vertices than the limit are not included in the candidates.
+   */
+  record Islands(int count, int countWithStops, List<Subgraph> candidates) {}
+
+  /* private methods */
+
+  private static EdgePartition traverse(
+    Vertex[] vertices,
+    int partition,
+    TObjectIntMap<Vertex> index,
+    StreetSearchRequest request,
+    TraverseMode traverseMode
+  ) {
+    var result = new EdgePartition();
+    int end = Math.min(vertices.length, (partition + 1) * PARTITION_SIZE);
+    for (int i = partition * PARTITION_SIZE; i < end; ++i) {
+      Vertex gv = vertices[i];
+      if (!(gv instanceof StreetVertex)) {
+        continue;
+      }
+      State s0 = new State(gv, request);
+      for (Edge e : gv.getOutgoing()) {
+        byte kind = e instanceof StreetEdge streetEdge && streetEdge.isNoThruTraffic(traverseMode)
+          ? NO_THRU_TRAFFIC
+          : THRU_TRAFFIC;
+        State[] states = e.traverse(s0);
+        if (State.isEmpty(states)) {
+          continue;
+        }
+        for (State state : states) {
+          result.add(i, index(state.getVertex(), index, result), kind);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static int index(Vertex vertex, TObjectIntMap<Vertex> index, EdgePartition partition) {
+    int i = index.get(vertex);
+    if (i != -1) {
+      return i;
+    }
+    // Not in the graph, given an index after all the graph vertices later
+    partition.verticesOutsideGraph.add(vertex);
+    return -partition.verticesOutsideGraph.size();
+  }
+
+  private Vertex[] indexVerticesOutsideGraph(Vertex[] graphVertices, TObjectIntMap<Vertex> index) {
+    var result = new ArrayList<>(Arrays.asList(graphVertices));
+    for (EdgePartition p : partitions) {
+      for (int e = 0; e < p.size(); ++e) {
+        if (p.to.get(e) < 0) {
+          Vertex vertex = p.verticesOutsideGraph.get(-p.to.get(e) - 1);
+          if (!index.containsKey(vertex)) {
+            index.put(vertex, result.size());
+            result.add(vertex);
+          }
+          p.to.set(e, index.get(vertex));
+        }
+      }
+    }
+    return result.toArray(Vertex[]::new);
+  }
+
+  /**
+   * The first street vertex of each set in the order of the vertices, which is the vertex the
+   * search of the set starts from in {@link PruneIslands}.
+   */
+  private TIntList islandStarts(IntPredicate canStart, ConcurrentDisjointSet sets) {
+    var result = new TIntArrayList();
+    var found = new boolean[vertices.length];
+    for (int i = 0; i < vertices.length; ++i) {
+      if (vertices[i] instanceof StreetVertex && canStart.test(i)) {
+        int set = sets.find(i);
+        if (!found[set]) {
+          found[set] = true;
+          result.add(i);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The largest island is the last one with the most street vertices.
+   */
+  private static int largest(int[] streetSizes) {
+    int largest = -1;
+    int maxSize = 0;
+    for (int k = 0; k < streetSizes.length; ++k) {
+      if (streetSizes[k] >= maxSize) {
+        maxSize = streetSizes[k];
+        largest = k;
+      }
+    }
+    return largest;
+  }
+
+  /**
+   * The islands which may be pruned, all except the largest and the islands which have too many
+   * street vertices.
+   */
+  private static TIntList candidates(int[] streetSizes, int largest, double maxStreetSize) {
+    var result = new TIntArrayList();
+    for (int k = 0; k < streetSizes.length; ++k) {
+      if (k != largest && streetSizes[k] < maxStreetSize) {
+        result.add(k);
+      }
+    }
+    return result;
+  }
+
+  private static int countWithStops(boolean[] hasStops, int largest) {
+    int count = 0;
+    for (int k = 0; k < hasStops.length; ++k) {
+      if (k != largest && hasStops[k]) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  private List<Subgraph> subgraphs(TIntList candidates, List<TIntSet> members) {
+    var result = new ArrayList<Subgraph>();
+    for (int c = 0; c < candidates.size(); ++c) {
+      var subgraph = new Subgraph();
+      int[] vertexIndexes = members.get(c).toArray();
+      Arrays.sort(vertexIndexes);
+      for (int i : vertexIndexes) {
+        subgraph.addVertex(vertices[i]);
+      }
+      result.add(subgraph);
+    }
+    return result;
+  }
+
+  private void claim(
+    int anchored,
+    int free,
+    int[] anchorBySet,
+    ConcurrentDisjointSet freeSets,
+    AtomicIntegerArray ownerBySet
+  ) {
+    if (isAnchored(anchored) && !isAnchored(free)) {
+      int anchor = anchorBySet[thruTrafficSets.find(anchored)];
+      ownerBySet.accumulateAndGet(freeSets.find(free), anchor, Math::min);
+    }
+  }
+
+  private void addStop(
+    int anchored,
+    int stop,
+    int[] anchorBySet,
+    int[] candidateByIsland,
+    List<TIntSet> members,
+    boolean[] hasStops
+  ) {
+    if (isAnchored(anchored) && isStop(stop)) {
+      int island = anchorBySet[thruTrafficSets.find(anchored)];
+      addMember(stop, island, candidateByIsland, members, hasStops);
+    }
+  }
+
+  private void addMember(
+    int i,
+    int island,
+    int[] candidateByIsland,
+    List<TIntSet> members,
+    boolean[] hasStops
+  ) {
+    if (isStop(i)) {
+      hasStops[island] = true;
+    }
+    int c = candidateByIsland[island];
+    if (c != NONE) {
+      members.get(c).add(i);
+    }
+  }
+
+  private static List<TIntSet> newMemberSets(int size) {
+    var result = new ArrayList<TIntSet>();
+    for (int i = 0; i < size; ++i) {
+      result.add(new TIntHashSet());
+    }
+    return result;
+  }
+
+  private boolean isAnchored(int i) {
+    return hasThruTrafficNeighbors[i] && !isStop(i);
+  }
+
+  private boolean isStop(int i) {
+    return vertices[i] instanceof TransitStopVertex;
+  }
+
+  /** The traversed edges of a partition of the vertices, in the order they are traversed. */
+  private static class EdgePartition {
+
+    private final TIntArrayList from = new TIntArrayList();
+    private final TIntArrayList to = new TIntArrayList();
+    private final TByteArrayList kinds = new TByteArrayList();
+    private final List<Vertex> verticesOutsideGraph = new ArrayList<>();
+
+    void add(int from, int to, byte kind) {
+      this.from.add(from);
+      this.to.add(to);
+      this.kinds.add(kind);
+    }
+
+    int size() {
+      return from.size();
+    }
+  }
+}
@@ -12,6 +12,9 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GraphConnectivity;
 import org.opentripplanner.graph_builder.issues.IsolatedStop;
@@ -171,6 +174,47 @@ public class PruneIslands implements GraphBuilderModule {
      */
 
   private void pruneIslands(TraverseMode traverseMode) {
+    long start = System.currentTimeMillis();
+    if (OTPFeature.ParallelIslandDetection.isOn()) {
+      pruneIslandsUsingUnionFind(traverseMode);
+    } else {
+      pruneIslandsUsingSearch(traverseMode);
+    }
+    LOG.info(
+      "Pruned {} islands in {}",
+      traverseMode,
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+    );
+  }
+
+  /**
+   * The same as {@link #pruneIslandsUsingSearch(TraverseMode)}, but the islands are found with
+   * the {@link IslandFinder}.
+   */
+  private void pruneIslandsUsingUnionFind(TraverseMode traverseMode) {
+    Map<Edge, Boolean> isolated = new HashMap<>();
+    // Larger islands are never pruned, so no subgraph is needed for them
+    double maxStreetSize =
+      Math.max(pruningThresholdWithStops, pruningThresholdWithoutStops) * adaptivePruningFactor;
+
+    var finder = new IslandFinder(graph.getVertices(), traverseMode);
+    int count = finder.countIslandsWithoutNoThruTraffic();
+    LOG.info("Islands when {} noThruTraffic is considered: {}", traverseMode, count);
+
+    var islands = finder.islandsWithNoThruTraffic(maxStreetSize);
+    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, islands.count());
+
+    processIslands(islands, isolated, true, traverseMode);
+
+    islands = finder.expandedIslands(maxStreetSize);
+    LOG.info("{} noThruTraffic island count: {}", traverseMode, islands.count() - count);
+    LOG.info("Total {} sub graphs found", islands.count());
+
+    count = processIslands(islands, isolated, false, traverseMode);
+    LOG.info("Modified {} islands", count);
+  }
+
+  private void pruneIslandsUsingSearch(TraverseMode traverseMode) {
     LOG.debug("nothru pruning");
     Map<Vertex, Subgraph> subgraphs = new HashMap<>();
     Map<Vertex, Subgraph> extgraphs = new HashMap<>();
@@ -223,13 +267,6 @@ public class PruneIslands implements GraphBuilderModule {
     boolean markIsolated,
     TraverseMode traverseMode
   ) {
-    Map<String, Integer> stats = new HashMap<>();
-
-    stats.put("isolated", 0);
-    stats.put("removed", 0);
-    stats.put("noThru", 0);
-    stats.put("restricted", 0);
-
     Subgraph largest = null;
     int maxSize = 0;
 
@@ -241,9 +278,63 @@ public class PruneIslands implements GraphBuilderModule {
         largest = island;
       }
     }
+    int nIslandsWithStops = 0;
+    for (Subgraph island : islands) {
+      if (island != largest && island.stopSize() > 0) {
+        nIslandsWithStops++;
+      }
+    }
+    return processIslands(
+      islands,
+      largest,
+      islands.size(),
+      nIslandsWithStops,
+      isolated,
+      markIsolated,
+      traverseMode
+    );
+  }
+
+  private int processIslands(
+    IslandFinder.Islands islands,
+    Map<Edge, Boolean> isolated,
+    boolean markIsolated,
+    TraverseMode traverseMode
+  ) {
+    return processIslands(
+      islands.candidates(),
+      null,
+      islands.count(),
+      islands.countWithStops(),
+      isolated,
+      markIsolated,
+      traverseMode
+    );
+  }
+
+  /**
+   * @param largest           this island is not pruned
+   * @param nIslands          the total number of islands, for the issue report
+   * @param nIslandsWithStops the number of islands with stops, except the largest island, for the
+   *                          issue report
+   */
+  private int processIslands(
+    List<Subgraph> islands,
+    @Nullable Subgraph largest,
+    int nIslands,
+    int nIslandsWithStops,
+    Map<Edge, Boolean> isolated,
+    boolean markIsolated,
+    TraverseMode traverseMode
+  ) {
+    Map<String, Integer> stats = new HashMap<>();
+
+    stats.put("isolated", 0);
+    stats.put("removed", 0);
+    stats.put("noThru", 0);
+    stats.put("restricted", 0);
 
     int count = 0;
-    int islandsWithStops = 0;
     int islandsWithStopsChanged = 0;
     for (Subgraph island : islands) {
       if (island == largest) {
@@ -251,7 +342,6 @@ public class PruneIslands implements GraphBuilderModule {
       }
       if (island.stopSize() > 0) {
         //for islands with stops
-        islandsWithStops++;
         boolean onlyFerry = true;
         for (Iterator<Vertex> vIter = island.stopIterator(); vIter.hasNext();) {
           TransitStopVertex v = (TransitStopVertex) vIter.next();
@@ -294,7 +384,7 @@ public class PruneIslands implements GraphBuilderModule {
     if (markIsolated) {
       LOG.info("Detected {} isolated edges", stats.get("isolated"));
     } else {
-      LOG.info("Number of islands with stops: {}", islandsWithStops);
+      LOG.info("Number of islands with stops: {}", nIslandsWithStops);
       LOG.warn("Modified connectivity of {} islands with stops", islandsWithStopsChanged);
       LOG.info("Removed {} edges", stats.get("removed"));
       LOG.info("Removed traversal mode from {} edges", stats.get("restricted"));
@@ -302,8 +392,8 @@ public class PruneIslands implements GraphBuilderModule {
       issueStore.add(
         new GraphConnectivity(
           traverseMode,
-          islands.size(),
-          islandsWithStops,
+          nIslands,
+          nIslandsWithStops,
           islandsWithStopsChanged,
           stats.get("removed"),
           stats.get("restricted"),
@@ -319,15 +409,7 @@ public class PruneIslands implements GraphBuilderModule {
     TraverseMode traverseMode,
     boolean shouldMatchNoThruType
   ) {
-    StreetMode streetMode =
-      switch (traverseMode) {
-        case WALK -> StreetMode.WALK;
-        case BICYCLE -> StreetMode.BIKE;
-        case CAR -> StreetMode.CAR;
-        default -> throw new IllegalArgumentException();
-      };
-
-    StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
+    StreetSearchRequest request = streetSearchRequest(traverseMode);
 
     for (Vertex gv : graph.getVertices()) {
       if (!(gv instanceof StreetVertex)) {
@@ -360,6 +442,18 @@ public class PruneIslands implements GraphBuilderModule {
     }
   }
 
+  static StreetSearchRequest streetSearchRequest(TraverseMode traverseMode) {
+    StreetMode streetMode =
+      switch (traverseMode) {
+        case WALK -> StreetMode.WALK;
+        case BICYCLE -> StreetMode.BIKE;
+        case CAR -> StreetMode.CAR;
+        default -> throw new IllegalArgumentException();
+      };
+
+    return StreetSearchRequest.of().withMode(streetMode).build();
+  }
+
   private int collectSubGraphs(
     Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
     Map<Vertex, Subgraph> newgraphs, // put new subgraphs here
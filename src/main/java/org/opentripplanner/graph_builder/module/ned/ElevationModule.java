@@ -1,5 +1,7 @@
 package org.opentripplanner.graph_builder.module.ned;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.ELEVATION;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STREET_GRAPH;
 import static org.opentripplanner.street.model.elevation.ElevationUtils.computeEllipsoidToGeoidDifference;
 
 import java.io.BufferedOutputStream;
@@ -16,8 +18,10 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAccumulator;
 import org.geotools.api.coverage.Coverage;
 import org.geotools.api.coverage.PointOutsideCoverageException;
 import org.geotools.api.referencing.operation.TransformException;
@@ -36,6 +40,7 @@ import org.opentripplanner.graph_builder.issues.ElevationFlattened;
 import org.opentripplanner.graph_builder.issues.ElevationProfileFailure;
 import org.opentripplanner.graph_builder.issues.Graphwide;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.graph_builder.services.ned.ElevationGridCoverageFactory;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.street.model.edge.Edge;
@@ -57,6 +62,10 @@ import org.slf4j.LoggerFactory;
  * (x,y) pair represents one sample, with the x-coord representing the distance along the edge
  * measured from the start, and the y-coord representing the sampled elevation at that point (both
  * in meters).
+ * <p>
+ * If the elevation data can be decoded into a {@link TiledElevationRaster}, the samples are read
+ * directly from its tiles, which are shared by all threads. Otherwise, each thread uses its own
+ * GeoTools coverage.
  */
 public class ElevationModule implements GraphBuilderModule {
 
@@ -83,6 +92,7 @@ public class ElevationModule implements GraphBuilderModule {
   // used to provide thread-safe updating capabilities.
   private final AtomicInteger nPointsEvaluated = new AtomicInteger(0);
   private final AtomicInteger nPointsOutsideDEM = new AtomicInteger(0);
+  private final AtomicInteger nEdgesFromCache = new AtomicInteger(0);
   private final double distanceBetweenSamplesM;
 
   /** A concurrent hashmap used for storing geoid difference values at various coordinates */
@@ -100,8 +110,10 @@ public class ElevationModule implements GraphBuilderModule {
   private Coordinate examplarCoordinate;
   /** Used only when the ElevationModule is requested to be ran with a single thread */
   private Coverage singleThreadedCoverageInterpolator;
-  private double minElevation = Double.MAX_VALUE;
-  private double maxElevation = Double.MIN_VALUE;
+  /** The decoded elevation data, if supported by the coverage factory */
+  private TiledElevationRaster tiledRaster;
+  private final DoubleAccumulator minElevation = new DoubleAccumulator(Math::min, Double.MAX_VALUE);
+  private final DoubleAccumulator maxElevation = new DoubleAccumulator(Math::max, Double.MIN_VALUE);
 
   private final Map<Vertex, Double> elevationData;
 
@@ -148,10 +160,29 @@ public class ElevationModule implements GraphBuilderModule {
     this.distanceBetweenSamplesM = distanceBetweenSamplesM;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of(STREET_GRAPH);
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(ELEVATION);
+  }
+
   @Override
   public void buildGraph() {
     Instant start = Instant.now();
     gridCoverageFactory.fetchData(graph);
+    tiledRaster = gridCoverageFactory.getTiledRaster();
+    if (tiledRaster != null) {
+      LOG.info(
+        "Sampling elevation from a {}x{} raster in {} tiles",
+        tiledRaster.width(),
+        tiledRaster.height(),
+        tiledRaster.nTiles()
+      );
+    }
 
     graph.setDistanceBetweenElevationSamples(this.distanceBetweenSamplesM);
 
@@ -198,6 +229,7 @@ public class ElevationModule implements GraphBuilderModule {
     int totalElevationEdges = streetsWithElevationEdges.size();
 
     var progress = ProgressTracker.track("Set elevation", 25_000, totalElevationEdges);
+    long samplingStart = System.nanoTime();
 
     if (multiThreadElevationCalculations) {
       // Multi-threaded execution
@@ -233,6 +265,7 @@ public class ElevationModule implements GraphBuilderModule {
     }
 
     LOG.info(progress.completeMessage());
+    logSamplingStatistics(Duration.ofNanos(System.nanoTime() - samplingStart));
 
     // Iterate again to find edges that had elevation calculated.
     LinkedList<StreetEdge> edgesWithCalculatedElevations = new LinkedList<>();
@@ -303,8 +336,28 @@ public class ElevationModule implements GraphBuilderModule {
   private void updateElevationMetadata(Graph graph) {
     if (nPointsOutsideDEM.get() < nPointsEvaluated.get()) {
       graph.hasElevation = true;
-      graph.minElevation = minElevation;
-      graph.maxElevation = maxElevation;
+      graph.minElevation = minElevation.get();
+      graph.maxElevation = maxElevation.get();
+    }
+  }
+
+  private void logSamplingStatistics(Duration duration) {
+    int nPoints = nPointsEvaluated.get() + nPointsOutsideDEM.get();
+    double seconds = duration.toNanos() / 1e9;
+    LOG.info(
+      "Sampled elevation at {} points in {} ({} samples per second), {} edge profiles reused " +
+      "from cached elevations",
+      nPoints,
+      DurationUtils.durationToStr(duration),
+      seconds > 0 ? Math.round(nPoints / seconds) : nPoints,
+      nEdgesFromCache.get()
+    );
+    if (tiledRaster != null) {
+      LOG.info(
+        "Decoded {} of {} elevation tiles",
+        tiledRaster.nTilesDecoded(),
+        tiledRaster.nTiles()
+      );
     }
   }
 
@@ -389,13 +442,14 @@ public class ElevationModule implements GraphBuilderModule {
       if (coordinateSequence != null) {
         // found a cached value! Set the elevation profile with the pre-calculated data.
         setEdgeElevationProfile(ee, coordinateSequence);
+        nEdgesFromCache.incrementAndGet();
         return;
       }
     }
 
-    // Needs full calculation. Calculate with a thread-specific coverage instance to avoid waiting for any locks on
-    // coverage instances in other threads.
-    Coverage coverage = getThreadSpecificCoverageInterpolator();
+    // Needs full calculation. Calculate with the shared tiles, or with a thread-specific coverage instance to
+    // avoid waiting for any locks on coverage instances in other threads.
+    Coverage coverage = tiledRaster == null ? getThreadSpecificCoverageInterpolator() : null;
 
     // did not find a cached value, calculate
     // If any of the coordinates throw an error when trying to lookup their value, immediately bail and do not
@@ -550,13 +604,38 @@ public class ElevationModule implements GraphBuilderModule {
    * Method for retrieving the elevation at a given (x, y) pair.
    *
    * @param coverage the specific Coverage instance to use in order to avoid competition between
-   *                 threads
+   *                 threads, {@code null} if the tiled raster is used
    * @param x        the query longitude (NAD83)
    * @param y        the query latitude (NAD83)
    * @return elevation in meters
    */
   private double getElevation(Coverage coverage, double x, double y)
     throws PointOutsideCoverageException, TransformException {
+    double value = tiledRaster != null ? sampleTiledRaster(x, y) : evaluateCoverage(coverage, x, y);
+
+    var elevation =
+      (value * gridCoverageFactory.elevationUnitMultiplier()) -
+      (includeEllipsoidToGeoidDifference ? getApproximateEllipsoidToGeoidDifference(y, x) : 0);
+
+    minElevation.accumulate(elevation);
+    maxElevation.accumulate(elevation);
+
+    nPointsEvaluated.incrementAndGet();
+
+    return elevation;
+  }
+
+  private double sampleTiledRaster(double x, double y) throws PointOutsideCoverageException {
+    double value = tiledRaster.sample(x, y);
+    if (Double.isNaN(value)) {
+      nPointsOutsideDEM.incrementAndGet();
+      throw new PointOutsideCoverageException("No elevation data at: " + x + ", " + y);
+    }
+    return value;
+  }
+
+  private double evaluateCoverage(Coverage coverage, double x, double y)
+    throws PointOutsideCoverageException {
     double[] values = new double[1];
     try {
       // We specify a CRS here because otherwise the coordinates are assumed to be in the coverage's native CRS.
@@ -569,17 +648,7 @@ public class ElevationModule implements GraphBuilderModule {
       nPointsOutsideDEM.incrementAndGet();
       throw e;
     }
-
-    var elevation =
-      (values[0] * gridCoverageFactory.elevationUnitMultiplier()) -
-      (includeEllipsoidToGeoidDifference ? getApproximateEllipsoidToGeoidDifference(y, x) : 0);
-
-    minElevation = Math.min(minElevation, elevation);
-    maxElevation = Math.max(maxElevation, elevation);
-
-    nPointsEvaluated.incrementAndGet();
-
-    return elevation;
+    return values[0];
   }
 
   /**
@@ -1,17 +1,26 @@
 package org.opentripplanner.graph_builder.module.ned;
 
+import it.geosolutions.jaiext.range.NoDataContainer;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.DataBuffer;
+import java.awt.image.RenderedImage;
 import java.io.File;
 import java.io.IOException;
 import javax.media.jai.InterpolationBilinear;
 import org.geotools.api.coverage.grid.GridCoverage;
+import org.geotools.api.metadata.spatial.PixelOrientation;
 import org.geotools.coverage.grid.GridCoverage2D;
 import org.geotools.coverage.grid.Interpolator2D;
+import org.geotools.coverage.util.CoverageUtilities;
 import org.geotools.gce.geotiff.GeoTiffFormat;
 import org.geotools.gce.geotiff.GeoTiffReader;
+import org.geotools.referencing.CRS;
 import org.geotools.util.factory.Hints;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
+import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.graph_builder.services.ned.ElevationGridCoverageFactory;
 import org.opentripplanner.routing.graph.Graph;
 import org.slf4j.Logger;
@@ -27,6 +36,8 @@ public class GeotiffGridCoverageFactoryImpl implements ElevationGridCoverageFact
   private final DataSource input;
   private final double elevationUnitMultiplier;
   private GridCoverage2D coverage;
+  private TiledElevationRaster tiledRaster;
+  private boolean tiledRasterCreated = false;
 
   public GeotiffGridCoverageFactoryImpl(DataSource dataSource, double elevationUnitMultiplier) {
     this.input = dataSource;
@@ -48,6 +59,20 @@ public class GeotiffGridCoverageFactoryImpl implements ElevationGridCoverageFact
     );
   }
 
+  /**
+   * Decodes the raster into tiles if it is unprojected in (longitude, latitude) order and north-up
+   * with a single precision or integer sample type. These are sampled the same way as the coverage
+   * from {@link #getGridCoverage()}.
+   */
+  @Override
+  public TiledElevationRaster getTiledRaster() {
+    if (!tiledRasterCreated) {
+      tiledRaster = createTiledRaster(getUninterpolatedGridCoverage());
+      tiledRasterCreated = true;
+    }
+    return tiledRaster;
+  }
+
   @Override
   public double elevationUnitMultiplier() {
     return elevationUnitMultiplier;
@@ -92,6 +117,44 @@ public class GeotiffGridCoverageFactoryImpl implements ElevationGridCoverageFact
     return coverage;
   }
 
+  private static TiledElevationRaster createTiledRaster(GridCoverage2D coverage) {
+    if (
+      !CRS.equalsIgnoreMetadata(coverage.getCoordinateReferenceSystem2D(), GeometryUtils.WGS84_XY)
+    ) {
+      return null;
+    }
+    var gridToCrs = coverage.getGridGeometry().getGridToCRS2D(PixelOrientation.UPPER_LEFT);
+    if (!(gridToCrs instanceof AffineTransform transform)) {
+      return null;
+    }
+    if (transform.getShearX() != 0 || transform.getShearY() != 0) {
+      return null;
+    }
+    RenderedImage image = coverage.getRenderedImage();
+    int dataType = image.getSampleModel().getDataType();
+    if (dataType == DataBuffer.TYPE_DOUBLE) {
+      return null;
+    }
+    NoDataContainer noData = CoverageUtilities.getNoDataProperty(coverage);
+    int minX = image.getMinX();
+    int minY = image.getMinY();
+    return new TiledElevationRaster(
+      image.getWidth(),
+      image.getHeight(),
+      TiledElevationRaster.DEFAULT_TILE_SIZE,
+      transform.getTranslateX(),
+      transform.getTranslateY(),
+      transform.getScaleX(),
+      transform.getScaleY(),
+      noData == null ? Double.NaN : noData.getAsSingleValue(),
+      dataType != DataBuffer.TYPE_FLOAT,
+      (x, y, width, height) ->
+        image
+          .getData(new Rectangle(minX + x, minY + y, width, height))
+          .getSamples(minX + x, minY + y, width, height, 0, (float[]) null)
+    );
+  }
+
   private Object getSource() {
     return input.asInputStream();
   }
@@ -0,0 +1,212 @@
+package org.opentripplanner.graph_builder.module.ned;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A digital elevation model (DEM) decoded into tiles of {@code float} samples. A tile is decoded
+ * the first time a sample inside it is needed, and is then shared read-only by all threads. So
+ * sampling does not need any locks or thread-specific coverage instances, and each block of the
+ * DEM is decoded only once.
+ * <p>
+ * The raster must be north-up and unprojected, in (longitude, latitude) order. The samples are
+ * interpolated like this:
+ * <ul>
+ *   <li>Bilinear interpolation between the centers of the four nearest pixels, in {@code float}
+ *   arithmetic for floating point rasters and with 8 subsample bits for integer rasters.</li>
+ *   <li>The nearest pixel in the outer half of the border pixels.</li>
+ *   <li>No value outside the raster, or if one of the pixels used has the no-data value.</li>
+ * </ul>
+ * Away from no-data pixels this gives the same values as the bilinear GeoTools
+ * {@code Interpolator2D}. Near no-data pixels it does not: the {@link NoDataGridCoverage} only
+ * rejects a sample if the interpolated value is exactly the no-data value, so the no-data value
+ * is blended into the samples next to it. Here such samples have no value instead.
+ * THIS CLASS IS THREAD-SAFE
+ */
+public class TiledElevationRaster {
+
+  public static final int DEFAULT_TILE_SIZE = 256;
+
+  private static final int SUBSAMPLE_BITS = 8;
+  private static final int ROUND = 1 << (2 * SUBSAMPLE_BITS - 1);
+
+  private final int width;
+  private final int height;
+  private final int tileSize;
+  private final int nTilesX;
+  private final double originX;
+  private final double originY;
+  private final double pixelSizeX;
+  private final double pixelSizeY;
+  private final double noData;
+  private final boolean integerSamples;
+  private final TileReader reader;
+  private final AtomicReferenceArray<float[]> tiles;
+  private final AtomicInteger nTilesDecoded = new AtomicInteger();
+
+  /**
+   * @param originX        the longitude of the upper left corner of the raster
+   * @param originY        the latitude of the upper left corner of the raster
+   * @param pixelSizeX     the width of a pixel in degrees
+   * @param pixelSizeY     the height of a pixel in degrees, negative for north-up rasters
+   * @param noData         the no-data value of the raster, {@link Double#NaN} if none
+   * @param integerSamples {@code true} if the samples of the raster are integers
+   */
+  public TiledElevationRaster(
+    int width,
+    int height,
+    int tileSize,
+    double originX,
+    double originY,
+    double pixelSizeX,
+    double pixelSizeY,
+    double noData,
+    boolean integerSamples,
+    TileReader reader
+  ) {
+    this.width = width;
+    this.height = height;
+    this.tileSize = tileSize;
+    this.nTilesX = (width + tileSize - 1) / tileSize;
+    this.originX = originX;
+    this.originY = originY;
+    this.pixelSizeX = pixelSizeX;
+    this.pixelSizeY = pixelSizeY;
+    this.noData = noData;
+    this.integerSamples = integerSamples;
+    this.reader = reader;
+    this.tiles = new AtomicReferenceArray<>(nTilesX * ((height + tileSize - 1) / tileSize));
+  }
+
+  /**
+   * The elevation at the given coordinate, in the unit of the raster.
+   *
+   * @param x longitude
+   * @param y latitude
+   * @return {@link Double#NaN} if the coordinate is outside the raster or has no data.
+   */
+  public double sample(double x, double y) {
+    double px = (x - originX) / pixelSizeX;
+    double py = (y - originY) / pixelSizeY;
+    if (!(px >= 0 && py >= 0 && px < width && py < height)) {
+      return Double.NaN;
+    }
+    // Pixel centers are at (i + 0.5, j + 0.5)
+    double cx = px - 0.5;
+    double cy = py - 0.5;
+    int ix = (int) Math.floor(cx);
+    int iy = (int) Math.floor(cy);
+
+    double value;
+    if (ix < 0 || iy < 0 || ix >= width - 1 || iy >= height - 1) {
+      value = pixel((int) px, (int) py);
+    } else if (integerSamples) {
+      value = interpolate(ix, iy, subsample(cx - ix), subsample(cy - iy));
+    } else {
+      value = interpolate(ix, iy, (float) (cx - ix), (float) (cy - iy));
+    }
+    return isNoData(value) ? Double.NaN : value;
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  /** The number of tiles decoded so far. */
+  public int nTilesDecoded() {
+    return nTilesDecoded.get();
+  }
+
+  public int nTiles() {
+    return tiles.length();
+  }
+
+  /**
+   * Read a block of the raster. The samples of the first band are returned row by row.
+   */
+  @FunctionalInterface
+  public interface TileReader {
+    float[] read(int x, int y, int width, int height);
+  }
+
+  /* private methods */
+
+  /**
+   * The no-data value is not an elevation, so it must not be interpolated with the other pixels.
+   * There is no value if one of the four pixels has no data.
+   */
+  private double interpolate(int ix, int iy, float xfrac, float yfrac) {
+    float s00 = pixel(ix, iy);
+    float s01 = pixel(ix + 1, iy);
+    float s10 = pixel(ix, iy + 1);
+    float s11 = pixel(ix + 1, iy + 1);
+    if (isNoData(s00) || isNoData(s01) || isNoData(s10) || isNoData(s11)) {
+      return Double.NaN;
+    }
+    float s0 = (s01 - s00) * xfrac + s00;
+    float s1 = (s11 - s10) * xfrac + s10;
+    return (s1 - s0) * yfrac + s0;
+  }
+
+  private double interpolate(int ix, int iy, int xfrac, int yfrac) {
+    float p00 = pixel(ix, iy);
+    float p01 = pixel(ix + 1, iy);
+    float p10 = pixel(ix, iy + 1);
+    float p11 = pixel(ix + 1, iy + 1);
+    if (isNoData(p00) || isNoData(p01) || isNoData(p10) || isNoData(p11)) {
+      return Double.NaN;
+    }
+    int s00 = (int) p00;
+    int s01 = (int) p01;
+    int s10 = (int) p10;
+    int s11 = (int) p11;
+    int s0 = (s01 - s00) * xfrac + (s00 << SUBSAMPLE_BITS);
+    int s1 = (s11 - s10) * xfrac + (s10 << SUBSAMPLE_BITS);
+    return ((s1 - s0) * yfrac + (s0 << SUBSAMPLE_BITS) + ROUND) >> (2 * SUBSAMPLE_BITS);
+  }
+
+  private boolean isNoData(double value) {
+    return value == noData || Double.isNaN(value);
+  }
+
+  private static int subsample(double fraction) {
+    return (int) (fraction * (1 << SUBSAMPLE_BITS));
+  }
+
+  private float pixel(int col, int row) {
+    int tileX = col / tileSize;
+    int tileY = row / tileSize;
+    float[] tile = tile(tileY * nTilesX + tileX, tileX, tileY);
+    return tile[(row - tileY * tileSize) * tileWidth(tileX) + (col - tileX * tileSize)];
+  }
+
+  private float[] tile(int index, int tileX, int tileY) {
+    float[] tile = tiles.get(index);
+    if (tile == null) {
+      // The readers of the underlying image are not guaranteed to be thread-safe
+      synchronized (reader) {
+        tile = tiles.get(index);
+        if (tile == null) {
+          tile =
+            reader.read(
+              tileX * tileSize,
+              tileY * tileSize,
+              tileWidth(tileX),
+              Math.min(tileSize, height - tileY * tileSize)
+            );
+          tiles.set(index, tile);
+          nTilesDecoded.incrementAndGet();
+        }
+      }
+    }
+    return tile;
+  }
+
+  private int tileWidth(int tileX) {
+    return Math.min(tileSize, width - tileX * tileSize);
+  }
+}
@@ -5,6 +5,7 @@ import com.google.common.collect.Multimap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,10 @@ class AreaGroup {
 
   private static final Logger LOG = LoggerFactory.getLogger(AreaGroup.class);
 
+  private static final Comparator<Area> AREA_ORDER = Comparator.comparingLong(a ->
+    a.parent.getId()
+  );
+
   /*
    * The list of underlying areas, used when generating edges out of the visibility graph
    */
@@ -115,8 +120,17 @@ class AreaGroup {
       }
     }
 
-    List<AreaGroup> out = new ArrayList<>();
+    // Sort the areas and the groups by OSM id, so the graph is the same each time it is built
+    List<List<Area>> areaSets = new ArrayList<>();
     for (Set<Area> areaSet : groups.sets()) {
+      List<Area> areaList = new ArrayList<>(areaSet);
+      areaList.sort(AREA_ORDER);
+      areaSets.add(areaList);
+    }
+    areaSets.sort(Comparator.comparing(areas -> areas.get(0), AREA_ORDER));
+
+    List<AreaGroup> out = new ArrayList<>();
+    for (List<Area> areaSet : areaSets) {
       try {
         out.add(new AreaGroup(areaSet));
       } catch (RingConstructionException e) {
@@ -0,0 +1,39 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+/**
+ * Keep all nodes with their tags on the heap. This is the fastest store, but it uses a lot of
+ * memory for big extracts, see {@link MemoryMappedOsmNodeStore}.
+ */
+class HeapOsmNodeStore implements OsmNodeStore {
+
+  private final TLongObjectMap<OSMNode> nodesById = new TLongObjectHashMap<>();
+
+  @Override
+  public void add(OSMNode node) {
+    if (!nodesById.containsKey(node.getId())) {
+      nodesById.put(node.getId(), node);
+    }
+  }
+
+  @Override
+  public OSMNode get(long id) {
+    return nodesById.get(id);
+  }
+
+  @Override
+  public boolean contains(long id) {
+    return nodesById.containsKey(id);
+  }
+
+  @Override
+  public int size() {
+    return nodesById.size();
+  }
+
+  @Override
+  public void close() {}
+}
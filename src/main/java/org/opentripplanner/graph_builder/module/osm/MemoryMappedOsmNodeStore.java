@@ -0,0 +1,272 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Store the coordinates of the nodes without tags in a memory-mapped file, outside the heap. Most
+ * of the nodes in an extract only carry a coordinate, so this reduces the heap needed to build a
+ * continental graph a lot. The nodes with tags are kept on the heap.
+ * <p>
+ * Each node is stored as an id and a latitude and longitude with 7 decimals, which is the
+ * precision of OSM. The entries are sorted by id before the first lookup, a node is found with a
+ * binary search and a new {@link OSMNode} is created for each lookup. The created nodes do not
+ * have an {@link org.opentripplanner.openstreetmap.OsmProvider}.
+ * <p>
+ * The nodes can be looked up from several threads, but only one thread can add nodes.
+ */
+class MemoryMappedOsmNodeStore implements OsmNodeStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MemoryMappedOsmNodeStore.class);
+
+  /** Tags not used when building the street graph. Nodes with only these are stored off-heap. */
+  private static final Set<String> IGNORED_TAGS = Set.of(
+    "created_by",
+    "source",
+    "note",
+    "fixme",
+    "comment",
+    "attribution"
+  );
+
+  private static final double PRECISION = 1e7;
+
+  /** An entry is the id (long) followed by the latitude and the longitude (int). */
+  private static final int ENTRY_SIZE = 16;
+  private static final int ENTRIES_PER_CHUNK = 1 << 23;
+  private static final long CHUNK_SIZE = (long) ENTRY_SIZE * ENTRIES_PER_CHUNK;
+
+  private final TLongObjectMap<OSMNode> nodesWithTags = new TLongObjectHashMap<>();
+  private final List<MappedByteBuffer> chunks = new ArrayList<>();
+  private final FileChannel channel;
+
+  private long size = 0;
+  private long lastId = Long.MIN_VALUE;
+  private volatile boolean sorted = true;
+
+  MemoryMappedOsmNodeStore() {
+    try {
+      Path file = Files.createTempFile("otp-osm-nodes-", ".bin");
+      this.channel =
+        FileChannel.open(
+          file,
+          StandardOpenOption.READ,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.DELETE_ON_CLOSE
+        );
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void add(OSMNode node) {
+    long id = node.getId();
+    // Virtual nodes have a negative id and are added after the nodes are sorted
+    if (id < 0 || hasTagsUsedInRouting(node)) {
+      if (!nodesWithTags.containsKey(id)) {
+        nodesWithTags.put(id, node);
+      }
+      return;
+    }
+    if (size == (long) chunks.size() * ENTRIES_PER_CHUNK) {
+      addChunk();
+    }
+    write(size, id, (int) Math.round(node.lat * PRECISION), (int) Math.round(node.lon * PRECISION));
+    ++size;
+    if (id <= lastId) {
+      sorted = false;
+    }
+    lastId = id;
+  }
+
+  @Override
+  public OSMNode get(long id) {
+    OSMNode node = nodesWithTags.get(id);
+    if (node != null) {
+      return node;
+    }
+    long index = indexOf(id);
+    if (index < 0) {
+      return null;
+    }
+    node = new OSMNode();
+    node.setId(id);
+    node.lat = latitude(index) / PRECISION;
+    node.lon = longitude(index) / PRECISION;
+    return node;
+  }
+
+  @Override
+  public boolean contains(long id) {
+    return nodesWithTags.containsKey(id) || indexOf(id) >= 0;
+  }
+
+  @Override
+  public int size() {
+    ensureSorted();
+    return (int) (size + nodesWithTags.size());
+  }
+
+  /**
+   * Close the channel, which deletes the file. The mapped chunks are released when they are
+   * garbage collected.
+   */
+  @Override
+  public void close() {
+    chunks.clear();
+    nodesWithTags.clear();
+    size = 0;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static boolean hasTagsUsedInRouting(OSMNode node) {
+    for (String key : node.getTags().keySet()) {
+      if (!IGNORED_TAGS.contains(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private long indexOf(long id) {
+    ensureSorted();
+    long low = 0;
+    long high = size - 1;
+    while (low <= high) {
+      long mid = (low + high) >>> 1;
+      long midId = id(mid);
+      if (midId < id) {
+        low = mid + 1;
+      } else if (midId > id) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * The nodes are usually sorted by id in the file, but not if there are more than one file.
+   * Sort with a heapsort, it sorts in place and does not need any extra memory.
+   */
+  private void ensureSorted() {
+    if (sorted) {
+      return;
+    }
+    synchronized (this) {
+      if (sorted) {
+        return;
+      }
+      for (long i = size / 2 - 1; i >= 0; --i) {
+        siftDown(i, size);
+      }
+      for (long end = size - 1; end > 0; --end) {
+        swap(0, end);
+        siftDown(0, end);
+      }
+      removeDuplicates();
+      LOG.info(
+        "Sorted {} OSM nodes in memory-mapped file, {} nodes with tags on the heap.",
+        size,
+        nodesWithTags.size()
+      );
+      lastId = size == 0 ? Long.MIN_VALUE : id(size - 1);
+      sorted = true;
+    }
+  }
+
+  private void siftDown(long root, long end) {
+    while (true) {
+      long child = 2 * root + 1;
+      if (child >= end) {
+        return;
+      }
+      if (child + 1 < end && id(child + 1) > id(child)) {
+        ++child;
+      }
+      if (id(root) >= id(child)) {
+        return;
+      }
+      swap(root, child);
+      root = child;
+    }
+  }
+
+  /** The same node is in all the files where it is used. */
+  private void removeDuplicates() {
+    long n = 0;
+    for (long i = 0; i < size; ++i) {
+      if (n == 0 || id(i) != id(n - 1)) {
+        if (i != n) {
+          write(n, id(i), latitude(i), longitude(i));
+        }
+        ++n;
+      }
+    }
+    size = n;
+  }
+
+  private void swap(long i, long j) {
+    long id = id(i);
+    int lat = latitude(i);
+    int lon = longitude(i);
+    write(i, id(j), latitude(j), longitude(j));
+    write(j, id, lat, lon);
+  }
+
+  private long id(long index) {
+    return chunk(index).getLong(offset(index));
+  }
+
+  private int latitude(long index) {
+    return chunk(index).getInt(offset(index) + 8);
+  }
+
+  private int longitude(long index) {
+    return chunk(index).getInt(offset(index) + 12);
+  }
+
+  private void write(long index, long id, int lat, int lon) {
+    var chunk = chunk(index);
+    int offset = offset(index);
+    chunk.putLong(offset, id);
+    chunk.putInt(offset + 8, lat);
+    chunk.putInt(offset + 12, lon);
+  }
+
+  private MappedByteBuffer chunk(long index) {
+    return chunks.get((int) (index / ENTRIES_PER_CHUNK));
+  }
+
+  private static int offset(long index) {
+    return (int) (index % ENTRIES_PER_CHUNK) * ENTRY_SIZE;
+  }
+
+  private void addChunk() {
+    try {
+      long position = chunks.size() * CHUNK_SIZE;
+      chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK_SIZE));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
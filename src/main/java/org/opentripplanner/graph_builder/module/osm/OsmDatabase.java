@@ -59,8 +59,8 @@ public class OsmDatabase {
 
   private final DataImportIssueStore issueStore;
 
-  /* Map of all nodes used in ways/areas keyed by their OSM ID */
-  private final TLongObjectMap<OSMNode> nodesById = new TLongObjectHashMap<>();
+  /* All nodes used in ways/areas keyed by their OSM ID */
+  private final OsmNodeStore nodesById;
 
   /* Map of all bike parking nodes, keyed by their OSM ID */
   private final TLongObjectMap<OSMNode> bikeParkingNodes = new TLongObjectHashMap<>();
@@ -131,7 +131,16 @@ public class OsmDatabase {
   public boolean noZeroLevels = true;
 
   public OsmDatabase(DataImportIssueStore issueStore) {
+    this(issueStore, new HeapOsmNodeStore());
+  }
+
+  OsmDatabase(DataImportIssueStore issueStore, OsmNodeStore nodeStore) {
     this.issueStore = issueStore;
+    this.nodesById = nodeStore;
+  }
+
+  public DataImportIssueStore getIssueStore() {
+    return issueStore;
   }
 
   public OSMNode getNode(Long nodeId) {
@@ -227,10 +236,7 @@ public class OsmDatabase {
       return;
     }
 
-    if (nodesById.containsKey(node.getId())) {
-      return;
-    }
-    nodesById.put(node.getId(), node);
+    nodesById.add(node);
   }
 
   public void addWay(OSMWay way) {
@@ -636,7 +642,7 @@ public class OsmDatabase {
     node.setId(virtualNodeId);
     virtualNodeId--;
     waysNodeIds.add(node.getId());
-    nodesById.put(node.getId(), node);
+    nodesById.add(node);
     return node;
   }
 
@@ -685,7 +691,7 @@ public class OsmDatabase {
       TLongIterator longIterator = way.getNodeRefs().iterator();
       while (longIterator.hasNext()) {
         long nodeRef = longIterator.next();
-        if (!nodesById.containsKey(nodeRef)) {
+        if (!nodesById.contains(nodeRef)) {
           continue AREA;
         }
       }
@@ -735,7 +741,7 @@ public class OsmDatabase {
         TLongIterator wayNodeIterator = way.getNodeRefs().iterator();
         while (wayNodeIterator.hasNext()) {
           long nodeId = wayNodeIterator.next();
-          if (nodesById.containsKey(nodeId)) {
+          if (nodesById.contains(nodeId)) {
             MapUtils.addToMapSet(areasForNode, nodeId, way);
           } else {
             // this area is missing some nodes, perhaps because it is on
@@ -1,12 +1,16 @@
 package org.opentripplanner.graph_builder.module.osm;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STREET_GRAPH;
+
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import gnu.trove.iterator.TLongIterator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
@@ -17,6 +21,7 @@ import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.StreetCarSpeedZero;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.graph_builder.module.osm.parameters.OsmProcessingParameters;
 import org.opentripplanner.openstreetmap.OsmProvider;
 import org.opentripplanner.openstreetmap.model.OSMLevel;
@@ -43,6 +48,9 @@ public class OsmModule implements GraphBuilderModule {
 
   private static final Logger LOG = LoggerFactory.getLogger(OsmModule.class);
 
+  /** The number of area groups to keep the visibility for before it is added to the graph. */
+  private static final int AREA_VISIBILITY_BATCH_SIZE = 1_000;
+
   private final Map<Vertex, Double> elevationData = new HashMap<>();
 
   /**
@@ -54,6 +62,7 @@ public class OsmModule implements GraphBuilderModule {
   private final OsmProcessingParameters params;
   private final SafetyValueNormalizer normalizer;
   private final VertexGenerator vertexGenerator;
+  private final OsmNodeStore nodeStore;
   private final OsmDatabase osmdb;
 
   OsmModule(
@@ -66,7 +75,9 @@ public class OsmModule implements GraphBuilderModule {
     this.graph = graph;
     this.issueStore = issueStore;
     this.params = params;
-    this.osmdb = new OsmDatabase(issueStore);
+    this.nodeStore =
+      params.memoryMappedNodeStore() ? new MemoryMappedOsmNodeStore() : new HeapOsmNodeStore();
+    this.osmdb = new OsmDatabase(issueStore, nodeStore);
     this.vertexGenerator = new VertexGenerator(osmdb, graph, params.boardingAreaRefTags());
     this.normalizer = new SafetyValueNormalizer(graph, issueStore);
   }
@@ -79,21 +90,37 @@ public class OsmModule implements GraphBuilderModule {
     return of(List.of(provider), graph);
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(STREET_GRAPH);
+  }
+
   @Override
   public void buildGraph() {
-    for (OsmProvider provider : providers) {
-      LOG.info("Gathering OSM from provider: {}", provider);
-      LOG.info(
-        "Using OSM way configuration from {}.",
-        provider.getOsmTagMapper().getClass().getSimpleName()
-      );
-      provider.readOSM(osmdb);
+    try {
+      for (OsmProvider provider : providers) {
+        LOG.info("Gathering OSM from provider: {}", provider);
+        LOG.info(
+          "Using OSM way configuration from {}.",
+          provider.getOsmTagMapper().getClass().getSimpleName()
+        );
+        provider.readOSM(osmdb);
+      }
+      osmdb.postLoad();
+
+      LOG.info("Building street graph from OSM");
+      build();
+      graph.hasStreets = true;
+    } finally {
+      // The nodes of all the providers are needed to build the streets, so the store is closed
+      // when all the providers are processed
+      nodeStore.close();
     }
-    osmdb.postLoad();
-
-    LOG.info("Building street graph from OSM");
-    build();
-    graph.hasStreets = true;
   }
 
   @Override
@@ -171,6 +198,12 @@ public class OsmModule implements GraphBuilderModule {
     params.edgeNamer().postprocess();
 
     normalizer.applySafetyFactors();
+
+    for (OsmProvider provider : providers) {
+      for (String statistics : provider.getWayPropertySet().cacheStatistics()) {
+        LOG.info("OSM tag cache for {}. {}", provider, statistics);
+      }
+    }
   }
 
   /**
@@ -223,11 +256,16 @@ public class OsmModule implements GraphBuilderModule {
         50,
         areaGroups.size()
       );
-      for (AreaGroup group : areaGroups) {
-        walkableAreaBuilder.buildWithVisibility(group);
-        //Keep lambda! A method-ref would log incorrect class and line number
-        //noinspection Convert2MethodRef
-        progress.step(m -> LOG.info(m));
+      // The visible node pairs are found in parallel. The edges are added to the graph one group
+      // at a time in the order of the groups, so the graph is the same every time it is built.
+      for (List<AreaGroup> batch : Lists.partition(areaGroups, AREA_VISIBILITY_BATCH_SIZE)) {
+        var visibilities = batch.parallelStream().map(walkableAreaBuilder::findVisibility).toList();
+        for (var visibility : visibilities) {
+          walkableAreaBuilder.buildWithVisibility(visibility);
+          //Keep lambda! A method-ref would log incorrect class and line number
+          //noinspection Convert2MethodRef
+          progress.step(m -> LOG.info(m));
+        }
       }
       LOG.info(progress.completeMessage());
     }
@@ -23,6 +23,7 @@ public class OsmModuleBuilder {
   private boolean platformEntriesLinking = false;
   private boolean staticParkAndRide = false;
   private boolean staticBikeParkAndRide = false;
+  private boolean memoryMappedNodeStore = false;
   private int maxAreaNodes;
 
   OsmModuleBuilder(Collection<OsmProvider> providers, Graph graph) {
@@ -65,6 +66,11 @@ public class OsmModuleBuilder {
     return this;
   }
 
+  public OsmModuleBuilder withMemoryMappedNodeStore(boolean memoryMappedNodeStore) {
+    this.memoryMappedNodeStore = memoryMappedNodeStore;
+    return this;
+  }
+
   public OsmModuleBuilder withMaxAreaNodes(int maxAreaNodes) {
     this.maxAreaNodes = maxAreaNodes;
     return this;
@@ -82,7 +88,8 @@ public class OsmModuleBuilder {
         areaVisibility,
         platformEntriesLinking,
         staticParkAndRide,
-        staticBikeParkAndRide
+        staticBikeParkAndRide,
+        memoryMappedNodeStore
       )
     );
   }
@@ -0,0 +1,31 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import javax.annotation.Nullable;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+/**
+ * The OSM nodes used by ways and areas, keyed by their OSM id. Only the {@link OsmDatabase}
+ * should add nodes to the store.
+ */
+interface OsmNodeStore {
+  /**
+   * Add a node, if a node with the same id is not already added.
+   */
+  void add(OSMNode node);
+
+  /**
+   * The returned node may be a new instance for each call, nodes must be compared with
+   * {@link OSMNode#equals(Object)}.
+   */
+  @Nullable
+  OSMNode get(long id);
+
+  boolean contains(long id);
+
+  int size();
+
+  /**
+   * Release the resources used by the store. The store can not be used after this.
+   */
+  void close();
+}
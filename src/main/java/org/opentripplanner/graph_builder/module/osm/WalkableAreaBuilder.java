@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,6 +19,8 @@ import org.locationtech.jts.geom.MultiLineString;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
@@ -177,18 +180,16 @@ public class WalkableAreaBuilder {
   }
 
   public void buildWithVisibility(AreaGroup group) {
-    // These sets contain the nodes/vertices which can be used to traverse from the rest of the
-    // street network onto the walkable area
-    Set<OSMNode> startingNodes = new HashSet<>();
-    Set<Vertex> startingVertices = new HashSet<>();
-
-    // List of edges belonging to the walkable area
-    Set<Edge> edges = new HashSet<>();
-
-    // Edges which are part of the rings. We want to keep there for linking even tough they
-    // might not be part of the visibility edges.
-    Set<Edge> ringEdges = new HashSet<>();
+    buildWithVisibility(findVisibility(group));
+  }
 
+  /**
+   * Find the visibility nodes of each ring in the group and the pairs of them that can see each
+   * other. This is the expensive part of building the visibility graph. It only reads the OSM data
+   * and does not change the graph, so it can be done for many groups in parallel. The result is
+   * added to the graph with {@link #buildWithVisibility(AreaGroupVisibility)}.
+   */
+  AreaGroupVisibility findVisibility(AreaGroup group) {
     // OSM ways that this area group consists of
     Set<Long> osmWayIds = group.areas
       .stream()
@@ -200,49 +201,44 @@ public class WalkableAreaBuilder {
       )
       .collect(Collectors.toSet());
 
-    var references = getStopReferences(group);
+    GeometryFactory geometryFactory = GeometryUtils.getGeometryFactory();
 
-    // create polygon and accumulate nodes for area
+    List<RingVisibility> rings = new ArrayList<>();
     for (Ring ring : group.outermostRings) {
       Polygon polygon = ring.jtsPolygon;
 
-      AreaEdgeList edgeList = new AreaEdgeList(polygon, references);
-
+      List<Area> areas = new ArrayList<>();
+      Set<OSMNode> entrances = new LinkedHashSet<>();
+      List<OsmVertex> linkingEndpoints = new ArrayList<>();
       // the points corresponding to concave or hole vertices
       // or those linked to ways
-      HashSet<OSMNode> visibilityNodes = new HashSet<>();
-      HashSet<NodeEdge> alreadyAddedEdges = new HashSet<>();
-      HashSet<IntersectionVertex> platformLinkingVertices = new HashSet<>();
+      Set<OSMNode> visibilityNodes = new LinkedHashSet<>();
+      Set<OSMNode> startingNodes = new HashSet<>();
+      // Segments of the rings, these are always added as edges
+      Set<NodeEdge> ringSegments = new HashSet<>();
+
       // we need to accumulate visibility points from all contained areas
       // inside this ring, but only for shared nodes; we don't care about
       // convexity, which we'll handle for the grouped area only.
-
-      GeometryFactory geometryFactory = GeometryUtils.getGeometryFactory();
-
-      OSMWithTags areaEntity = group.getSomeOSMObject();
-
-      // we also want to fill in the edges of this area anyway, because we can,
-      // and to avoid the numerical problems that they tend to cause
       for (Area area : group.areas) {
         if (!polygon.contains(area.jtsMultiPolygon)) {
           continue;
         }
+        areas.add(area);
 
         // Add stops/entrances from public transit relations into the area
         // they may provide the only entrance to a platform
         // which otherwise would be pruned as unconnected island
-        Collection<OSMNode> entrances = osmdb.getStopsInArea(area.parent);
-        for (OSMNode node : entrances) {
-          var vertex = vertexBuilder.getVertexForOsmNode(node, areaEntity);
-          platformLinkingVertices.add(vertex);
+        Collection<OSMNode> areaEntrances = osmdb.getStopsInArea(area.parent);
+        for (OSMNode node : areaEntrances) {
+          entrances.add(node);
           visibilityNodes.add(node);
           startingNodes.add(node);
-          edgeList.addVisibilityVertex(vertex);
         }
 
         for (Ring outerRing : area.outermostRings) {
           // variable to indicate if some additional entrance points have been added to area
-          boolean linkPointsAdded = !entrances.isEmpty();
+          boolean linkPointsAdded = !areaEntrances.isEmpty();
           // Add unconnected entries to area if platformEntriesLinking parameter is true
           if (platformEntriesLinking && area.parent.isPlatform()) {
             List<OsmVertex> endpointsWithin = platformLinkingEndpoints
@@ -251,27 +247,18 @@ public class WalkableAreaBuilder {
                 outerRing.jtsPolygon.contains(geometryFactory.createPoint(t.getCoordinate()))
               )
               .toList();
-            platformLinkingVertices.addAll(endpointsWithin);
+            linkingEndpoints.addAll(endpointsWithin);
             for (OsmVertex v : endpointsWithin) {
               OSMNode node = osmdb.getNode(v.nodeId);
               visibilityNodes.add(node);
               startingNodes.add(node);
-              edgeList.addVisibilityVertex(v);
               linkPointsAdded = true;
             }
           }
 
           for (int i = 0; i < outerRing.nodes.size(); ++i) {
             OSMNode node = outerRing.nodes.get(i);
-            Set<AreaEdge> newEdges = createEdgesForRingSegment(
-              edgeList,
-              area,
-              outerRing,
-              i,
-              alreadyAddedEdges
-            );
-            edges.addAll(newEdges);
-            ringEdges.addAll(newEdges);
+            ringSegments.add(ringSegment(outerRing, i));
 
             // A node can only be a visibility node only if it is an entrance to the
             // area or a convex point, i.e. the angle is over 180 degrees.
@@ -282,103 +269,187 @@ public class WalkableAreaBuilder {
               (linkPointsAdded && (i == 0 || i == outerRing.nodes.size() / 2))
             ) {
               visibilityNodes.add(node);
-              edgeList.addVisibilityVertex(vertexBuilder.getVertexForOsmNode(node, areaEntity));
             }
             if (isStartingNode(node, osmWayIds)) {
               visibilityNodes.add(node);
               startingNodes.add(node);
-              edgeList.addVisibilityVertex(vertexBuilder.getVertexForOsmNode(node, areaEntity));
             }
           }
           for (Ring innerRing : outerRing.getHoles()) {
             for (int j = 0; j < innerRing.nodes.size(); ++j) {
               OSMNode node = innerRing.nodes.get(j);
-              edges.addAll(
-                createEdgesForRingSegment(edgeList, area, innerRing, j, alreadyAddedEdges)
-              );
+              ringSegments.add(ringSegment(innerRing, j));
               // A node can only be a visibility node only if it is an entrance to the
               // area or a convex point, i.e. the angle is over 180 degrees.
               // For holes, the internal angle is calculated, so we must swap the sign
               if (!innerRing.isNodeConvex(j)) {
                 visibilityNodes.add(node);
-                edgeList.addVisibilityVertex(vertexBuilder.getVertexForOsmNode(node, areaEntity));
               }
               if (isStartingNode(node, osmWayIds)) {
                 visibilityNodes.add(node);
                 startingNodes.add(node);
-                edgeList.addVisibilityVertex(vertexBuilder.getVertexForOsmNode(node, areaEntity));
               }
             }
           }
         }
       }
 
-      if (edgeList.visibilityVertices().isEmpty()) {
-        issueStore.add(new UnconnectedArea(group));
-        // Area is not connected to graph. Remove it immediately before it causes any trouble.
-        for (Edge edge : edges) {
-          graph.removeEdge(edge);
-        }
-        continue;
-      }
-
-      createNamedAreas(edgeList, ring, group.areas);
-
-      if (visibilityNodes.size() > maxAreaNodes) {
-        issueStore.add(new AreaTooComplicated(group, visibilityNodes.size(), maxAreaNodes));
-      }
-
       // if area is too complex, consider only part of visibility nodes
       // so that at least some edges passing through the area is added
       // otherwise routing can use only area boundary edges
+      List<OSMNode> sampledNodes = new ArrayList<>();
       float skip_ratio = (float) maxAreaNodes / (float) visibilityNodes.size();
       int i = 0;
       float sum_i = 0;
-      for (OSMNode nodeI : visibilityNodes) {
+      for (OSMNode node : visibilityNodes) {
         sum_i += skip_ratio;
         if (Math.floor(sum_i) < i + 1) {
           continue;
         }
         i = (int) Math.floor(sum_i);
-        IntersectionVertex startEndpoint = vertexBuilder.getVertexForOsmNode(nodeI, areaEntity);
-        if (startingNodes.contains(nodeI)) {
-          startingVertices.add(startEndpoint);
-        }
-        int j = 0;
-        float sum_j = 0;
-        for (OSMNode nodeJ : visibilityNodes) {
-          sum_j += skip_ratio;
-          if (Math.floor(sum_j) < j + 1) {
-            continue;
-          }
-          j = (int) Math.floor(sum_j);
-          NodeEdge edge = new NodeEdge(nodeI, nodeJ);
-          if (alreadyAddedEdges.contains(edge)) continue;
+        sampledNodes.add(node);
+      }
 
-          IntersectionVertex endEndpoint = vertexBuilder.getVertexForOsmNode(nodeJ, areaEntity);
+      // The prepared polygon indexes its segments, so only the segments close to a line are
+      // tested for intersection, instead of all the segments of the polygon.
+      PreparedGeometry preparedPolygon = PreparedGeometryFactory.prepare(polygon);
+      List<NodeEdge> visibleEdges = new ArrayList<>();
+      for (OSMNode nodeI : sampledNodes) {
+        for (OSMNode nodeJ : sampledNodes) {
+          NodeEdge edge = new NodeEdge(nodeI, nodeJ);
+          if (ringSegments.contains(edge)) continue;
 
           Coordinate[] coordinates = new Coordinate[] {
-            startEndpoint.getCoordinate(),
-            endEndpoint.getCoordinate(),
+            nodeI.getCoordinate(),
+            nodeJ.getCoordinate(),
           };
           LineString line = geometryFactory.createLineString(coordinates);
-          if (polygon.contains(line)) {
-            Set<AreaEdge> segments = createSegments(
-              startEndpoint,
-              endEndpoint,
-              group.areas,
-              edgeList
+          if (preparedPolygon.contains(line)) {
+            visibleEdges.add(edge);
+          }
+        }
+      }
+
+      rings.add(
+        new RingVisibility(
+          ring,
+          areas,
+          entrances,
+          linkingEndpoints,
+          visibilityNodes,
+          sampledNodes.stream().filter(startingNodes::contains).toList(),
+          visibleEdges
+        )
+      );
+    }
+    return new AreaGroupVisibility(group, rings);
+  }
+
+  /**
+   * Add the edges of the visibility graph found by {@link #findVisibility(AreaGroup)} to the
+   * graph. This creates vertices and edges, so it must be called for one group at a time.
+   */
+  void buildWithVisibility(AreaGroupVisibility visibility) {
+    AreaGroup group = visibility.group();
+
+    // The vertices which can be used to traverse from the rest of the street network onto the
+    // walkable area
+    Set<Vertex> startingVertices = new HashSet<>();
+
+    // List of edges belonging to the walkable area
+    Set<Edge> edges = new HashSet<>();
+
+    // Edges which are part of the rings. We want to keep there for linking even tough they
+    // might not be part of the visibility edges.
+    Set<Edge> ringEdges = new HashSet<>();
+
+    var references = getStopReferences(group);
+
+    OSMWithTags areaEntity = group.getSomeOSMObject();
+
+    for (RingVisibility ringVisibility : visibility.rings()) {
+      Ring ring = ringVisibility.ring();
+      AreaEdgeList edgeList = new AreaEdgeList(ring.jtsPolygon, references);
+
+      HashSet<NodeEdge> alreadyAddedEdges = new HashSet<>();
+      HashSet<IntersectionVertex> platformLinkingVertices = new HashSet<>();
+
+      // we also want to fill in the edges of this area anyway, because we can,
+      // and to avoid the numerical problems that they tend to cause
+      for (Area area : ringVisibility.areas()) {
+        for (Ring outerRing : area.outermostRings) {
+          for (int i = 0; i < outerRing.nodes.size(); ++i) {
+            Set<AreaEdge> newEdges = createEdgesForRingSegment(
+              edgeList,
+              area,
+              outerRing,
+              i,
+              alreadyAddedEdges
             );
-            edges.addAll(segments);
-            if (platformLinkingVertices.contains(startEndpoint)) {
-              ringEdges.addAll(segments);
-            }
-            if (platformLinkingVertices.contains(endEndpoint)) {
-              ringEdges.addAll(segments);
+            edges.addAll(newEdges);
+            ringEdges.addAll(newEdges);
+          }
+          for (Ring innerRing : outerRing.getHoles()) {
+            for (int j = 0; j < innerRing.nodes.size(); ++j) {
+              edges.addAll(
+                createEdgesForRingSegment(edgeList, area, innerRing, j, alreadyAddedEdges)
+              );
             }
           }
         }
       }
+
+      for (OSMNode node : ringVisibility.entrances()) {
+        platformLinkingVertices.add(vertexBuilder.getVertexForOsmNode(node, areaEntity));
+      }
+      for (OsmVertex v : ringVisibility.platformLinkingEndpoints()) {
+        platformLinkingVertices.add(v);
+        edgeList.addVisibilityVertex(v);
+      }
+      for (OSMNode node : ringVisibility.visibilityNodes()) {
+        edgeList.addVisibilityVertex(vertexBuilder.getVertexForOsmNode(node, areaEntity));
+      }
+
+      if (edgeList.visibilityVertices().isEmpty()) {
+        issueStore.add(new UnconnectedArea(group));
+        // Area is not connected to graph. Remove it immediately before it causes any trouble.
+        for (Edge edge : edges) {
+          graph.removeEdge(edge);
+        }
+        continue;
+      }
+
+      createNamedAreas(edgeList, ring, group.areas);
+
+      int visibilityNodeCount = ringVisibility.visibilityNodes().size();
+      if (visibilityNodeCount > maxAreaNodes) {
+        issueStore.add(new AreaTooComplicated(group, visibilityNodeCount, maxAreaNodes));
+      }
+
+      for (OSMNode node : ringVisibility.startingNodes()) {
+        startingVertices.add(vertexBuilder.getVertexForOsmNode(node, areaEntity));
+      }
+
+      for (NodeEdge edge : ringVisibility.visibleEdges()) {
+        IntersectionVertex startEndpoint = vertexBuilder.getVertexForOsmNode(
+          edge.from(),
+          areaEntity
+        );
+        IntersectionVertex endEndpoint = vertexBuilder.getVertexForOsmNode(edge.to(), areaEntity);
+        Set<AreaEdge> segments = createSegments(
+          startEndpoint,
+          endEndpoint,
+          group.areas,
+          edgeList
+        );
+        edges.addAll(segments);
+        if (platformLinkingVertices.contains(startEndpoint)) {
+          ringEdges.addAll(segments);
+        }
+        if (platformLinkingVertices.contains(endEndpoint)) {
+          ringEdges.addAll(segments);
+        }
+      }
     }
     pruneAreaEdges(startingVertices, edges, ringEdges);
   }
@@ -456,19 +527,24 @@ public class WalkableAreaBuilder {
     int i,
     HashSet<NodeEdge> alreadyAddedEdges
   ) {
-    OSMNode node = ring.nodes.get(i);
-    OSMNode nextNode = ring.nodes.get((i + 1) % ring.nodes.size());
-    NodeEdge nodeEdge = new NodeEdge(node, nextNode);
+    NodeEdge nodeEdge = ringSegment(ring, i);
     if (alreadyAddedEdges.contains(nodeEdge)) {
       return Set.of();
     }
     alreadyAddedEdges.add(nodeEdge);
-    IntersectionVertex startEndpoint = vertexBuilder.getVertexForOsmNode(node, area.parent);
-    IntersectionVertex endEndpoint = vertexBuilder.getVertexForOsmNode(nextNode, area.parent);
+    IntersectionVertex startEndpoint = vertexBuilder.getVertexForOsmNode(
+      nodeEdge.from(),
+      area.parent
+    );
+    IntersectionVertex endEndpoint = vertexBuilder.getVertexForOsmNode(nodeEdge.to(), area.parent);
 
     return createSegments(startEndpoint, endEndpoint, List.of(area), edgeList);
   }
 
+  private static NodeEdge ringSegment(Ring ring, int i) {
+    return new NodeEdge(ring.nodes.get(i), ring.nodes.get((i + 1) % ring.nodes.size()));
+  }
+
   private Set<AreaEdge> createSegments(
     IntersectionVertex startEndpoint,
     IntersectionVertex endEndpoint,
@@ -569,20 +645,12 @@ public class WalkableAreaBuilder {
 
       backStreetEdgeBuilder.withLink(areaEntity.isLink());
 
-      if (!wayPropertiesCache.containsKey(areaEntity)) {
-        WayProperties wayData = areaEntity
-          .getOsmProvider()
-          .getWayPropertySet()
-          .getDataForWay(areaEntity);
-        wayPropertiesCache.put(areaEntity, wayData);
-      }
-
       AreaEdge street = streetEdgeBuilder.buildAndConnect();
       AreaEdge backStreet = backStreetEdgeBuilder.buildAndConnect();
       normalizer.applyWayProperties(
         street,
         backStreet,
-        wayPropertiesCache.get(areaEntity),
+        wayProperties(areaEntity),
         areaEntity
       );
       return Set.of(street, backStreet);
@@ -650,18 +718,11 @@ public class WalkableAreaBuilder {
       I18NString name = namer.getNameForWay(areaEntity, id);
       namedArea.setName(name);
 
-      if (!wayPropertiesCache.containsKey(areaEntity)) {
-        WayProperties wayData = areaEntity
-          .getOsmProvider()
-          .getWayPropertySet()
-          .getDataForWay(areaEntity);
-        wayPropertiesCache.put(areaEntity, wayData);
-      }
-
-      double bicycleSafety = wayPropertiesCache.get(areaEntity).bicycleSafety().forward();
+      WayProperties wayData = wayProperties(areaEntity);
+      double bicycleSafety = wayData.bicycleSafety().forward();
       namedArea.setBicycleSafetyMultiplier(bicycleSafety);
 
-      double walkSafety = wayPropertiesCache.get(areaEntity).walkSafety().forward();
+      double walkSafety = wayData.walkSafety().forward();
       namedArea.setWalkSafetyMultiplier(walkSafety);
 
       namedArea.setOriginalEdges(intersection);
@@ -675,6 +736,17 @@ public class WalkableAreaBuilder {
     }
   }
 
+  /**
+   * The properties of an area are used for every edge in it, so they are kept here. The
+   * {@link org.opentripplanner.openstreetmap.wayproperty.WayPropertySet} caches the picker results
+   * for areas with the same tags.
+   */
+  private WayProperties wayProperties(OSMWithTags areaEntity) {
+    return wayPropertiesCache.computeIfAbsent(areaEntity, entity ->
+      entity.getOsmProvider().getWayPropertySet().getDataForWay(entity)
+    );
+  }
+
   private boolean isPlatformLinkingEndpoint(OsmVertex osmVertex) {
     boolean isCandidate = false;
     Vertex start = null;
@@ -711,4 +783,25 @@ public class WalkableAreaBuilder {
   }
 
   private record NodeEdge(OSMNode from, OSMNode to) {}
+
+  /**
+   * The visibility of an area group, with one element for each outermost ring of the group.
+   */
+  record AreaGroupVisibility(AreaGroup group, List<RingVisibility> rings) {}
+
+  /**
+   * @param areas            The areas inside the ring
+   * @param visibilityNodes  The nodes which may have visibility edges, in a stable order
+   * @param startingNodes    The visibility nodes used to enter the area from the street network
+   * @param visibleEdges     The pairs of visibility nodes which can see each other
+   */
+  private record RingVisibility(
+    Ring ring,
+    List<Area> areas,
+    Set<OSMNode> entrances,
+    List<OsmVertex> platformLinkingEndpoints,
+    Set<OSMNode> visibilityNodes,
+    List<OSMNode> startingNodes,
+    List<NodeEdge> visibleEdges
+  ) {}
 }
@@ -13,6 +13,8 @@ import org.opentripplanner.graph_builder.services.osm.EdgeNamer;
  * @param platformEntriesLinking Whether platform entries should be linked
  * @param staticParkAndRide      Whether we should create car P+R stations from OSM data.
  * @param staticBikeParkAndRide  Whether we should create bike P+R stations from OSM data.
+ * @param memoryMappedNodeStore  Whether to store the OSM nodes in a memory-mapped file instead of
+ *                               on the heap.
  */
 public record OsmProcessingParameters(
   Set<String> boardingAreaRefTags,
@@ -21,7 +23,8 @@ public record OsmProcessingParameters(
   boolean areaVisibility,
   boolean platformEntriesLinking,
   boolean staticParkAndRide,
-  boolean staticBikeParkAndRide
+  boolean staticBikeParkAndRide,
+  boolean memoryMappedNodeStore
 ) {
   public OsmProcessingParameters {
     boardingAreaRefTags = Set.copyOf(Objects.requireNonNull(boardingAreaRefTags));
@@ -1,7 +1,9 @@
 package org.opentripplanner.graph_builder.services.ned;
 
+import javax.annotation.Nullable;
 import org.geotools.api.coverage.Coverage;
 import org.geotools.coverage.grid.GridCoverage2D;
+import org.opentripplanner.graph_builder.module.ned.TiledElevationRaster;
 import org.opentripplanner.routing.graph.Graph;
 
 /**
@@ -15,6 +17,16 @@ public interface ElevationGridCoverageFactory {
   /** Creates a new coverage instance from files already fetched */
   Coverage getGridCoverage();
 
+  /**
+   * The elevation data decoded into tiles which can be sampled directly and shared between
+   * threads, or {@code null} if this is not supported for the data. The coverage from
+   * {@link #getGridCoverage()} is used if this returns {@code null}.
+   */
+  @Nullable
+  default TiledElevationRaster getTiledRaster() {
+    return null;
+  }
+
   /**
    * Unit conversion multiplier for elevation values. No conversion needed if the elevation values
    * are defined in meters in the source data. If, for example, decimetres are used in the source
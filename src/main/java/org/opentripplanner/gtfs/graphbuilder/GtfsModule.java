@@ -1,14 +1,26 @@
 package org.opentripplanner.gtfs.graphbuilder;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSFERS;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.onebusaway.csv_entities.EntityHandler;
 import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
 import org.onebusaway.gtfs.model.Agency;
@@ -35,6 +47,7 @@ import org.opentripplanner.ext.flex.FlexTripsMapper;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.graph_builder.module.AddTransitModelEntitiesToGraph;
 import org.opentripplanner.graph_builder.module.GtfsFeedId;
 import org.opentripplanner.graph_builder.module.ValidateAndInterpolateStopTimesForEachTrip;
@@ -67,7 +80,14 @@ public class GtfsModule implements GraphBuilderModule {
   );
 
   private static final Logger LOG = LoggerFactory.getLogger(GtfsModule.class);
-  private final EntityHandler counter = new EntityCounter();
+
+  /**
+   * Each bundle read ahead is kept in memory as a full GTFS DAO until it is mapped, so by default
+   * the bundles are read one by one, with the lowest peak memory. Reading ahead trades memory for
+   * a faster import of many feeds.
+   */
+  public static final int DEFAULT_BUNDLES_READ_AHEAD = 0;
+
   private final Set<String> agencyIdsSeen = new HashSet<>();
   /**
    * @see BuildConfig#transitServiceStart
@@ -80,6 +100,7 @@ public class GtfsModule implements GraphBuilderModule {
   private final TransitModel transitModel;
   private final Graph graph;
   private final DataImportIssueStore issueStore;
+  private final int bundlesReadAhead;
   private int nextAgencyId = 1; // used for generating agency IDs to resolve ID conflicts
 
   public GtfsModule(
@@ -89,6 +110,30 @@ public class GtfsModule implements GraphBuilderModule {
     DataImportIssueStore issueStore,
     ServiceDateInterval transitPeriodLimit,
     FareServiceFactory fareServiceFactory
+  ) {
+    this(
+      bundles,
+      transitModel,
+      graph,
+      issueStore,
+      transitPeriodLimit,
+      fareServiceFactory,
+      DEFAULT_BUNDLES_READ_AHEAD
+    );
+  }
+
+  /**
+   * @param bundlesReadAhead the number of bundles read ahead of the bundle being mapped, 0 to read
+   *                         the bundles one by one
+   */
+  public GtfsModule(
+    List<GtfsBundle> bundles,
+    TransitModel transitModel,
+    Graph graph,
+    DataImportIssueStore issueStore,
+    ServiceDateInterval transitPeriodLimit,
+    FareServiceFactory fareServiceFactory,
+    int bundlesReadAhead
   ) {
     this.gtfsBundles = bundles;
     this.transitModel = transitModel;
@@ -96,6 +141,7 @@ public class GtfsModule implements GraphBuilderModule {
     this.issueStore = issueStore;
     this.transitPeriodLimit = transitPeriodLimit;
     this.fareServiceFactory = fareServiceFactory;
+    this.bundlesReadAhead = bundlesReadAhead;
   }
 
   public GtfsModule(
@@ -114,15 +160,54 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(TRANSIT_MODEL, TRANSIT_GRAPH, TRANSFERS);
+  }
+
   @Override
   public void buildGraph() {
     CalendarServiceData calendarServiceData = new CalendarServiceData();
 
     boolean hasTransit = false;
 
+    // The bundle to map is read too, if it is not read ahead
+    int maxBundlesRead = Math.max(1, bundlesReadAhead + 1);
+    ExecutorService executor = Executors.newFixedThreadPool(
+      maxBundlesRead,
+      new ThreadFactoryBuilder().setNameFormat("gtfs-reader-%d").setDaemon(true).build()
+    );
     try {
+      Deque<Future<GtfsMutableRelationalDao>> bundlesRead = new ArrayDeque<>();
+      CompletableFuture<Void> agencyIdsResolved = CompletableFuture.completedFuture(null);
+      int nextBundleToRead = 0;
+
       for (GtfsBundle gtfsBundle : gtfsBundles) {
-        GtfsMutableRelationalDao gtfsDao = loadBundle(gtfsBundle);
+        // Read the next bundles in parallel, while this bundle is mapped
+        while (nextBundleToRead < gtfsBundles.size() && bundlesRead.size() < maxBundlesRead) {
+          var bundle = gtfsBundles.get(nextBundleToRead++);
+          var previousAgencyIdsResolved = agencyIdsResolved;
+          var bundleAgencyIdsResolved = new CompletableFuture<Void>();
+          agencyIdsResolved = bundleAgencyIdsResolved;
+          bundlesRead.add(
+            executor.submit(() -> {
+              try {
+                return loadBundle(bundle, previousAgencyIdsResolved, bundleAgencyIdsResolved);
+              } finally {
+                // Do not block the next bundles if reading this bundle fails
+                bundleAgencyIdsResolved.complete(null);
+              }
+            })
+          );
+        }
+        // The bundles are mapped one by one in order, the stop indexes and the generated ids
+        // depend on the order
+        GtfsMutableRelationalDao gtfsDao = waitFor(bundlesRead.remove());
         GTFSToOtpTransitServiceMapper mapper = new GTFSToOtpTransitServiceMapper(
           new OtpTransitServiceBuilder(transitModel.getStopModel(), issueStore),
           gtfsBundle.getFeedId().getId(),
@@ -131,7 +216,7 @@ public class GtfsModule implements GraphBuilderModule {
           gtfsDao,
           gtfsBundle.stationTransferPreference()
         );
-        mapper.mapStopTripAndRouteDataIntoBuilder();
+        mapper.mapStopTripAndRouteDataIntoBuilder(true);
 
         OtpTransitServiceBuilder builder = mapper.getBuilder();
         var fareRulesService = mapper.getFareRulesService();
@@ -193,6 +278,7 @@ public class GtfsModule implements GraphBuilderModule {
     } catch (IOException e) {
       throw new RuntimeException(e);
     } finally {
+      executor.shutdownNow();
       // Note the close method of each bundle should NOT throw an exception, so this
       // code should be safe without the try/catch block.
       gtfsBundles.forEach(GtfsBundle::close);
@@ -270,7 +356,38 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
-  private GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
+  /**
+   * Wait for a bundle to be read, and rethrow any exception thrown while reading it.
+   */
+  private static GtfsMutableRelationalDao waitFor(Future<GtfsMutableRelationalDao> future)
+    throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw ioe;
+      }
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Read a bundle. The bundles are read in parallel, but the agency ids are resolved in the order
+   * of the bundles, so the generated agency ids do not depend on which bundle is read first. This
+   * waits for the agency ids of the previous bundle to be resolved, and completes
+   * {@code agencyIdsResolved} when the agency ids of this bundle are resolved.
+   */
+  private GtfsMutableRelationalDao loadBundle(
+    GtfsBundle gtfsBundle,
+    CompletableFuture<Void> previousAgencyIdsResolved,
+    CompletableFuture<Void> agencyIdsResolved
+  ) throws IOException {
     StoreImpl store = new StoreImpl(new GtfsRelationalDaoImpl());
     store.open();
     LOG.info("reading {}", gtfsBundle.toString());
@@ -283,7 +400,7 @@ public class GtfsModule implements GraphBuilderModule {
     reader.setInternStrings(true);
     reader.setDefaultAgencyId(gtfsFeedId.getId());
 
-    if (LOG.isDebugEnabled()) reader.addEntityHandler(counter);
+    if (LOG.isDebugEnabled()) reader.addEntityHandler(new EntityCounter());
 
     for (Class<?> entityClass : reader.getEntityClasses()) {
       if (skipEntityClass(entityClass)) {
@@ -297,6 +414,7 @@ public class GtfsModule implements GraphBuilderModule {
       // set the agencyId here. Each feed ("bundle") is loaded by a separate reader, so there is no risk of
       // agency mappings accumulating.
       if (entityClass == Agency.class) {
+        previousAgencyIdsResolved.join();
         for (Agency agency : reader.getAgencies()) {
           String agencyId = agency.getId();
           LOG.info("This Agency has the ID {}", agencyId);
@@ -320,6 +438,7 @@ public class GtfsModule implements GraphBuilderModule {
           }
           if (agencyId != null) agencyIdsSeen.add(gtfsFeedId.getId() + agencyId);
         }
+        agencyIdsResolved.complete(null);
       }
     }
 
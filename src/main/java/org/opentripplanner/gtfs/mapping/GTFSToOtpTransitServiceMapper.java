@@ -8,6 +8,7 @@ import static org.onebusaway.gtfs.model.Stop.LOCATION_TYPE_STOP;
 
 import java.util.Collection;
 import java.util.function.Function;
+import org.onebusaway.gtfs.services.GtfsMutableRelationalDao;
 import org.onebusaway.gtfs.services.GtfsRelationalDao;
 import org.opentripplanner.ext.fares.model.FareRulesData;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -142,6 +143,18 @@ public class GTFSToOtpTransitServiceMapper {
   }
 
   public void mapStopTripAndRouteDataIntoBuilder() {
+    mapStopTripAndRouteDataIntoBuilder(false);
+  }
+
+  /**
+   * Map the stops, trips, routes and stop times of the GTFS DAO into the builder.
+   *
+   * @param releaseStopTimes remove the GTFS stop times from the DAO of this mapper as soon as they
+   *                         are mapped. The stop times are the biggest part of a feed, so they are
+   *                         then not kept in memory during the rest of the import. The DAO must be
+   *                         mutable.
+   */
+  public void mapStopTripAndRouteDataIntoBuilder(boolean releaseStopTimes) {
     var stopModel = builder.stopModel();
     translationHelper.importTranslations(data.getAllTranslations(), data.getAllFeedInfos());
 
@@ -164,7 +177,17 @@ public class GTFSToOtpTransitServiceMapper {
     }
 
     builder.getPathways().addAll(pathwayMapper.map(data.getAllPathways()));
-    builder.getStopTimesSortedByTrip().addAll(stopTimeMapper.map(data.getAllStopTimes()));
+    if (releaseStopTimes) {
+      if (!(data instanceof GtfsMutableRelationalDao mutableData)) {
+        throw new IllegalStateException("The stop times can not be released from a read-only DAO.");
+      }
+      builder
+        .getStopTimesSortedByTrip()
+        .addAll(stopTimeMapper.mapWithoutCache(data.getAllStopTimes()));
+      mutableData.clearAllEntitiesForType(org.onebusaway.gtfs.model.StopTime.class);
+    } else {
+      builder.getStopTimesSortedByTrip().addAll(stopTimeMapper.map(data.getAllStopTimes()));
+    }
     builder.getTripsById().addAll(tripMapper.map(data.getAllTrips()));
 
     fareRulesBuilder.fareAttributes().addAll(fareAttributeMapper.map(data.getAllFareAttributes()));
@@ -2,6 +2,7 @@ package org.opentripplanner.gtfs.mapping;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import org.onebusaway.gtfs.model.Location;
@@ -49,6 +50,14 @@ class StopTimeMapper {
     return MapUtils.mapToList(times, this::map);
   }
 
+  /**
+   * Map the stop times without adding them to the cache, so this mapper does not keep a reference
+   * to the GTFS stop times. Use this if the stop times are mapped only once.
+   */
+  List<StopTime> mapWithoutCache(Collection<org.onebusaway.gtfs.model.StopTime> times) {
+    return MapUtils.mapToList(times, this::doMap);
+  }
+
   /** Map from GTFS to OTP model, {@code null} safe. */
   StopTime map(org.onebusaway.gtfs.model.StopTime orginal) {
     return orginal == null ? null : mappedStopTimes.computeIfAbsent(orginal, this::doMap);
@@ -3,12 +3,16 @@ package org.opentripplanner.model;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
@@ -48,6 +52,12 @@ public class TimetableSnapshot {
    */
   private final Set<Timetable> dirtyTimetables = new HashSet<>();
 
+  /**
+   * The copies of the scheduled timetables in {@link #dirtyTimetables} which revert removed
+   * realtime timetables, by pattern and service date.
+   */
+  private final Map<TripPattern, Map<LocalDate, Timetable>> revertedTimetables = new HashMap<>();
+
   /**
    * The timetables for different days, for each TripPattern (each sequence of stops on a particular
    * Route) for which we have an updated Timetable. The keys include both TripPatterns from the
@@ -204,7 +214,7 @@ public class TimetableSnapshot {
       }
       sortedTimetables.add(tt);
       timetables.put(pattern, sortedTimetables);
-      dirtyTimetables.add(tt);
+      addDirtyTimetable(tt);
       dirty = true;
     }
 
@@ -267,6 +277,7 @@ public class TimetableSnapshot {
     }
 
     this.dirtyTimetables.clear();
+    this.revertedTimetables.clear();
     this.dirty = false;
 
     ret.setPatternsForStop(HashMultimap.create(this.patternsForStop));
@@ -275,6 +286,149 @@ public class TimetableSnapshot {
     return ret;
   }
 
+  /**
+   * Replace all realtime timetables of the given pattern with new timetables containing the given
+   * trip times, one timetable per service date. This is used to apply a state computed elsewhere,
+   * for example when replicating realtime updates from another OTP instance, instead of applying
+   * the updates trip by trip.
+   */
+  public void replaceTimetables(
+    TripPattern pattern,
+    Map<LocalDate, ? extends Collection<TripTimes>> tripTimesByServiceDate
+  ) {
+    if (readOnly) {
+      throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
+    }
+    SortedSet<Timetable> removed = timetables.remove(pattern);
+    if (pattern.isCreatedByRealtimeUpdater()) {
+      realtimeAddedTripPattern.values().removeIf(it -> it == pattern);
+    }
+    if (removed != null) {
+      revertToScheduledTimetables(pattern, removed);
+    }
+
+    SortedSet<Timetable> sortedTimetables = new TreeSet<>(new SortedTimetableComparator());
+    for (var entry : tripTimesByServiceDate.entrySet()) {
+      Timetable tt = new Timetable(new Timetable(pattern), entry.getKey());
+      for (TripTimes tripTimes : entry.getValue()) {
+        tt.addTripTimes(tripTimes);
+        if (pattern.isCreatedByRealtimeUpdater()) {
+          realtimeAddedTripPattern.put(
+            new TripIdAndServiceDate(tripTimes.getTrip().getId(), entry.getKey()),
+            pattern
+          );
+        }
+      }
+      sortedTimetables.add(tt);
+      addDirtyTimetable(tt);
+    }
+    if (!sortedTimetables.isEmpty()) {
+      timetables.put(pattern, sortedTimetables);
+      addPatternToIndex(pattern);
+    }
+    dirty = true;
+  }
+
+  /**
+   * Remove all realtime timetables of the given pattern, reverting it to the scheduled timetable.
+   *
+   * @return true if the snapshot changed as a result of the call
+   */
+  public boolean removeTimetables(TripPattern pattern) {
+    if (readOnly) {
+      throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
+    }
+    SortedSet<Timetable> removed = timetables.remove(pattern);
+    boolean modified = removed != null;
+    if (removed != null) {
+      revertToScheduledTimetables(pattern, removed);
+    }
+    if (pattern.isCreatedByRealtimeUpdater()) {
+      modified |= realtimeAddedTripPattern.values().removeIf(it -> it == pattern);
+    }
+    if (modified) {
+      dirty = true;
+    }
+    return modified;
+  }
+
+  /**
+   * The transit layer is only updated for the dirty timetables, so a removed timetable must be
+   * replaced by a dirty copy of the scheduled timetable for the same service date. Otherwise the
+   * realtime trip times stay in the transit layer.
+   */
+  private void revertToScheduledTimetables(TripPattern pattern, Collection<Timetable> removed) {
+    for (Timetable timetable : removed) {
+      dirtyTimetables.remove(timetable);
+      LocalDate serviceDate = timetable.getServiceDate();
+      Timetable scheduled = new Timetable(pattern.getScheduledTimetable(), serviceDate);
+      dirtyTimetables.add(scheduled);
+      revertedTimetables.computeIfAbsent(pattern, p -> new HashMap<>()).put(serviceDate, scheduled);
+    }
+  }
+
+  /**
+   * Add a new realtime timetable to the dirty timetables. A reverted scheduled timetable for the
+   * same pattern and service date is dropped, only one timetable per date may be applied to the
+   * transit layer.
+   */
+  private void addDirtyTimetable(Timetable timetable) {
+    var reverted = revertedTimetables.get(timetable.getPattern());
+    if (reverted != null) {
+      Timetable scheduled = reverted.remove(timetable.getServiceDate());
+      if (scheduled != null) {
+        dirtyTimetables.remove(scheduled);
+      }
+    }
+    dirtyTimetables.add(timetable);
+  }
+
+  /**
+   * List the realtime timetables of the given pattern, ordered by service date. The scheduled
+   * timetable is not included.
+   */
+  public Collection<Timetable> listTimetables(TripPattern pattern) {
+    return Collections.unmodifiableCollection(
+      timetables.getOrDefault(pattern, Collections.emptySortedSet())
+    );
+  }
+
+  /**
+   * List all patterns with at least one realtime timetable in this snapshot.
+   */
+  public Collection<TripPattern> listPatternsWithRealtimeTimetables() {
+    return Collections.unmodifiableCollection(timetables.keySet());
+  }
+
+  /**
+   * Find all patterns which have realtime timetables in this snapshot that differ from the
+   * timetables of the given (older) snapshot. The sets of timetables are copy-on-write, so
+   * comparing them by identity is enough to detect a change.
+   */
+  public List<TripPattern> findPatternsUpdatedSince(TimetableSnapshot other) {
+    List<TripPattern> result = new ArrayList<>();
+    for (var entry : timetables.entrySet()) {
+      if (other.timetables.get(entry.getKey()) != entry.getValue()) {
+        result.add(entry.getKey());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Find all patterns which have realtime timetables in the given (older) snapshot, but not in
+   * this one.
+   */
+  public List<TripPattern> findPatternsRemovedSince(TimetableSnapshot other) {
+    List<TripPattern> result = new ArrayList<>();
+    for (TripPattern pattern : other.timetables.keySet()) {
+      if (!timetables.containsKey(pattern)) {
+        result.add(pattern);
+      }
+    }
+    return result;
+  }
+
   /**
    * Clear all data of snapshot for the provided feed id
    *
@@ -1,10 +1,20 @@
 package org.opentripplanner.netex;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.xml.bind.JAXBException;
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.opentripplanner.datastore.api.CompositeDataSource;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -18,7 +28,6 @@ import org.opentripplanner.netex.loader.parser.NetexDocumentParser;
 import org.opentripplanner.netex.mapping.NetexMapper;
 import org.opentripplanner.netex.validation.Validator;
 import org.opentripplanner.transit.model.framework.Deduplicator;
-import org.rutebanken.netex.model.PublicationDeliveryStructure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,12 +39,24 @@ import org.slf4j.LoggerFactory;
  * keeping an index of entities to enable linking. The convention is documented here {@link
  * NetexFeedParameters#sharedFilePattern()} and here {@link NetexDataSourceHierarchy}.
  * <p>
+ * The independent files of a group are parsed in parallel, see
+ * {@link #loadIndependentFilesThenMapToOtpTransitModel(ExecutorService, Collection)}. The files
+ * are read frame by frame, so a whole document is never kept in memory.
+ * <p>
  * This class is also responsible for logging progress and exception handling.
  */
 public class NetexBundle implements Closeable {
 
   private static final Logger LOG = LoggerFactory.getLogger(NetexBundle.class);
 
+  private static final int PARSER_THREADS = Math.max(
+    1,
+    Runtime.getRuntime().availableProcessors() - 1
+  );
+
+  /** The maximum number of independent files parsed, but not yet mapped. */
+  private static final int MAX_PARSED_FILES = 2 * PARSER_THREADS;
+
   private final CompositeDataSource source;
 
   private final NetexDataSourceHierarchy hierarchy;
@@ -117,23 +138,27 @@ public class NetexBundle implements Closeable {
 
   /** Load all files entries in the bundle */
   private void loadFileEntries() {
-    // Load global shared files
-    loadFilesThenMapToOtpTransitModel("shared file", hierarchy.sharedEntries());
-
-    for (GroupEntries group : hierarchy.groups()) {
-      LOG.info("reading group {}", group.name());
-
-      scopeInputData(() -> {
-        // Load shared group files
-        loadFilesThenMapToOtpTransitModel("shared group file", group.sharedEntries());
-
-        for (DataSource entry : group.independentEntries()) {
-          scopeInputData(() -> {
-            // Load each independent file in group
-            loadFilesThenMapToOtpTransitModel("group file", List.of(entry));
-          });
-        }
-      });
+    ExecutorService executor = Executors.newFixedThreadPool(
+      PARSER_THREADS,
+      new ThreadFactoryBuilder().setNameFormat("netex-parser-%d").setDaemon(true).build()
+    );
+    try {
+      // Load global shared files
+      loadFilesThenMapToOtpTransitModel("shared file", hierarchy.sharedEntries());
+
+      for (GroupEntries group : hierarchy.groups()) {
+        LOG.info("reading group {}", group.name());
+
+        scopeInputData(() -> {
+          // Load shared group files
+          loadFilesThenMapToOtpTransitModel("shared group file", group.sharedEntries());
+
+          // Load each independent file in group
+          loadIndependentFilesThenMapToOtpTransitModel(executor, group.independentEntries());
+        });
+      }
+    } finally {
+      executor.shutdownNow();
     }
     mapper.finishUp();
     NetexDocumentParser.finnishUp();
@@ -163,9 +188,48 @@ public class NetexBundle implements Closeable {
   ) {
     for (DataSource entry : entries) {
       // Load entry and store it in the index
-      loadSingeFileEntry(fileDescription, entry);
+      loadSingeFileEntry(index, fileDescription, entry);
     }
+    validateAndMapToOtpTransitModel();
+  }
 
+  /**
+   * The independent files of a group only depend on the shared files, so they are parsed in
+   * parallel, each into its own index. The group index is not changed while they are parsed. The
+   * files are then validated and mapped in the order of the group, so the result is the same as
+   * if they were loaded one by one. At most {@link #MAX_PARSED_FILES} files are parsed ahead of
+   * the mapping, to limit the memory used.
+   */
+  private void loadIndependentFilesThenMapToOtpTransitModel(
+    ExecutorService executor,
+    Collection<DataSource> entries
+  ) {
+    NetexEntityIndex groupIndex = index;
+    Deque<Future<NetexEntityIndex>> parsed = new ArrayDeque<>();
+    Iterator<DataSource> it = entries.iterator();
+
+    while (it.hasNext() || !parsed.isEmpty()) {
+      while (it.hasNext() && parsed.size() < MAX_PARSED_FILES) {
+        DataSource entry = it.next();
+        parsed.add(
+          executor.submit(
+            issueStore.withCurrentSource(() -> {
+              NetexEntityIndex fileIndex = groupIndex.push();
+              loadSingeFileEntry(fileIndex, "group file", entry);
+              return fileIndex;
+            })
+          )
+        );
+      }
+      index = waitFor(parsed.remove());
+      mapper = mapper.push();
+      validateAndMapToOtpTransitModel();
+      mapper = mapper.pop();
+      index = index.pop();
+    }
+  }
+
+  private void validateAndMapToOtpTransitModel() {
     // Validate input data, and remove invalid data
     Validator.validate(index, issueStore);
 
@@ -173,17 +237,36 @@ public class NetexBundle implements Closeable {
     mapper.mapNetexToOtp(index.readOnlyView());
   }
 
-  /** Load a single entry and store it in the index for later */
-  private void loadSingeFileEntry(String fileDescription, DataSource entry) {
-    try {
+  /** Load a single entry and store it in the given index for later */
+  private void loadSingeFileEntry(
+    NetexEntityIndex target,
+    String fileDescription,
+    DataSource entry
+  ) {
+    try (InputStream stream = entry.asInputStream()) {
       LOG.info("reading entity {}: {}", fileDescription, entry.name());
       issueStore.startProcessingSource(entry.name());
-      PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
-      NetexDocumentParser.parseAndPopulateIndex(index, doc, ignoreFareFrame);
+      NetexDocumentParser.parseAndPopulateIndex(target, xmlParser, stream, ignoreFareFrame);
     } catch (JAXBException e) {
       throw new RuntimeException(e.getMessage(), e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     } finally {
       issueStore.stopProcessingSource();
     }
   }
+
+  private static NetexEntityIndex waitFor(Future<NetexEntityIndex> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+    }
+  }
 }
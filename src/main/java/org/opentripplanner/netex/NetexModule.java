@@ -1,10 +1,16 @@
 package org.opentripplanner.netex;
 
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSFERS;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
 import java.util.List;
+import java.util.Set;
 import org.opentripplanner.ext.flex.FlexTripsMapper;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
 import org.opentripplanner.graph_builder.module.AddTransitModelEntitiesToGraph;
 import org.opentripplanner.graph_builder.module.ValidateAndInterpolateStopTimesForEachTrip;
 import org.opentripplanner.model.OtpTransitService;
@@ -54,6 +60,16 @@ public class NetexModule implements GraphBuilderModule {
     this.netexBundles = netexBundles;
   }
 
+  @Override
+  public Set<GraphBuilderResource> reads() {
+    return Set.of();
+  }
+
+  @Override
+  public Set<GraphBuilderResource> writes() {
+    return Set.of(TRANSIT_MODEL, TRANSIT_GRAPH, TRANSFERS);
+  }
+
   @Override
   public void buildGraph() {
     try {
@@ -3,18 +3,43 @@ package org.opentripplanner.netex.loader;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.JAXBIntrospector;
 import jakarta.xml.bind.Unmarshaller;
 import java.io.InputStream;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.rutebanken.netex.model.Common_VersionFrameStructure;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
+import org.rutebanken.netex.model.VersionFrameDefaultsStructure;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling.
+ * <p>
+ * The parser is thread-safe, each thread has its own unmarshaller. The JAXB context is expensive
+ * to create and is shared.
+ */
 public class NetexXmlParser {
 
-  /** used to parse the XML. */
-  private final Unmarshaller unmarshaller;
+  private static final String DATA_OBJECTS = "dataObjects";
+  private static final String COMPOSITE_FRAME = "CompositeFrame";
+  private static final String FRAME_DEFAULTS = "FrameDefaults";
+  private static final String FRAMES = "frames";
+
+  private static JAXBContext context;
+
+  private final XMLInputFactory inputFactory;
+
+  /** used to parse the XML, one for each thread. */
+  private final ThreadLocal<Unmarshaller> unmarshaller = ThreadLocal.withInitial(
+    NetexXmlParser::createUnmarshaller
+  );
 
   public NetexXmlParser() {
-    this.unmarshaller = createUnmarshaller();
+    this.inputFactory = XMLInputFactory.newFactory();
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
   }
 
   /**
@@ -24,15 +49,140 @@ public class NetexXmlParser {
     JAXBElement<PublicationDeliveryStructure> root;
 
     //noinspection unchecked
-    root = (JAXBElement<PublicationDeliveryStructure>) unmarshaller.unmarshal(stream);
+    root = (JAXBElement<PublicationDeliveryStructure>) unmarshaller.get().unmarshal(stream);
 
     return root.getValue();
   }
 
+  /**
+   * Parse an input stream and pass the frames of the document to the handler, one by one in the
+   * order of the document. Only one frame is unmarshalled at the time, so the whole document is
+   * never kept in memory. The frames of a composite frame are passed to the handler one by one
+   * too, after the {@link FrameHandler#startCompositeFrame(VersionFrameDefaultsStructure)} call.
+   * <p>
+   * Only the frames and the frame defaults of composite frames are read, the rest of the document
+   * is skipped.
+   */
+  public void parseXmlDoc(InputStream stream, FrameHandler handler) throws JAXBException {
+    try {
+      XMLStreamReader reader = inputFactory.createXMLStreamReader(stream);
+      try {
+        reader.nextTag();
+        forEachChild(
+          reader,
+          () -> {
+            if (DATA_OBJECTS.equals(reader.getLocalName())) {
+              forEachChild(reader, () -> parseFrame(reader, handler));
+            } else {
+              skip(reader);
+            }
+          }
+        );
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new JAXBException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Receive the frames of a document, see {@link #parseXmlDoc(InputStream, FrameHandler)}.
+   */
+  public interface FrameHandler {
+    /**
+     * Called when a composite frame is started, before its frames. The frame defaults are
+     * {@code null} if the composite frame does not have any.
+     */
+    void startCompositeFrame(@Nullable VersionFrameDefaultsStructure frameDefaults);
+
+    /** Called for each frame, except composite frames. */
+    void frame(Common_VersionFrameStructure frame);
+  }
+
+  /* private methods */
+
+  /**
+   * Parse the frame at the current start element. The reader is left at the event after the end
+   * element of the frame.
+   */
+  private void parseFrame(XMLStreamReader reader, FrameHandler handler)
+    throws XMLStreamException, JAXBException {
+    if (!COMPOSITE_FRAME.equals(reader.getLocalName())) {
+      var frame = JAXBIntrospector.getValue(unmarshaller.get().unmarshal(reader));
+      handler.frame((Common_VersionFrameStructure) frame);
+      return;
+    }
+    // The frame defaults come before the frames in a composite frame
+    var frameDefaults = new VersionFrameDefaultsStructure[1];
+    var started = new boolean[1];
+    forEachChild(
+      reader,
+      () -> {
+        switch (reader.getLocalName()) {
+          case FRAME_DEFAULTS -> frameDefaults[0] =
+            unmarshaller.get().unmarshal(reader, VersionFrameDefaultsStructure.class).getValue();
+          case FRAMES -> {
+            if (!started[0]) {
+              handler.startCompositeFrame(frameDefaults[0]);
+              started[0] = true;
+            }
+            forEachChild(reader, () -> parseFrame(reader, handler));
+          }
+          default -> skip(reader);
+        }
+      }
+    );
+    if (!started[0]) {
+      handler.startCompositeFrame(frameDefaults[0]);
+    }
+  }
+
+  /**
+   * Call the action for each child element of the current start element. The action is called
+   * at the start element of the child, and must leave the reader at the event after the end
+   * element of the child. This method leaves the reader at the event after the end element of
+   * the parent.
+   */
+  private static void forEachChild(XMLStreamReader reader, ChildAction action)
+    throws XMLStreamException, JAXBException {
+    reader.next();
+    while (true) {
+      if (reader.isStartElement()) {
+        action.run();
+      } else if (reader.isEndElement()) {
+        nextIfAny(reader);
+        return;
+      } else {
+        reader.next();
+      }
+    }
+  }
+
+  /** Skip the current element, and leave the reader at the event after its end element. */
+  private static void skip(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamReader.START_ELEMENT) {
+        ++depth;
+      } else if (event == XMLStreamReader.END_ELEMENT) {
+        --depth;
+      }
+    }
+    nextIfAny(reader);
+  }
+
+  private static void nextIfAny(XMLStreamReader reader) throws XMLStreamException {
+    if (reader.hasNext()) {
+      reader.next();
+    }
+  }
+
   /** factory method for unmarshaller */
   private static Unmarshaller createUnmarshaller() {
     try {
-      return JAXBContext.newInstance(PublicationDeliveryStructure.class).createUnmarshaller();
+      return context().createUnmarshaller();
     } catch (JAXBException e) {
       // This is a programming error - not expected!
       // We abort early and also allow for this to happen in the constructor;
@@ -40,4 +190,16 @@ public class NetexXmlParser {
       throw new RuntimeException(e);
     }
   }
+
+  private static synchronized JAXBContext context() throws JAXBException {
+    if (context == null) {
+      context = JAXBContext.newInstance(PublicationDeliveryStructure.class);
+    }
+    return context;
+  }
+
+  @FunctionalInterface
+  private interface ChildAction {
+    void run() throws XMLStreamException, JAXBException;
+  }
 }
@@ -1,9 +1,12 @@
 package org.opentripplanner.netex.loader.parser;
 
 import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 import org.opentripplanner.netex.index.NetexEntityIndex;
+import org.opentripplanner.netex.loader.NetexXmlParser;
 import org.rutebanken.netex.model.Common_VersionFrameStructure;
 import org.rutebanken.netex.model.CompositeFrame;
 import org.rutebanken.netex.model.FareFrame;
@@ -49,6 +52,34 @@ public class NetexDocumentParser {
     new NetexDocumentParser(index, ignoreFareFrame).parse(doc);
   }
 
+  /**
+   * Parse the document frame by frame, while it is read from the stream. The result is the same
+   * as {@link #parseAndPopulateIndex(NetexEntityIndex, PublicationDeliveryStructure, boolean)},
+   * but only one frame is kept in memory at the time.
+   */
+  public static void parseAndPopulateIndex(
+    NetexEntityIndex index,
+    NetexXmlParser xmlParser,
+    InputStream stream,
+    boolean ignoreFareFrame
+  ) throws JAXBException {
+    var parser = new NetexDocumentParser(index, ignoreFareFrame);
+    xmlParser.parseXmlDoc(
+      stream,
+      new NetexXmlParser.FrameHandler() {
+        @Override
+        public void startCompositeFrame(VersionFrameDefaultsStructure frameDefaults) {
+          parser.netexIndex.timeZone.set(parser.resolveTimeZone(frameDefaults));
+        }
+
+        @Override
+        public void frame(Common_VersionFrameStructure frame) {
+          parser.parseCommonFrame(frame);
+        }
+      }
+    );
+  }
+
   public static void finnishUp() {
     ServiceFrameParser.logSummary();
   }
@@ -0,0 +1,226 @@
+package org.opentripplanner.openstreetmap;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+
+/**
+ * Read the blocks of an OSM PBF file and decode them on a thread pool. Inflating and parsing the
+ * protobuf of a block is the expensive part of reading the file, the entities are created from
+ * the decoded blocks by the {@link OpenStreetMapParser} on the calling thread, in the same order
+ * as in the file.
+ * <p>
+ * The primitive types in each block are recorded the first time the file is read. When the file
+ * is read again, the blocks without any entities for the current phase are skipped without
+ * decoding them. In a sorted file this skips the node blocks when the ways are read, and the way
+ * and relation blocks when the nodes are read.
+ * <p>
+ * This class is NOT THREAD-SAFE, the file must be read by one thread at the time.
+ */
+class OsmPbfBlockReader {
+
+  private static final String OSM_HEADER = "OSMHeader";
+  private static final String OSM_DATA = "OSMData";
+
+  /** The limits from the PBF format specification */
+  private static final int MAX_HEADER_SIZE = 64 * 1024;
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  private final ExecutorService executor;
+  private final DataImportIssueStore issueStore;
+  private final int maxBlocksInFlight;
+
+  /**
+   * The phases each block of the file has entities for, in file order. This is {@code null}
+   * until the file is read the first time.
+   */
+  private List<EnumSet<OsmParserPhase>> blockPhases = null;
+
+  private int nDecoded = 0;
+  private int nSkipped = 0;
+
+  /**
+   * @param maxBlocksInFlight The maximum number of blocks read, but not parsed yet. This limits
+   *                          the memory used.
+   */
+  OsmPbfBlockReader(
+    ExecutorService executor,
+    DataImportIssueStore issueStore,
+    int maxBlocksInFlight
+  ) {
+    this.executor = executor;
+    this.issueStore = issueStore;
+    this.maxBlocksInFlight = maxBlocksInFlight;
+  }
+
+  /**
+   * Read all blocks with entities for the given phase and pass them to the parser. The parser
+   * must be set up for the phase.
+   */
+  void read(InputStream input, OpenStreetMapParser parser, OsmParserPhase phase)
+    throws IOException {
+    var in = new DataInputStream(input);
+    var phasesFound = new ArrayList<EnumSet<OsmParserPhase>>();
+    Deque<Future<DecodedBlock>> inFlight = new ArrayDeque<>();
+    nDecoded = 0;
+    nSkipped = 0;
+
+    try {
+      int blockIndex = 0;
+      Fileformat.BlobHeader header;
+      while ((header = readHeader(in)) != null) {
+        if (blockPhases != null && !blockPhases.get(blockIndex).contains(phase)) {
+          in.skipNBytes(header.getDatasize());
+          ++nSkipped;
+        } else {
+          final String type = header.getType();
+          final byte[] blob = readBytes(in, header.getDatasize(), MAX_BLOB_SIZE);
+          inFlight.add(executor.submit(issueStore.withCurrentSource(() -> decode(type, blob))));
+          ++nDecoded;
+        }
+        ++blockIndex;
+
+        if (inFlight.size() >= maxBlocksInFlight) {
+          deliver(await(inFlight.poll()), parser, phase, phasesFound);
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        deliver(await(inFlight.poll()), parser, phase, phasesFound);
+      }
+    } finally {
+      inFlight.forEach(it -> it.cancel(true));
+    }
+    parser.complete();
+
+    if (blockPhases == null) {
+      blockPhases = phasesFound;
+    }
+  }
+
+  int decodedBlockCount() {
+    return nDecoded;
+  }
+
+  int skippedBlockCount() {
+    return nSkipped;
+  }
+
+  private static void deliver(
+    DecodedBlock block,
+    OpenStreetMapParser parser,
+    OsmParserPhase phase,
+    List<EnumSet<OsmParserPhase>> phasesFound
+  ) {
+    phasesFound.add(block.phases());
+    if (block.header() != null) {
+      parser.parse(block.header());
+    } else if (block.data() != null && block.phases().contains(phase)) {
+      parser.parse(block.data());
+    }
+  }
+
+  /**
+   * @return {@code null} at the end of the file.
+   */
+  private static Fileformat.BlobHeader readHeader(DataInputStream in) throws IOException {
+    int headerSize;
+    try {
+      headerSize = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    return Fileformat.BlobHeader.parseFrom(readBytes(in, headerSize, MAX_HEADER_SIZE));
+  }
+
+  private static byte[] readBytes(DataInputStream in, int size, int maxSize) throws IOException {
+    if (size < 0 || size > maxSize) {
+      throw new IOException("Invalid PBF block size: " + size);
+    }
+    byte[] bytes = new byte[size];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static DecodedBlock decode(String type, byte[] blob)
+    throws IOException, DataFormatException {
+    if (OSM_HEADER.equals(type)) {
+      var header = Osmformat.HeaderBlock.parseFrom(inflate(blob));
+      return new DecodedBlock(header, null, EnumSet.allOf(OsmParserPhase.class));
+    }
+    if (OSM_DATA.equals(type)) {
+      var data = Osmformat.PrimitiveBlock.parseFrom(inflate(blob));
+      return new DecodedBlock(null, data, phases(data));
+    }
+    // Unknown block types should be ignored according to the specification
+    return new DecodedBlock(null, null, EnumSet.noneOf(OsmParserPhase.class));
+  }
+
+  private static byte[] inflate(byte[] bytes) throws IOException, DataFormatException {
+    var blob = Fileformat.Blob.parseFrom(bytes);
+    if (blob.hasRaw()) {
+      return blob.getRaw().toByteArray();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IOException("Unsupported PBF block compression, only zlib is supported.");
+    }
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().toByteArray());
+      byte[] data = new byte[blob.getRawSize()];
+      int n = inflater.inflate(data);
+      if (n != data.length || !inflater.finished()) {
+        throw new DataFormatException("PBF block size does not match the raw size.");
+      }
+      return data;
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static EnumSet<OsmParserPhase> phases(Osmformat.PrimitiveBlock block) {
+    var phases = EnumSet.noneOf(OsmParserPhase.class);
+    for (var group : block.getPrimitivegroupList()) {
+      if (group.getRelationsCount() > 0) {
+        phases.add(OsmParserPhase.Relations);
+      }
+      if (group.getWaysCount() > 0) {
+        phases.add(OsmParserPhase.Ways);
+      }
+      if (group.getNodesCount() > 0 || group.hasDense()) {
+        phases.add(OsmParserPhase.Nodes);
+      }
+    }
+    return phases;
+  }
+
+  private static DecodedBlock await(Future<DecodedBlock> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading OSM data", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Unable to decode OSM PBF block", e.getCause());
+    }
+  }
+
+  private record DecodedBlock(
+    Osmformat.HeaderBlock header,
+    Osmformat.PrimitiveBlock data,
+    EnumSet<OsmParserPhase> phases
+  ) {}
+}
@@ -1,16 +1,19 @@
 package org.opentripplanner.openstreetmap;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.time.ZoneId;
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
+import java.util.concurrent.Executors;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.framework.application.OtpFileNames;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
 import org.opentripplanner.openstreetmap.tagmapping.OsmTagMapper;
@@ -21,12 +24,15 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
- * the ways, then the nodes are also loaded.
+ * the ways, then the nodes are also loaded. The blocks of the file are decoded in parallel, see
+ * {@link OsmPbfBlockReader}.
  */
 public class OsmProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(OsmProvider.class);
 
+  private static final int N_DECODER_THREADS = Runtime.getRuntime().availableProcessors();
+
   private final DataSource source;
   private final boolean cacheDataInMem;
 
@@ -59,19 +65,27 @@ public class OsmProvider {
   }
 
   public void readOSM(OsmDatabase osmdb) {
+    var executor = Executors.newFixedThreadPool(
+      N_DECODER_THREADS,
+      new ThreadFactoryBuilder().setNameFormat("osm-pbf-%d").setDaemon(true).build()
+    );
     try {
       OpenStreetMapParser parser = new OpenStreetMapParser(osmdb, this);
+      // Keep the decoder threads busy while the entities of a block are created
+      var reader = new OsmPbfBlockReader(executor, osmdb.getIssueStore(), 2 * N_DECODER_THREADS);
 
-      parsePhase(parser, OsmParserPhase.Relations);
+      parsePhase(parser, reader, OsmParserPhase.Relations);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(parser, reader, OsmParserPhase.Ways);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(parser, reader, OsmParserPhase.Nodes);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
+    } finally {
+      executor.shutdownNow();
     }
   }
 
@@ -97,22 +111,23 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OpenStreetMapParser parser, OsmParserPhase phase) throws IOException {
+  private void parsePhase(
+    OpenStreetMapParser parser,
+    OsmPbfBlockReader reader,
+    OsmParserPhase phase
+  ) throws IOException {
     parser.setPhase(phase);
-    BlockInputStream in = null;
-    try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
-      try {
-        if (in != null) {
-          in.close();
-        }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
-      }
+    long startTime = System.currentTimeMillis();
+    try (InputStream in = createInputStream(phase)) {
+      reader.read(in, parser, phase);
     }
+    LOG.info(
+      "Parse OSM {} took {}. {} blocks decoded, {} blocks skipped.",
+      phase,
+      DurationUtils.durationToStr(Duration.ofMillis(System.currentTimeMillis() - startTime)),
+      reader.decodedBlockCount(),
+      reader.skippedBlockCount()
+    );
   }
 
   private InputStream createInputStream(OsmParserPhase phase) {
@@ -15,6 +15,23 @@ public class OSMNode extends OSMWithTags {
     return "osm node " + id;
   }
 
+  /**
+   * Nodes with the same id are equal. A node store may return a new instance of a node for each
+   * lookup, so nodes can not be compared by identity.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof OSMNode other && id == other.id;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(id);
+  }
+
   public Coordinate getCoordinate() {
     return new Coordinate(this.lon, this.lat);
   }
@@ -0,0 +1,111 @@
+package org.opentripplanner.openstreetmap.wayproperty;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.opentripplanner.openstreetmap.model.OSMWithTags;
+import org.opentripplanner.openstreetmap.wayproperty.specifier.OsmSpecifier;
+
+/**
+ * Cache a value computed from the tags of an OSM entity by a list of specifiers. The value only
+ * depends on the tags the specifiers look at, so it is cached by the signature of the entity: its
+ * tags with one of the keys of the specifiers, with or without a direction suffix. A country has
+ * millions of ways, but only some thousand distinct signatures.
+ * <p>
+ * This is thread-safe.
+ */
+class TagSignatureCache<T> {
+
+  private static final Set<String> KEY_SUFFIXES = Set.of(
+    "left",
+    "right",
+    "both",
+    "forward",
+    "backward"
+  );
+
+  private final String name;
+  private final Set<String> keys;
+  private final Map<Map<String, String>, T> cache = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder missNanos = new LongAdder();
+
+  TagSignatureCache(String name, Collection<OsmSpecifier> specifiers) {
+    this.name = name;
+    this.keys =
+      specifiers
+        .stream()
+        .flatMap(s -> s.tagKeys().stream())
+        .map(String::toLowerCase)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * Return the cached value for the signature of the entity, or compute it with the given
+   * function. The function must only use the tags of the specifiers, and must not return null.
+   */
+  T get(OSMWithTags entity, Function<OSMWithTags, T> function) {
+    var signature = signature(entity);
+    T value = cache.get(signature);
+    if (value != null) {
+      hits.increment();
+      return value;
+    }
+    long start = System.nanoTime();
+    value = function.apply(entity);
+    missNanos.add(System.nanoTime() - start);
+    misses.increment();
+    cache.putIfAbsent(signature, value);
+    return value;
+  }
+
+  /**
+   * The number of lookups, the hit rate and an estimate of the time saved, which is the average
+   * time to compute a value multiplied with the number of hits.
+   */
+  String statistics() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    if (lookups == 0) {
+      return name + ": not used";
+    }
+    double savedSeconds = missCount == 0 ? 0 : missNanos.sum() / 1e9 / missCount * hitCount;
+    return String.format(
+      Locale.ROOT,
+      "%s: %d lookups, %d distinct tag signatures, %.1f%% hits, about %.2fs saved",
+      name,
+      lookups,
+      cache.size(),
+      100.0 * hitCount / lookups,
+      savedSeconds
+    );
+  }
+
+  private Map<String, String> signature(OSMWithTags entity) {
+    var signature = new HashMap<String, String>();
+    for (var tag : entity.getTags().entrySet()) {
+      if (isSignatureKey(tag.getKey())) {
+        signature.put(tag.getKey(), tag.getValue());
+      }
+    }
+    return signature;
+  }
+
+  private boolean isSignatureKey(String key) {
+    if (keys.contains(key)) {
+      return true;
+    }
+    int i = key.lastIndexOf(':');
+    return (
+      i > 0 && KEY_SUFFIXES.contains(key.substring(i + 1)) && keys.contains(key.substring(0, i))
+    );
+  }
+}
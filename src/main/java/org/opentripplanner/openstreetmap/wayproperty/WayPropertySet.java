@@ -9,9 +9,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import org.opentripplanner.framework.functional.FunctionUtils.TriFunction;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
@@ -60,11 +62,14 @@ public class WayPropertySet {
   private final WayProperties defaultProperties;
 
   public List<MixinProperties> getMixins() {
-    return mixins;
+    return Collections.unmodifiableList(mixins);
   }
 
   private final List<MixinProperties> mixins = new ArrayList<>();
 
+  /** The results of the pickers by tag signature, created again when a picker is added. */
+  private volatile Caches caches;
+
   public WayPropertySet() {
     /* sensible defaults */
     defaultSpeed = 11.2f; // 11.2 m/s ~= 25 mph ~= 40 kph, standard speed limit in the US
@@ -86,35 +91,11 @@ public class WayPropertySet {
    * that are mixins will have their safety values applied if they match at all.
    */
   public WayProperties getDataForWay(OSMWithTags way) {
-    WayProperties backwardResult = defaultProperties;
-    WayProperties forwardResult = defaultProperties;
-    int bestBackwardScore = 0;
-    int bestForwardScore = 0;
-    List<MixinProperties> backwardMixins = new ArrayList<>();
-    List<MixinProperties> forwardMixins = new ArrayList<>();
-    for (WayPropertyPicker picker : wayProperties) {
-      OsmSpecifier specifier = picker.specifier();
-      WayProperties wayProperties = picker.properties();
-      var score = specifier.matchScores(way);
-      if (score.backward() > bestBackwardScore) {
-        backwardResult = wayProperties;
-        bestBackwardScore = score.backward();
-      }
-      if (score.forward() > bestForwardScore) {
-        forwardResult = wayProperties;
-        bestForwardScore = score.forward();
-      }
-    }
-
-    for (var mixin : mixins) {
-      var score = mixin.specifier().matchScores(way);
-      if (score.backward() > 0) {
-        backwardMixins.add(mixin);
-      }
-      if (score.forward() > 0) {
-        forwardMixins.add(mixin);
-      }
-    }
+    PickerMatch match = caches().wayProperties().get(way, this::matchWayProperties);
+    WayProperties backwardResult = match.backwardResult();
+    WayProperties forwardResult = match.forwardResult();
+    List<MixinProperties> backwardMixins = match.backwardMixins();
+    List<MixinProperties> forwardMixins = match.forwardMixins();
 
     float forwardSpeed = getCarSpeedForWay(way, false);
     float backSpeed = getCarSpeedForWay(way, true);
@@ -158,7 +139,7 @@ public class WayPropertySet {
       result = applyMixins(result, forwardMixins, false);
     }
     if (
-      (bestBackwardScore == 0 || bestForwardScore == 0) &&
+      (match.bestBackwardScore() == 0 || match.bestForwardScore() == 0) &&
       (backwardMixins.isEmpty() || forwardMixins.isEmpty())
     ) {
       String all_tags = dumpTags(way);
@@ -168,21 +149,11 @@ public class WayPropertySet {
   }
 
   public I18NString getCreativeNameForWay(OSMWithTags way) {
-    CreativeNamer bestNamer = null;
-    int bestScore = 0;
-    for (CreativeNamerPicker picker : creativeNamers) {
-      OsmSpecifier specifier = picker.specifier;
-      CreativeNamer namer = picker.namer;
-      int score = specifier.matchScore(way);
-      if (score > bestScore) {
-        bestNamer = namer;
-        bestScore = score;
-      }
-    }
-    if (bestNamer == null) {
-      return null;
-    }
-    return bestNamer.generateCreativeName(way);
+    return caches()
+      .creativeNamers()
+      .get(way, this::matchCreativeNamer)
+      .map(namer -> namer.generateCreativeName(way))
+      .orElse(null);
   }
 
   /**
@@ -226,42 +197,34 @@ public class WayPropertySet {
     if (speed != null && speed > 0.0001) return speed;
 
     // otherwise, we use the speedPickers
-
-    int bestScore = 0;
-    Float bestSpeed = null;
-    int score;
-
-    // SpeedPickers are constructed in DefaultOsmTagMapper with an OSM specifier
-    // (e.g. highway=motorway) and a default speed for that segment.
-    for (SpeedPicker picker : speedPickers) {
-      OsmSpecifier specifier = picker.specifier;
-      score = specifier.matchScore(way);
-      if (score > bestScore) {
-        bestScore = score;
-        bestSpeed = picker.speed;
-      }
-    }
-
-    if (bestSpeed != null) {
-      return bestSpeed;
-    } else {
-      return this.defaultSpeed;
-    }
+    return caches().speeds().get(way, this::matchSpeed).orElse(this.defaultSpeed);
   }
 
   public Set<StreetNoteAndMatcher> getNoteForWay(OSMWithTags way) {
     HashSet<StreetNoteAndMatcher> out = new HashSet<>();
-    for (NotePicker picker : notes) {
-      OsmSpecifier specifier = picker.specifier;
-      NoteProperties noteProperties = picker.noteProperties;
-      if (specifier.matchScore(way) > 0) {
-        out.add(noteProperties.generateNote(way));
-      }
+    for (NoteProperties noteProperties : caches().notes().get(way, this::matchNotes)) {
+      out.add(noteProperties.generateNote(way));
     }
     return out;
   }
 
   public boolean getSlopeOverride(OSMWithTags way) {
+    return caches().slopeOverrides().get(way, this::matchSlopeOverride);
+  }
+
+  /**
+   * The hit rate and the time saved for the caches of the picker results, one line for each
+   * cache.
+   */
+  public List<String> cacheStatistics() {
+    var c = caches();
+    return Stream
+      .of(c.wayProperties(), c.creativeNamers(), c.speeds(), c.notes(), c.slopeOverrides())
+      .map(TagSignatureCache::statistics)
+      .toList();
+  }
+
+  private boolean matchSlopeOverride(OSMWithTags way) {
     boolean result = false;
     int bestScore = 0;
     for (SlopeOverridePicker picker : slopeOverrides) {
@@ -277,22 +240,27 @@ public class WayPropertySet {
 
   public void addMixin(MixinProperties mixin) {
     mixins.add(mixin);
+    caches = null;
   }
 
   public void addProperties(OsmSpecifier spec, WayProperties properties) {
     wayProperties.add(new WayPropertyPicker(spec, properties));
+    caches = null;
   }
 
   public void addCreativeNamer(OsmSpecifier spec, CreativeNamer namer) {
     creativeNamers.add(new CreativeNamerPicker(spec, namer));
+    caches = null;
   }
 
   public void addNote(OsmSpecifier osmSpecifier, NoteProperties properties) {
     notes.add(new NotePicker(osmSpecifier, properties));
+    caches = null;
   }
 
   public void setSlopeOverride(OsmSpecifier spec, boolean override) {
     slopeOverrides.add(new SlopeOverridePicker(spec, override));
+    caches = null;
   }
 
   public int hashCode() {
@@ -319,6 +287,7 @@ public class WayPropertySet {
 
   public void addSpeedPicker(SpeedPicker picker) {
     this.speedPickers.add(picker);
+    caches = null;
   }
 
   public Float getMetersSecondFromSpeed(String speed) {
@@ -459,6 +428,127 @@ public class WayPropertySet {
     return all_tags;
   }
 
+  private PickerMatch matchWayProperties(OSMWithTags way) {
+    WayProperties backwardResult = defaultProperties;
+    WayProperties forwardResult = defaultProperties;
+    int bestBackwardScore = 0;
+    int bestForwardScore = 0;
+    List<MixinProperties> backwardMixins = new ArrayList<>();
+    List<MixinProperties> forwardMixins = new ArrayList<>();
+    for (WayPropertyPicker picker : wayProperties) {
+      OsmSpecifier specifier = picker.specifier();
+      WayProperties wayProperties = picker.properties();
+      var score = specifier.matchScores(way);
+      if (score.backward() > bestBackwardScore) {
+        backwardResult = wayProperties;
+        bestBackwardScore = score.backward();
+      }
+      if (score.forward() > bestForwardScore) {
+        forwardResult = wayProperties;
+        bestForwardScore = score.forward();
+      }
+    }
+
+    for (var mixin : mixins) {
+      var score = mixin.specifier().matchScores(way);
+      if (score.backward() > 0) {
+        backwardMixins.add(mixin);
+      }
+      if (score.forward() > 0) {
+        forwardMixins.add(mixin);
+      }
+    }
+    return new PickerMatch(
+      backwardResult,
+      forwardResult,
+      bestBackwardScore,
+      bestForwardScore,
+      List.copyOf(backwardMixins),
+      List.copyOf(forwardMixins)
+    );
+  }
+
+  private Optional<CreativeNamer> matchCreativeNamer(OSMWithTags way) {
+    CreativeNamer bestNamer = null;
+    int bestScore = 0;
+    for (CreativeNamerPicker picker : creativeNamers) {
+      OsmSpecifier specifier = picker.specifier;
+      CreativeNamer namer = picker.namer;
+      int score = specifier.matchScore(way);
+      if (score > bestScore) {
+        bestNamer = namer;
+        bestScore = score;
+      }
+    }
+    return Optional.ofNullable(bestNamer);
+  }
+
+  private Optional<Float> matchSpeed(OSMWithTags way) {
+    int bestScore = 0;
+    Float bestSpeed = null;
+    int score;
+
+    // SpeedPickers are constructed in DefaultOsmTagMapper with an OSM specifier
+    // (e.g. highway=motorway) and a default speed for that segment.
+    for (SpeedPicker picker : speedPickers) {
+      OsmSpecifier specifier = picker.specifier;
+      score = specifier.matchScore(way);
+      if (score > bestScore) {
+        bestScore = score;
+        bestSpeed = picker.speed;
+      }
+    }
+    return Optional.ofNullable(bestSpeed);
+  }
+
+  private List<NoteProperties> matchNotes(OSMWithTags way) {
+    List<NoteProperties> out = new ArrayList<>();
+    for (NotePicker picker : notes) {
+      if (picker.specifier.matchScore(way) > 0) {
+        out.add(picker.noteProperties);
+      }
+    }
+    return List.copyOf(out);
+  }
+
+  private Caches caches() {
+    var c = caches;
+    if (c == null) {
+      synchronized (this) {
+        c = caches;
+        if (c == null) {
+          c =
+            new Caches(
+              new TagSignatureCache<>(
+                "Way properties",
+                Stream
+                  .concat(
+                    wayProperties.stream().map(WayPropertyPicker::specifier),
+                    mixins.stream().map(MixinProperties::specifier)
+                  )
+                  .toList()
+              ),
+              new TagSignatureCache<>(
+                "Creative names",
+                creativeNamers.stream().map(p -> p.specifier).toList()
+              ),
+              new TagSignatureCache<>(
+                "Car speeds",
+                speedPickers.stream().map(p -> p.specifier).toList()
+              ),
+              new TagSignatureCache<>("Notes", notes.stream().map(p -> p.specifier).toList()),
+              new TagSignatureCache<>(
+                "Slope overrides",
+                slopeOverrides.stream().map(SlopeOverridePicker::getSpecifier).toList()
+              )
+            );
+          caches = c;
+        }
+      }
+    }
+    return c;
+  }
+
   private WayProperties applyMixins(
     WayProperties result,
     List<MixinProperties> mixins,
@@ -493,4 +583,22 @@ public class WayPropertySet {
       .walkSafety(forwardWalk, backWalk)
       .build();
   }
+
+  /** The way properties and mixins which match the tags of a way. */
+  private record PickerMatch(
+    WayProperties backwardResult,
+    WayProperties forwardResult,
+    int bestBackwardScore,
+    int bestForwardScore,
+    List<MixinProperties> backwardMixins,
+    List<MixinProperties> forwardMixins
+  ) {}
+
+  private record Caches(
+    TagSignatureCache<PickerMatch> wayProperties,
+    TagSignatureCache<Optional<CreativeNamer>> creativeNamers,
+    TagSignatureCache<Optional<Float>> speeds,
+    TagSignatureCache<List<NoteProperties>> notes,
+    TagSignatureCache<Boolean> slopeOverrides
+  ) {}
 }
@@ -1,5 +1,8 @@
 package org.opentripplanner.openstreetmap.wayproperty.specifier;
 
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
 
@@ -72,6 +75,11 @@ public class BestMatchSpecifier implements OsmSpecifier {
     return score;
   }
 
+  @Override
+  public Set<String> tagKeys() {
+    return Arrays.stream(conditions).map(Condition::key).collect(Collectors.toSet());
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder.of(this.getClass()).addObj("conditions", conditions).toString();
@@ -1,6 +1,7 @@
 package org.opentripplanner.openstreetmap.wayproperty.specifier;
 
 import java.util.Arrays;
+import java.util.Set;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
 
 /**
@@ -42,6 +43,12 @@ public interface OsmSpecifier {
    */
   int matchScore(OSMWithTags way);
 
+  /**
+   * The tag keys this specifier looks at. The scores only depend on the tags with these keys and
+   * the same keys with a :left, :right, :both, :forward or :backward suffix.
+   */
+  Set<String> tagKeys();
+
   record Scores(int forward, int backward) {
     public static Scores of(int s) {
       return new Scores(s, s);
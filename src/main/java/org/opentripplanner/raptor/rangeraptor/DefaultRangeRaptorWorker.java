@@ -1,6 +1,7 @@
 package org.opentripplanner.raptor.rangeraptor;
 
 import java.util.Collection;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
@@ -125,6 +126,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
    */
   @Override
   public RaptorWorkerResult<T> route() {
+    var cancellationToken = CancellationToken.current();
     timers.route(() -> {
       lifeCycle.notifyRouteSearchStart(calculator.searchForward());
       transitData.setup();
@@ -139,19 +141,21 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
         // Run the raptor search for this particular iteration departure time
         iterationDepartureTime = it.next();
         lifeCycle.setupIteration(iterationDepartureTime);
-        runRaptorForMinute();
+        runRaptorForMinute(cancellationToken);
       }
     });
     return state.results();
   }
 
   /**
-   * Perform one minute of a RAPTOR search.
+   * Perform one minute of a RAPTOR search. The cancellation token is checked for each round, a
+   * minute of a big search may take a while.
    */
-  private void runRaptorForMinute() {
+  private void runRaptorForMinute(CancellationToken cancellationToken) {
     findAccessOnStreetForRound();
 
     while (hasMoreRounds()) {
+      cancellationToken.throwIfCancelled();
       lifeCycle.prepareForNextRound(roundTracker.nextRound());
 
       // NB since we have transfer limiting not bothering to cut off search when there are no
@@ -11,6 +11,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
@@ -172,7 +173,9 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     revHeuristics.withRequest(originalRequest);
     Future<?> asyncResult = null;
     try {
-      asyncResult = config.threadPool().submit(fwdHeuristics::run);
+      // The forward search is stopped with this request if the request is cancelled
+      asyncResult =
+        config.threadPool().submit(CancellationToken.current().wrap(fwdHeuristics::run));
       revHeuristics.run();
       asyncResult.get();
       LOG.debug(
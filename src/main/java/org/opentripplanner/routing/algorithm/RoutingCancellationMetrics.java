@@ -0,0 +1,96 @@
+package org.opentripplanner.routing.algorithm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opentripplanner.framework.application.OTPRequestCancelledException;
+
+/**
+ * Count the cancelled routing requests and estimate the CPU time saved by stopping them.
+ * <p>
+ * The CPU time a cancelled request would have used is not known, so it is estimated with the
+ * moving average of the CPU time used by the completed requests. The saved CPU time is this
+ * estimate minus the CPU time used before the request was stopped. Only the CPU time of the
+ * request thread is measured, not the time of the parallel tasks started by the request.
+ */
+class RoutingCancellationMetrics {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  /** The weight of a new sample in the moving average. */
+  private static final double WEIGHT = 0.05;
+
+  /** The moving average of the CPU time of the completed requests, shared by all requests. */
+  private static final AtomicLong averageCpuTime = new AtomicLong(-1);
+
+  private final Counter cancelledCounter;
+  private final Counter cpuTimeSavedCounter;
+  private final long startCpuTime;
+
+  RoutingCancellationMetrics(MeterRegistry meterRegistry) {
+    this.cancelledCounter =
+      Counter
+        .builder("routing.cancelled")
+        .description("Routing requests stopped because the result was not needed anymore")
+        .register(meterRegistry);
+    this.cpuTimeSavedCounter =
+      Counter
+        .builder("routing.cancelled.cpuTimeSaved")
+        .description("Estimated CPU time saved by stopping the cancelled routing requests")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    this.startCpuTime = currentThreadCpuTime();
+  }
+
+  /**
+   * Call this on the request thread when the request completes.
+   */
+  void completed() {
+    long used = cpuTimeUsed();
+    if (used < 0) {
+      return;
+    }
+    averageCpuTime.accumulateAndGet(
+      used,
+      (average, sample) -> average < 0 ? sample : (long) (average + WEIGHT * (sample - average))
+    );
+  }
+
+  /**
+   * Call this on the request thread when the request is stopped by an
+   * {@link OTPRequestCancelledException}.
+   */
+  void cancelled() {
+    cancelledCounter.increment();
+    long used = cpuTimeUsed();
+    long average = averageCpuTime.get();
+    if (used >= 0 && average > used) {
+      cpuTimeSavedCounter.increment((average - used) / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+  }
+
+  /**
+   * The CPU time used by the current thread since this instance was created, or -1 if it is not
+   * available.
+   */
+  private long cpuTimeUsed() {
+    long now = currentThreadCpuTime();
+    return startCpuTime < 0 || now < 0 ? -1 : now - startCpuTime;
+  }
+
+  /**
+   * Return -1 if the CPU time is not available, like for virtual threads on some JVMs.
+   */
+  private static long currentThreadCpuTime() {
+    try {
+      return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+        ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+        : -1;
+    } catch (UnsupportedOperationException e) {
+      return -1;
+    }
+  }
+}
@@ -13,7 +13,9 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.OTPRequestCancelledException;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutors;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
@@ -81,7 +83,24 @@ public class RoutingWorker {
       createAdditionalSearchDays(serverContext.raptorTuningParameters(), zoneId, request);
   }
 
+  /**
+   * Route the request. The cancellation token of the server context is bound to all the threads
+   * doing the search, and the search is stopped with an {@link OTPRequestCancelledException} if
+   * the token is cancelled.
+   */
   public RoutingResponse route() {
+    var cancellationMetrics = new RoutingCancellationMetrics(serverContext.meterRegistry());
+    try (var ignore = serverContext.cancellationToken().bind()) {
+      var response = doRoute();
+      cancellationMetrics.completed();
+      return response;
+    } catch (OTPRequestCancelledException e) {
+      cancellationMetrics.cancelled();
+      throw e;
+    }
+  }
+
+  private RoutingResponse doRoute() {
     OTPRequestTimeoutException.checkForTimeout();
 
     // If no direct mode is set, then we set one.
@@ -98,14 +117,26 @@ public class RoutingWorker {
     var routingErrors = Collections.synchronizedSet(new HashSet<RoutingError>());
 
     if (OTPFeature.ParallelRouting.isOn()) {
-      // TODO: This is not using {@link OtpRequestThreadFactory} which means we do not get
-      //       log-trace-parameters-propagation and graceful timeout handling here.
+      // TODO: The common pool is not using {@link OtpRequestThreadFactory} which means we do
+      //       not get log-trace-parameters-propagation and graceful timeout handling here,
+      //       unless the VirtualThreads feature is on.
+      var executor = OtpRequestExecutors.asyncExecutor();
+      var token = serverContext.cancellationToken();
       try {
         CompletableFuture
           .allOf(
-            CompletableFuture.runAsync(() -> routeDirectStreet(itineraries, routingErrors)),
-            CompletableFuture.runAsync(() -> routeDirectFlex(itineraries, routingErrors)),
-            CompletableFuture.runAsync(() -> routeTransit(itineraries, routingErrors))
+            CompletableFuture.runAsync(
+              token.wrap(() -> routeDirectStreet(itineraries, routingErrors)),
+              executor
+            ),
+            CompletableFuture.runAsync(
+              token.wrap(() -> routeDirectFlex(itineraries, routingErrors)),
+              executor
+            ),
+            CompletableFuture.runAsync(
+              token.wrap(() -> routeTransit(itineraries, routingErrors)),
+              executor
+            )
           )
           .join();
       } catch (CompletionException e) {
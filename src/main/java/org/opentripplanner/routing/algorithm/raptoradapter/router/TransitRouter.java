@@ -13,6 +13,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.OtpRequestExecutors;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.path.RaptorPath;
@@ -177,12 +178,21 @@ public class TransitRouter {
 
     if (OTPFeature.ParallelRouting.isOn()) {
       try {
-        // TODO: This is not using {@link OtpRequestThreadFactory} which mean we do not get
-        //       log-trace-parameters-propagation and graceful timeout handling here.
+        // TODO: The common pool is not using {@link OtpRequestThreadFactory} which mean we do
+        //       not get log-trace-parameters-propagation and graceful timeout handling here,
+        //       unless the VirtualThreads feature is on.
+        var executor = OtpRequestExecutors.asyncExecutor();
+        var token = serverContext.cancellationToken();
         CompletableFuture
           .allOf(
-            CompletableFuture.runAsync(() -> asyncAccessList.addAll(fetchAccess())),
-            CompletableFuture.runAsync(() -> asyncEgressList.addAll(fetchEgress()))
+            CompletableFuture.runAsync(
+              token.wrap(() -> asyncAccessList.addAll(fetchAccess())),
+              executor
+            ),
+            CompletableFuture.runAsync(
+              token.wrap(() -> asyncEgressList.addAll(fetchEgress())),
+              executor
+            )
           )
           .join();
       } catch (CompletionException e) {
@@ -55,6 +55,22 @@ public class RoutingResponse {
     return routingErrors;
   }
 
+  /**
+   * Copy the response, but record the timing of the copy with the given aggregator. A response
+   * shared by several requests must be copied for each request, because the API records the
+   * rendering time on the aggregator of the response.
+   */
+  public RoutingResponse copyWith(DebugTimingAggregator debugTimingAggregator) {
+    return new RoutingResponse(
+      tripPlan,
+      previousPageCursor,
+      nextPageCursor,
+      metadata,
+      routingErrors,
+      debugTimingAggregator
+    );
+  }
+
   /**
    * Generate empty result with just an error.
    */
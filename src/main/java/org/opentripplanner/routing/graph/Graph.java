@@ -150,7 +150,8 @@ public class Graph implements Serializable {
   }
 
   /**
-   * Removes an edge from the graph. This method is not thread-safe.
+   * Removes an edge from the graph. Edges can only be removed from several threads at the same
+   * time if the threads do not change the same vertices.
    *
    * @param e The edge to be removed
    */
@@ -370,7 +371,7 @@ public class Graph implements Serializable {
     this.luceneIndex = luceneIndex;
   }
 
-  private void indexIfNotIndexed(StopModel stopModel) {
+  private synchronized void indexIfNotIndexed(StopModel stopModel) {
     if (streetIndex == null) {
       index(stopModel);
     }
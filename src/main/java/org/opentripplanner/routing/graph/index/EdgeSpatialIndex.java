@@ -1,5 +1,7 @@
 package org.opentripplanner.routing.graph.index;
 
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.LineString;
@@ -29,6 +31,11 @@ import org.opentripplanner.street.model.edge.Edge;
  * edge then back again to where the realtime element was connected.
  * <p>
  * See #3351
+ * <p>
+ * While {@link #runWithConcurrentUpdates(Runnable)} runs, the indexes are guarded by a read-write
+ * lock, so edges can be inserted and removed while other threads query the index. This is used to
+ * link stops in parallel during graph build. Otherwise, the index is not locked, so the lookups
+ * done for each routing request do not contend on the lock.
  */
 public class EdgeSpatialIndex {
 
@@ -36,7 +43,66 @@ public class EdgeSpatialIndex {
 
   private final HashGridSpatialIndex<Edge> realTimeEdgeIndex = new HashGridSpatialIndex<>();
 
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private volatile boolean concurrentUpdates = false;
+
+  /**
+   * Lock the index while the given task runs, so it can update the index from several threads.
+   * This must not be called while other threads use the index.
+   */
+  public void runWithConcurrentUpdates(Runnable task) {
+    concurrentUpdates = true;
+    try {
+      task.run();
+    } finally {
+      concurrentUpdates = false;
+    }
+  }
+
   public void insert(LineString lineString, Object obj, Scope scope) {
+    if (!concurrentUpdates) {
+      doInsert(lineString, obj, scope);
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      doInsert(lineString, obj, scope);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Envelope envelope, final Object item, Scope scope) {
+    if (!concurrentUpdates) {
+      doRemove(envelope, item, scope);
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      doRemove(envelope, item, scope);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public final Stream<Edge> query(Envelope envelope, Scope scope) {
+    if (!concurrentUpdates) {
+      return doQuery(envelope, scope);
+    }
+    lock.readLock().lock();
+    try {
+      return doQuery(envelope, scope);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public void compact() {
+    permanentEdgeIndex.compact();
+  }
+
+  private void doInsert(LineString lineString, Object obj, Scope scope) {
     switch (scope) {
       case PERMANENT -> permanentEdgeIndex.insert(lineString, obj);
       case REALTIME -> realTimeEdgeIndex.insert(lineString, obj);
@@ -44,7 +110,7 @@ public class EdgeSpatialIndex {
     }
   }
 
-  public void remove(Envelope envelope, final Object item, Scope scope) {
+  private void doRemove(Envelope envelope, Object item, Scope scope) {
     switch (scope) {
       case PERMANENT -> permanentEdgeIndex.remove(envelope, item);
       case REALTIME -> realTimeEdgeIndex.remove(envelope, item);
@@ -52,7 +118,7 @@ public class EdgeSpatialIndex {
     }
   }
 
-  public final Stream<Edge> query(Envelope envelope, Scope scope) {
+  private Stream<Edge> doQuery(Envelope envelope, Scope scope) {
     return switch (scope) {
       case PERMANENT, REALTIME -> permanentEdgeIndex.query(envelope).stream();
       case REQUEST -> Stream.concat(
@@ -61,8 +127,4 @@ public class EdgeSpatialIndex {
       );
     };
   }
-
-  public void compact() {
-    permanentEdgeIndex.compact();
-  }
 }
@@ -7,6 +7,8 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -74,6 +76,15 @@ public class VertexLinker {
   private final StopModel stopModel;
   private final VertexFactory vertexFactory;
 
+  /**
+   * The prefix of the labels of split vertices, if this linker does not use the split number
+   * sequence of the graph.
+   */
+  @Nullable
+  private final String splitLabelPrefix;
+
+  private long nextSplitNumber = 0;
+
   // TODO Temporary code until we refactor WalkableAreaBuilder  (#3152)
   private boolean addExtraEdgesToAreas = true;
 
@@ -82,10 +93,41 @@ public class VertexLinker {
    * given time.
    */
   public VertexLinker(Graph graph, StopModel stopModel, EdgeSpatialIndex edgeSpatialIndex) {
+    this(graph, stopModel, edgeSpatialIndex, null);
+  }
+
+  private VertexLinker(
+    Graph graph,
+    StopModel stopModel,
+    EdgeSpatialIndex edgeSpatialIndex,
+    @Nullable String splitLabelPrefix
+  ) {
     this.edgeSpatialIndex = edgeSpatialIndex;
     this.graph = graph;
     this.vertexFactory = new VertexFactory(graph);
     this.stopModel = stopModel;
+    this.splitLabelPrefix = splitLabelPrefix;
+  }
+
+  /**
+   * Create a linker which shares the spatial index with this one, but labels the split vertices it
+   * creates {@code <prefix>_0}, {@code <prefix>_1} and so on. This allows several linkers to link
+   * vertices permanently at the same time, with the same labels in every run, if the
+   * {@link #linkingEnvelope(Vertex, TraverseModeSet)} of the vertices they link do not intersect.
+   * The prefix must be unique in the graph.
+   */
+  public VertexLinker withSplitLabelPrefix(String splitLabelPrefix) {
+    var linker = new VertexLinker(graph, stopModel, edgeSpatialIndex, splitLabelPrefix);
+    linker.setAddExtraEdgesToAreas(addExtraEdgesToAreas);
+    return linker;
+  }
+
+  /**
+   * Run a task which links vertices with several linkers at the same time, see
+   * {@link #withSplitLabelPrefix(String)}. The shared spatial index is locked while the task runs.
+   */
+  public void runWithConcurrentLinking(Runnable task) {
+    edgeSpatialIndex.runWithConcurrentUpdates(task);
   }
 
   public void linkVertexPermanently(
@@ -115,6 +157,35 @@ public class VertexLinker {
     return link(vertex, traverseModes, direction, Scope.REQUEST, edgeFunction);
   }
 
+  /**
+   * The envelope of the street network which linking the vertex permanently may read or change:
+   * the search envelope, and the edges the spatial index returns for it, including their vertices
+   * and areas. The edges created by splitting an edge are inside the envelope of the edge, so
+   * linking other vertices first does not extend the envelope.
+   */
+  public Envelope linkingEnvelope(Vertex vertex, TraverseModeSet traverseModes) {
+    int radiusMeters = INITIAL_SEARCH_RADIUS_METERS;
+    List<Edge> edges = edgeSpatialIndex
+      .query(searchEnvelope(vertex, radiusMeters), Scope.PERMANENT)
+      .toList();
+    if (candidateEdges(vertex, traverseModes, edges.stream(), radiusMeters).isEmpty()) {
+      radiusMeters = MAX_SEARCH_RADIUS_METERS;
+      edges =
+        edgeSpatialIndex.query(searchEnvelope(vertex, radiusMeters), Scope.PERMANENT).toList();
+    }
+
+    Envelope envelope = searchEnvelope(vertex, radiusMeters);
+    for (Edge edge : edges) {
+      envelope.expandToInclude(edge.getGeometry().getEnvelopeInternal());
+      envelope.expandToInclude(edge.getFromVertex().getCoordinate());
+      envelope.expandToInclude(edge.getToVertex().getCoordinate());
+      if (edge instanceof AreaEdge areaEdge) {
+        envelope.expandToInclude(areaEdge.getArea().getGeometry().getEnvelopeInternal());
+      }
+    }
+    return envelope;
+  }
+
   public void removeEdgeFromIndex(Edge edge, Scope scope) {
     // Edges without geometry will not have been added to the index in the first place
     if (edge.getGeometry() != null) {
@@ -230,28 +301,14 @@ public class VertexLinker {
     int radiusMeters,
     DisposableEdgeCollection tempEdges
   ) {
-    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
-
-    Envelope env = new Envelope(vertex.getCoordinate());
-
-    // Perform a simple local equirectangular projection, so distances are expressed in degrees latitude.
-    final double xscale = Math.cos(vertex.getLat() * Math.PI / 180);
+    final double xscale = xScale(vertex);
 
-    // Expand more in the longitude direction than the latitude direction to account for converging meridians.
-    env.expandBy(radiusDeg / xscale, radiusDeg);
-
-    // Perform several transformations at once on the edges returned by the index. Only consider
-    // street edges traversable by at least one of the given modes and are still present in the
-    // graph. Calculate a distance to each of those edges, and keep only the ones within the search
-    // radius.
-    List<DistanceTo<StreetEdge>> candidateEdges = edgeSpatialIndex
-      .query(env, scope)
-      .filter(StreetEdge.class::isInstance)
-      .map(StreetEdge.class::cast)
-      .filter(e -> e.canTraverse(traverseModes) && e.isReachableFromGraph())
-      .map(e -> new DistanceTo<>(e, distance(vertex, e, xscale)))
-      .filter(ead -> ead.distanceDegreesLat < radiusDeg)
-      .toList();
+    List<DistanceTo<StreetEdge>> candidateEdges = candidateEdges(
+      vertex,
+      traverseModes,
+      edgeSpatialIndex.query(searchEnvelope(vertex, radiusMeters), scope),
+      radiusMeters
+    );
 
     if (candidateEdges.isEmpty()) {
       return Set.of();
@@ -269,6 +326,48 @@ public class VertexLinker {
       .collect(Collectors.toSet());
   }
 
+  /**
+   * Perform a simple local equirectangular projection, so distances are expressed in degrees
+   * latitude.
+   */
+  private static double xScale(Vertex vertex) {
+    return Math.cos(vertex.getLat() * Math.PI / 180);
+  }
+
+  private static Envelope searchEnvelope(Vertex vertex, int radiusMeters) {
+    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+
+    Envelope env = new Envelope(vertex.getCoordinate());
+
+    // Expand more in the longitude direction than the latitude direction to account for converging meridians.
+    env.expandBy(radiusDeg / xScale(vertex), radiusDeg);
+    return env;
+  }
+
+  /**
+   * Perform several transformations at once on the edges returned by the index. Only consider
+   * street edges traversable by at least one of the given modes and are still present in the
+   * graph. Calculate a distance to each of those edges, and keep only the ones within the search
+   * radius.
+   */
+  private static List<DistanceTo<StreetEdge>> candidateEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Stream<Edge> edges,
+    int radiusMeters
+  ) {
+    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+    final double xscale = xScale(vertex);
+
+    return edges
+      .filter(StreetEdge.class::isInstance)
+      .map(StreetEdge.class::cast)
+      .filter(e -> e.canTraverse(traverseModes) && e.isReachableFromGraph())
+      .map(e -> new DistanceTo<>(e, distance(vertex, e, xscale)))
+      .filter(ead -> ead.distanceDegreesLat < radiusDeg)
+      .toList();
+  }
+
   /**
    * We need to get the closest edges per mode to be sure that we are linking to edges traversable
    * by all the specified modes. We use a set here to avoid duplicates in the case that edges are
@@ -464,7 +563,9 @@ public class VertexLinker {
     double y
   ) {
     SplitterVertex v;
-    String uniqueSplitLabel = "split_" + graph.nextSplitNumber++;
+    String uniqueSplitLabel = splitLabelPrefix == null
+      ? "split_" + graph.nextSplitNumber++
+      : splitLabelPrefix + "_" + nextSplitNumber++;
 
     if (scope != Scope.PERMANENT) {
       TemporarySplitterVertex tsv = new TemporarySplitterVertex(
@@ -0,0 +1,62 @@
+package org.opentripplanner.routing.service;
+
+import java.time.Duration;
+
+/**
+ * Parameters for rejecting and degrading routing requests when the server is overloaded, see
+ * {@link RoutingAdmissionController}.
+ *
+ * @param enabled                   Admission control is turned off by default.
+ * @param maxConcurrentRequests     Requests arriving when this many requests are in progress are
+ *                                  rejected.
+ * @param degradeConcurrentRequests Requests arriving when this many requests are in progress are
+ *                                  degraded.
+ * @param degradeLatency            Requests are degraded when the 95th percentile of the latency
+ *                                  of the recent requests exceeds this.
+ * @param numItineraries            The maximum number of itineraries of a degraded request.
+ * @param searchWindow              The maximum search window of a degraded request.
+ * @param skipDirectModes           Skip the direct street search of a degraded request, unless
+ *                                  transit is disabled for the request.
+ */
+public record AdmissionControlParameters(
+  boolean enabled,
+  int maxConcurrentRequests,
+  int degradeConcurrentRequests,
+  Duration degradeLatency,
+  int numItineraries,
+  Duration searchWindow,
+  boolean skipDirectModes
+) {
+  public static final AdmissionControlParameters DEFAULT = new AdmissionControlParameters(
+    false,
+    100,
+    50,
+    Duration.ofSeconds(5),
+    3,
+    Duration.ofMinutes(30),
+    false
+  );
+
+  public AdmissionControlParameters {
+    if (maxConcurrentRequests < 1) {
+      throw new IllegalArgumentException(
+        "maxConcurrentRequests must be positive: " + maxConcurrentRequests
+      );
+    }
+    if (degradeConcurrentRequests < 1 || degradeConcurrentRequests > maxConcurrentRequests) {
+      throw new IllegalArgumentException(
+        "degradeConcurrentRequests must be in the range [1, maxConcurrentRequests]: " +
+        degradeConcurrentRequests
+      );
+    }
+    if (degradeLatency.isNegative() || degradeLatency.isZero()) {
+      throw new IllegalArgumentException("degradeLatency must be positive: " + degradeLatency);
+    }
+    if (numItineraries < 1) {
+      throw new IllegalArgumentException("numItineraries must be positive: " + numItineraries);
+    }
+    if (searchWindow.isNegative()) {
+      throw new IllegalArgumentException("searchWindow is negative: " + searchWindow);
+    }
+  }
+}
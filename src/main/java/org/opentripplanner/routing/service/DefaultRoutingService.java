@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.service;
 
 import java.time.ZoneId;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.tostring.MultiLineToStringBuilder;
 import org.opentripplanner.model.plan.Itinerary;
@@ -28,9 +29,36 @@ public class DefaultRoutingService implements RoutingService {
 
   private final ZoneId timeZone;
 
+  @Nullable
+  private final RoutingRequestCoalescer requestCoalescer;
+
+  @Nullable
+  private final RoutingResponseCache responseCache;
+
+  @Nullable
+  private final RoutingAdmissionController admissionController;
+
   public DefaultRoutingService(OtpServerRequestContext serverContext) {
+    this(serverContext, null, null, null);
+  }
+
+  /**
+   * @param requestCoalescer If set, identical requests running at the same time share the result.
+   * @param responseCache    If set, the responses are cached until new realtime data is published.
+   * @param admissionController If set, requests are rejected or degraded when the server is
+   *                            overloaded.
+   */
+  public DefaultRoutingService(
+    OtpServerRequestContext serverContext,
+    @Nullable RoutingRequestCoalescer requestCoalescer,
+    @Nullable RoutingResponseCache responseCache,
+    @Nullable RoutingAdmissionController admissionController
+  ) {
     this.serverContext = serverContext;
     this.timeZone = serverContext.transitService().getTimeZone();
+    this.requestCoalescer = requestCoalescer;
+    this.responseCache = responseCache;
+    this.admissionController = admissionController;
   }
 
   @Override
@@ -38,8 +66,9 @@ public class DefaultRoutingService implements RoutingService {
     LOG.debug("Request: {}", request);
     OTPRequestTimeoutException.checkForTimeout();
     request.validateOriginAndDestination();
-    var worker = new RoutingWorker(serverContext, request, timeZone);
-    var response = worker.route();
+    var response = admissionController == null
+      ? cacheRequest(request)
+      : admissionController.route(request, this::cacheRequest);
     logResponse(response);
     return response;
   }
@@ -57,6 +86,28 @@ public class DefaultRoutingService implements RoutingService {
     return viaRoutingWorker.route();
   }
 
+  private RoutingResponse cacheRequest(RouteRequest request) {
+    if (responseCache == null) {
+      return coalesceRequest(request);
+    }
+    var version = RoutingResponseCache.DataVersion.of(
+      request,
+      serverContext.transitService(),
+      serverContext.vehicleRentalService()
+    );
+    return responseCache.route(request, version, () -> coalesceRequest(request));
+  }
+
+  private RoutingResponse coalesceRequest(RouteRequest request) {
+    return requestCoalescer == null
+      ? routeRequest(request)
+      : requestCoalescer.route(request, () -> routeRequest(request));
+  }
+
+  private RoutingResponse routeRequest(RouteRequest request) {
+    return new RoutingWorker(serverContext, request, timeZone).route();
+  }
+
   private void logResponse(RoutingResponse response) {
     if (response.getTripPlan().itineraries.isEmpty() && response.getRoutingErrors().isEmpty()) {
       // We should provide an error if there is no results, this is important for the client so
@@ -0,0 +1,36 @@
+package org.opentripplanner.routing.service;
+
+import java.time.Duration;
+
+/**
+ * Parameters for sharing the result of identical routing requests running at the same time, see
+ * {@link RoutingRequestCoalescer}.
+ *
+ * @param enabled              Coalescing is turned off by default.
+ * @param coordinateResolution Coordinates closer than this, in meters, are treated as the same
+ *                             location. Zero requires an exact match.
+ * @param timeResolution       Requests within the same time bucket of this size are treated as
+ *                             departing or arriving at the same time.
+ */
+public record RequestCoalescingParameters(
+  boolean enabled,
+  double coordinateResolution,
+  Duration timeResolution
+) {
+  public static final RequestCoalescingParameters DEFAULT = new RequestCoalescingParameters(
+    false,
+    10.0,
+    Duration.ofMinutes(1)
+  );
+
+  public RequestCoalescingParameters {
+    if (coordinateResolution < 0) {
+      throw new IllegalArgumentException(
+        "coordinateResolution is negative: " + coordinateResolution
+      );
+    }
+    if (timeResolution.isNegative() || timeResolution.isZero()) {
+      throw new IllegalArgumentException("timeResolution must be positive: " + timeResolution);
+    }
+  }
+}
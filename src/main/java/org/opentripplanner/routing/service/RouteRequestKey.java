@@ -0,0 +1,133 @@
+package org.opentripplanner.routing.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.PassThroughPoint;
+import org.opentripplanner.routing.api.request.RequestModes;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.TransitRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilter;
+import org.opentripplanner.routing.api.request.request.filter.TransitPriorityGroupSelect;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * The canonical form of a {@link RouteRequest}, used to find requests which give the same
+ * response. The coordinates are snapped to a grid and the time is rounded down to a time bucket,
+ * all other parameters must be equal.
+ */
+record RouteRequestKey(
+  LocationKey from,
+  LocationKey to,
+  List<PassThroughPoint> passThroughPoints,
+  long timeBucket,
+  boolean arriveBy,
+  boolean timetableView,
+  boolean wheelchair,
+  int numItineraries,
+  String searchWindow,
+  String maxSearchWindow,
+  @Nullable String pageCursor,
+  Locale locale,
+  RequestModes modes,
+  TransitKey transit,
+  RoutingPreferences preferences
+) {
+  private static final double METERS_PER_DEGREE = 111_320.0;
+
+  /**
+   * Create the key of the request, or return {@code null} if the request can not be compared to
+   * other requests, like a request with raptor debugging.
+   *
+   * @param coordinateResolution Coordinates closer than this, in meters, are treated as the same
+   *                             location. Zero requires an exact match.
+   * @param timeResolution       The size of the time buckets.
+   */
+  @Nullable
+  static RouteRequestKey of(
+    RouteRequest request,
+    double coordinateResolution,
+    Duration timeResolution
+  ) {
+    TransitRequest transit = request.journey().transit();
+    if (transit.raptorDebugging().isEnabled()) {
+      return null;
+    }
+    return new RouteRequestKey(
+      location(request.from(), coordinateResolution),
+      location(request.to(), coordinateResolution),
+      request.getPassThroughPoints(),
+      Math.floorDiv(request.dateTime().toEpochMilli(), timeResolution.toMillis()),
+      request.arriveBy(),
+      request.timetableView(),
+      request.wheelchair(),
+      request.numItineraries(),
+      String.valueOf(request.searchWindow()),
+      String.valueOf(request.maxSearchWindow()),
+      request.pageCursor() == null ? null : request.pageCursor().encode(),
+      request.locale(),
+      request.journey().modes(),
+      new TransitKey(
+        transit.filters(),
+        transit.bannedTrips(),
+        transit.preferredAgencies(),
+        transit.unpreferredAgencies(),
+        transit.preferredRoutes(),
+        transit.unpreferredRoutes(),
+        transit.priorityGroupsByAgency(),
+        transit.priorityGroupsGlobal()
+      ),
+      request.preferences()
+    );
+  }
+
+  private static LocationKey location(GenericLocation location, double coordinateResolution) {
+    if (location.lat == null || location.lng == null) {
+      return new LocationKey(location.label, location.stopId, location.lat, location.lng);
+    }
+    double latitudeStep = coordinateResolution / METERS_PER_DEGREE;
+    double lat = snap(location.lat, latitudeStep);
+    double lng = snap(location.lng, longitudeStep(latitudeStep, lat));
+    return new LocationKey(location.label, location.stopId, lat, lng);
+  }
+
+  /**
+   * The cells are narrower in degrees of longitude away from the equator. The snapped latitude
+   * is used, so all the locations in a row of cells use the same step.
+   */
+  private static double longitudeStep(double latitudeStep, double snappedLatitude) {
+    return latitudeStep / Math.max(Math.cos(Math.toRadians(snappedLatitude)), 0.01);
+  }
+
+  /**
+   * Snap the latitude or longitude to the center of a grid cell.
+   */
+  private static double snap(double value, double step) {
+    return step == 0.0 ? value : Math.round(value / step) * step;
+  }
+
+  record LocationKey(
+    @Nullable String label,
+    @Nullable FeedScopedId stopId,
+    @Nullable Double lat,
+    @Nullable Double lng
+  ) {}
+
+  /**
+   * The filters are compared by value, all the filter types implement equals and hashCode or are
+   * singletons.
+   */
+  record TransitKey(
+    List<TransitFilter> filters,
+    List<FeedScopedId> bannedTrips,
+    List<FeedScopedId> preferredAgencies,
+    List<FeedScopedId> unpreferredAgencies,
+    List<FeedScopedId> preferredRoutes,
+    List<FeedScopedId> unpreferredRoutes,
+    List<TransitPriorityGroupSelect> priorityGroupsByAgency,
+    List<TransitPriorityGroupSelect> priorityGroupsGlobal
+  ) {}
+}
@@ -0,0 +1,172 @@
+package org.opentripplanner.routing.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.opentripplanner.framework.application.OTPRequestRejectedException;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+
+/**
+ * Reject or degrade routing requests when the server is overloaded, instead of accepting all
+ * requests and letting the latency of every request go up to the request timeout.
+ * <p>
+ * The controller tracks the number of requests in progress and the latency of the recent
+ * requests. A request is rejected with an {@link OTPRequestRejectedException} if too many
+ * requests are in progress. A request is degraded if many requests are in progress, or the recent
+ * requests are slow: the number of itineraries and the search window are reduced, and optionally
+ * the direct street search is skipped. See {@link AdmissionControlParameters}.
+ * <p>
+ * This class is THREAD-SAFE, one instance is shared by all requests.
+ */
+public class RoutingAdmissionController {
+
+  private final AdmissionControlParameters parameters;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final RecentLatencies recentLatencies = new RecentLatencies(100);
+
+  private final Counter acceptedCounter;
+  private final Counter degradedCounter;
+  private final Counter rejectedCounter;
+
+  public RoutingAdmissionController(
+    AdmissionControlParameters parameters,
+    MeterRegistry meterRegistry
+  ) {
+    this.parameters = parameters;
+    this.acceptedCounter = counter(meterRegistry, "accepted");
+    this.degradedCounter = counter(meterRegistry, "degraded");
+    this.rejectedCounter = counter(meterRegistry, "rejected");
+    Gauge
+      .builder("routing.admission.inFlight", inFlight, AtomicInteger::get)
+      .description("Routing requests in progress")
+      .register(meterRegistry);
+    Gauge
+      .builder("routing.admission.latencyP95", recentLatencies, r -> r.p95() / 1e9)
+      .description("The 95th percentile of the latency of the recent routing requests")
+      .baseUnit("seconds")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Route the request with the given router, or a degraded copy of the request if the server is
+   * busy.
+   *
+   * @throws OTPRequestRejectedException if the server is overloaded.
+   */
+  public RoutingResponse route(
+    RouteRequest request,
+    Function<RouteRequest, RoutingResponse> router
+  ) {
+    int requestsInFlight = inFlight.incrementAndGet();
+    try {
+      if (requestsInFlight > parameters.maxConcurrentRequests()) {
+        rejectedCounter.increment();
+        throw new OTPRequestRejectedException();
+      }
+      var admitted = request;
+      if (isBusy(requestsInFlight)) {
+        degradedCounter.increment();
+        admitted = degrade(request);
+      } else {
+        acceptedCounter.increment();
+      }
+      long start = System.nanoTime();
+      try {
+        return router.apply(admitted);
+      } finally {
+        recentLatencies.record(System.nanoTime() - start);
+      }
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  /**
+   * The number of requests in progress.
+   */
+  int inFlight() {
+    return inFlight.get();
+  }
+
+  private boolean isBusy(int requestsInFlight) {
+    return (
+      requestsInFlight > parameters.degradeConcurrentRequests() ||
+      recentLatencies.p95() > parameters.degradeLatency().toNanos()
+    );
+  }
+
+  /**
+   * Create a copy of the request which is cheaper to route, the original request is not changed.
+   */
+  RouteRequest degrade(RouteRequest request) {
+    var degraded = request.clone();
+    if (degraded.numItineraries() > parameters.numItineraries()) {
+      degraded.setNumItineraries(parameters.numItineraries());
+    }
+    var maxSearchWindow = parameters.searchWindow();
+    if (
+      degraded.maxSearchWindow() != null &&
+      degraded.maxSearchWindow().compareTo(maxSearchWindow) < 0
+    ) {
+      maxSearchWindow = degraded.maxSearchWindow();
+    }
+    var searchWindow = degraded.searchWindow();
+    if (searchWindow == null || searchWindow.compareTo(maxSearchWindow) > 0) {
+      degraded.setSearchWindow(maxSearchWindow);
+    }
+    // The direct street search is the only search done when transit is disabled, so keep it
+    if (parameters.skipDirectModes() && degraded.journey().transit().enabled()) {
+      degraded.journey().direct().setMode(StreetMode.NOT_SET);
+    }
+    return degraded;
+  }
+
+  private static Counter counter(MeterRegistry meterRegistry, String result) {
+    return Counter
+      .builder("routing.admission")
+      .description("Routing requests by the result of the admission control")
+      .tag("result", result)
+      .register(meterRegistry);
+  }
+
+  /**
+   * The latency of the last requests, in nanoseconds.
+   */
+  static class RecentLatencies {
+
+    /**
+     * The percentile is not used before there are enough samples, one slow request should not
+     * degrade the following requests.
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] latencies;
+    private int next = 0;
+    private int size = 0;
+    private volatile long p95 = 0;
+
+    RecentLatencies(int capacity) {
+      this.latencies = new long[capacity];
+    }
+
+    synchronized void record(long latency) {
+      latencies[next] = latency;
+      next = (next + 1) % latencies.length;
+      size = Math.min(size + 1, latencies.length);
+      if (size >= MIN_SAMPLES) {
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        p95 = sorted[(int) Math.ceil(0.95 * size) - 1];
+      }
+    }
+
+    long p95() {
+      return p95;
+    }
+  }
+}
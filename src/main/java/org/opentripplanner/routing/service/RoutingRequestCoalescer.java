@@ -0,0 +1,157 @@
+package org.opentripplanner.routing.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPRequestCancelledException;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+
+/**
+ * Share one routing computation between identical requests running at the same time. When a
+ * popular event starts, many clients send the same query within the same second. The first
+ * request is routed, and the requests with the same key arriving while it is running wait for it
+ * and get the same response.
+ * <p>
+ * The key is a canonical form of the request, see {@link RouteRequestKey} and
+ * {@link RequestCoalescingParameters}. Requests which can not be compared, like requests with
+ * raptor debugging, are routed as usual.
+ * <p>
+ * A waiting request gets a copy of the response with its own {@link DebugTimingAggregator}, and
+ * waits at most the API processing timeout. It is not held longer than its own request just
+ * because the request doing the routing is slow.
+ * <p>
+ * This class is THREAD-SAFE, one instance is shared by all requests.
+ */
+public class RoutingRequestCoalescer {
+
+  private final RequestCoalescingParameters parameters;
+  private final Duration maxWait;
+  private final MeterRegistry meterRegistry;
+  private final Map<RouteRequestKey, CompletableFuture<RoutingResponse>> inFlight =
+    new ConcurrentHashMap<>();
+
+  private final Counter computedCounter;
+  private final Counter coalescedCounter;
+  private final Counter notCoalescableCounter;
+
+  /**
+   * @param maxWait The maximum time a request waits for an identical request to be routed, the
+   *                timeout of the API request. A negative or zero value waits without a limit,
+   *                like the API does when no timeout is set.
+   */
+  public RoutingRequestCoalescer(
+    RequestCoalescingParameters parameters,
+    Duration maxWait,
+    MeterRegistry meterRegistry
+  ) {
+    this.parameters = parameters;
+    this.maxWait = maxWait;
+    this.meterRegistry = meterRegistry;
+    this.computedCounter = counter(meterRegistry, "computed");
+    this.coalescedCounter = counter(meterRegistry, "coalesced");
+    this.notCoalescableCounter = counter(meterRegistry, "notCoalescable");
+  }
+
+  /**
+   * Route the request with the given router, unless an identical request is already being
+   * routed. In that case, wait for it and return its response. If the routing fails, the
+   * exception is thrown to all the waiting requests. If the routing is cancelled, the waiting
+   * requests are routed with their own router, they are not cancelled. If the routing does not
+   * finish within the max wait time, an {@link OTPRequestTimeoutException} is thrown.
+   */
+  public RoutingResponse route(RouteRequest request, Supplier<RoutingResponse> router) {
+    RouteRequestKey key = key(request);
+    if (key == null) {
+      notCoalescableCounter.increment();
+      return router.get();
+    }
+
+    var future = new CompletableFuture<RoutingResponse>();
+    var existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      coalescedCounter.increment();
+      var timing = new DebugTimingAggregator(meterRegistry, request.preferences().system().tags());
+      try {
+        var response = join(existing);
+        timing.finishedFiltering();
+        return response.copyWith(timing);
+      } catch (OTPRequestCancelledException e) {
+        // The request doing the routing is cancelled, not this request
+        return router.get();
+      }
+    }
+
+    computedCounter.increment();
+    try {
+      var response = router.get();
+      future.complete(response);
+      return response;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  /**
+   * The number of requests being routed right now, which other requests may join.
+   */
+  int inFlight() {
+    return inFlight.size();
+  }
+
+  /**
+   * Create the canonical key of the request, or return {@code null} if the request should not be
+   * coalesced.
+   */
+  @Nullable
+  RouteRequestKey key(RouteRequest request) {
+    return RouteRequestKey.of(
+      request,
+      parameters.coordinateResolution(),
+      parameters.timeResolution()
+    );
+  }
+
+  private static Counter counter(MeterRegistry meterRegistry, String result) {
+    return Counter
+      .builder("routing.coalescing")
+      .description("Routing requests by the result of the request coalescing")
+      .tag("result", result)
+      .register(meterRegistry);
+  }
+
+  private RoutingResponse join(CompletableFuture<RoutingResponse> future) {
+    try {
+      return maxWait.isNegative() || maxWait.isZero()
+        ? future.get()
+        : future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new OTPRequestTimeoutException();
+    } catch (InterruptedException e) {
+      // The HTTP server interrupts the request thread when the request times out
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+}
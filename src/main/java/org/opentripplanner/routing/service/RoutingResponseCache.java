@@ -0,0 +1,179 @@
+package org.opentripplanner.routing.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.service.vehiclerental.VehicleRentalService;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * Cache the responses of routing requests, so repeated requests for the same trip, like a client
+ * refreshing the result or paging back and forth, are not routed again.
+ * <p>
+ * The key is a canonical form of the request, see {@link RouteRequestKey}, together with the
+ * version of the realtime data the response is based on, see {@link DataVersion}. When a new
+ * timetable snapshot or realtime transit layer is published, all the cached responses are
+ * removed. A new rental state only makes the responses of requests using rental vehicles
+ * outdated, the other responses are kept. In addition the size of the cache and the time a
+ * response is kept are limited, see {@link RoutingResponseCacheParameters}.
+ * <p>
+ * This class is THREAD-SAFE, one instance is shared by all requests.
+ */
+public class RoutingResponseCache {
+
+  private final RoutingResponseCacheParameters parameters;
+  private final MeterRegistry meterRegistry;
+  private final Cache<CacheKey, RoutingResponse> cache;
+  private final AtomicReference<TransitVersion> transitVersion = new AtomicReference<>();
+  private final Counter notCacheableCounter;
+  private final Counter invalidatedCounter;
+
+  public RoutingResponseCache(
+    RoutingResponseCacheParameters parameters,
+    MeterRegistry meterRegistry
+  ) {
+    this.parameters = parameters;
+    this.meterRegistry = meterRegistry;
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumSize(parameters.maxSize())
+        .expireAfterWrite(parameters.timeToLive())
+        .recordStats()
+        .build();
+    this.notCacheableCounter =
+      Counter
+        .builder("routing.responseCache.notCacheable")
+        .description("Routing requests which can not be cached, like requests with debugging")
+        .register(meterRegistry);
+    this.invalidatedCounter =
+      Counter
+        .builder("routing.responseCache.invalidated")
+        .description("The number of times the cache is cleared because of new realtime data")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Return the cached response of the request for the given data version, or route the request
+   * with the given router and cache the response. Exceptions are not cached.
+   * <p>
+   * The data version must be read before the request is routed. The router may then use newer
+   * data than the version, but never older data, so an outdated response is never returned.
+   * <p>
+   * A cached response is returned as a copy with its own {@link DebugTimingAggregator}, so the
+   * timing recorded for a hit starts when the hit is looked up, not when the cached response was
+   * routed.
+   */
+  public RoutingResponse route(
+    RouteRequest request,
+    DataVersion version,
+    Supplier<RoutingResponse> router
+  ) {
+    var requestKey = RouteRequestKey.of(
+      request,
+      parameters.coordinateResolution(),
+      parameters.timeResolution()
+    );
+    if (requestKey == null) {
+      notCacheableCounter.increment();
+      return router.get();
+    }
+    invalidateIfChanged(version.transit());
+
+    var timing = new DebugTimingAggregator(meterRegistry, request.preferences().system().tags());
+    var key = new CacheKey(requestKey, version);
+    var response = cache.getIfPresent(key);
+    if (response == null) {
+      response = router.get();
+      cache.put(key, response);
+      return response;
+    }
+    timing.finishedFiltering();
+    return response.copyWith(timing);
+  }
+
+  /**
+   * The underlying cache, for reporting the hit rate, size and evictions.
+   */
+  public Cache<?, RoutingResponse> cache() {
+    return cache;
+  }
+
+  /**
+   * The total number of legs in the cached responses. The legs account for most of the memory
+   * used by a response, so this is used to report the memory used by the cache.
+   */
+  public long numberOfLegs() {
+    long legs = 0;
+    for (RoutingResponse response : cache.asMap().values()) {
+      for (var itinerary : response.getTripPlan().itineraries) {
+        legs += itinerary.getLegs().size();
+      }
+    }
+    return legs;
+  }
+
+  private void invalidateIfChanged(TransitVersion version) {
+    var previous = transitVersion.getAndSet(version);
+    if (previous != null && !previous.equals(version)) {
+      // Free the memory used by the outdated responses, they can not be found anymore
+      cache.invalidateAll();
+      invalidatedCounter.increment();
+    }
+  }
+
+  /**
+   * The realtime data a response is based on. The snapshot and transit layer are compared by
+   * identity, a new instance is created each time realtime updates are published.
+   *
+   * @param rentalModificationCount The version of the rental state, or {@code -1} if the request
+   *                                does not use rental vehicles.
+   */
+  public record DataVersion(TransitVersion transit, long rentalModificationCount) {
+    public static DataVersion of(
+      RouteRequest request,
+      TransitService transitService,
+      VehicleRentalService vehicleRentalService
+    ) {
+      return new DataVersion(
+        new TransitVersion(
+          transitService.getTimetableSnapshot(),
+          transitService.getRealtimeTransitLayer()
+        ),
+        usesRental(request) ? vehicleRentalService.getModificationCount() : -1
+      );
+    }
+
+    private static boolean usesRental(RouteRequest request) {
+      var modes = request.journey().modes();
+      for (StreetMode mode : new StreetMode[] {
+        modes.accessMode,
+        modes.egressMode,
+        modes.directMode,
+        modes.transferMode,
+      }) {
+        if (mode != null && mode.includesRenting()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  public record TransitVersion(
+    @Nullable TimetableSnapshot timetableSnapshot,
+    @Nullable TransitLayer realtimeTransitLayer
+  ) {}
+
+  private record CacheKey(RouteRequestKey request, DataVersion version) {}
+}
@@ -0,0 +1,47 @@
+package org.opentripplanner.routing.service;
+
+import java.time.Duration;
+
+/**
+ * Parameters for caching the responses of routing requests, see {@link RoutingResponseCache}.
+ *
+ * @param enabled              The cache is turned off by default.
+ * @param maxSize              The maximum number of responses in the cache.
+ * @param timeToLive           A response is removed this long after it was added.
+ * @param coordinateResolution Coordinates closer than this, in meters, are treated as the same
+ *                             location. Zero requires an exact match.
+ * @param timeResolution       Requests within the same time bucket of this size are treated as
+ *                             departing or arriving at the same time.
+ */
+public record RoutingResponseCacheParameters(
+  boolean enabled,
+  int maxSize,
+  Duration timeToLive,
+  double coordinateResolution,
+  Duration timeResolution
+) {
+  public static final RoutingResponseCacheParameters DEFAULT = new RoutingResponseCacheParameters(
+    false,
+    1000,
+    Duration.ofMinutes(5),
+    0.0,
+    Duration.ofMinutes(1)
+  );
+
+  public RoutingResponseCacheParameters {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+    }
+    if (timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException("timeToLive must be positive: " + timeToLive);
+    }
+    if (coordinateResolution < 0) {
+      throw new IllegalArgumentException(
+        "coordinateResolution is negative: " + coordinateResolution
+      );
+    }
+    if (timeResolution.isNegative() || timeResolution.isZero()) {
+      throw new IllegalArgumentException("timeResolution must be positive: " + timeResolution);
+    }
+  }
+}
@@ -23,8 +23,11 @@ public class StreetNoteModel implements Serializable {
   private static final Logger LOG = LoggerFactory.getLogger(StreetNoteModel.class);
 
   /**
-   * Notes for street edges. No need to synchronize access to the map as they will not be concurrent
-   * write access (no notes for temporary edges, we use notes from parent).
+   * Notes for street edges. There are no notes for temporary edges, we use notes from parent. The
+   * map is only modified while the graph is built, the writes are synchronized because edges are
+   * removed from several threads when stops are linked in parallel. The notes are only read when
+   * itineraries are mapped, after the graph is built, so {@link #getNotes(Edge)} never runs at the
+   * same time as a write and is not synchronized.
    */
   private final SetMultimap<Edge, StreetNoteAndMatcher> notesForEdge = HashMultimap.<Edge, StreetNoteAndMatcher>create();
 
@@ -53,7 +56,7 @@ public class StreetNoteModel implements Serializable {
     return maas;
   }
 
-  void addNote(Edge edge, StreetNote note, StreetNoteMatcher matcher) {
+  synchronized void addNote(Edge edge, StreetNote note, StreetNoteMatcher matcher) {
     if (LOG.isDebugEnabled()) LOG.debug(
       "Adding note {} to {} with matcher {}",
       note,
@@ -67,7 +70,7 @@ public class StreetNoteModel implements Serializable {
    * Remove all notes attached to this edge. NOTE: this should only be called within a graph
    * building context (or unit testing).
    */
-  void removeNotes(Edge edge) {
+  synchronized void removeNotes(Edge edge) {
     if (LOG.isDebugEnabled()) LOG.debug("Removing notes for edge: {}", edge);
     notesForEdge.removeAll(edge);
   }
@@ -0,0 +1,189 @@
+package org.opentripplanner.routing.stoptimes;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import gnu.trove.set.TIntSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * The scheduled departures of each stop on a service date, sorted by departure time. This is used
+ * by the {@link StopTimesHelper} to find the next departures of a stop without scanning all trips
+ * of all the patterns visiting the stop.
+ * <p>
+ * Only the scheduled timetables of the patterns are indexed, the caller is responsible for using
+ * the realtime timetable instead when one exists for the pattern and date. The index of a stop is
+ * built the first time the stop is requested for a service date, and the service dates not used
+ * recently are evicted.
+ */
+public class ScheduledDepartureIndex {
+
+  /**
+   * A departure board search covers the day before, and the day(s) of the search window, so a
+   * handful of dates are enough.
+   */
+  private static final int MAX_SERVICE_DATES = 7;
+
+  private final Map<LocalDate, TIntSet> serviceCodesRunningForDate;
+  private final Function<StopLocation, Collection<TripPattern>> patternsForStop;
+  private final Cache<LocalDate, Map<StopLocation, Map<TripPattern, List<StopDepartures>>>> index = CacheBuilder
+    .newBuilder()
+    .maximumSize(MAX_SERVICE_DATES)
+    .build();
+
+  public ScheduledDepartureIndex(
+    Map<LocalDate, TIntSet> serviceCodesRunningForDate,
+    Function<StopLocation, Collection<TripPattern>> patternsForStop
+  ) {
+    this.serviceCodesRunningForDate = serviceCodesRunningForDate;
+    this.patternsForStop = patternsForStop;
+  }
+
+  /**
+   * Return the scheduled departures of the given pattern at the given stop on the service date,
+   * one element for each time the pattern visits the stop. Return {@code null} if the pattern is
+   * not part of the scheduled patterns of the stop, e.g. a pattern added by a realtime update.
+   */
+  @Nullable
+  public List<StopDepartures> departures(
+    StopLocation stop,
+    TripPattern pattern,
+    LocalDate serviceDate
+  ) {
+    return forDate(serviceDate).computeIfAbsent(stop, s -> index(s, serviceDate)).get(pattern);
+  }
+
+  /**
+   * Remove the departures of the given service date from the index, they are rebuilt the next
+   * time they are requested.
+   */
+  public void evict(LocalDate serviceDate) {
+    index.invalidate(serviceDate);
+  }
+
+  private Map<StopLocation, Map<TripPattern, List<StopDepartures>>> forDate(
+    LocalDate serviceDate
+  ) {
+    try {
+      return index.get(serviceDate, ConcurrentHashMap::new);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Map<TripPattern, List<StopDepartures>> index(StopLocation stop, LocalDate serviceDate) {
+    TIntSet servicesRunning = serviceCodesRunningForDate.get(serviceDate);
+    Map<TripPattern, List<StopDepartures>> result = new HashMap<>();
+    for (TripPattern pattern : patternsForStop.apply(stop)) {
+      List<StopDepartures> departures = new ArrayList<>();
+      List<StopLocation> stops = pattern.getStops();
+      for (int stopPos = 0; stopPos < stops.size(); stopPos++) {
+        if (stops.get(stopPos) == stop) {
+          departures.add(StopDepartures.of(pattern, stopPos, servicesRunning));
+        }
+      }
+      result.put(pattern, List.copyOf(departures));
+    }
+    return result;
+  }
+
+  /**
+   * The trips of a pattern running on a service date, sorted by the departure time at one stop
+   * position in the pattern.
+   */
+  public static final class StopDepartures {
+
+    private final int stopPosInPattern;
+    private final int[] departureTimes;
+    private final TripTimes[] tripTimes;
+    private final int minDwellTime;
+    private final int maxDwellTime;
+
+    private StopDepartures(
+      int stopPosInPattern,
+      int[] departureTimes,
+      TripTimes[] tripTimes,
+      int minDwellTime,
+      int maxDwellTime
+    ) {
+      this.stopPosInPattern = stopPosInPattern;
+      this.departureTimes = departureTimes;
+      this.tripTimes = tripTimes;
+      this.minDwellTime = minDwellTime;
+      this.maxDwellTime = maxDwellTime;
+    }
+
+    static StopDepartures of(TripPattern pattern, int stopPos, @Nullable TIntSet servicesRunning) {
+      TripTimes[] tripTimes = pattern
+        .getScheduledTimetable()
+        .getTripTimes()
+        .stream()
+        .filter(t -> servicesRunning != null && servicesRunning.contains(t.getServiceCode()))
+        .sorted(Comparator.comparingInt(t -> t.getDepartureTime(stopPos)))
+        .toArray(TripTimes[]::new);
+
+      int[] departureTimes = new int[tripTimes.length];
+      int minDwellTime = 0;
+      int maxDwellTime = 0;
+      for (int i = 0; i < tripTimes.length; i++) {
+        departureTimes[i] = tripTimes[i].getDepartureTime(stopPos);
+        int dwellTime = departureTimes[i] - tripTimes[i].getArrivalTime(stopPos);
+        minDwellTime = Math.min(minDwellTime, dwellTime);
+        maxDwellTime = Math.max(maxDwellTime, dwellTime);
+      }
+      return new StopDepartures(stopPos, departureTimes, tripTimes, minDwellTime, maxDwellTime);
+    }
+
+    public int stopPosInPattern() {
+      return stopPosInPattern;
+    }
+
+    public int size() {
+      return tripTimes.length;
+    }
+
+    public int departureTime(int index) {
+      return departureTimes[index];
+    }
+
+    public TripTimes tripTimes(int index) {
+      return tripTimes[index];
+    }
+
+    /**
+     * The index of the first trip which may arrive or depart at or after the given time.
+     */
+    public int firstIndex(int time) {
+      // The arrival time is the departure time minus the dwell time
+      int i = Arrays.binarySearch(departureTimes, time + minDwellTime);
+      if (i < 0) {
+        return -(i + 1);
+      }
+      // Step back to the first of several trips departing at the same time
+      while (i > 0 && departureTimes[i - 1] == departureTimes[i]) {
+        --i;
+      }
+      return i;
+    }
+
+    /**
+     * The latest departure time of a trip which may arrive or depart at or before the given time.
+     */
+    public int lastDepartureTime(int time) {
+      return time + maxDwellTime;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.ARRIVALS;
 import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.DEPARTURES;
 
 import com.google.common.collect.MinMaxPriorityQueue;
+import gnu.trove.set.TIntSet;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -12,7 +13,9 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.PickDrop;
@@ -56,6 +59,67 @@ public class StopTimesHelper {
       return List.of();
     }
 
+    return stopTimesForStop(
+      transitService,
+      new TimetableLookup(transitService),
+      stop,
+      startTime,
+      timeRange,
+      numberOfDepartures,
+      arrivalDeparture,
+      includeCancelledTrips
+    );
+  }
+
+  /**
+   * Fetch upcoming vehicle departures from several stops. The result is the same as fetching the
+   * departures of each stop separately, but the timetables of the patterns shared by the stops,
+   * and the services running on each date, are only resolved once. This is used when a departure
+   * board asks for the departures of many stops in the same request.
+   *
+   * @return the stop times for each stop, in the same order as the given stops.
+   */
+  public static List<List<StopTimesInPattern>> stopTimesForStops(
+    TransitService transitService,
+    List<? extends StopLocation> stops,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
+    if (numberOfDepartures <= 0) {
+      return stops.stream().map(stop -> List.<StopTimesInPattern>of()).toList();
+    }
+    var timetables = new TimetableLookup(transitService);
+    List<List<StopTimesInPattern>> result = new ArrayList<>(stops.size());
+    for (StopLocation stop : stops) {
+      result.add(
+        stopTimesForStop(
+          transitService,
+          timetables,
+          stop,
+          startTime,
+          timeRange,
+          numberOfDepartures,
+          arrivalDeparture,
+          includeCancelledTrips
+        )
+      );
+    }
+    return result;
+  }
+
+  private static List<StopTimesInPattern> stopTimesForStop(
+    TransitService transitService,
+    TimetableLookup timetables,
+    StopLocation stop,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
     List<StopTimesInPattern> result = new ArrayList<>();
 
     // Fetch all patterns, including those from realtime sources
@@ -64,6 +128,7 @@ public class StopTimesHelper {
     for (TripPattern pattern : patterns) {
       Queue<TripTimeOnDate> pq = listTripTimeShortsForPatternAtStop(
         transitService,
+        timetables,
         stop,
         pattern,
         startTime,
@@ -156,6 +221,7 @@ public class StopTimesHelper {
   ) {
     Queue<TripTimeOnDate> pq = listTripTimeShortsForPatternAtStop(
       transitService,
+      new TimetableLookup(transitService),
       stop,
       pattern,
       startTime,
@@ -186,6 +252,7 @@ public class StopTimesHelper {
 
   private static Queue<TripTimeOnDate> listTripTimeShortsForPatternAtStop(
     TransitService transitService,
+    TimetableLookup timetables,
     StopLocation stop,
     TripPattern pattern,
     Instant startTime,
@@ -225,13 +292,78 @@ public class StopTimesHelper {
 
     // Loop through all possible days
     for (LocalDate serviceDate : serviceDates) {
-      Timetable timetable = transitService.getTimetableForTripPattern(pattern, serviceDate);
+      Timetable timetable = timetables.timetable(pattern, serviceDate);
       ZonedDateTime midnight = ServiceDateUtils.asStartOfService(serviceDate, zoneId);
       int secondsSinceMidnight = ServiceDateUtils.secondsSinceStartOfService(
         midnight,
         ZonedDateTime.ofInstant(startTime, zoneId)
       );
-      var servicesRunning = transitService.getServiceCodesRunningForDate(serviceDate);
+      var servicesRunning = timetables.servicesRunning(serviceDate);
+
+      // Use the index of the scheduled departures, unless there are realtime updates
+      var scheduledDepartures = timetables.scheduledDepartures(
+        stop,
+        pattern,
+        serviceDate,
+        timetable
+      );
+      if (scheduledDepartures != null) {
+        for (var departures : scheduledDepartures) {
+          int stopIndex = departures.stopPosInPattern();
+          if (skipByPickUpDropOff(pattern, arrivalDeparture, stopIndex)) {
+            continue;
+          }
+          if (skipByStopCancellation(pattern, includeCancellations, stopIndex)) {
+            continue;
+          }
+          int lastDepartureTime = departures.lastDepartureTime(
+            secondsSinceMidnight + timeRangeSeconds
+          );
+          int found = 0;
+          int lastFoundDepartureTime = Integer.MIN_VALUE;
+          for (
+            int i = departures.firstIndex(secondsSinceMidnight);
+            i < departures.size() && departures.departureTime(i) <= lastDepartureTime;
+            i++
+          ) {
+            // The departures are sorted, so the rest can not be among the first departures
+            if (
+              found >= numberOfDepartures && departures.departureTime(i) > lastFoundDepartureTime
+            ) {
+              break;
+            }
+            TripTimes tripTimes = departures.tripTimes(i);
+            if (
+              skipTrip(
+                transitService,
+                tripTimes,
+                pattern,
+                serviceDate,
+                includeCancellations,
+                includeReplaced
+              )
+            ) {
+              continue;
+            }
+            if (
+              inTimeRange(
+                tripTimes,
+                stopIndex,
+                secondsSinceMidnight,
+                timeRangeSeconds,
+                arrivalDeparture
+              )
+            ) {
+              pq.add(
+                new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant())
+              );
+              found++;
+              lastFoundDepartureTime = departures.departureTime(i);
+            }
+          }
+        }
+        continue;
+      }
 
       List<StopLocation> stops = pattern.getStops();
       for (int stopIndex = 0; stopIndex < stops.size(); stopIndex++) {
@@ -248,30 +380,26 @@ public class StopTimesHelper {
             if (!servicesRunning.contains(tripTimes.getServiceCode())) {
               continue;
             }
-            if (skipByTripCancellation(tripTimes, includeCancellations)) {
-              continue;
-            }
             if (
-              !includeReplaced &&
-              isReplacedByAnotherPattern(tripTimes.getTrip(), serviceDate, pattern, transitService)
+              skipTrip(
+                transitService,
+                tripTimes,
+                pattern,
+                serviceDate,
+                includeCancellations,
+                includeReplaced
+              )
             ) {
               continue;
             }
-
-            boolean departureTimeInRange =
-              tripTimes.getDepartureTime(stopIndex) >= secondsSinceMidnight &&
-              tripTimes.getDepartureTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
-
-            boolean arrivalTimeInRange =
-              tripTimes.getArrivalTime(stopIndex) >= secondsSinceMidnight &&
-              tripTimes.getArrivalTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
-
-            // ARRIVAL: Arrival time has to be within range
-            // DEPARTURES: Departure time has to be within range
-            // BOTH: Either arrival time or departure time has to be within range
             if (
-              (arrivalDeparture != ARRIVALS && departureTimeInRange) ||
-              (arrivalDeparture != DEPARTURES && arrivalTimeInRange)
+              inTimeRange(
+                tripTimes,
+                stopIndex,
+                secondsSinceMidnight,
+                timeRangeSeconds,
+                arrivalDeparture
+              )
             ) {
               pq.add(
                 new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant())
@@ -285,6 +413,49 @@ public class StopTimesHelper {
     return pq;
   }
 
+  private static boolean skipTrip(
+    TransitService transitService,
+    TripTimes tripTimes,
+    TripPattern pattern,
+    LocalDate serviceDate,
+    boolean includeCancellations,
+    boolean includeReplaced
+  ) {
+    if (skipByTripCancellation(tripTimes, includeCancellations)) {
+      return true;
+    }
+    return (
+      !includeReplaced &&
+      isReplacedByAnotherPattern(tripTimes.getTrip(), serviceDate, pattern, transitService)
+    );
+  }
+
+  /**
+   * ARRIVAL: Arrival time has to be within range
+   * DEPARTURES: Departure time has to be within range
+   * BOTH: Either arrival time or departure time has to be within range
+   */
+  private static boolean inTimeRange(
+    TripTimes tripTimes,
+    int stopIndex,
+    int secondsSinceMidnight,
+    int timeRangeSeconds,
+    ArrivalDeparture arrivalDeparture
+  ) {
+    boolean departureTimeInRange =
+      tripTimes.getDepartureTime(stopIndex) >= secondsSinceMidnight &&
+      tripTimes.getDepartureTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
+
+    boolean arrivalTimeInRange =
+      tripTimes.getArrivalTime(stopIndex) >= secondsSinceMidnight &&
+      tripTimes.getArrivalTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
+
+    return (
+      (arrivalDeparture != ARRIVALS && departureTimeInRange) ||
+      (arrivalDeparture != DEPARTURES && arrivalTimeInRange)
+    );
+  }
+
   private static boolean isReplacedByAnotherPattern(
     Trip trip,
     LocalDate serviceDate,
@@ -339,4 +510,50 @@ public class StopTimesHelper {
 
     return (pickupCancelled || dropOffCancelled) && !includeCancelledTrips;
   }
+
+  /**
+   * Resolves the timetables and the services running on a date, and remembers them. A new
+   * instance is created for each search, so realtime updates made after the search started are
+   * not seen by the search.
+   */
+  private static class TimetableLookup {
+
+    private final TransitService transitService;
+    private final Map<TripPattern, Map<LocalDate, Timetable>> timetables = new HashMap<>();
+    private final Map<LocalDate, TIntSet> servicesRunning = new HashMap<>();
+
+    private TimetableLookup(TransitService transitService) {
+      this.transitService = transitService;
+    }
+
+    Timetable timetable(TripPattern pattern, LocalDate serviceDate) {
+      return timetables
+        .computeIfAbsent(pattern, p -> new HashMap<>())
+        .computeIfAbsent(serviceDate, d -> transitService.getTimetableForTripPattern(pattern, d));
+    }
+
+    /**
+     * The indexed scheduled departures of the pattern at the stop, or {@code null} if the
+     * timetable is updated in realtime or the pattern is not indexed.
+     */
+    List<ScheduledDepartureIndex.StopDepartures> scheduledDepartures(
+      StopLocation stop,
+      TripPattern pattern,
+      LocalDate serviceDate,
+      Timetable timetable
+    ) {
+      var index = transitService.getScheduledDepartureIndex();
+      if (index == null || timetable != pattern.getScheduledTimetable()) {
+        return null;
+      }
+      return index.departures(stop, pattern, serviceDate);
+    }
+
+    TIntSet servicesRunning(LocalDate serviceDate) {
+      return servicesRunning.computeIfAbsent(
+        serviceDate,
+        transitService::getServiceCodesRunningForDate
+      );
+    }
+  }
 }
@@ -2,6 +2,8 @@ package org.opentripplanner.service.realtimevehicles;
 
 import java.util.List;
 import javax.annotation.Nonnull;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
 import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.OccupancyStatus;
@@ -14,6 +16,18 @@ public interface RealtimeVehicleService {
    */
   List<RealtimeVehicle> getRealtimeVehicles(@Nonnull TripPattern pattern);
 
+  /**
+   * Find the realtime vehicles with a position inside the envelope. The envelope is in WGS84, x
+   * is longitude and y is latitude. Vehicles without a position are never returned.
+   */
+  List<RealtimeVehicle> findRealtimeVehicles(@Nonnull Envelope envelope);
+
+  /**
+   * Find the realtime vehicles with a position within the given distance in meters from the
+   * center. Vehicles without a position are never returned.
+   */
+  List<RealtimeVehicle> findRealtimeVehicles(@Nonnull WgsCoordinate center, double radiusMeters);
+
   /**
    * Get the latest occupancy status for a certain trip. Service contains all the vehicles that
    * exist in input feeds but doesn't store any historical data.
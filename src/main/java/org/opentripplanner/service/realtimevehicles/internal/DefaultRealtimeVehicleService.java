@@ -11,6 +11,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
@@ -26,6 +28,8 @@ public class DefaultRealtimeVehicleService
 
   private final Map<TripPattern, List<RealtimeVehicle>> vehicles = new ConcurrentHashMap<>();
 
+  private final RealtimeVehicleSpatialIndex spatialIndex = new RealtimeVehicleSpatialIndex();
+
   private final TransitService transitService;
 
   @Inject
@@ -35,12 +39,17 @@ public class DefaultRealtimeVehicleService
 
   @Override
   public void setRealtimeVehicles(TripPattern pattern, List<RealtimeVehicle> updates) {
-    vehicles.put(pattern, List.copyOf(updates));
+    var current = List.copyOf(updates);
+    var previous = vehicles.put(pattern, current);
+    spatialIndex.replace(previous == null ? List.of() : previous, current);
   }
 
   @Override
   public void clearRealtimeVehicles(TripPattern pattern) {
-    vehicles.remove(pattern);
+    var previous = vehicles.remove(pattern);
+    if (previous != null) {
+      spatialIndex.replace(previous, List.of());
+    }
   }
 
   @Override
@@ -49,6 +58,19 @@ public class DefaultRealtimeVehicleService
     return vehicles.getOrDefault(pattern, List.of());
   }
 
+  @Override
+  public List<RealtimeVehicle> findRealtimeVehicles(@Nonnull Envelope envelope) {
+    return spatialIndex.query(envelope);
+  }
+
+  @Override
+  public List<RealtimeVehicle> findRealtimeVehicles(
+    @Nonnull WgsCoordinate center,
+    double radiusMeters
+  ) {
+    return spatialIndex.query(center, radiusMeters);
+  }
+
   @Nonnull
   @Override
   public OccupancyStatus getVehicleOccupancyStatus(@Nonnull Trip trip) {
@@ -0,0 +1,148 @@
+package org.opentripplanner.service.realtimevehicles.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
+
+/**
+ * A grid of the realtime vehicle positions, updated incrementally each time the vehicles of a
+ * pattern are replaced. Vehicles without coordinates are not indexed.
+ * <p>
+ * The index is written by the graph writer thread only, while the queries can run concurrently
+ * on any thread. A query running during an update may or may not see the vehicles of the updated
+ * pattern, but never fails.
+ */
+class RealtimeVehicleSpatialIndex {
+
+  /** About 1 km north-south, and less east-west away from the equator. */
+  private static final double CELL_SIZE_DEGREES = 0.01;
+
+  private final Map<Long, Set<RealtimeVehicle>> cells = new ConcurrentHashMap<>();
+
+  /**
+   * Remove the previous vehicles of a pattern from the index, and add the current ones.
+   */
+  void replace(Collection<RealtimeVehicle> previous, Collection<RealtimeVehicle> current) {
+    for (RealtimeVehicle vehicle : previous) {
+      vehicle.coordinates().ifPresent(c -> remove(cellKey(c), vehicle));
+    }
+    for (RealtimeVehicle vehicle : current) {
+      vehicle.coordinates().ifPresent(c -> add(cellKey(c), vehicle));
+    }
+  }
+
+  /**
+   * Find the vehicles inside the envelope, x is longitude and y is latitude.
+   */
+  List<RealtimeVehicle> query(Envelope envelope) {
+    int minX = cellIndex(envelope.getMinX());
+    int maxX = cellIndex(envelope.getMaxX());
+    int minY = cellIndex(envelope.getMinY());
+    int maxY = cellIndex(envelope.getMaxY());
+
+    List<RealtimeVehicle> result = new ArrayList<>();
+    long numberOfCells = (long) (maxX - minX + 1) * (maxY - minY + 1);
+    if (numberOfCells > cells.size()) {
+      // For large envelopes it is faster to look at the cells containing any vehicles
+      for (var entry : cells.entrySet()) {
+        int x = (int) (entry.getKey() >> 32);
+        int y = (int) (long) entry.getKey();
+        if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+          addInside(entry.getValue(), envelope, result);
+        }
+      }
+    } else {
+      for (int x = minX; x <= maxX; x++) {
+        for (int y = minY; y <= maxY; y++) {
+          var cell = cells.get(cellKey(x, y));
+          if (cell != null) {
+            addInside(cell, envelope, result);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Find the vehicles within the given distance in meters from the center.
+   */
+  List<RealtimeVehicle> query(WgsCoordinate center, double radiusMeters) {
+    double deltaLat = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+    double deltaLon = SphericalDistanceLibrary.metersToLonDegrees(radiusMeters, center.latitude());
+    var envelope = new Envelope(
+      center.longitude() - deltaLon,
+      center.longitude() + deltaLon,
+      center.latitude() - deltaLat,
+      center.latitude() + deltaLat
+    );
+    return query(envelope)
+      .stream()
+      .filter(vehicle -> {
+        var c = vehicle.coordinates().orElseThrow();
+        return (
+          SphericalDistanceLibrary.fastDistance(
+            center.latitude(),
+            center.longitude(),
+            c.latitude(),
+            c.longitude()
+          ) <=
+          radiusMeters
+        );
+      })
+      .toList();
+  }
+
+  private void add(long key, RealtimeVehicle vehicle) {
+    cells.compute(
+      key,
+      (k, cell) -> {
+        var result = cell == null ? ConcurrentHashMap.<RealtimeVehicle>newKeySet() : cell;
+        result.add(vehicle);
+        return result;
+      }
+    );
+  }
+
+  private void remove(long key, RealtimeVehicle vehicle) {
+    cells.computeIfPresent(
+      key,
+      (k, cell) -> {
+        cell.remove(vehicle);
+        return cell.isEmpty() ? null : cell;
+      }
+    );
+  }
+
+  private static void addInside(
+    Set<RealtimeVehicle> cell,
+    Envelope envelope,
+    List<RealtimeVehicle> result
+  ) {
+    for (RealtimeVehicle vehicle : cell) {
+      var c = vehicle.coordinates().orElseThrow();
+      if (envelope.contains(c.longitude(), c.latitude())) {
+        result.add(vehicle);
+      }
+    }
+  }
+
+  private static long cellKey(WgsCoordinate coordinate) {
+    return cellKey(cellIndex(coordinate.longitude()), cellIndex(coordinate.latitude()));
+  }
+
+  private static long cellKey(int x, int y) {
+    return ((long) x << 32) | (y & 0xffffffffL);
+  }
+
+  private static int cellIndex(double degrees) {
+    return (int) Math.floor(degrees / CELL_SIZE_DEGREES);
+  }
+}
@@ -27,6 +27,12 @@ public interface VehicleRentalService {
 
   boolean hasRentalBikes();
 
+  /**
+   * A number which is increased every time a rental place is added, updated or removed. It can be
+   * used to detect that the rental state has changed since it was last read.
+   */
+  long getModificationCount();
+
   /**
    * Gets all the vehicle rental stations inside the envelope. This is currently done by iterating
    * over a set, but we could use a spatial index if the number of vehicle rental stations is high
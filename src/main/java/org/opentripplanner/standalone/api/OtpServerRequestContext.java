@@ -10,6 +10,7 @@ import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
@@ -100,6 +101,18 @@ public interface OtpServerRequestContext {
 
   MeterRegistry meterRegistry();
 
+  /**
+   * The token used to stop the work of this request when the result is not needed anymore.
+   */
+  CancellationToken cancellationToken();
+
+  /**
+   * Create a copy of this context with its own cancellation token. Use this when one HTTP request
+   * runs several independent queries, like a GraphQL batch, so cancelling one query does not stop
+   * the others.
+   */
+  OtpServerRequestContext withNewCancellationToken();
+
   @Nullable
   EmissionsService emissionsService();
 
@@ -145,6 +145,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final boolean osmCacheDataInMem;
 
+  public final boolean osmMemoryMappedNodeStore;
+
   /** See {@link IslandPruningConfig}. */
   public final IslandPruningConfig islandPruning;
 
@@ -161,6 +163,7 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final DataOverlayConfig dataOverlay;
   public final double maxStopToShapeSnapDistance;
+  public final int gtfsBundlesReadAhead;
   public final Set<String> boardingLocationTags;
   public final DemExtractParametersList dem;
   public final OsmExtractParametersList osm;
@@ -302,6 +305,20 @@ all of the elevation values in the street edges.
         """
         )
         .asDouble(150);
+    gtfsBundlesReadAhead =
+      root
+        .of("gtfsBundlesReadAhead")
+        .since(V2_5)
+        .summary("The number of GTFS feeds read in parallel, ahead of the feed being mapped.")
+        .description(
+          """
+        Reading a GTFS feed is the slowest part of the import, so the next feeds can be read while
+        a feed is mapped into the transit model. Each feed read is kept in memory until it is
+        mapped, so each feed read ahead increases the heap needed. By default the feeds are read
+        one by one, set this to `1` or more to read ahead when there is heap to spare.
+        """
+        )
+        .asInt(0);
     multiThreadElevationCalculations =
       root
         .of("multiThreadElevationCalculations")
@@ -331,6 +348,21 @@ all of the elevation values in the street edges.
       """
         )
         .asBoolean(false);
+    osmMemoryMappedNodeStore =
+      root
+        .of("osmMemoryMappedNodeStore")
+        .since(V2_5)
+        .summary("Store the OSM nodes in a memory-mapped file instead of on the heap.")
+        .description(
+          """
+      All OSM nodes used by the street network are kept in memory while the graph is built. For a
+      continental extract this needs a very large heap. Set this to `true` to store the coordinates
+      of the nodes in a memory-mapped temporary file, outside the heap. Only the nodes with tags are
+      kept on the heap. This reduces the heap needed a lot, but reading the nodes is a bit slower.
+      The file is created in the temporary directory of the JVM, `java.io.tmpdir`.
+      """
+        )
+        .asBoolean(false);
     platformEntriesLinking =
       root
         .of("platformEntriesLinking")
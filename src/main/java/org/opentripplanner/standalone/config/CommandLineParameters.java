@@ -120,6 +120,14 @@ public class CommandLineParameters {
   )
   public Integer maxThreads;
 
+  @Parameter(
+    names = { "--maxVirtualThreads" },
+    validateWith = PositiveInteger.class,
+    description = "The maximum number of HTTP handler threads if the VirtualThreads feature is " +
+    "enabled. Defaults to --maxThreads if that is set, otherwise to 1000."
+  )
+  public Integer maxVirtualThreads;
+
   @Parameter(
     names = { "--port" },
     validateWith = PositiveInteger.class,
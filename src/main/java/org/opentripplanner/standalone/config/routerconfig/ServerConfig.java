@@ -1,10 +1,14 @@
 package org.opentripplanner.standalone.config.routerconfig;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
 
 import java.time.Duration;
 import java.util.List;
 import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.routing.service.AdmissionControlParameters;
+import org.opentripplanner.routing.service.RequestCoalescingParameters;
+import org.opentripplanner.routing.service.RoutingResponseCacheParameters;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.standalone.server.OTPWebApplicationParameters;
 import org.opentripplanner.standalone.server.RequestTraceParameter;
@@ -13,6 +17,9 @@ public class ServerConfig implements OTPWebApplicationParameters {
 
   private final Duration apiProcessingTimeout;
   private final List<RequestTraceParameter> traceParameters;
+  private final RequestCoalescingParameters requestCoalescing;
+  private final RoutingResponseCacheParameters responseCache;
+  private final AdmissionControlParameters admissionControl;
 
   public ServerConfig(String parameterName, NodeAdapter root) {
     NodeAdapter c = root
@@ -99,6 +106,10 @@ Only log4j and logback support this.
               .asBoolean(false)
           )
         );
+
+    this.requestCoalescing = mapRequestCoalescing(c);
+    this.responseCache = mapResponseCache(c);
+    this.admissionControl = mapAdmissionControl(c);
   }
 
   public Duration apiProcessingTimeout() {
@@ -124,4 +135,180 @@ Only log4j and logback support this.
   public List<RequestTraceParameter> traceParameters() {
     return traceParameters;
   }
+
+  public RequestCoalescingParameters requestCoalescing() {
+    return requestCoalescing;
+  }
+
+  public RoutingResponseCacheParameters responseCache() {
+    return responseCache;
+  }
+
+  public AdmissionControlParameters admissionControl() {
+    return admissionControl;
+  }
+
+  private static RequestCoalescingParameters mapRequestCoalescing(NodeAdapter root) {
+    var c = root
+      .of("requestCoalescing")
+      .since(V2_5)
+      .summary("Share the result of identical routing requests running at the same time.")
+      .description(
+        """
+When many clients send the same trip query at the same time, e.g. when a popular event ends, OTP
+can route the first request only and give the same response to the requests arriving while it is
+running. Two requests are considered identical if the coordinates are within the same grid cell,
+the time is within the same time bucket and all other parameters are equal. The coalesced requests
+are counted by the `routing.coalescing` metric.
+"""
+      )
+      .asObject();
+    var defaults = RequestCoalescingParameters.DEFAULT;
+
+    return new RequestCoalescingParameters(
+      c
+        .of("enabled")
+        .since(V2_5)
+        .summary("Enable coalescing of identical routing requests.")
+        .asBoolean(defaults.enabled()),
+      c
+        .of("coordinateResolution")
+        .since(V2_5)
+        .summary("The size of the grid cells in meters, coordinates are snapped to.")
+        .description(
+          "Set this to zero to only coalesce requests with exactly the same coordinates."
+        )
+        .asDouble(defaults.coordinateResolution()),
+      c
+        .of("timeResolution")
+        .since(V2_5)
+        .summary("The size of the time buckets the requested date-time is rounded down to.")
+        .asDuration(defaults.timeResolution())
+    );
+  }
+
+  private static RoutingResponseCacheParameters mapResponseCache(NodeAdapter root) {
+    var c = root
+      .of("responseCache")
+      .since(V2_5)
+      .summary("Cache the responses of routing requests until new realtime data is published.")
+      .description(
+        """
+Repeated trip queries, like a client refreshing the result or paging back and forth, can be
+answered from a cache instead of being routed again. Each response is tagged with the realtime
+data it is based on. When a new timetable snapshot is published by the realtime updaters, all the
+cached responses are removed, and when the vehicle rental state changes, the responses of requests
+using rental vehicles are no longer used. Two requests are considered identical if the coordinates
+are within the same grid cell, the time is within the same time bucket and all other parameters
+are equal. The hit rate, size and evictions are reported by the `cache.*` metrics with the tag
+`cache=routingResponse`, and the number of legs in the cache by the
+`routing.responseCache.legs` metric.
+
+Note! Realtime alerts are added to the itineraries when they are routed, so an updated alert
+may take up to `timeToLive` to show up in a cached response.
+"""
+      )
+      .asObject();
+    var defaults = RoutingResponseCacheParameters.DEFAULT;
+
+    return new RoutingResponseCacheParameters(
+      c
+        .of("enabled")
+        .since(V2_5)
+        .summary("Enable caching of routing responses.")
+        .asBoolean(defaults.enabled()),
+      c
+        .of("maxSize")
+        .since(V2_5)
+        .summary("The maximum number of responses in the cache.")
+        .description("The least recently used responses are removed when the cache is full.")
+        .asInt(defaults.maxSize()),
+      c
+        .of("timeToLive")
+        .since(V2_5)
+        .summary("How long a response is kept in the cache.")
+        .asDuration(defaults.timeToLive()),
+      c
+        .of("coordinateResolution")
+        .since(V2_5)
+        .summary("The size of the grid cells in meters, coordinates are snapped to.")
+        .description("The default is zero, only requests with exactly the same coordinates match.")
+        .asDouble(defaults.coordinateResolution()),
+      c
+        .of("timeResolution")
+        .since(V2_5)
+        .summary("The size of the time buckets the requested date-time is rounded down to.")
+        .asDuration(defaults.timeResolution())
+    );
+  }
+
+  private static AdmissionControlParameters mapAdmissionControl(NodeAdapter root) {
+    var c = root
+      .of("admissionControl")
+      .since(V2_5)
+      .summary("Reject or degrade routing requests when the server is overloaded.")
+      .description(
+        """
+Without admission control OTP accepts all requests, and when the server is overloaded the latency
+of every request goes up to the request timeout. With admission control enabled, OTP keeps track
+of the routing requests in progress and the latency of the recent requests. When too many requests
+are in progress, new requests are rejected at once with the HTTP status `503 Service Unavailable`.
+When the server is busy, the requests are degraded to make them cheaper: the number of itineraries
+and the search window are reduced, and optionally the direct street search is skipped.
+
+The state is reported by the `routing.admission` metric, with the tag `result` set to `accepted`,
+`degraded` or `rejected`, and by the `routing.admission.inFlight` and
+`routing.admission.latencyP95` gauges.
+"""
+      )
+      .asObject();
+    var defaults = AdmissionControlParameters.DEFAULT;
+
+    return new AdmissionControlParameters(
+      c
+        .of("enabled")
+        .since(V2_5)
+        .summary("Enable admission control of routing requests.")
+        .asBoolean(defaults.enabled()),
+      c
+        .of("maxConcurrentRequests")
+        .since(V2_5)
+        .summary("Reject requests arriving when this many requests are in progress.")
+        .asInt(defaults.maxConcurrentRequests()),
+      c
+        .of("degradeConcurrentRequests")
+        .since(V2_5)
+        .summary("Degrade requests arriving when this many requests are in progress.")
+        .asInt(defaults.degradeConcurrentRequests()),
+      c
+        .of("degradeLatency")
+        .since(V2_5)
+        .summary("Degrade requests when the recent requests are slower than this.")
+        .description(
+          "The 95th percentile of the latency of the last 100 requests is compared with this " +
+          "value."
+        )
+        .asDuration(defaults.degradeLatency()),
+      c
+        .of("numItineraries")
+        .since(V2_5)
+        .summary("The maximum number of itineraries of a degraded request.")
+        .asInt(defaults.numItineraries()),
+      c
+        .of("searchWindow")
+        .since(V2_5)
+        .summary("The maximum search window of a degraded request.")
+        .description("The search window is set to this value if it is not already shorter.")
+        .asDuration(defaults.searchWindow()),
+      c
+        .of("skipDirectModes")
+        .since(V2_5)
+        .summary("Skip the direct street search of a degraded request.")
+        .description(
+          "Requests with transit disabled keep the direct street search, since it is the only " +
+          "search they do."
+        )
+        .asBoolean(defaults.skipDirectModes())
+    );
+  }
 }
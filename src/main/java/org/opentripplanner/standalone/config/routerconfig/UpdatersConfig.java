@@ -11,6 +11,8 @@ import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.SIRI_ET_UPDATER;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.SIRI_SX_UPDATER;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.STOP_TIME_UPDATER;
+import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.TIMETABLE_REPLICATION;
+import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.TIMETABLE_SNAPSHOT_PERSISTENCE;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.VEHICLE_PARKING;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.VEHICLE_POSITIONS;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.VEHICLE_RENTAL;
@@ -35,6 +37,8 @@ import org.opentripplanner.standalone.config.routerconfig.updaters.PollingTripUp
 import org.opentripplanner.standalone.config.routerconfig.updaters.SiriETGooglePubsubUpdaterConfig;
 import org.opentripplanner.standalone.config.routerconfig.updaters.SiriETUpdaterConfig;
 import org.opentripplanner.standalone.config.routerconfig.updaters.SiriSXUpdaterConfig;
+import org.opentripplanner.standalone.config.routerconfig.updaters.TimetableReplicationConfig;
+import org.opentripplanner.standalone.config.routerconfig.updaters.TimetableSnapshotPersistenceConfig;
 import org.opentripplanner.standalone.config.routerconfig.updaters.VehicleParkingUpdaterConfig;
 import org.opentripplanner.standalone.config.routerconfig.updaters.VehiclePositionsUpdaterConfig;
 import org.opentripplanner.standalone.config.routerconfig.updaters.VehicleRentalUpdaterConfig;
@@ -46,6 +50,8 @@ import org.opentripplanner.updater.UpdatersParameters;
 import org.opentripplanner.updater.alert.GtfsRealtimeAlertsUpdaterParameters;
 import org.opentripplanner.updater.trip.MqttGtfsRealtimeUpdaterParameters;
 import org.opentripplanner.updater.trip.PollingTripUpdaterParameters;
+import org.opentripplanner.updater.trip.persistence.TimetableSnapshotPersistenceParameters;
+import org.opentripplanner.updater.trip.replication.TimetableReplicationParameters;
 import org.opentripplanner.updater.vehicle_parking.VehicleParkingUpdaterParameters;
 import org.opentripplanner.updater.vehicle_position.VehiclePositionsUpdaterParameters;
 import org.opentripplanner.updater.vehicle_rental.VehicleRentalUpdaterParameters;
@@ -202,6 +208,16 @@ public class UpdatersConfig implements UpdatersParameters {
     return getParameters(SIRI_AZURE_SX_UPDATER);
   }
 
+  @Override
+  public List<TimetableReplicationParameters> getTimetableReplicationParameters() {
+    return getParameters(TIMETABLE_REPLICATION);
+  }
+
+  @Override
+  public List<TimetableSnapshotPersistenceParameters> getTimetableSnapshotPersistenceParameters() {
+    return getParameters(TIMETABLE_SNAPSHOT_PERSISTENCE);
+  }
+
   private <T> List<T> getParameters(Type key) {
     return (List<T>) configList.get(key);
   }
@@ -221,7 +237,9 @@ public class UpdatersConfig implements UpdatersParameters {
     SIRI_ET_GOOGLE_PUBSUB_UPDATER(SiriETGooglePubsubUpdaterConfig::create),
     SIRI_SX_UPDATER(SiriSXUpdaterConfig::create),
     SIRI_AZURE_ET_UPDATER(SiriAzureETUpdaterConfig::create),
-    SIRI_AZURE_SX_UPDATER(SiriAzureSXUpdaterConfig::create);
+    SIRI_AZURE_SX_UPDATER(SiriAzureSXUpdaterConfig::create),
+    TIMETABLE_REPLICATION(TimetableReplicationConfig::create),
+    TIMETABLE_SNAPSHOT_PERSISTENCE(TimetableSnapshotPersistenceConfig::create);
 
     private final BiFunction<String, NodeAdapter, ?> factory;
 
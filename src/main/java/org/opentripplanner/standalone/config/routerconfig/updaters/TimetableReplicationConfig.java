@@ -0,0 +1,52 @@
+package org.opentripplanner.standalone.config.routerconfig.updaters;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+import org.opentripplanner.updater.trip.replication.TimetableReplicationParameters;
+
+public class TimetableReplicationConfig {
+
+  public static TimetableReplicationParameters create(String configRef, NodeAdapter c) {
+    return new TimetableReplicationParameters(
+      configRef,
+      c
+        .of("frequency")
+        .since(V2_5)
+        .summary("How often the leader publishes, and the followers fetch, realtime updates.")
+        .asDuration(Duration.ofSeconds(1)),
+      c
+        .of("role")
+        .since(V2_5)
+        .summary("If this instance publishes or applies realtime timetable updates.")
+        .description(
+          """
+          The leader runs the trip updaters and publishes each committed timetable snapshot. The
+          followers apply the published snapshots instead of running trip updaters of their own.
+          """
+        )
+        .asEnum(TimetableReplicationParameters.Role.class),
+      Path.of(
+        c
+          .of("directory")
+          .since(V2_5)
+          .summary("The directory used to exchange replication messages.")
+          .description("All instances must have access to the directory, e.g. a shared volume.")
+          .asString()
+      ),
+      c
+        .of("fullSnapshotInterval")
+        .since(V2_5)
+        .summary("The leader publishes the complete realtime state every nth message.")
+        .asInt(60),
+      c
+        .of("maxRetainedMessages")
+        .since(V2_5)
+        .summary("The number of messages kept in the directory.")
+        .description("Must be greater than `fullSnapshotInterval`.")
+        .asInt(120)
+    );
+  }
+}
@@ -0,0 +1,42 @@
+package org.opentripplanner.standalone.config.routerconfig.updaters;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+import org.opentripplanner.updater.trip.persistence.TimetableSnapshotPersistenceParameters;
+
+public class TimetableSnapshotPersistenceConfig {
+
+  public static TimetableSnapshotPersistenceParameters create(String configRef, NodeAdapter c) {
+    return new TimetableSnapshotPersistenceParameters(
+      configRef,
+      c
+        .of("frequency")
+        .since(V2_5)
+        .summary("How often the realtime timetable snapshot is written to disk.")
+        .asDuration(Duration.ofSeconds(30)),
+      Path.of(
+        c
+          .of("file")
+          .since(V2_5)
+          .summary("The file the realtime timetable snapshot is written to and restored from.")
+          .asString()
+      ),
+      c
+        .of("maxAge")
+        .since(V2_5)
+        .summary("The maximum age of a persisted snapshot to restore it on startup.")
+        .description(
+          """
+          When OTP starts, the persisted realtime timetables are restored before the realtime
+          updaters start, and the trip updaters are reported as ready right away. A snapshot
+          older than this is not restored, and OTP waits for the updaters to fetch the realtime
+          data as usual.
+          """
+        )
+        .asDuration(Duration.ofMinutes(10))
+    );
+  }
+}
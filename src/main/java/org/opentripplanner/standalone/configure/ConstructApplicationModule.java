@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
@@ -12,6 +13,9 @@ import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.service.RoutingAdmissionController;
+import org.opentripplanner.routing.service.RoutingRequestCoalescer;
+import org.opentripplanner.routing.service.RoutingResponseCache;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -36,7 +40,10 @@ public class ConstructApplicationModule {
     List<RideHailingService> rideHailingServices,
     @Nullable StopConsolidationService stopConsolidationService,
     @Nullable TraverseVisitor<?, ?> traverseVisitor,
-    EmissionsService emissionsService
+    EmissionsService emissionsService,
+    @Nullable RoutingRequestCoalescer routingRequestCoalescer,
+    @Nullable RoutingResponseCache routingResponseCache,
+    @Nullable RoutingAdmissionController routingAdmissionController
   ) {
     return DefaultServerRequestContext.create(
       routerConfig.transitTuningConfig(),
@@ -53,10 +60,56 @@ public class ConstructApplicationModule {
       routerConfig.flexConfig(),
       rideHailingServices,
       stopConsolidationService,
-      traverseVisitor
+      traverseVisitor,
+      routingRequestCoalescer,
+      routingResponseCache,
+      routingAdmissionController
     );
   }
 
+  /**
+   * The coalescer is shared by all requests, so it is created once.
+   */
+  @Provides
+  @Singleton
+  @Nullable
+  RoutingRequestCoalescer routingRequestCoalescer(RouterConfig routerConfig) {
+    var parameters = routerConfig.server().requestCoalescing();
+    return parameters.enabled()
+      ? new RoutingRequestCoalescer(
+        parameters,
+        routerConfig.server().apiProcessingTimeout(),
+        Metrics.globalRegistry
+      )
+      : null;
+  }
+
+  /**
+   * The response cache is shared by all requests, so it is created once.
+   */
+  @Provides
+  @Singleton
+  @Nullable
+  RoutingResponseCache routingResponseCache(RouterConfig routerConfig) {
+    var parameters = routerConfig.server().responseCache();
+    return parameters.enabled()
+      ? new RoutingResponseCache(parameters, Metrics.globalRegistry)
+      : null;
+  }
+
+  /**
+   * The admission controller tracks all requests, so it is created once.
+   */
+  @Provides
+  @Singleton
+  @Nullable
+  RoutingAdmissionController routingAdmissionController(RouterConfig routerConfig) {
+    var parameters = routerConfig.server().admissionControl();
+    return parameters.enabled()
+      ? new RoutingAdmissionController(parameters, Metrics.globalRegistry)
+      : null;
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
@@ -9,6 +9,7 @@ import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
@@ -18,6 +19,9 @@ import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.service.DefaultRoutingService;
+import org.opentripplanner.routing.service.RoutingAdmissionController;
+import org.opentripplanner.routing.service.RoutingRequestCoalescer;
+import org.opentripplanner.routing.service.RoutingResponseCache;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -32,6 +36,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
 
   private final List<RideHailingService> rideHailingServices;
   private RouteRequest routeRequest = null;
+  private final CancellationToken cancellationToken;
   private final Graph graph;
   private final TransitService transitService;
   private final TransitRoutingConfig transitRoutingConfig;
@@ -47,6 +52,9 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final VehicleRentalService vehicleRentalService;
   private final EmissionsService emissionsService;
   private final StopConsolidationService stopConsolidationService;
+  private final RoutingRequestCoalescer routingRequestCoalescer;
+  private final RoutingResponseCache routingResponseCache;
+  private final RoutingAdmissionController routingAdmissionController;
 
   /**
    * Make sure all mutable components are copied/cloned before calling this constructor.
@@ -67,7 +75,11 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     List<RideHailingService> rideHailingServices,
     StopConsolidationService stopConsolidationService,
     FlexConfig flexConfig,
-    TraverseVisitor traverseVisitor
+    TraverseVisitor traverseVisitor,
+    RoutingRequestCoalescer routingRequestCoalescer,
+    RoutingResponseCache routingResponseCache,
+    RoutingAdmissionController routingAdmissionController,
+    CancellationToken cancellationToken
   ) {
     this.graph = graph;
     this.transitService = transitService;
@@ -85,6 +97,10 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.rideHailingServices = rideHailingServices;
     this.emissionsService = emissionsService;
     this.stopConsolidationService = stopConsolidationService;
+    this.routingRequestCoalescer = routingRequestCoalescer;
+    this.routingResponseCache = routingResponseCache;
+    this.routingAdmissionController = routingAdmissionController;
+    this.cancellationToken = cancellationToken;
   }
 
   /**
@@ -105,7 +121,10 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     FlexConfig flexConfig,
     List<RideHailingService> rideHailingServices,
     @Nullable StopConsolidationService stopConsolidationService,
-    @Nullable TraverseVisitor traverseVisitor
+    @Nullable TraverseVisitor traverseVisitor,
+    @Nullable RoutingRequestCoalescer routingRequestCoalescer,
+    @Nullable RoutingResponseCache routingResponseCache,
+    @Nullable RoutingAdmissionController routingAdmissionController
   ) {
     return new DefaultServerRequestContext(
       graph,
@@ -123,7 +142,37 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       rideHailingServices,
       stopConsolidationService,
       flexConfig,
-      traverseVisitor
+      traverseVisitor,
+      routingRequestCoalescer,
+      routingResponseCache,
+      routingAdmissionController,
+      CancellationToken.create()
+    );
+  }
+
+  @Override
+  public OtpServerRequestContext withNewCancellationToken() {
+    return new DefaultServerRequestContext(
+      graph,
+      transitService,
+      transitRoutingConfig,
+      routeRequestDefaults,
+      meterRegistry,
+      raptorConfig,
+      tileRendererManager,
+      vectorTileLayers,
+      worldEnvelopeService,
+      realtimeVehicleService,
+      vehicleRentalService,
+      emissionsService,
+      rideHailingServices,
+      stopConsolidationService,
+      flexConfig,
+      traverseVisitor,
+      routingRequestCoalescer,
+      routingResponseCache,
+      routingAdmissionController,
+      CancellationToken.create()
     );
   }
 
@@ -161,7 +210,12 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
 
   @Override
   public RoutingService routingService() {
-    return new DefaultRoutingService(this);
+    return new DefaultRoutingService(
+      this,
+      routingRequestCoalescer,
+      routingResponseCache,
+      routingAdmissionController
+    );
   }
 
   @Override
@@ -204,6 +258,11 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return meterRegistry;
   }
 
+  @Override
+  public CancellationToken cancellationToken() {
+    return cancellationToken;
+  }
+
   @Override
   public TileRendererManager tileRendererManager() {
     return tileRendererManager;
@@ -28,6 +28,7 @@ public class GrizzlyServer {
   private static final Logger LOG = LoggerFactory.getLogger(GrizzlyServer.class);
 
   private static final int MIN_THREADS = 4;
+  private static final int DEFAULT_MAX_VIRTUAL_THREADS = 1000;
   /** The command line parameters, including things like port number and content directories. */
   private final CommandLineParameters params;
   private final Application app;
@@ -69,11 +70,19 @@ public class GrizzlyServer {
     // According to the Grizzly docs, setting the core and max pool size equal with no queue limit
     // will use a more efficient fixed-size thread pool implementation.
     // TODO we should probably use Grizzly async processing rather than tying up the HTTP handler threads.
-    int nHandlerThreads = getMaxThreads();
+    // With virtual threads a request waiting for another task does not occupy a carrier thread,
+    // and the CPU-bound work is still limited by the number of carrier threads. So the pool can
+    // be much larger without over-provisioning platform threads.
+    boolean virtualThreads = OTPFeature.VirtualThreads.isOn();
+    int nHandlerThreads = virtualThreads ? getMaxVirtualThreads() : getMaxThreads();
     ThreadPoolConfig threadPoolConfig = ThreadPoolConfig
       .defaultConfig()
       .setPoolName("grizzly")
-      .setThreadFactory(new ThreadFactoryBuilder().setNameFormat("grizzly-%d").build())
+      .setThreadFactory(
+        virtualThreads
+          ? Thread.ofVirtual().name("grizzly-", 0).factory()
+          : new ThreadFactoryBuilder().setNameFormat("grizzly-%d").build()
+      )
       .setCorePoolSize(nHandlerThreads)
       .setMaxPoolSize(nHandlerThreads)
       .setQueueLimit(-1);
@@ -172,4 +181,19 @@ public class GrizzlyServer {
     LOG.info("Maximum HTTP handler thread pool size will be {} threads.", maxThreads);
     return maxThreads;
   }
+
+  /**
+   * Virtual threads are cheap, so by default many more requests are handled at the same time. A
+   * configured {@code --maxThreads} is still respected, unless {@code --maxVirtualThreads} is set.
+   */
+  private int getMaxVirtualThreads() {
+    int maxThreads = DEFAULT_MAX_VIRTUAL_THREADS;
+    if (params.maxVirtualThreads != null) {
+      maxThreads = params.maxVirtualThreads;
+    } else if (params.maxThreads != null) {
+      maxThreads = Math.max(params.maxThreads, MIN_THREADS);
+    }
+    LOG.info("Maximum HTTP handler virtual thread pool size will be {} threads.", maxThreads);
+    return maxThreads;
+  }
 }
@@ -1,5 +1,6 @@
 package org.opentripplanner.standalone.server;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
@@ -19,9 +20,11 @@ import jakarta.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
+import javax.annotation.Nullable;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.service.RoutingResponseCache;
 import org.opentripplanner.transit.service.TransitModel;
 
 /**
@@ -34,7 +37,8 @@ public class MetricsLogging {
   public MetricsLogging(
     TransitModel transitModel,
     RaptorConfig<TripSchedule> raptorConfig,
-    DataImportIssueSummary issueSummary
+    DataImportIssueSummary issueSummary,
+    @Nullable RoutingResponseCache routingResponseCache
   ) {
     new ClassLoaderMetrics().bindTo(Metrics.globalRegistry);
     new FileDescriptorMetrics().bindTo(Metrics.globalRegistry);
@@ -56,6 +60,22 @@ public class MetricsLogging {
       )
         .bindTo(Metrics.globalRegistry);
     }
+    if (routingResponseCache != null) {
+      new GuavaCacheMetrics(
+        routingResponseCache.cache(),
+        "routingResponseCache",
+        List.of(Tag.of("cache", "routingResponse"))
+      )
+        .bindTo(Metrics.globalRegistry);
+      Gauge
+        .builder(
+          "routing.responseCache.legs",
+          routingResponseCache,
+          RoutingResponseCache::numberOfLegs
+        )
+        .description("The number of itinerary legs in the cached routing responses")
+        .register(Metrics.globalRegistry);
+    }
     new ExecutorServiceMetrics(
       ForkJoinPool.commonPool(),
       "commonPool",
@@ -6,10 +6,10 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -19,26 +19,35 @@ import org.opentripplanner.framework.tostring.ToStringBuilder;
 /**
  * Does the same thing as String.intern, but for several different types. Java's String.intern uses
  * perm gen space and is broken anyway.
+ * <p>
+ * This is thread-safe, graph builder modules running in parallel share the same instance. The
+ * canonical instances are kept in concurrent maps, so callers do not block each other. Two threads
+ * deduplicating equal values at the same time both get the instance which made it into the map
+ * first.
  */
 public class Deduplicator implements DeduplicatorService, Serializable {
 
   private static final String ZERO_COUNT = sizeAndCount(0, 0);
 
-  private final Map<BitSet, BitSet> canonicalBitSets = new HashMap<>();
-  private final Map<IntArray, IntArray> canonicalIntArrays = new HashMap<>();
-  private final Map<String, String> canonicalStrings = new HashMap<>();
-  private final Map<StringArray, StringArray> canonicalStringArrays = new HashMap<>();
-  private final Map<String2DArray, String2DArray> canonicalString2DArrays = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjArrays = new HashMap<>();
-  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new HashMap<>();
+  private final Map<BitSet, BitSet> canonicalBitSets = new ConcurrentHashMap<>();
+  private final Map<IntArray, IntArray> canonicalIntArrays = new ConcurrentHashMap<>();
+  private final Map<String, String> canonicalStrings = new ConcurrentHashMap<>();
+  private final Map<StringArray, StringArray> canonicalStringArrays = new ConcurrentHashMap<>();
+  private final Map<String2DArray, String2DArray> canonicalString2DArrays =
+    new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<?, ?>> canonicalObjArrays = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new ConcurrentHashMap<>();
 
-  private final Map<String, Integer> effectCounter = new HashMap<>();
+  private final Map<String, Integer> effectCounter = new ConcurrentHashMap<>();
 
   @Inject
   public Deduplicator() {}
 
-  /** Free up any memory used by the deduplicator. */
+  /**
+   * Free up any memory used by the deduplicator. This should not be called while other threads
+   * are deduplicating values.
+   */
   public void reset() {
     canonicalBitSets.clear();
     canonicalIntArrays.clear();
@@ -56,13 +65,9 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    BitSet canonical = canonicalBitSets.get(original);
-    if (canonical == null) {
-      canonical = original;
-      canonicalBitSets.put(canonical, canonical);
-    }
+    BitSet canonical = canonicalBitSets.putIfAbsent(original, original);
     incrementEffectCounter(BitSet.class);
-    return canonical;
+    return canonical == null ? original : canonical;
   }
 
   @Override
@@ -72,13 +77,9 @@ public class Deduplicator implements DeduplicatorService, Serializable {
       return null;
     }
     IntArray intArray = new IntArray(original);
-    IntArray canonical = canonicalIntArrays.get(intArray);
-    if (canonical == null) {
-      canonical = intArray;
-      canonicalIntArrays.put(canonical, canonical);
-    }
+    IntArray canonical = canonicalIntArrays.putIfAbsent(intArray, intArray);
     incrementEffectCounter(IntArray.class);
-    return canonical.array;
+    return canonical == null ? original : canonical.array;
   }
 
   @Override
@@ -100,8 +101,7 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     }
     StringArray canonical = canonicalStringArrays.get(new StringArray(original));
     if (canonical == null) {
-      canonical = StringArray.deepDeduplicateOf(original, this);
-      canonicalStringArrays.put(canonical, canonical);
+      canonical = putIfAbsent(canonicalStringArrays, StringArray.deepDeduplicateOf(original, this));
     }
     incrementEffectCounter(StringArray.class);
     return canonical.array;
@@ -115,8 +115,8 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     }
     String2DArray canonical = canonicalString2DArrays.get(new String2DArray(original));
     if (canonical == null) {
-      canonical = String2DArray.deepDeduplicateOf(original, this);
-      canonicalString2DArrays.put(canonical, canonical);
+      canonical =
+        putIfAbsent(canonicalString2DArrays, String2DArray.deepDeduplicateOf(original, this));
     }
     incrementEffectCounter(String2DArray.class);
     return canonical.array;
@@ -132,7 +132,10 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(cl, c -> new HashMap<T, T>());
+    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(
+      cl,
+      c -> new ConcurrentHashMap<T, T>()
+    );
     T canonical = objects.putIfAbsent(original, original);
     incrementEffectCounter(objCounterName(cl));
     return canonical == null ? original : canonical;
@@ -144,19 +147,13 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    Map<ObjArray<T>, ObjArray<T>> map;
-    if (canonicalObjArrays.containsKey(type)) {
-      //noinspection unchecked
-      map = (Map<ObjArray<T>, ObjArray<T>>) canonicalObjArrays.get(type);
-    } else {
-      map = new HashMap<>();
-      canonicalObjArrays.put(type, map);
-    }
+    var arrays = canonicalObjArrays.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+    //noinspection unchecked
+    Map<ObjArray<T>, ObjArray<T>> map = (Map<ObjArray<T>, ObjArray<T>>) arrays;
     ObjArray<T> canonical = map.get(new ObjArray<>(original));
 
     if (canonical == null) {
-      canonical = ObjArray.deepDeduplicateOf(type, original, this);
-      map.put(canonical, canonical);
+      canonical = putIfAbsent(map, ObjArray.deepDeduplicateOf(type, original, this));
     }
     incrementEffectCounter(arrayCounterName(type));
     return canonical.array();
@@ -170,7 +167,7 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     }
 
     Map<List<?>, List<?>> canonicalLists =
-      this.canonicalLists.computeIfAbsent(clazz, key -> new HashMap<>());
+      this.canonicalLists.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>());
 
     @SuppressWarnings("unchecked")
     List<T> canonical = (List<T>) canonicalLists.get(original);
@@ -184,7 +181,7 @@ public class Deduplicator implements DeduplicatorService, Serializable {
         containsNull
           ? Collections.unmodifiableList(stream.collect(Collectors.toList()))
           : stream.collect(Collectors.toUnmodifiableList());
-      canonicalLists.put(canonical, canonical);
+      canonical = putIfAbsent(canonicalLists, canonical);
     }
 
     incrementEffectCounter(listCounterName(clazz));
@@ -244,13 +241,25 @@ public class Deduplicator implements DeduplicatorService, Serializable {
       .forEach(it -> builder.addObj(it.name(), sizeAndCount(it.size(), it.name()), ZERO_COUNT));
   }
 
+  /**
+   * Add the value to the map unless an equal value was added by another thread after it was
+   * looked up, and return the canonical value. The elements of the arrays and lists are
+   * deduplicated before this is called, outside the map, so the maps are never updated
+   * recursively.
+   */
+  @SuppressWarnings("unchecked")
+  private static <K, T extends K> T putIfAbsent(Map<K, K> map, T value) {
+    K canonical = map.putIfAbsent(value, value);
+    return canonical == null ? value : (T) canonical;
+  }
+
   private void incrementEffectCounter(Class<?> clazz) {
     incrementEffectCounter(clazz.getName());
   }
 
   private void incrementEffectCounter(String key) {
     // Count the first element, start at 1
-    effectCounter.compute(key, (k, v) -> v == null ? 1 : ++v);
+    effectCounter.merge(key, 1, Integer::sum);
   }
 
   private String sizeAndCount(int size, Class<?> clazz) {
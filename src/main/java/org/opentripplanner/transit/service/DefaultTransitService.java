@@ -30,6 +30,7 @@ import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.routing.stoptimes.ScheduledDepartureIndex;
 import org.opentripplanner.routing.stoptimes.StopTimesHelper;
 import org.opentripplanner.transit.model.basic.Notice;
 import org.opentripplanner.transit.model.basic.TransitMode;
@@ -160,6 +161,11 @@ public class DefaultTransitService implements TransitEditorService {
       .getOrDefault(serviceDate, new TIntHashSet());
   }
 
+  @Override
+  public ScheduledDepartureIndex getScheduledDepartureIndex() {
+    return transitModelIndex.getScheduledDepartureIndex();
+  }
+
   @Override
   public AreaStop getAreaStop(FeedScopedId id) {
     return this.transitModel.getStopModel().getAreaStop(id);
@@ -326,6 +332,31 @@ public class DefaultTransitService implements TransitEditorService {
     );
   }
 
+  /**
+   * Fetch upcoming vehicle departures from several stops. The timetables of patterns shared by
+   * the stops are only resolved once.
+   */
+  @Override
+  public List<List<StopTimesInPattern>> stopTimesForStops(
+    List<? extends StopLocation> stops,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
+    OTPRequestTimeoutException.checkForTimeout();
+    return StopTimesHelper.stopTimesForStops(
+      this,
+      stops,
+      startTime,
+      timeRange,
+      numberOfDepartures,
+      arrivalDeparture,
+      includeCancelledTrips
+    );
+  }
+
   /**
    * Get a list of all trips that pass through a stop during a single ServiceDate. Useful when
    * creating complete stop timetables for a single day.
@@ -512,6 +543,11 @@ public class DefaultTransitService implements TransitEditorService {
     this.transitModel.setTransitLayer(transitLayer);
   }
 
+  @Override
+  public TimetableSnapshot getTimetableSnapshot() {
+    return lazyGetTimeTableSnapShot();
+  }
+
   @Override
   public CalendarService getCalendarService() {
     return this.transitModel.getCalendarService();
@@ -17,6 +17,7 @@ import org.opentripplanner.ext.flex.trip.FlexTrip;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.calendar.CalendarService;
+import org.opentripplanner.routing.stoptimes.ScheduledDepartureIndex;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.GroupOfRoutes;
 import org.opentripplanner.transit.model.network.Route;
@@ -57,6 +58,7 @@ public class TransitModelIndex {
   private final Multimap<GroupOfRoutes, Route> routesForGroupOfRoutes = ArrayListMultimap.create();
 
   private final Map<FeedScopedId, GroupOfRoutes> groupOfRoutesForId = new HashMap<>();
+  private final ScheduledDepartureIndex scheduledDepartureIndex;
   private FlexIndex flexIndex = null;
 
   TransitModelIndex(TransitModel transitModel) {
@@ -105,6 +107,10 @@ public class TransitModelIndex {
 
     initalizeServiceCodesForDate(transitModel);
 
+    // The departures are indexed lazily, when requested for a stop and date
+    scheduledDepartureIndex =
+      new ScheduledDepartureIndex(serviceCodesRunningForDate, this::getPatternsForStop);
+
     if (OTPFeature.FlexRouting.isOn()) {
       flexIndex = new FlexIndex(transitModel);
       for (Route route : flexIndex.getAllFlexRoutes()) {
@@ -211,6 +217,10 @@ public class TransitModelIndex {
     return serviceCodesRunningForDate;
   }
 
+  public ScheduledDepartureIndex getScheduledDepartureIndex() {
+    return scheduledDepartureIndex;
+  }
+
   public FlexIndex getFlexIndex() {
     return flexIndex;
   }
@@ -16,12 +16,14 @@ import org.opentripplanner.model.FeedInfo;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.model.StopTimesInPattern;
 import org.opentripplanner.model.Timetable;
+import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.TripTimeOnDate;
 import org.opentripplanner.model.calendar.CalendarService;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.routing.stoptimes.ScheduledDepartureIndex;
 import org.opentripplanner.transit.model.basic.Notice;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.framework.AbstractTransitEntity;
@@ -73,6 +75,13 @@ public interface TransitService {
 
   TIntSet getServiceCodesRunningForDate(LocalDate date);
 
+  /**
+   * The scheduled departures of each stop, sorted by time. Realtime updates are not part of the
+   * index, use {@link #getTimetableForTripPattern(TripPattern, LocalDate)} to check if the
+   * scheduled timetable is still valid for a pattern and date.
+   */
+  ScheduledDepartureIndex getScheduledDepartureIndex();
+
   Agency getAgencyForId(FeedScopedId id);
 
   Route getRouteForId(FeedScopedId id);
@@ -128,6 +137,20 @@ public interface TransitService {
     boolean includeCancelledTrips
   );
 
+  /**
+   * Same as {@link #stopTimesForStop(StopLocation, Instant, Duration, int, ArrivalDeparture,
+   * boolean)}, but for several stops at once. The result has one element per stop, in the same
+   * order as the stops.
+   */
+  List<List<StopTimesInPattern>> stopTimesForStops(
+    List<? extends StopLocation> stops,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  );
+
   List<StopTimesInPattern> getStopTimesForStop(
     StopLocation stop,
     LocalDate serviceDate,
@@ -171,6 +194,13 @@ public interface TransitService {
 
   TransitLayer getRealtimeTransitLayer();
 
+  /**
+   * The timetable snapshot with the realtime updates used by this service, or {@code null} if
+   * there is no realtime data. The same snapshot is returned throughout the lifecycle of the
+   * service.
+   */
+  TimetableSnapshot getTimetableSnapshot();
+
   CalendarService getCalendarService();
 
   ZoneId getTimeZone();
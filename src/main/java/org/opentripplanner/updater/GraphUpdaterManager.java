@@ -2,9 +2,12 @@ package org.opentripplanner.updater;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -63,6 +66,12 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final List<GraphUpdater> updaterList = new ArrayList<>();
 
+  /**
+   * Updaters which are considered primed even if they have not yet fetched any data, because their
+   * state was restored when OTP started.
+   */
+  private final Set<GraphUpdater> primedByRestoredState = ConcurrentHashMap.newKeySet();
+
   /**
    * The Graph that will be updated.
    */
@@ -127,6 +136,14 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     reportReadinessForUpdaters();
   }
 
+  /**
+   * Report the given updaters as primed, without waiting for them to fetch their data. This is
+   * used when the realtime state written by the updaters is restored at startup.
+   */
+  public void markPrimed(Collection<? extends GraphUpdater> updaters) {
+    primedByRestoredState.addAll(updaters);
+  }
+
   /**
    * Initiate the graceful shutdown of thread pools.
    * Running tasks will be cancelled.
@@ -210,7 +227,7 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
   public List<String> listUnprimedUpdaters() {
     return updaterList
       .stream()
-      .filter(Predicate.not(GraphUpdater::isPrimed))
+      .filter(Predicate.not(this::isPrimed))
       .map(GraphUpdater::getConfigRef)
       .collect(Collectors.toList());
   }
@@ -261,6 +278,10 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     return scheduler;
   }
 
+  private boolean isPrimed(GraphUpdater updater) {
+    return primedByRestoredState.contains(updater) || updater.isPrimed();
+  }
+
   /**
    * This method start a task during startup and log a message when all updaters are initialized.
    * When all updaters are ready, then OTP is ready for processing routing requests.
@@ -277,7 +298,7 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
         while (!otpIsShuttingDown) {
           try {
-            if (updaterList.stream().allMatch(GraphUpdater::isPrimed)) {
+            if (updaterList.stream().allMatch(this::isPrimed)) {
               LOG.info(
                 "OTP UPDATERS INITIALIZED ({} updaters) - OTP is ready for routing!",
                 updaterList.size()
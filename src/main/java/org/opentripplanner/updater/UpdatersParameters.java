@@ -10,6 +10,8 @@ import org.opentripplanner.ext.vehiclerentalservicedirectory.api.VehicleRentalSe
 import org.opentripplanner.updater.alert.GtfsRealtimeAlertsUpdaterParameters;
 import org.opentripplanner.updater.trip.MqttGtfsRealtimeUpdaterParameters;
 import org.opentripplanner.updater.trip.PollingTripUpdaterParameters;
+import org.opentripplanner.updater.trip.persistence.TimetableSnapshotPersistenceParameters;
+import org.opentripplanner.updater.trip.replication.TimetableReplicationParameters;
 import org.opentripplanner.updater.vehicle_parking.VehicleParkingUpdaterParameters;
 import org.opentripplanner.updater.vehicle_position.VehiclePositionsUpdaterParameters;
 import org.opentripplanner.updater.vehicle_rental.VehicleRentalUpdaterParameters;
@@ -40,4 +42,8 @@ public interface UpdatersParameters {
   List<SiriAzureETUpdaterParameters> getSiriAzureETUpdaterParameters();
 
   List<SiriAzureSXUpdaterParameters> getSiriAzureSXUpdaterParameters();
+
+  List<TimetableReplicationParameters> getTimetableReplicationParameters();
+
+  List<TimetableSnapshotPersistenceParameters> getTimetableSnapshotPersistenceParameters();
 }
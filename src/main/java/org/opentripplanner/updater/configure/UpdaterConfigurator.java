@@ -10,6 +10,7 @@ import org.opentripplanner.ext.siri.updater.azure.SiriAzureETUpdater;
 import org.opentripplanner.ext.siri.updater.azure.SiriAzureSXUpdater;
 import org.opentripplanner.ext.vehiclerentalservicedirectory.VehicleRentalServiceDirectoryFetcher;
 import org.opentripplanner.ext.vehiclerentalservicedirectory.api.VehicleRentalServiceDirectoryFetcherParameters;
+import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.model.calendar.openinghours.OpeningHoursCalendarService;
 import org.opentripplanner.routing.graph.Graph;
@@ -23,11 +24,19 @@ import org.opentripplanner.updater.spi.GraphUpdater;
 import org.opentripplanner.updater.trip.MqttGtfsRealtimeUpdater;
 import org.opentripplanner.updater.trip.PollingTripUpdater;
 import org.opentripplanner.updater.trip.TimetableSnapshotSource;
+import org.opentripplanner.updater.trip.persistence.TimetableSnapshotPersistenceParameters;
+import org.opentripplanner.updater.trip.persistence.TimetableSnapshotPersistenceUpdater;
+import org.opentripplanner.updater.trip.replication.FileReplicationTransport;
+import org.opentripplanner.updater.trip.replication.TimetableReplicationFollower;
+import org.opentripplanner.updater.trip.replication.TimetableReplicationLeader;
+import org.opentripplanner.updater.trip.replication.TimetableReplicationParameters;
 import org.opentripplanner.updater.vehicle_parking.VehicleParkingDataSourceFactory;
 import org.opentripplanner.updater.vehicle_parking.VehicleParkingUpdater;
 import org.opentripplanner.updater.vehicle_position.PollingVehiclePositionUpdater;
 import org.opentripplanner.updater.vehicle_rental.VehicleRentalUpdater;
 import org.opentripplanner.updater.vehicle_rental.datasources.VehicleRentalDataSourceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Sets up and starts all the graph updaters.
@@ -38,6 +47,8 @@ import org.opentripplanner.updater.vehicle_rental.datasources.VehicleRentalDataS
  */
 public class UpdaterConfigurator {
 
+  private static final Logger LOG = LoggerFactory.getLogger(UpdaterConfigurator.class);
+
   private final Graph graph;
   private final TransitModel transitModel;
   private final UpdatersParameters updatersParameters;
@@ -46,6 +57,11 @@ public class UpdaterConfigurator {
   private SiriTimetableSnapshotSource siriTimetableSnapshotSource = null;
   private TimetableSnapshotSource gtfsTimetableSnapshotSource = null;
 
+  /** The updaters writing to one of the timetable snapshot sources. */
+  private final List<GraphUpdater> gtfsTimetableUpdaters = new ArrayList<>();
+  private final List<GraphUpdater> siriTimetableUpdaters = new ArrayList<>();
+  private final List<GraphUpdater> primedUpdaters = new ArrayList<>();
+
   private UpdaterConfigurator(
     Graph graph,
     RealtimeVehicleRepository realtimeVehicleRepository,
@@ -90,6 +106,9 @@ public class UpdaterConfigurator {
     );
 
     GraphUpdaterManager updaterManager = new GraphUpdaterManager(graph, transitModel, updaters);
+    if (!primedUpdaters.isEmpty()) {
+      updaterManager.markPrimed(primedUpdaters);
+    }
     updaterManager.startUpdaters();
 
     // Stop the updater manager if it contains nothing
@@ -153,7 +172,9 @@ public class UpdaterConfigurator {
     }
     for (var configItem : updatersParameters.getPollingStoptimeUpdaterParameters()) {
       updaters.add(
-        new PollingTripUpdater(configItem, transitModel, provideGtfsTimetableSnapshot())
+        gtfsTimetableUpdater(
+          new PollingTripUpdater(configItem, transitModel, provideGtfsTimetableSnapshot())
+        )
       );
     }
     for (var configItem : updatersParameters.getVehiclePositionsUpdaterParameters()) {
@@ -162,11 +183,17 @@ public class UpdaterConfigurator {
       );
     }
     for (var configItem : updatersParameters.getSiriETUpdaterParameters()) {
-      updaters.add(new SiriETUpdater(configItem, transitModel, provideSiriTimetableSnapshot()));
+      updaters.add(
+        siriTimetableUpdater(
+          new SiriETUpdater(configItem, transitModel, provideSiriTimetableSnapshot())
+        )
+      );
     }
     for (var configItem : updatersParameters.getSiriETGooglePubsubUpdaterParameters()) {
       updaters.add(
-        new SiriETGooglePubsubUpdater(configItem, transitModel, provideSiriTimetableSnapshot())
+        siriTimetableUpdater(
+          new SiriETGooglePubsubUpdater(configItem, transitModel, provideSiriTimetableSnapshot())
+        )
       );
     }
     for (var configItem : updatersParameters.getSiriSXUpdaterParameters()) {
@@ -174,7 +201,9 @@ public class UpdaterConfigurator {
     }
     for (var configItem : updatersParameters.getMqttGtfsRealtimeUpdaterParameters()) {
       updaters.add(
-        new MqttGtfsRealtimeUpdater(configItem, transitModel, provideGtfsTimetableSnapshot())
+        gtfsTimetableUpdater(
+          new MqttGtfsRealtimeUpdater(configItem, transitModel, provideGtfsTimetableSnapshot())
+        )
       );
     }
     for (var configItem : updatersParameters.getVehicleParkingUpdaterParameters()) {
@@ -190,16 +219,95 @@ public class UpdaterConfigurator {
     }
     for (var configItem : updatersParameters.getSiriAzureETUpdaterParameters()) {
       updaters.add(
-        new SiriAzureETUpdater(configItem, transitModel, provideSiriTimetableSnapshot())
+        siriTimetableUpdater(
+          new SiriAzureETUpdater(configItem, transitModel, provideSiriTimetableSnapshot())
+        )
       );
     }
     for (var configItem : updatersParameters.getSiriAzureSXUpdaterParameters()) {
       updaters.add(new SiriAzureSXUpdater(configItem, transitModel));
     }
+    // The replication updaters must be created last, the leader needs the snapshot sources
+    // created above, and a follower can not be combined with them.
+    for (var configItem : updatersParameters.getTimetableReplicationParameters()) {
+      updaters.add(createTimetableReplicationUpdater(configItem));
+    }
+    // The persisted snapshot is restored here, before any of the updaters are started
+    for (var configItem : updatersParameters.getTimetableSnapshotPersistenceParameters()) {
+      updaters.add(createTimetableSnapshotPersistenceUpdater(configItem));
+    }
 
     return updaters;
   }
 
+  private GraphUpdater createTimetableReplicationUpdater(
+    TimetableReplicationParameters parameters
+  ) {
+    var transport = new FileReplicationTransport(
+      parameters.directory(),
+      parameters.maxRetainedMessages()
+    );
+    return switch (parameters.role()) {
+      case FOLLOWER -> new TimetableReplicationFollower(parameters, transport, transitModel);
+      case LEADER -> {
+        // The leader keeps the published state of a single snapshot source, the deltas of two
+        // sources would be computed against each other.
+        if (gtfsTimetableSnapshotSource != null && siriTimetableSnapshotSource != null) {
+          throw new OtpAppException(
+            "The timetable replication leader can not replicate both GTFS and SIRI realtime " +
+            "updates, configure trip updaters for only one of them."
+          );
+        }
+        var leader = new TimetableReplicationLeader(parameters, transport, transitModel);
+        if (gtfsTimetableSnapshotSource != null) {
+          gtfsTimetableSnapshotSource.addCommitListener(leader);
+        }
+        if (siriTimetableSnapshotSource != null) {
+          siriTimetableSnapshotSource.addCommitListener(leader);
+        }
+        yield leader;
+      }
+    };
+  }
+
+  private GraphUpdater createTimetableSnapshotPersistenceUpdater(
+    TimetableSnapshotPersistenceParameters parameters
+  ) {
+    var updater = new TimetableSnapshotPersistenceUpdater(parameters, transitModel);
+    if (gtfsTimetableSnapshotSource != null) {
+      if (gtfsTimetableSnapshotSource.restore(updater::restore) >= 0) {
+        primedUpdaters.addAll(gtfsTimetableUpdaters);
+      }
+      gtfsTimetableSnapshotSource.addCommitListener(updater);
+    } else if (siriTimetableSnapshotSource != null) {
+      if (siriTimetableSnapshotSource.restore(updater::restore) >= 0) {
+        primedUpdaters.addAll(siriTimetableUpdaters);
+      }
+      siriTimetableSnapshotSource.addCommitListener(updater);
+    } else {
+      LOG.warn("No trip updaters are configured, the timetable snapshot is not persisted.");
+    }
+    return updater;
+  }
+
+  /**
+   * Keep track of the updaters writing to the GTFS timetable snapshot source, these are reported
+   * as primed if the GTFS realtime timetables are restored at startup.
+   */
+  private <T extends GraphUpdater> T gtfsTimetableUpdater(T updater) {
+    gtfsTimetableUpdaters.add(updater);
+    return updater;
+  }
+
+  /**
+   * Keep track of the updaters writing to the SIRI timetable snapshot source, these are reported
+   * as primed if the SIRI realtime timetables are restored at startup.
+   */
+  private <T extends GraphUpdater> T siriTimetableUpdater(T updater) {
+    siriTimetableUpdaters.add(updater);
+    return updater;
+  }
+
   private SiriTimetableSnapshotSource provideSiriTimetableSnapshot() {
     if (siriTimetableSnapshotSource == null) {
       this.siriTimetableSnapshotSource =
@@ -0,0 +1,77 @@
+package org.opentripplanner.updater.trip;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.TimetableSnapshot;
+
+/**
+ * Restore the buffer of a timetable snapshot source and publish the snapshots it commits. This
+ * is shared by the GTFS and the SIRI timetable snapshot sources, which own the buffer and its
+ * lock and commit the snapshots in their own way.
+ * <p>
+ * This class is THREAD-SAFE.
+ */
+public class TimetableSnapshotCommitSupport {
+
+  private final TimetableSnapshot buffer;
+  private final ReentrantLock bufferLock;
+  private final Runnable forceCommit;
+  private final List<Consumer<TimetableSnapshot>> commitListeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * @param forceCommit Commit a new snapshot of the buffer, called while the lock is held.
+   */
+  public TimetableSnapshotCommitSupport(
+    TimetableSnapshot buffer,
+    ReentrantLock bufferLock,
+    Runnable forceCommit
+  ) {
+    this.buffer = buffer;
+    this.bufferLock = bufferLock;
+    this.forceCommit = forceCommit;
+  }
+
+  /**
+   * Register a listener which is called with each new snapshot committed by the source. The
+   * listener is called on the thread applying the updates while the buffer is locked, so it
+   * should hand the snapshot off and return quickly.
+   */
+  public void addCommitListener(Consumer<TimetableSnapshot> listener) {
+    commitListeners.add(listener);
+  }
+
+  /**
+   * Call the listeners with a snapshot committed by the source. Nothing is done if no snapshot
+   * was committed.
+   */
+  public void notifyCommitListeners(@Nullable TimetableSnapshot committedSnapshot) {
+    if (committedSnapshot == null) {
+      return;
+    }
+    for (var listener : commitListeners) {
+      listener.accept(committedSnapshot);
+    }
+  }
+
+  /**
+   * Restore previously persisted realtime state. The given function is applied to the buffer while
+   * it is locked, and a new snapshot is committed afterwards. This should be called before the
+   * updaters using the source are started.
+   *
+   * @return the value returned by the restore function
+   */
+  public int restore(ToIntFunction<TimetableSnapshot> restoreFunction) {
+    bufferLock.lock();
+    try {
+      int result = restoreFunction.applyAsInt(buffer);
+      forceCommit.run();
+      return result;
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+}
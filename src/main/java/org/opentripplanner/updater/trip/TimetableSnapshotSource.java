@@ -31,7 +31,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import javax.annotation.Nonnull;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
@@ -121,6 +123,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    */
   private volatile TimetableSnapshot snapshot = null;
 
+  private final TimetableSnapshotCommitSupport commitSupport;
+
   /** Should expired real-time data be purged from the graph. */
   private final boolean purgeExpiredData;
 
@@ -163,11 +167,27 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     this.maxSnapshotFrequency = parameters.maxSnapshotFrequency();
     this.purgeExpiredData = parameters.purgeExpiredData();
     this.localDateNow = localDateNow;
+    this.commitSupport =
+      new TimetableSnapshotCommitSupport(buffer, bufferLock, () -> getTimetableSnapshot(true));
 
     // Inject this into the transit model
     transitModel.initTimetableSnapshotProvider(this);
   }
 
+  /**
+   * @see TimetableSnapshotCommitSupport#addCommitListener(Consumer)
+   */
+  public void addCommitListener(Consumer<TimetableSnapshot> listener) {
+    commitSupport.addCommitListener(listener);
+  }
+
+  /**
+   * @see TimetableSnapshotCommitSupport#restore(ToIntFunction)
+   */
+  public int restore(ToIntFunction<TimetableSnapshot> restoreFunction) {
+    return commitSupport.restore(restoreFunction);
+  }
+
   /**
    * @return an up-to-date snapshot mapping TripPatterns to Timetables. This snapshot and the
    * timetable objects it references are guaranteed to never change, so the requesting thread is
@@ -373,6 +393,7 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       if (force || buffer.isDirty()) {
         LOG.debug("Committing {}", buffer);
         snapshot = buffer.commit(transitLayerUpdater, force);
+        commitSupport.notifyCommitListeners(snapshot);
       } else {
         LOG.debug("Buffer was unchanged, keeping old snapshot.");
       }
@@ -0,0 +1,27 @@
+package org.opentripplanner.updater.trip.persistence;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import org.opentripplanner.updater.spi.PollingGraphUpdaterParameters;
+
+/**
+ * Parameters for persisting the realtime timetable snapshot, so it can be restored when OTP is
+ * restarted.
+ *
+ * @param frequency How often the last committed snapshot is written to disk.
+ * @param file      The file the snapshot is written to and restored from.
+ * @param maxAge    A persisted snapshot older than this is not restored.
+ */
+public record TimetableSnapshotPersistenceParameters(
+  String configRef,
+  Duration frequency,
+  Path file,
+  Duration maxAge
+)
+  implements PollingGraphUpdaterParameters {
+  public TimetableSnapshotPersistenceParameters {
+    Objects.requireNonNull(file, "file is required");
+    Objects.requireNonNull(maxAge, "maxAge is required");
+  }
+}
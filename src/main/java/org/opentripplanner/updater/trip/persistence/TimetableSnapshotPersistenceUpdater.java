@@ -0,0 +1,90 @@
+package org.opentripplanner.updater.trip.persistence;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.spi.PollingGraphUpdater;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically write the last timetable snapshot committed by the realtime updaters to disk, so
+ * the realtime state can be restored with {@link #restore(TimetableSnapshot)} when OTP is
+ * restarted. Like the replication leader, the snapshot source hands each committed snapshot to
+ * {@link #accept(TimetableSnapshot)}, and the snapshot is written when this updater polls. The
+ * last snapshot is also written when OTP shuts down.
+ * <p>
+ * This updater never writes to the graph.
+ */
+public class TimetableSnapshotPersistenceUpdater
+  extends PollingGraphUpdater
+  implements Consumer<TimetableSnapshot> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(
+    TimetableSnapshotPersistenceUpdater.class
+  );
+
+  private final TimetableSnapshotStore store;
+  private final AtomicReference<TimetableSnapshot> committed = new AtomicReference<>();
+  private TimetableSnapshot written = null;
+
+  public TimetableSnapshotPersistenceUpdater(
+    TimetableSnapshotPersistenceParameters parameters,
+    TransitModel transitModel
+  ) {
+    super(parameters);
+    this.store = new TimetableSnapshotStore(parameters.file(), parameters.maxAge(), transitModel);
+  }
+
+  /**
+   * Restore the persisted realtime timetables into the given buffer, this must be done before the
+   * realtime updaters are started.
+   *
+   * @return the number of patterns with restored timetables, or -1 if nothing was restored
+   */
+  public int restore(TimetableSnapshot buffer) {
+    return store.restore(buffer);
+  }
+
+  @Override
+  public void accept(TimetableSnapshot snapshot) {
+    committed.set(snapshot);
+  }
+
+  @Override
+  public void setGraphUpdaterManager(WriteToGraphCallback saveResultOnGraph) {}
+
+  @Override
+  protected void runPolling() {
+    writeLastCommittedSnapshot();
+  }
+
+  @Override
+  public void teardown() {
+    try {
+      writeLastCommittedSnapshot();
+    } catch (RuntimeException e) {
+      LOG.error("Failed to write timetable snapshot on shutdown: {}", e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(TimetableSnapshotPersistenceUpdater.class)
+      .addObj("store", store)
+      .toString();
+  }
+
+  private synchronized void writeLastCommittedSnapshot() {
+    var current = committed.get();
+    if (current == null || current == written) {
+      return;
+    }
+    store.write(current);
+    written = current;
+  }
+}
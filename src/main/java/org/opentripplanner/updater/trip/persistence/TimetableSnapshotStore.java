@@ -0,0 +1,177 @@
+package org.opentripplanner.updater.trip.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.trip.replication.TimetableSnapshotDecoder;
+import org.opentripplanner.updater.trip.replication.TimetableSnapshotEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write the realtime timetables of a {@link TimetableSnapshot} to a file, and restore them into
+ * the timetable snapshot buffer when OTP is restarted. The timetables are encoded with the same
+ * compact format as used for replication, see {@link TimetableSnapshotEncoder}.
+ * <p>
+ * The file starts with a small header containing a fingerprint of the transit model and the time
+ * the snapshot was written. A snapshot is only restored if it was written by an instance using
+ * the same transit data, and is not older than {@code maxAge}. Each trip and pattern is in
+ * addition resolved against the transit model by the decoder, and skipped if it does not exist.
+ */
+public class TimetableSnapshotStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotStore.class);
+
+  private static final int MAGIC = 0x4f545053;
+  private static final byte VERSION = 1;
+
+  private final Path file;
+  private final Duration maxAge;
+  private final Clock clock;
+  private final TransitModel transitModel;
+  private final TimetableSnapshotEncoder encoder;
+  private final long transitModelFingerprint;
+
+  public TimetableSnapshotStore(Path file, Duration maxAge, TransitModel transitModel) {
+    this(file, maxAge, transitModel, Clock.systemUTC());
+  }
+
+  /**
+   * Constructor is package local to allow unit-tests to provide their own clock.
+   */
+  TimetableSnapshotStore(Path file, Duration maxAge, TransitModel transitModel, Clock clock) {
+    this.file = file;
+    this.maxAge = maxAge;
+    this.clock = clock;
+    this.transitModel = transitModel;
+    this.encoder = new TimetableSnapshotEncoder(new DefaultTransitService(transitModel));
+    this.transitModelFingerprint = fingerprint(transitModel);
+  }
+
+  /**
+   * Write the realtime timetables of the given snapshot to the file. The file is replaced
+   * atomically, so a restart while writing never leaves a partially written snapshot behind.
+   */
+  public void write(TimetableSnapshot snapshot) {
+    byte[] payload = encoder.encodeFull(snapshot);
+    try {
+      var parent = file.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      var tmpFile = parent.resolve("." + file.getFileName() + ".tmp");
+      try (
+        var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))
+      ) {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(transitModelFingerprint);
+        out.writeLong(clock.millis());
+        out.writeInt(payload.length);
+        out.write(payload);
+      }
+      Files.move(
+        tmpFile,
+        file,
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING
+      );
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    LOG.debug("Wrote timetable snapshot with {} bytes to {}.", payload.length, file);
+  }
+
+  /**
+   * Restore the persisted realtime timetables into the given buffer. Nothing is restored if the
+   * file does not exist, was written for another transit model, is too old or can not be read.
+   *
+   * @return the number of patterns with restored timetables, or -1 if nothing was restored
+   */
+  public int restore(TimetableSnapshot buffer) {
+    if (!Files.exists(file)) {
+      LOG.info("No persisted timetable snapshot found at {}.", file);
+      return -1;
+    }
+    byte[] payload;
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+        LOG.warn("The file {} is not a supported timetable snapshot, ignoring it.", file);
+        return -1;
+      }
+      if (in.readLong() != transitModelFingerprint) {
+        LOG.warn("The timetable snapshot in {} was written for another transit model.", file);
+        return -1;
+      }
+      var writtenAt = Instant.ofEpochMilli(in.readLong());
+      var age = Duration.between(writtenAt, clock.instant());
+      if (age.compareTo(maxAge) > 0) {
+        LOG.info("The timetable snapshot in {} is too old ({}), ignoring it.", file, age);
+        return -1;
+      }
+      payload = in.readNBytes(in.readInt());
+    } catch (IOException e) {
+      LOG.warn("Failed to read timetable snapshot from {}: {}", file, e.getMessage());
+      return -1;
+    }
+
+    try {
+      var decoder = new TimetableSnapshotDecoder(
+        new DefaultTransitService(transitModel),
+        transitModel.getDeduplicator()
+      );
+      int count = decoder.apply(payload, buffer);
+      LOG.info("Restored realtime timetables for {} patterns from {}.", count, file);
+      return count;
+    } catch (RuntimeException e) {
+      LOG.warn("Failed to restore timetable snapshot from {}: {}", file, e.getMessage(), e);
+      // Do not leave a partially restored state behind
+      List.copyOf(buffer.listPatternsWithRealtimeTimetables()).forEach(buffer::removeTimetables);
+      return -1;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(TimetableSnapshotStore.class)
+      .addObj("file", file)
+      .addObj("maxAge", maxAge)
+      .toString();
+  }
+
+  /**
+   * Create a fingerprint of the scheduled transit data, used to detect that a snapshot was
+   * written by an instance running with another graph. The trip pattern ids and the number of
+   * scheduled trips in each pattern are included, and the feed ids and service period.
+   */
+  static long fingerprint(TransitModel transitModel) {
+    long hash = transitModel.getFeedIds().stream().sorted().toList().hashCode();
+    hash = 31 * hash + String.valueOf(transitModel.getTransitServiceStarts()).hashCode();
+    hash = 31 * hash + String.valueOf(transitModel.getTransitServiceEnds()).hashCode();
+    var patterns = transitModel
+      .getAllTripPatterns()
+      .stream()
+      .sorted(Comparator.comparing(TripPattern::getId))
+      .toList();
+    for (TripPattern pattern : patterns) {
+      hash = 31 * hash + pattern.getId().hashCode();
+      hash = 31 * hash + pattern.getScheduledTimetable().getTripTimes().size();
+    }
+    return hash;
+  }
+}
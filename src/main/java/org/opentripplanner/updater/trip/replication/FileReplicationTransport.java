@@ -0,0 +1,142 @@
+package org.opentripplanner.updater.trip.replication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ReplicationTransport} exchanging messages through a directory, typically a shared
+ * volume. Each message is written to its own file, named after the sequence number, so followers
+ * can list the directory to find new messages. Files are written to a temporary name first and
+ * then moved in place, so a follower never sees a partially written message. Only the last
+ * {@code maxRetainedMessages} files are kept.
+ */
+public class FileReplicationTransport implements ReplicationTransport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileReplicationTransport.class);
+
+  private static final String FILE_SUFFIX = ".otprt";
+  private static final String FULL = "full";
+  private static final String DELTA = "delta";
+  private static final Pattern FILE_NAME = Pattern.compile(
+    "(\\d{20})-(" + FULL + "|" + DELTA + ")\\" + FILE_SUFFIX
+  );
+
+  private final Path directory;
+  private final int maxRetainedMessages;
+
+  public FileReplicationTransport(Path directory, int maxRetainedMessages) {
+    this.directory = directory;
+    this.maxRetainedMessages = maxRetainedMessages;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void publish(ReplicationMessage message) {
+    var fileName = fileName(message.sequenceNumber(), message.fullSnapshot());
+    try {
+      var tmpFile = directory.resolve("." + fileName + ".tmp");
+      Files.write(tmpFile, message.payload());
+      Files.move(
+        tmpFile,
+        directory.resolve(fileName),
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING
+      );
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    deleteExpiredMessages();
+  }
+
+  @Override
+  public List<ReplicationMessage> fetch(long afterSequenceNumber) {
+    List<ReplicationMessage> result = new ArrayList<>();
+    for (MessageFile file : listMessageFiles()) {
+      if (file.sequenceNumber() <= afterSequenceNumber) {
+        continue;
+      }
+      try {
+        byte[] payload = Files.readAllBytes(file.path());
+        result.add(new ReplicationMessage(file.sequenceNumber(), file.full(), payload));
+      } catch (NoSuchFileException e) {
+        // The leader deleted an expired message after we listed the directory, the gap is
+        // detected and handled by the follower.
+        LOG.debug("Replication message deleted before it was read: {}", file.path());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public long lastSequenceNumber() {
+    var files = listMessageFiles();
+    return files.isEmpty() ? -1 : files.get(files.size() - 1).sequenceNumber();
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(FileReplicationTransport.class)
+      .addObj("directory", directory)
+      .addNum("maxRetainedMessages", maxRetainedMessages)
+      .toString();
+  }
+
+  static String fileName(long sequenceNumber, boolean fullSnapshot) {
+    return String.format("%020d-%s%s", sequenceNumber, fullSnapshot ? FULL : DELTA, FILE_SUFFIX);
+  }
+
+  private void deleteExpiredMessages() {
+    var files = listMessageFiles();
+    for (int i = 0; i < files.size() - maxRetainedMessages; ++i) {
+      try {
+        Files.deleteIfExists(files.get(i).path());
+      } catch (IOException e) {
+        LOG.warn("Unable to delete expired replication message: {}", files.get(i).path(), e);
+      }
+    }
+  }
+
+  /** List all message files sorted by sequence number. */
+  private List<MessageFile> listMessageFiles() {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+        .map(MessageFile::of)
+        .filter(Objects::nonNull)
+        .sorted(Comparator.comparingLong(MessageFile::sequenceNumber))
+        .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private record MessageFile(Path path, long sequenceNumber, boolean full) {
+    static MessageFile of(Path path) {
+      Matcher m = FILE_NAME.matcher(path.getFileName().toString());
+      if (!m.matches()) {
+        return null;
+      }
+      return new MessageFile(path, Long.parseLong(m.group(1)), FULL.equals(m.group(2)));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package org.opentripplanner.updater.trip.replication;
+
+import java.util.List;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.model.TimetableSnapshotProvider;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The timetable snapshot provider of a replication follower. Instead of applying realtime
+ * updates from a feed it applies the snapshots and deltas published by the replication leader,
+ * and commits them to the realtime transit layer in the same way as the
+ * {@link org.opentripplanner.updater.trip.TimetableSnapshotSource} does.
+ * <p>
+ * {@link #applyMessages(List)} must only be called by the graph writer thread.
+ */
+public class ReplicatedTimetableSnapshotSource implements TimetableSnapshotProvider {
+
+  private static final Logger LOG = LoggerFactory.getLogger(
+    ReplicatedTimetableSnapshotSource.class
+  );
+
+  private final TimetableSnapshot buffer = new TimetableSnapshot();
+  private final TimetableSnapshotDecoder decoder;
+  private final TransitLayerUpdater transitLayerUpdater;
+
+  /** The last committed snapshot, null until the first full snapshot is applied. */
+  private volatile TimetableSnapshot snapshot = null;
+
+  /** The sequence number of the last applied message, -1 until the first full snapshot. */
+  private volatile long lastSequenceNumber = -1;
+
+  public ReplicatedTimetableSnapshotSource(TransitModel transitModel) {
+    this.decoder =
+      new TimetableSnapshotDecoder(
+        new DefaultTransitService(transitModel),
+        transitModel.getDeduplicator()
+      );
+    this.transitLayerUpdater = transitModel.getTransitLayerUpdater();
+
+    // Inject this into the transit model
+    transitModel.initTimetableSnapshotProvider(this);
+  }
+
+  @Override
+  public TimetableSnapshot getTimetableSnapshot() {
+    return snapshot;
+  }
+
+  public long lastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+
+  /**
+   * Apply the given messages, ordered by sequence number, and commit a new snapshot if anything
+   * changed. If the messages contain a full snapshot, everything before the last full snapshot is
+   * skipped. A delta is only applied if the previous message was applied, otherwise the follower
+   * waits for the next full snapshot.
+   */
+  public void applyMessages(List<ReplicationMessage> messages) {
+    int start = 0;
+    for (int i = messages.size() - 1; i >= 0; i--) {
+      if (messages.get(i).fullSnapshot()) {
+        start = i;
+        break;
+      }
+    }
+
+    boolean modified = false;
+    for (var message : messages.subList(start, messages.size())) {
+      long sequenceNumber = message.sequenceNumber();
+      if (sequenceNumber <= lastSequenceNumber) {
+        continue;
+      }
+      if (
+        !message.fullSnapshot() &&
+        (lastSequenceNumber < 0 || sequenceNumber != lastSequenceNumber + 1)
+      ) {
+        LOG.info(
+          "Replication message {} is out of sequence, waiting for a full snapshot.",
+          sequenceNumber
+        );
+        break;
+      }
+      int nPatterns = decoder.apply(message.payload(), buffer);
+      LOG.debug("Applied replication message {}, {} patterns changed.", sequenceNumber, nPatterns);
+      lastSequenceNumber = sequenceNumber;
+      modified = true;
+    }
+
+    if (modified) {
+      snapshot = buffer.commit(transitLayerUpdater, true);
+    }
+  }
+}
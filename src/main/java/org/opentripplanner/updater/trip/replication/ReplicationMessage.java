@@ -0,0 +1,12 @@
+package org.opentripplanner.updater.trip.replication;
+
+/**
+ * A message exchanged between the replication leader and its followers.
+ *
+ * @param sequenceNumber Strictly increasing number assigned by the leader. A follower may only
+ *                       apply a delta if it has applied the message with the previous number.
+ * @param fullSnapshot   If true the payload contains the complete realtime state, not only the
+ *                       changes since the previous message.
+ * @param payload        The snapshot or delta encoded with {@link TimetableSnapshotEncoder}.
+ */
+public record ReplicationMessage(long sequenceNumber, boolean fullSnapshot, byte[] payload) {}
@@ -0,0 +1,27 @@
+package org.opentripplanner.updater.trip.replication;
+
+import java.util.List;
+
+/**
+ * Transport used to ship encoded timetable snapshots from the replication leader to the
+ * followers. Implementations must deliver messages in sequence order; gaps are allowed - a
+ * follower detects them and waits for the next full snapshot.
+ */
+public interface ReplicationTransport {
+  /**
+   * Publish a message to all followers.
+   */
+  void publish(ReplicationMessage message);
+
+  /**
+   * Fetch the available messages with a sequence number greater than the given one, ordered by
+   * sequence number.
+   */
+  List<ReplicationMessage> fetch(long afterSequenceNumber);
+
+  /**
+   * Return the greatest sequence number published, or {@code -1} if no messages exist. Used by a
+   * (re)started leader to continue the sequence.
+   */
+  long lastSequenceNumber();
+}
@@ -0,0 +1,63 @@
+package org.opentripplanner.updater.trip.replication;
+
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.spi.PollingGraphUpdater;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetch the timetable snapshots and deltas published by a replication leader and apply them to
+ * this instance. A follower can not be combined with other trip updaters, it replaces them.
+ * <p>
+ * The follower is not primed until the first full snapshot is applied, so an instance does not
+ * report ready before it has the realtime state of the leader.
+ */
+public class TimetableReplicationFollower extends PollingGraphUpdater {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableReplicationFollower.class);
+
+  private final ReplicationTransport transport;
+  private final ReplicatedTimetableSnapshotSource snapshotSource;
+
+  private WriteToGraphCallback saveResultOnGraph;
+
+  public TimetableReplicationFollower(
+    TimetableReplicationParameters parameters,
+    ReplicationTransport transport,
+    TransitModel transitModel
+  ) {
+    super(parameters);
+    this.transport = transport;
+    this.snapshotSource = new ReplicatedTimetableSnapshotSource(transitModel);
+
+    LOG.info("Creating timetable replication follower running every {}: {}", pollingPeriod(), this);
+  }
+
+  @Override
+  public void setGraphUpdaterManager(WriteToGraphCallback saveResultOnGraph) {
+    this.saveResultOnGraph = saveResultOnGraph;
+  }
+
+  @Override
+  public boolean isPrimed() {
+    return snapshotSource.getTimetableSnapshot() != null;
+  }
+
+  @Override
+  protected void runPolling() {
+    var messages = transport.fetch(snapshotSource.lastSequenceNumber());
+    if (!messages.isEmpty()) {
+      saveResultOnGraph.execute((graph, transitModel) -> snapshotSource.applyMessages(messages));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(TimetableReplicationFollower.class)
+      .addObj("transport", transport)
+      .toString();
+  }
+}
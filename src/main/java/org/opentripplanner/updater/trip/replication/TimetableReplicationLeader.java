@@ -0,0 +1,90 @@
+package org.opentripplanner.updater.trip.replication;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.spi.PollingGraphUpdater;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publish the timetable snapshots committed by the local realtime updaters to the replication
+ * followers. The snapshot source hands each committed snapshot to
+ * {@link #accept(TimetableSnapshot)}, and the snapshot is encoded and published when this updater
+ * polls - so the encoding never happens while the snapshot buffer is locked. If several snapshots
+ * are committed between two polls only the last one is published. A delta is published for each
+ * new snapshot, except for every {@code fullSnapshotInterval} message which contains the full
+ * state.
+ * <p>
+ * The leader must only listen to one snapshot source, the deltas are computed between the
+ * snapshots it is given. This updater never writes to the graph.
+ */
+public class TimetableReplicationLeader
+  extends PollingGraphUpdater
+  implements Consumer<TimetableSnapshot> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableReplicationLeader.class);
+
+  private final ReplicationTransport transport;
+  private final TimetableSnapshotEncoder encoder;
+  private final int fullSnapshotInterval;
+
+  private final AtomicReference<TimetableSnapshot> committed = new AtomicReference<>();
+  private TimetableSnapshot published = null;
+  private long sequenceNumber;
+  private int messagesSinceFullSnapshot = 0;
+
+  public TimetableReplicationLeader(
+    TimetableReplicationParameters parameters,
+    ReplicationTransport transport,
+    TransitModel transitModel
+  ) {
+    super(parameters);
+    this.transport = transport;
+    this.encoder = new TimetableSnapshotEncoder(new DefaultTransitService(transitModel));
+    this.fullSnapshotInterval = parameters.fullSnapshotInterval();
+    this.sequenceNumber = transport.lastSequenceNumber();
+  }
+
+  @Override
+  public void accept(TimetableSnapshot snapshot) {
+    committed.set(snapshot);
+  }
+
+  @Override
+  public void setGraphUpdaterManager(WriteToGraphCallback saveResultOnGraph) {}
+
+  @Override
+  protected void runPolling() {
+    var current = committed.get();
+    if (current == null || current == published) {
+      return;
+    }
+    boolean full = published == null || messagesSinceFullSnapshot >= fullSnapshotInterval;
+    byte[] payload = full ? encoder.encodeFull(current) : encoder.encodeDelta(published, current);
+
+    transport.publish(new ReplicationMessage(++sequenceNumber, full, payload));
+    messagesSinceFullSnapshot = full ? 1 : messagesSinceFullSnapshot + 1;
+    published = current;
+
+    LOG.debug(
+      "Published {} {} with {} bytes.",
+      full ? "full snapshot" : "delta",
+      sequenceNumber,
+      payload.length
+    );
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(TimetableReplicationLeader.class)
+      .addObj("transport", transport)
+      .addNum("fullSnapshotInterval", fullSnapshotInterval)
+      .toString();
+  }
+}
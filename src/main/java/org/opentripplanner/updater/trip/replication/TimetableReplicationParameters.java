@@ -0,0 +1,44 @@
+package org.opentripplanner.updater.trip.replication;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import org.opentripplanner.updater.spi.PollingGraphUpdaterParameters;
+
+/**
+ * Parameters for replicating realtime timetable updates between OTP instances.
+ *
+ * @param role                 If this instance publishes its committed snapshots or applies the
+ *                             snapshots published by another instance.
+ * @param directory            The directory used by the file based transport to exchange messages.
+ * @param fullSnapshotInterval The leader publishes a complete snapshot after this number of
+ *                             deltas, so followers can (re)synchronize.
+ * @param maxRetainedMessages  The number of messages kept by the transport.
+ */
+public record TimetableReplicationParameters(
+  String configRef,
+  Duration frequency,
+  Role role,
+  Path directory,
+  int fullSnapshotInterval,
+  int maxRetainedMessages
+)
+  implements PollingGraphUpdaterParameters {
+  public TimetableReplicationParameters {
+    Objects.requireNonNull(role, "role is required");
+    Objects.requireNonNull(directory, "directory is required");
+    if (fullSnapshotInterval < 1) {
+      throw new IllegalArgumentException("fullSnapshotInterval must be at least 1");
+    }
+    if (maxRetainedMessages <= fullSnapshotInterval) {
+      throw new IllegalArgumentException(
+        "maxRetainedMessages must be greater than fullSnapshotInterval"
+      );
+    }
+  }
+
+  public enum Role {
+    LEADER,
+    FOLLOWER,
+  }
+}
@@ -0,0 +1,316 @@
+package org.opentripplanner.updater.trip.replication;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.PickDrop;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.model.basic.Accessibility;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.OccupancyStatus;
+import org.opentripplanner.transit.model.timetable.RealTimeState;
+import org.opentripplanner.transit.model.timetable.RealTimeTripTimes;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+import org.opentripplanner.transit.service.TransitService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decode snapshots and deltas encoded by {@link TimetableSnapshotEncoder} and apply them to a
+ * {@link TimetableSnapshot} buffer. Patterns and trips created by the realtime updaters of the
+ * encoding instance are re-created here, and cached so that the same instances are used for
+ * every message referencing them.
+ * <p>
+ * Entities which cannot be resolved in the local transit model, for example because the
+ * instances run with different graphs, are skipped and logged. This class is not thread-safe.
+ */
+public class TimetableSnapshotDecoder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotDecoder.class);
+
+  private static final RealTimeState[] REAL_TIME_STATES = RealTimeState.values();
+  private static final Accessibility[] ACCESSIBILITIES = Accessibility.values();
+  private static final OccupancyStatus[] OCCUPANCY_STATUSES = OccupancyStatus.values();
+  private static final PickDrop[] PICK_DROPS = PickDrop.values();
+
+  private final TransitService transitService;
+  private final Deduplicator deduplicator;
+  private final Map<FeedScopedId, TripPattern> realtimeAddedPatterns = new HashMap<>();
+  private final Map<FeedScopedId, Trip> realtimeAddedTrips = new HashMap<>();
+
+  /** The number of entities skipped because they could not be resolved. */
+  private int skipped;
+
+  public TimetableSnapshotDecoder(TransitService transitService, Deduplicator deduplicator) {
+    this.transitService = transitService;
+    this.deduplicator = deduplicator;
+  }
+
+  /**
+   * Decode the given payload and apply it to the buffer. If the payload is a full snapshot, all
+   * existing realtime timetables in the buffer are removed first.
+   *
+   * @return the number of patterns updated or removed
+   */
+  public int apply(byte[] payload, TimetableSnapshot buffer) {
+    try (var in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+      if (in.readInt() != TimetableSnapshotEncoder.MAGIC) {
+        throw new IllegalArgumentException("The payload is not an encoded timetable snapshot.");
+      }
+      byte version = in.readByte();
+      if (version != TimetableSnapshotEncoder.VERSION) {
+        throw new IllegalArgumentException("Unsupported timetable snapshot version: " + version);
+      }
+      boolean full = in.readBoolean();
+      if (full) {
+        List.copyOf(buffer.listPatternsWithRealtimeTimetables()).forEach(buffer::removeTimetables);
+      }
+      skipped = 0;
+      int count = 0;
+
+      int nRemoved = in.readInt();
+      for (int i = 0; i < nRemoved; i++) {
+        var pattern = resolvePattern(in.readBoolean(), readId(in));
+        if (pattern != null) {
+          buffer.removeTimetables(pattern);
+          ++count;
+        }
+      }
+      int nUpdated = in.readInt();
+      for (int i = 0; i < nUpdated; i++) {
+        var pattern = readPattern(in);
+        int nTimetables = in.readInt();
+        Map<LocalDate, List<TripTimes>> tripTimesByServiceDate = new TreeMap<>();
+        for (int j = 0; j < nTimetables; j++) {
+          var serviceDate = LocalDate.ofEpochDay(in.readLong());
+          tripTimesByServiceDate.put(serviceDate, readTimetable(in, pattern));
+        }
+        if (pattern != null) {
+          buffer.replaceTimetables(pattern, tripTimesByServiceDate);
+          ++count;
+        } else {
+          ++skipped;
+        }
+      }
+      if (skipped > 0) {
+        LOG.warn("{} patterns or trips in timetable snapshot could not be resolved.", skipped);
+      }
+      return count;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Nullable
+  private TripPattern resolvePattern(boolean createdByRealtimeUpdater, FeedScopedId id) {
+    return createdByRealtimeUpdater
+      ? realtimeAddedPatterns.get(id)
+      : transitService.getTripPatternForId(id);
+  }
+
+  @Nullable
+  private TripPattern readPattern(DataInputStream in) throws IOException {
+    boolean createdByRealtimeUpdater = in.readBoolean();
+    var id = readId(in);
+    if (!createdByRealtimeUpdater) {
+      return transitService.getTripPatternForId(id);
+    }
+
+    Route route = transitService.getRouteForId(readId(in));
+    TripPattern original = in.readBoolean()
+      ? transitService.getTripPatternForId(readId(in))
+      : null;
+    int nStops = in.readInt();
+    var stopPatternBuilder = StopPattern.create(nStops);
+    boolean stopsResolved = true;
+    for (int i = 0; i < nStops; i++) {
+      StopLocation stop = transitService.getStopLocation(readId(in));
+      stopsResolved &= stop != null;
+      stopPatternBuilder.stops[i] = stop;
+      stopPatternBuilder.pickups[i] = PICK_DROPS[in.readByte()];
+      stopPatternBuilder.dropoffs[i] = PICK_DROPS[in.readByte()];
+    }
+    if (route == null || !stopsResolved) {
+      return null;
+    }
+
+    var stopPattern = stopPatternBuilder.build();
+    var cached = realtimeAddedPatterns.get(id);
+    if (cached != null && cached.getStopPattern().equals(stopPattern)) {
+      return cached;
+    }
+    var pattern = TripPattern
+      .of(id)
+      .withRoute(route)
+      .withStopPattern(stopPattern)
+      .withCreatedByRealtimeUpdater(true)
+      .withOriginalTripPattern(original)
+      .build();
+    realtimeAddedPatterns.put(id, pattern);
+    return pattern;
+  }
+
+  private List<TripTimes> readTimetable(DataInputStream in, @Nullable TripPattern pattern)
+    throws IOException {
+    int size = in.readInt();
+    int nChanged = in.readInt();
+
+    List<TripTimes> scheduled = pattern == null
+      ? List.of()
+      : pattern.getScheduledTimetable().getTripTimes();
+    List<TripTimes> tripTimes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      tripTimes.add(i < scheduled.size() ? scheduled.get(i) : null);
+    }
+    for (int i = 0; i < nChanged; i++) {
+      int index = in.readInt();
+      tripTimes.set(index, readTripTimes(in, pattern));
+    }
+    tripTimes.removeIf(Objects::isNull);
+    return tripTimes;
+  }
+
+  @Nullable
+  private TripTimes readTripTimes(DataInputStream in, @Nullable TripPattern pattern)
+    throws IOException {
+    var tripId = readId(in);
+    var realTimeState = REAL_TIME_STATES[in.readByte()];
+    byte wheelchairAccessibility = in.readByte();
+    int nStops = in.readInt();
+
+    boolean scheduleIncluded = in.readBoolean();
+    FeedScopedId serviceId = null;
+    int[] scheduledTimes = null;
+    if (scheduleIncluded) {
+      serviceId = readId(in);
+      scheduledTimes = readInts(in, 2 * nStops);
+    }
+    int[] times = in.readBoolean() ? new int[2 * nStops] : null;
+    byte[] flags = new byte[nStops];
+    byte[] occupancy = new byte[nStops];
+    for (int i = 0; i < nStops; i++) {
+      if (times != null) {
+        times[2 * i] = in.readInt();
+        times[2 * i + 1] = in.readInt();
+      }
+      flags[i] = in.readByte();
+      occupancy[i] = in.readByte();
+    }
+
+    if (pattern == null) {
+      return null;
+    }
+    RealTimeTripTimes tripTimes = scheduleIncluded
+      ? createTripTimes(tripId, serviceId, scheduledTimes, pattern)
+      : createTripTimesFromSchedule(tripId, nStops);
+    if (tripTimes == null) {
+      ++skipped;
+      return null;
+    }
+
+    for (int i = 0; i < nStops; i++) {
+      if (times != null) {
+        tripTimes.updateArrivalTime(i, times[2 * i]);
+        tripTimes.updateDepartureTime(i, times[2 * i + 1]);
+      }
+      if ((flags[i] & TimetableSnapshotEncoder.FLAG_CANCELLED) != 0) {
+        tripTimes.setCancelled(i);
+      }
+      if ((flags[i] & TimetableSnapshotEncoder.FLAG_RECORDED) != 0) {
+        tripTimes.setRecorded(i);
+      }
+      if ((flags[i] & TimetableSnapshotEncoder.FLAG_NO_DATA) != 0) {
+        tripTimes.setNoData(i);
+      }
+      if ((flags[i] & TimetableSnapshotEncoder.FLAG_INACCURATE) != 0) {
+        tripTimes.setPredictionInaccurate(i);
+      }
+      var occupancyStatus = occupancy[i] < 0 ? null : OCCUPANCY_STATUSES[occupancy[i]];
+      if (occupancyStatus != null && occupancyStatus != OccupancyStatus.NO_DATA_AVAILABLE) {
+        tripTimes.setOccupancyStatus(i, occupancyStatus);
+      }
+    }
+    tripTimes.setRealTimeState(realTimeState);
+    if (wheelchairAccessibility >= 0) {
+      tripTimes.updateWheelchairAccessibility(ACCESSIBILITIES[wheelchairAccessibility]);
+    }
+    return tripTimes;
+  }
+
+  @Nullable
+  private RealTimeTripTimes createTripTimesFromSchedule(FeedScopedId tripId, int nStops) {
+    var scheduled = TimetableSnapshotEncoder.findScheduledTripTimes(transitService, tripId, nStops);
+    return scheduled == null ? null : scheduled.copyScheduledTimes();
+  }
+
+  @Nullable
+  private RealTimeTripTimes createTripTimes(
+    FeedScopedId tripId,
+    FeedScopedId serviceId,
+    int[] scheduledTimes,
+    TripPattern pattern
+  ) {
+    int nStops = scheduledTimes.length / 2;
+    if (pattern.numberOfStops() != nStops) {
+      return null;
+    }
+    Trip trip = transitService.getTripForId(tripId);
+    if (trip == null) {
+      trip =
+        realtimeAddedTrips.computeIfAbsent(
+          tripId,
+          id -> Trip.of(id).withRoute(pattern.getRoute()).withServiceId(serviceId).build()
+        );
+    }
+
+    List<StopTime> stopTimes = new ArrayList<>(nStops);
+    for (int i = 0; i < nStops; i++) {
+      var stopTime = new StopTime();
+      stopTime.setTrip(trip);
+      stopTime.setStop(pattern.getStop(i));
+      stopTime.setStopSequence(i);
+      stopTime.setArrivalTime(scheduledTimes[2 * i]);
+      stopTime.setDepartureTime(scheduledTimes[2 * i + 1]);
+      stopTime.setTimepoint(1);
+      stopTime.setPickupType(pattern.getBoardType(i));
+      stopTime.setDropOffType(pattern.getAlightType(i));
+      stopTimes.add(stopTime);
+    }
+    var tripTimes = TripTimesFactory.tripTimes(trip, stopTimes, deduplicator);
+    Integer serviceCode = transitService.getServiceCodeForId(serviceId);
+    if (serviceCode != null) {
+      tripTimes.setServiceCode(serviceCode);
+    }
+    return tripTimes;
+  }
+
+  private static int[] readInts(DataInputStream in, int size) throws IOException {
+    int[] values = new int[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = in.readInt();
+    }
+    return values;
+  }
+
+  private static FeedScopedId readId(DataInputStream in) throws IOException {
+    return new FeedScopedId(in.readUTF(), in.readUTF());
+  }
+}
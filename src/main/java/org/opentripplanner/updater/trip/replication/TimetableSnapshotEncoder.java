@@ -0,0 +1,231 @@
+package org.opentripplanner.updater.trip.replication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * Encode the realtime timetables of a {@link TimetableSnapshot} into a compact binary format,
+ * decoded by {@link TimetableSnapshotDecoder}. Either all realtime timetables are encoded (a full
+ * snapshot), or only the patterns which changed since a previous snapshot (a delta).
+ * <p>
+ * Only the realtime state is encoded: trips, stops, routes and scheduled patterns are referenced
+ * by id and must exist in the transit model of the decoding instance. Scheduled trip times are
+ * written only for trips without a matching scheduled trip in the transit model, for example
+ * trips added by a realtime feed. Trip times that are identical to the scheduled trip times of
+ * the pattern are not written at all.
+ */
+public class TimetableSnapshotEncoder {
+
+  static final int MAGIC = 0x4f545052;
+  static final byte VERSION = 1;
+
+  static final byte FLAG_CANCELLED = 1;
+  static final byte FLAG_RECORDED = 1 << 1;
+  static final byte FLAG_NO_DATA = 1 << 2;
+  static final byte FLAG_INACCURATE = 1 << 3;
+
+  private final TransitService transitService;
+
+  public TimetableSnapshotEncoder(TransitService transitService) {
+    this.transitService = transitService;
+  }
+
+  /**
+   * Encode all realtime timetables in the given snapshot.
+   */
+  public byte[] encodeFull(TimetableSnapshot snapshot) {
+    return encode(true, List.of(), snapshot.listPatternsWithRealtimeTimetables(), snapshot);
+  }
+
+  /**
+   * Encode the realtime timetables which changed between the two given snapshots.
+   */
+  public byte[] encodeDelta(TimetableSnapshot previous, TimetableSnapshot current) {
+    return encode(
+      false,
+      current.findPatternsRemovedSince(previous),
+      current.findPatternsUpdatedSince(previous),
+      current
+    );
+  }
+
+  /**
+   * Find the scheduled trip times for the given trip in the transit model, used as a base for the
+   * realtime trip times. Both the encoder and the decoder use this to decide if the scheduled
+   * times must be part of the message, so the decision is the same on both sides as long as the
+   * instances use the same graph.
+   */
+  @Nullable
+  static TripTimes findScheduledTripTimes(
+    TransitService transitService,
+    FeedScopedId tripId,
+    int numberOfStops
+  ) {
+    Trip trip = transitService.getTripForId(tripId);
+    if (trip == null) {
+      return null;
+    }
+    TripPattern pattern = transitService.getPatternForTrip(trip);
+    if (pattern == null) {
+      return null;
+    }
+    TripTimes tripTimes = pattern.getScheduledTimetable().getTripTimes(tripId);
+    return tripTimes != null && tripTimes.getNumStops() == numberOfStops ? tripTimes : null;
+  }
+
+  private byte[] encode(
+    boolean full,
+    Collection<TripPattern> removedPatterns,
+    Collection<TripPattern> updatedPatterns,
+    TimetableSnapshot snapshot
+  ) {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeBoolean(full);
+
+      out.writeInt(removedPatterns.size());
+      for (TripPattern pattern : removedPatterns) {
+        writePatternId(out, pattern);
+      }
+      out.writeInt(updatedPatterns.size());
+      for (TripPattern pattern : updatedPatterns) {
+        writePattern(out, pattern);
+        var timetables = snapshot.listTimetables(pattern);
+        out.writeInt(timetables.size());
+        for (Timetable timetable : timetables) {
+          writeTimetable(out, timetable);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private void writePatternId(DataOutputStream out, TripPattern pattern) throws IOException {
+    out.writeBoolean(pattern.isCreatedByRealtimeUpdater());
+    writeId(out, pattern.getId());
+  }
+
+  private void writePattern(DataOutputStream out, TripPattern pattern) throws IOException {
+    writePatternId(out, pattern);
+    if (!pattern.isCreatedByRealtimeUpdater()) {
+      return;
+    }
+    writeId(out, pattern.getRoute().getId());
+    var original = pattern.getOriginalTripPattern();
+    out.writeBoolean(original != null);
+    if (original != null) {
+      writeId(out, original.getId());
+    }
+    out.writeInt(pattern.numberOfStops());
+    for (int i = 0; i < pattern.numberOfStops(); i++) {
+      writeId(out, pattern.getStop(i).getId());
+      out.writeByte(pattern.getBoardType(i).ordinal());
+      out.writeByte(pattern.getAlightType(i).ordinal());
+    }
+  }
+
+  private void writeTimetable(DataOutputStream out, Timetable timetable) throws IOException {
+    out.writeLong(timetable.getServiceDate().toEpochDay());
+
+    List<TripTimes> scheduled = timetable.getPattern().getScheduledTimetable().getTripTimes();
+    List<TripTimes> tripTimes = timetable.getTripTimes();
+
+    int nChanged = 0;
+    for (int i = 0; i < tripTimes.size(); i++) {
+      if (!isScheduledInstance(tripTimes, scheduled, i)) {
+        ++nChanged;
+      }
+    }
+    out.writeInt(tripTimes.size());
+    out.writeInt(nChanged);
+    for (int i = 0; i < tripTimes.size(); i++) {
+      if (!isScheduledInstance(tripTimes, scheduled, i)) {
+        out.writeInt(i);
+        writeTripTimes(out, tripTimes.get(i));
+      }
+    }
+  }
+
+  private void writeTripTimes(DataOutputStream out, TripTimes tt) throws IOException {
+    int nStops = tt.getNumStops();
+    writeId(out, tt.getTrip().getId());
+    out.writeByte(tt.getRealTimeState().ordinal());
+    var wheelchairAccessibility = tt.getWheelchairAccessibility();
+    out.writeByte(wheelchairAccessibility == null ? -1 : wheelchairAccessibility.ordinal());
+    out.writeInt(nStops);
+
+    var base = findScheduledTripTimes(transitService, tt.getTrip().getId(), nStops);
+    out.writeBoolean(base == null);
+    if (base == null) {
+      writeId(out, tt.getTrip().getServiceId());
+      for (int i = 0; i < nStops; i++) {
+        out.writeInt(tt.getScheduledArrivalTime(i));
+        out.writeInt(tt.getScheduledDepartureTime(i));
+      }
+    }
+
+    boolean timesUpdated = false;
+    for (int i = 0; i < nStops && !timesUpdated; i++) {
+      timesUpdated =
+        tt.getArrivalTime(i) != tt.getScheduledArrivalTime(i) ||
+        tt.getDepartureTime(i) != tt.getScheduledDepartureTime(i);
+    }
+    out.writeBoolean(timesUpdated);
+    for (int i = 0; i < nStops; i++) {
+      if (timesUpdated) {
+        out.writeInt(tt.getArrivalTime(i));
+        out.writeInt(tt.getDepartureTime(i));
+      }
+      out.writeByte(stopFlags(tt, i));
+      var occupancy = tt.getOccupancyStatus(i);
+      out.writeByte(occupancy == null ? -1 : occupancy.ordinal());
+    }
+  }
+
+  private static byte stopFlags(TripTimes tt, int stop) {
+    int flags = 0;
+    if (tt.isCancelledStop(stop)) {
+      flags |= FLAG_CANCELLED;
+    }
+    if (tt.isRecordedStop(stop)) {
+      flags |= FLAG_RECORDED;
+    }
+    if (tt.isNoDataStop(stop)) {
+      flags |= FLAG_NO_DATA;
+    }
+    if (tt.isPredictionInaccurate(stop)) {
+      flags |= FLAG_INACCURATE;
+    }
+    return (byte) flags;
+  }
+
+  private static boolean isScheduledInstance(
+    List<TripTimes> tripTimes,
+    List<TripTimes> scheduled,
+    int index
+  ) {
+    return index < scheduled.size() && tripTimes.get(index) == scheduled.get(index);
+  }
+
+  private static void writeId(DataOutputStream out, FeedScopedId id) throws IOException {
+    out.writeUTF(id.getFeedId());
+    out.writeUTF(id.getId());
+  }
+}
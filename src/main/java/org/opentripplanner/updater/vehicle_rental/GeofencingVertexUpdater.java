@@ -2,6 +2,7 @@ package org.opentripplanner.updater.vehicle_rental;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -12,6 +13,8 @@ import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.service.vehiclerental.model.GeofencingZone;
 import org.opentripplanner.service.vehiclerental.street.BusinessAreaBorder;
@@ -30,11 +33,26 @@ import org.opentripplanner.street.model.edge.StreetEdge;
  * <p>
  * Perhaps this logic will be replaced with edge splitting where a new vertex is insert right on
  * the border of the zone.
+ * <p>
+ * Finding the edges intersecting a zone is the expensive part, so it is done for all zones in
+ * parallel, and the result is cached by zone geometry. When a feed is updated only the zones with
+ * a new geometry are intersected with the street network again. The extensions are then added to
+ * the edges in the order of the zones, on the calling thread. Only the permanent street edges are
+ * looked up, these do not change between updates.
  */
 class GeofencingVertexUpdater {
 
   private final Function<Envelope, Collection<Edge>> getEdgesForEnvelope;
 
+  /**
+   * The intersecting street edges of each geometry in the last update. Geometries are compared
+   * with {@link Geometry#equalsExact(Geometry)}, so an unchanged zone is found even if the feed
+   * was parsed again.
+   */
+  private Map<Geometry, List<StreetEdge>> edgesByGeometry = Map.of();
+  private int cachedGeometries = 0;
+  private int computedGeometries = 0;
+
   public GeofencingVertexUpdater(Function<Envelope, Collection<Edge>> getEdgesForEnvelope) {
     this.getEdgesForEnvelope = getEdgesForEnvelope;
   }
@@ -48,84 +66,130 @@ class GeofencingVertexUpdater {
   ) {
     var restrictedZones = geofencingZones.stream().filter(GeofencingZone::hasRestriction).toList();
 
-    // these are the edges inside business area where exceptions like "no pass through"
-    // or "no drop-off" are added
-    var restrictedEdges = addExtensionToIntersectingStreetEdges(
-      restrictedZones,
-      GeofencingZoneExtension::new
-    );
-
-    var updates = new HashMap<>(restrictedEdges);
-
     var generalBusinessAreas = geofencingZones
       .stream()
       .filter(GeofencingZone::isBusinessArea)
       .toList();
 
+    // The geometries of all business areas are combined into one geometry, used as the key of
+    // the cached border edges. The union is only computed if the border is not in the cache.
+    Geometry businessAreas = null;
     if (!generalBusinessAreas.isEmpty()) {
-      // if the geofencing zones don't have any restrictions then they describe a general business
-      // area which you can traverse freely but are not allowed to leave
-      // here we just take the boundary of the geometry since we want to add a "no pass through"
-      // restriction to any edge intersecting it
-
-      var network = generalBusinessAreas.get(0).id().getFeedId();
       var polygons = generalBusinessAreas
         .stream()
         .map(GeofencingZone::geometry)
         .toArray(Geometry[]::new);
+      businessAreas = GeometryUtils.getGeometryFactory().createGeometryCollection(polygons);
+    }
+
+    // The geometries to find the edges for, mapped to true if only the border is needed
+    var previous = edgesByGeometry;
+    var geometries = new LinkedHashMap<Geometry, Boolean>();
+    restrictedZones.forEach(zone -> geometries.putIfAbsent(zone.geometry(), false));
+    if (businessAreas != null) {
+      geometries.put(businessAreas, true);
+    }
+    var toCompute = geometries.keySet().stream().filter(g -> !previous.containsKey(g)).toList();
 
-      var unionOfBusinessAreas = GeometryUtils
-        .getGeometryFactory()
-        .createGeometryCollection(polygons)
-        .union();
+    var computed = toCompute
+      .parallelStream()
+      .map(g -> geometries.get(g) ? findEdgesAlongBorder(g) : findIntersectingEdges(g))
+      .toList();
+
+    var current = new HashMap<Geometry, List<StreetEdge>>();
+    for (Geometry geometry : geometries.keySet()) {
+      if (previous.containsKey(geometry)) {
+        current.put(geometry, previous.get(geometry));
+      }
+    }
+    for (int i = 0; i < toCompute.size(); i++) {
+      current.put(toCompute.get(i), computed.get(i));
+    }
+    edgesByGeometry = current;
+    computedGeometries = toCompute.size();
+    cachedGeometries = current.size() - computedGeometries;
 
-      var updated = applyExtension(
-        unionOfBusinessAreas.getBoundary(),
-        new BusinessAreaBorder(network)
-      );
+    // these are the edges inside business area where exceptions like "no pass through"
+    // or "no drop-off" are added
+    var updates = new HashMap<StreetEdge, RentalRestrictionExtension>();
+    for (GeofencingZone zone : restrictedZones) {
+      var ext = new GeofencingZoneExtension(zone);
+      updates.putAll(addExtension(current.get(zone.geometry()), ext));
+    }
 
-      updates.putAll(updated);
+    if (businessAreas != null) {
+      // if the geofencing zones don't have any restrictions then they describe a general business
+      // area which you can traverse freely but are not allowed to leave
+      // here we just take the boundary of the geometry since we want to add a "no pass through"
+      // restriction to any edge intersecting it
+      var network = generalBusinessAreas.get(0).id().getFeedId();
+      var ext = new BusinessAreaBorder(network);
+      updates.putAll(addExtension(current.get(businessAreas), ext));
     }
 
     return Map.copyOf(updates);
   }
 
-  private Map<StreetEdge, RentalRestrictionExtension> addExtensionToIntersectingStreetEdges(
-    List<GeofencingZone> zones,
-    Function<GeofencingZone, RentalRestrictionExtension> createExtension
+  /**
+   * The number of distinct zone geometries found in the cache in the last update.
+   */
+  int cachedGeometries() {
+    return cachedGeometries;
+  }
+
+  /**
+   * The number of distinct zone geometries intersected with the street network in the last
+   * update.
+   */
+  int computedGeometries() {
+    return computedGeometries;
+  }
+
+  private static Map<StreetEdge, RentalRestrictionExtension> addExtension(
+    List<StreetEdge> edges,
+    RentalRestrictionExtension ext
   ) {
     var edgesUpdated = new HashMap<StreetEdge, RentalRestrictionExtension>();
-    for (GeofencingZone zone : zones) {
-      var geom = zone.geometry();
-      var ext = createExtension.apply(zone);
-      edgesUpdated.putAll(applyExtension(geom, ext));
+    for (StreetEdge streetEdge : edges) {
+      streetEdge.addRentalRestriction(ext);
+      edgesUpdated.put(streetEdge, ext);
     }
     return edgesUpdated;
   }
 
-  private Map<StreetEdge, RentalRestrictionExtension> applyExtension(
-    Geometry geom,
-    RentalRestrictionExtension ext
-  ) {
-    var edgesUpdated = new HashMap<StreetEdge, RentalRestrictionExtension>();
-    Set<Edge> candidates;
+  private List<StreetEdge> findEdgesAlongBorder(Geometry businessAreas) {
     // for business areas we only care about the borders so we compute the boundary of the
     // (multi) polygon. this can either be a MultiLineString or a LineString
-    if (geom instanceof LineString ring) {
+    var boundary = businessAreas.union().getBoundary();
+    Set<Edge> candidates;
+    if (boundary instanceof LineString ring) {
       candidates = getEdgesAlongLineStrings(List.of(ring));
-    } else if (geom instanceof MultiLineString mls) {
-      var lineStrings = GeometryUtils.getLineStrings(mls);
-      candidates = getEdgesAlongLineStrings(lineStrings);
+    } else if (boundary instanceof MultiLineString mls) {
+      candidates = getEdgesAlongLineStrings(GeometryUtils.getLineStrings(mls));
     } else {
-      candidates = Set.copyOf(getEdgesForEnvelope.apply(geom.getEnvelopeInternal()));
-    }
-    for (var e : candidates) {
-      if (e instanceof StreetEdge streetEdge && streetEdge.getGeometry().intersects(geom)) {
-        streetEdge.addRentalRestriction(ext);
-        edgesUpdated.put(streetEdge, ext);
-      }
+      candidates = Set.copyOf(getEdgesForEnvelope.apply(boundary.getEnvelopeInternal()));
     }
-    return edgesUpdated;
+    return filterIntersecting(PreparedGeometryFactory.prepare(boundary), candidates);
+  }
+
+  private List<StreetEdge> findIntersectingEdges(Geometry geom) {
+    var candidates = Set.copyOf(getEdgesForEnvelope.apply(geom.getEnvelopeInternal()));
+    return filterIntersecting(PreparedGeometryFactory.prepare(geom), candidates);
+  }
+
+  /**
+   * A prepared geometry builds an index of its segments, which makes the intersection tests much
+   * faster for zones with detailed geometries.
+   */
+  private static List<StreetEdge> filterIntersecting(
+    PreparedGeometry geom,
+    Collection<Edge> candidates
+  ) {
+    return candidates
+      .stream()
+      .filter(e -> e instanceof StreetEdge streetEdge && geom.intersects(streetEdge.getGeometry()))
+      .map(StreetEdge.class::cast)
+      .toList();
   }
 
   /**
@@ -1,5 +1,7 @@
 package org.opentripplanner.updater.vehicle_rental;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -58,6 +60,9 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
   private Map<StreetEdge, RentalRestrictionExtension> latestModifiedEdges = Map.of();
   private Set<GeofencingZone> latestAppliedGeofencingZones = Set.of();
+  /** Kept between updates, since it caches the edges of each zone. */
+  private GeofencingVertexUpdater geofencingVertexUpdater = null;
+  private final Timer geofencingTimer;
   private final Map<FeedScopedId, VehicleRentalPlaceVertex> verticesByStation = new HashMap<>();
   private final Map<FeedScopedId, DisposableEdgeCollection> tempEdgesByStation = new HashMap<>();
   private final VertexLinker linker;
@@ -81,6 +86,12 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         parameters.sourceParameters().url()
       );
     this.unlinkedPlaceThrottle = Throttle.ofOneSecond();
+    this.geofencingTimer =
+      Timer
+        .builder("vehicle_rental.geofencing")
+        .description("Time to apply the geofencing zones of a vehicle rental network")
+        .tag("network", nameForLogging)
+        .register(Metrics.globalRegistry);
 
     // Creation of network linker library will not modify the graph
     this.linker = vertexLinker;
@@ -160,6 +171,8 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       // Apply stations to graph
       Set<FeedScopedId> stationSet = new HashSet<>();
       var vertexFactory = new VertexFactory(graph);
+      int linked = 0;
+      int relinked = 0;
 
       /* add any new stations and update vehicle counts for existing stations */
       for (VehicleRentalPlace station : stations) {
@@ -167,50 +180,17 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         stationSet.add(station.getId());
         VehicleRentalPlaceVertex vehicleRentalVertex = verticesByStation.get(station.getId());
 
+        // A place which moved, typically a free-floating vehicle, or which changed the form
+        // factors it offers, is unlinked and linked again. All other places are updated in place.
+        if (vehicleRentalVertex != null && isMovedOrChanged(vehicleRentalVertex, station)) {
+          removeVertex(station.getId());
+          vehicleRentalVertex = null;
+          ++relinked;
+        }
+
         if (vehicleRentalVertex == null) {
-          vehicleRentalVertex = vertexFactory.vehicleRentalPlace(station);
-          DisposableEdgeCollection tempEdges = linker.linkVertexForRealTime(
-            vehicleRentalVertex,
-            new TraverseModeSet(TraverseMode.WALK),
-            LinkingDirection.BOTH_WAYS,
-            (vertex, streetVertex) ->
-              List.of(
-                StreetVehicleRentalLink.createStreetVehicleRentalLink(
-                  (VehicleRentalPlaceVertex) vertex,
-                  streetVertex
-                ),
-                StreetVehicleRentalLink.createStreetVehicleRentalLink(
-                  streetVertex,
-                  (VehicleRentalPlaceVertex) vertex
-                )
-              )
-          );
-          if (vehicleRentalVertex.getOutgoing().isEmpty()) {
-            // Copy reference to pass into lambda
-            var vrv = vehicleRentalVertex;
-            unlinkedPlaceThrottle.throttle(() ->
-              // the toString includes the text "Bike rental station"
-              LOG.warn(
-                "VehicleRentalPlace is unlinked for {}: {}  {}",
-                nameForLogging,
-                vrv,
-                unlinkedPlaceThrottle.setupInfo()
-              )
-            );
-          }
-          Set<RentalFormFactor> formFactors = Stream
-            .concat(
-              station.getAvailablePickupFormFactors(false).stream(),
-              station.getAvailableDropoffFormFactors(false).stream()
-            )
-            .collect(Collectors.toSet());
-          for (RentalFormFactor formFactor : formFactors) {
-            tempEdges.addEdge(
-              VehicleRentalEdge.createVehicleRentalEdge(vehicleRentalVertex, formFactor)
-            );
-          }
-          verticesByStation.put(station.getId(), vehicleRentalVertex);
-          tempEdgesByStation.put(station.getId(), tempEdges);
+          linkVertex(vertexFactory, station);
+          ++linked;
         } else {
           vehicleRentalVertex.setStation(station);
         }
@@ -226,11 +206,18 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       }
       for (FeedScopedId station : toRemove) {
         // post-iteration removal to avoid concurrent modification
-        verticesByStation.remove(station);
-        tempEdgesByStation.get(station).disposeEdges();
-        tempEdgesByStation.remove(station);
+        removeVertex(station);
       }
 
+      LOG.debug(
+        "Applied {} vehicle rental places for {}: {} linked ({} moved), {} removed.",
+        stations.size(),
+        nameForLogging,
+        linked,
+        relinked,
+        toRemove.size()
+      );
+
       // this check relies on the generated equals for the record which also recursively checks that
       // the JTS geometries are equal
       if (!geofencingZones.isEmpty() && !geofencingZones.equals(latestAppliedGeofencingZones)) {
@@ -239,19 +226,91 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
         latestModifiedEdges.forEach(StreetEdge::removeRentalExtension);
 
-        var updater = new GeofencingVertexUpdater(graph.getStreetIndex()::getEdgesForEnvelope);
-        latestModifiedEdges = updater.applyGeofencingZones(geofencingZones);
+        if (geofencingVertexUpdater == null) {
+          geofencingVertexUpdater =
+            new GeofencingVertexUpdater(graph.getStreetIndex()::getEdgesForEnvelope);
+        }
+        latestModifiedEdges = geofencingVertexUpdater.applyGeofencingZones(geofencingZones);
         latestAppliedGeofencingZones = geofencingZones;
 
         var end = System.currentTimeMillis();
         var millis = Duration.ofMillis(end - start);
+        geofencingTimer.record(millis);
         LOG.info(
-          "Geofencing zones computation took {}. Added extension to {} edges. For {}",
+          "Geofencing zones took {} ({} zones cached). Added extension to {} edges. For {}",
           TimeUtils.durationToStrCompact(millis),
+          geofencingVertexUpdater.cachedGeometries(),
           latestModifiedEdges.size(),
           nameForLogging
         );
       }
     }
+
+    private void linkVertex(VertexFactory vertexFactory, VehicleRentalPlace station) {
+      VehicleRentalPlaceVertex vehicleRentalVertex = vertexFactory.vehicleRentalPlace(station);
+      DisposableEdgeCollection tempEdges = linker.linkVertexForRealTime(
+        vehicleRentalVertex,
+        new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        (vertex, streetVertex) ->
+          List.of(
+            StreetVehicleRentalLink.createStreetVehicleRentalLink(
+              (VehicleRentalPlaceVertex) vertex,
+              streetVertex
+            ),
+            StreetVehicleRentalLink.createStreetVehicleRentalLink(
+              streetVertex,
+              (VehicleRentalPlaceVertex) vertex
+            )
+          )
+      );
+      if (vehicleRentalVertex.getOutgoing().isEmpty()) {
+        unlinkedPlaceThrottle.throttle(() ->
+          // the toString includes the text "Bike rental station"
+          LOG.warn(
+            "VehicleRentalPlace is unlinked for {}: {}  {}",
+            nameForLogging,
+            vehicleRentalVertex,
+            unlinkedPlaceThrottle.setupInfo()
+          )
+        );
+      }
+      for (RentalFormFactor formFactor : formFactors(station)) {
+        tempEdges.addEdge(
+          VehicleRentalEdge.createVehicleRentalEdge(vehicleRentalVertex, formFactor)
+        );
+      }
+      verticesByStation.put(station.getId(), vehicleRentalVertex);
+      tempEdgesByStation.put(station.getId(), tempEdges);
+    }
+
+    private void removeVertex(FeedScopedId station) {
+      verticesByStation.remove(station);
+      tempEdgesByStation.remove(station).disposeEdges();
+    }
+
+    /**
+     * The vertex is linked to the street network at the location of the place, and has one rental
+     * edge for each form factor. If any of these changed, the vertex must be linked again.
+     */
+    private static boolean isMovedOrChanged(
+      VehicleRentalPlaceVertex vertex,
+      VehicleRentalPlace station
+    ) {
+      return (
+        vertex.getLat() != station.getLatitude() ||
+        vertex.getLon() != station.getLongitude() ||
+        !formFactors(vertex.getStation()).equals(formFactors(station))
+      );
+    }
+
+    private static Set<RentalFormFactor> formFactors(VehicleRentalPlace station) {
+      return Stream
+        .concat(
+          station.getAvailablePickupFormFactors(false).stream(),
+          station.getAvailableDropoffFormFactors(false).stream()
+        )
+        .collect(Collectors.toSet());
+    }
   }
 }
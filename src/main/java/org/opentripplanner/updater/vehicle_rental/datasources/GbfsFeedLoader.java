@@ -103,7 +103,8 @@ public class GbfsFeedLoader {
 
   /**
    * Checks if any of the feeds should be updated base on the TTL and fetches. Returns true, if any
-   * feeds were updated.
+   * feeds were updated. A feed is not considered updated if it was fetched, but has the same
+   * {@code last_updated} timestamp as the previous version.
    */
   public boolean update() {
     boolean didUpdate = false;
@@ -114,7 +115,7 @@ public class GbfsFeedLoader {
         if (!success) {
           return false;
         }
-        didUpdate = true;
+        didUpdate |= updater.hasChanged();
       }
     }
 
@@ -156,6 +157,12 @@ public class GbfsFeedLoader {
     private int nextUpdate;
     private T data;
 
+    /** The last_updated timestamp of the current data, null if unknown. */
+    private Integer lastUpdated;
+
+    /** True if the last fetch returned data with another last_updated timestamp. */
+    private boolean changed;
+
     private GBFSFeedUpdater(GBFSFeed feed) {
       url = feed.getUrl();
       implementingClass = (Class<T>) feed.getName().implementingClass();
@@ -165,6 +172,10 @@ public class GbfsFeedLoader {
       return data;
     }
 
+    private boolean hasChanged() {
+      return changed;
+    }
+
     private boolean fetchData() {
       T newData = fetchFeed(url, httpHeaders, implementingClass);
       if (newData == null) {
@@ -177,15 +188,18 @@ public class GbfsFeedLoader {
       try {
         // Fetch lastUpdated and ttl from the resulting class. Due to type erasure we don't know the actual
         // class, and have to use introspection to get the method references, as they do not share a supertype.
-        Integer lastUpdated = (Integer) implementingClass
+        Integer newLastUpdated = (Integer) implementingClass
           .getMethod("getLastUpdated")
           .invoke(newData);
         Integer ttl = (Integer) implementingClass.getMethod("getTtl").invoke(newData);
-        if (lastUpdated == null || ttl == null) {
+        if (newLastUpdated == null || ttl == null) {
           nextUpdate = getCurrentTimeSeconds();
         } else {
-          nextUpdate = lastUpdated + ttl;
+          nextUpdate = newLastUpdated + ttl;
         }
+        // Without a timestamp we can not tell if the content is the same
+        changed = newLastUpdated == null || !newLastUpdated.equals(lastUpdated);
+        lastUpdated = newLastUpdated;
       } catch (
         NoSuchMethodException
         | InvocationTargetException
@@ -194,6 +208,8 @@ public class GbfsFeedLoader {
       ) {
         LOG.error("Invalid lastUpdated or ttl for {}", url);
         nextUpdate = getCurrentTimeSeconds();
+        changed = true;
+        lastUpdated = null;
       }
       return true;
     }
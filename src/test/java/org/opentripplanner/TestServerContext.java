@@ -50,6 +50,9 @@ public class TestServerContext {
       routerConfig.flexConfig(),
       List.of(),
       null,
+      null,
+      null,
+      null,
       null
     );
     creatTransitLayerForRaptor(transitModel, routerConfig.transitTuningConfig());
@@ -16,12 +16,14 @@ import static org.opentripplanner.transit.model.basic.TransitMode.BUS;
 import static org.opentripplanner.transit.model.basic.TransitMode.FERRY;
 import static org.opentripplanner.transit.model.timetable.OccupancyStatus.FEW_SEATS_AVAILABLE;
 
+import gnu.trove.set.hash.TIntHashSet;
 import jakarta.ws.rs.core.Response;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
@@ -38,6 +40,7 @@ import org.opentripplanner._support.text.I18NStrings;
 import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.ext.fares.FaresToItineraryMapper;
 import org.opentripplanner.ext.fares.impl.DefaultFareService;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.collection.ListUtils;
 import org.opentripplanner.framework.geometry.WgsCoordinate;
 import org.opentripplanner.framework.i18n.I18NString;
@@ -151,6 +154,11 @@ class GraphQLIntegrationTest {
 
     transitModel.initTimeZone(ZoneIds.BERLIN);
     transitModel.index();
+    // the trip runs on a single day, used by the departure board query
+    transitModel
+      .getTransitModelIndex()
+      .getServiceCodesRunningForDate()
+      .put(LocalDate.of(2023, 11, 15), new TIntHashSet(new int[] { tripTimes.getServiceCode() }));
     var routes = Arrays
       .stream(TransitMode.values())
       .sorted(Comparator.comparing(Enum::name))
@@ -282,7 +290,8 @@ class GraphQLIntegrationTest {
         defaultVehicleRentalService,
         realtimeVehicleService,
         finder,
-        new RouteRequest()
+        new RouteRequest(),
+        CancellationToken.create()
       );
   }
 
@@ -294,6 +303,7 @@ class GraphQLIntegrationTest {
       query,
       null,
       null,
+      null,
       2000,
       2000,
       Locale.ENGLISH,
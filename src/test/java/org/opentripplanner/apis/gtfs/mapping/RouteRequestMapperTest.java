@@ -22,6 +22,7 @@ import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.apis.gtfs.GraphQLRequestContext;
 import org.opentripplanner.apis.gtfs.TestRoutingService;
 import org.opentripplanner.ext.fares.impl.DefaultFareService;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.model.plan.PlanTestConstants;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.preference.TimeSlopeSafetyTriangle;
@@ -54,7 +55,8 @@ class RouteRequestMapperTest implements PlanTestConstants {
         new DefaultVehicleRentalService(),
         new DefaultRealtimeVehicleService(transitService),
         GraphFinder.getInstance(graph, transitService::findRegularStop),
-        new RouteRequest()
+        new RouteRequest(),
+        CancellationToken.create()
       );
   }
 
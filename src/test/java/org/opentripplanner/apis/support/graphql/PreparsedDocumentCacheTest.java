@@ -0,0 +1,121 @@
+package org.opentripplanner.apis.support.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PreparsedDocumentCacheTest {
+
+  private static final String QUERY = "query Hello { hello }";
+
+  private final GraphQLSchema schema = new SchemaGenerator()
+    .makeExecutableSchema(
+      new SchemaParser().parse("type Query { hello: String }"),
+      RuntimeWiring
+        .newRuntimeWiring()
+        .type("Query", b -> b.dataFetcher("hello", env -> "world"))
+        .build()
+    );
+
+  private final PreparsedDocumentCache subject = new PreparsedDocumentCache(10, 10);
+
+  private final GraphQL graphQL = GraphQL
+    .newGraphQL(schema)
+    .preparsedDocumentProvider(subject.forSchema(schema))
+    .build();
+
+  @Test
+  void documentIsParsedAndValidatedOnce() {
+    var first = input(QUERY, "Hello", Map.of());
+    assertHello(graphQL.execute(first));
+    assertNull(first.getGraphQLContext().get(PreparsedDocumentCache.PARSE_AND_VALIDATE_TIME_SAVED));
+
+    var second = input(QUERY, "Hello", Map.of());
+    assertHello(graphQL.execute(second));
+    assertNotNull(
+      second.getGraphQLContext().get(PreparsedDocumentCache.PARSE_AND_VALIDATE_TIME_SAVED)
+    );
+    assertEquals(1, subject.size());
+
+    // The operation name is part of the key
+    assertHello(graphQL.execute(input(QUERY, null, Map.of())));
+    assertEquals(2, subject.size());
+  }
+
+  @Test
+  void invalidDocumentsAreNotCached() {
+    var result = graphQL.execute(input("{ goodbye }", null, Map.of()));
+    assertFalse(result.getErrors().isEmpty());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void automaticPersistedQuery() {
+    var hashOnly = input(PersistedQuerySupport.PERSISTED_QUERY_MARKER, null, persisted(sha256()));
+
+    // The hash is not known yet
+    var result = graphQL.execute(hashOnly);
+    assertEquals("PersistedQueryNotFound", result.getErrors().get(0).getMessage());
+
+    // The client sends the query text together with the hash
+    assertHello(graphQL.execute(input(QUERY, null, persisted(sha256()))));
+
+    // Later the hash is enough
+    assertHello(graphQL.execute(hashOnly));
+  }
+
+  @Test
+  void persistedQueryWithWrongHash() {
+    var result = graphQL.execute(input(QUERY, null, persisted("0123456789abcdef")));
+    assertEquals("PersistedQueryIdInvalid", result.getErrors().get(0).getMessage());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void persistedQueryHash() {
+    assertNull(PreparsedDocumentCache.persistedQueryHash(null));
+    assertNull(PreparsedDocumentCache.persistedQueryHash(Map.of()));
+    assertEquals("abc", PreparsedDocumentCache.persistedQueryHash(persisted("abc")));
+  }
+
+  private static ExecutionInput input(
+    String query,
+    String operationName,
+    Map<String, Object> extensions
+  ) {
+    return ExecutionInput
+      .newExecutionInput()
+      .query(query)
+      .operationName(operationName)
+      .extensions(extensions)
+      .build();
+  }
+
+  private static Map<String, Object> persisted(String hash) {
+    return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+  }
+
+  private static String sha256() {
+    return Hashing.sha256().hashString(QUERY, StandardCharsets.UTF_8).toString();
+  }
+
+  private static void assertHello(ExecutionResult result) {
+    assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+    assertEquals(Map.of("hello", "world"), result.getData());
+  }
+}
@@ -132,6 +132,9 @@ public class TripRequestMapperTest implements PlanTestConstants {
           RouterConfig.DEFAULT.flexConfig(),
           List.of(),
           null,
+          null,
+          null,
+          null,
           null
         ),
         null,
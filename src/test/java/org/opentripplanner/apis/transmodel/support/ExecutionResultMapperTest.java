@@ -34,6 +34,16 @@ class ExecutionResultMapperTest {
     "}"
   );
 
+  private static String SERVICE_UNAVAILABLE_RESPONSE = quoteReplace(
+    "{" +
+    "'errors':[{" +
+    "'message':'The server is overloaded, please try again later.'," +
+    "'locations':[]," +
+    "'extensions':{'classification':'ServiceUnavailable'}" +
+    "}]" +
+    "}"
+  );
+
   public static final String SYSTEM_ERROR_MESSAGE = "A system error!";
 
   public static final String SYSTEM_ERROR_RESPONSE = quoteReplace(
@@ -62,6 +72,13 @@ class ExecutionResultMapperTest {
     assertEquals(TIMEOUT_RESPONSE, response.getEntity().toString());
   }
 
+  @Test
+  void serviceUnavailableResponse() {
+    var response = ExecutionResultMapper.serviceUnavailableResponse();
+    assertEquals(503, response.getStatus());
+    assertEquals(SERVICE_UNAVAILABLE_RESPONSE, response.getEntity().toString());
+  }
+
   @Test
   void systemErrorResponse() {
     var response = ExecutionResultMapper.systemErrorResponse(SYSTEM_ERROR_MESSAGE);
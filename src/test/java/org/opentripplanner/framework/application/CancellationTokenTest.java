@@ -0,0 +1,70 @@
+package org.opentripplanner.framework.application;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class CancellationTokenTest {
+
+  private final CancellationToken subject = CancellationToken.create();
+
+  @Test
+  void cancel() {
+    assertFalse(subject.isCancelled());
+    assertDoesNotThrow(subject::throwIfCancelled);
+
+    subject.cancel();
+
+    assertTrue(subject.isCancelled());
+    assertThrows(OTPRequestCancelledException.class, subject::throwIfCancelled);
+  }
+
+  @Test
+  void noneIsNeverCancelled() {
+    CancellationToken.NONE.cancel();
+
+    assertFalse(CancellationToken.NONE.isCancelled());
+  }
+
+  @Test
+  void bind() {
+    assertSame(CancellationToken.NONE, CancellationToken.current());
+
+    try (var ignore = subject.bind()) {
+      assertSame(subject, CancellationToken.current());
+
+      var other = CancellationToken.create();
+      try (var ignoreOther = other.bind()) {
+        assertSame(other, CancellationToken.current());
+      }
+      assertSame(subject, CancellationToken.current());
+    }
+    assertSame(CancellationToken.NONE, CancellationToken.current());
+  }
+
+  @Test
+  void wrapBindsTheTokenToTheThreadRunningTheTask() throws InterruptedException {
+    var tokenInTask = new AtomicReference<CancellationToken>();
+    var thread = new Thread(subject.wrap(() -> tokenInTask.set(CancellationToken.current())));
+
+    thread.start();
+    thread.join();
+
+    assertSame(subject, tokenInTask.get());
+  }
+
+  @Test
+  void checkForTimeoutChecksTheCurrentToken() {
+    subject.cancel();
+
+    assertDoesNotThrow(OTPRequestTimeoutException::checkForTimeout);
+    try (var ignore = subject.bind()) {
+      assertThrows(OTPRequestCancelledException.class, OTPRequestTimeoutException::checkForTimeout);
+    }
+  }
+}
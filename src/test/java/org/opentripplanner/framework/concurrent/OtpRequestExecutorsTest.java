@@ -0,0 +1,51 @@
+package org.opentripplanner.framework.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+
+class OtpRequestExecutorsTest {
+
+  @Test
+  void platformThreadsByDefault() {
+    OTPFeature.VirtualThreads.testOff(() -> {
+      var executor = OtpRequestExecutors.newCachedThreadPool("test-%d");
+      var thread = currentThread(executor);
+
+      assertFalse(thread.isVirtual());
+      assertTrue(thread.getName().startsWith("test-"), thread.getName());
+      assertSame(ForkJoinPool.commonPool(), OtpRequestExecutors.asyncExecutor());
+      executor.shutdown();
+    });
+  }
+
+  @Test
+  void virtualThreads() {
+    OTPFeature.VirtualThreads.testOn(() -> {
+      var executor = OtpRequestExecutors.newCachedThreadPool("test-%d");
+      var thread = currentThread(executor);
+
+      assertTrue(thread.isVirtual());
+      assertTrue(thread.getName().startsWith("test-"), thread.getName());
+      var asyncThread = CompletableFuture
+        .supplyAsync(Thread::currentThread, OtpRequestExecutors.asyncExecutor())
+        .join();
+      assertTrue(asyncThread.isVirtual());
+      executor.shutdown();
+    });
+  }
+
+  private static Thread currentThread(ExecutorService executor) {
+    try {
+      return executor.submit(Thread::currentThread).get();
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
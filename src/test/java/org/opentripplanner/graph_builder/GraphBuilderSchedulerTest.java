@@ -0,0 +1,133 @@
+package org.opentripplanner.graph_builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.ELEVATION;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.STREET_GRAPH;
+import static org.opentripplanner.graph_builder.model.GraphBuilderResource.TRANSIT_MODEL;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.model.GraphBuilderResource;
+
+class GraphBuilderSchedulerTest {
+
+  private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+
+  @Test
+  void dependencies() {
+    var osm = new TestModule("osm", Set.of(), Set.of(STREET_GRAPH));
+    var gtfs = new TestModule("gtfs", Set.of(), Set.of(TRANSIT_MODEL));
+    var elevation = new TestModule("elevation", Set.of(STREET_GRAPH), Set.of(ELEVATION));
+    var undeclared = new GraphBuilderModule() {
+      @Override
+      public void buildGraph() {}
+    };
+    var namer = new TestModule("namer", Set.of(), Set.of(TRANSIT_MODEL));
+
+    assertEquals(
+      List.of(List.of(), List.of(), List.of(0), List.of(0, 1, 2), List.of(1, 3)),
+      GraphBuilderScheduler.dependencies(List.of(osm, gtfs, elevation, undeclared, namer))
+    );
+  }
+
+  @Test
+  void independentModulesRunInParallel() {
+    var latch = new CountDownLatch(2);
+    Runnable awaitOther = () -> {
+      latch.countDown();
+      try {
+        assertTrue(latch.await(10, TimeUnit.SECONDS), "The other module did not run");
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    };
+    var osm = new TestModule("osm", Set.of(), Set.of(STREET_GRAPH), awaitOther);
+    var gtfs = new TestModule("gtfs", Set.of(), Set.of(TRANSIT_MODEL), awaitOther);
+
+    var subject = new GraphBuilderScheduler(List.of(osm, gtfs), true);
+    subject.run();
+
+    assertEquals(Set.of("osm", "gtfs"), Set.copyOf(log));
+    assertEquals(2, subject.timeline().size());
+  }
+
+  @Test
+  void dependentModulesRunInOrder() {
+    var modules = new ArrayList<GraphBuilderModule>();
+    for (int i = 0; i < 10; ++i) {
+      modules.add(new TestModule("m" + i, Set.of(STREET_GRAPH), Set.of(ELEVATION)));
+    }
+
+    new GraphBuilderScheduler(modules, true).run();
+
+    assertEquals(List.of("m0", "m1", "m2", "m3", "m4", "m5", "m6", "m7", "m8", "m9"), log);
+  }
+
+  @Test
+  void failureIsPropagated() {
+    var failing = new TestModule(
+      "osm",
+      Set.of(),
+      Set.of(STREET_GRAPH),
+      () -> {
+        throw new IllegalStateException("OSM failed");
+      }
+    );
+    var elevation = new TestModule("elevation", Set.of(STREET_GRAPH), Set.of(ELEVATION));
+
+    var ex = assertThrows(
+      IllegalStateException.class,
+      () -> new GraphBuilderScheduler(List.of(failing, elevation), true).run()
+    );
+    assertEquals("OSM failed", ex.getMessage());
+    assertEquals(List.of(), log);
+  }
+
+  private class TestModule implements GraphBuilderModule {
+
+    private final String name;
+    private final Set<GraphBuilderResource> reads;
+    private final Set<GraphBuilderResource> writes;
+    private final Runnable body;
+
+    TestModule(String name, Set<GraphBuilderResource> reads, Set<GraphBuilderResource> writes) {
+      this(name, reads, writes, () -> {});
+    }
+
+    TestModule(
+      String name,
+      Set<GraphBuilderResource> reads,
+      Set<GraphBuilderResource> writes,
+      Runnable body
+    ) {
+      this.name = name;
+      this.reads = reads;
+      this.writes = writes;
+      this.body = body;
+    }
+
+    @Override
+    public Set<GraphBuilderResource> reads() {
+      return reads;
+    }
+
+    @Override
+    public Set<GraphBuilderResource> writes() {
+      return writes;
+    }
+
+    @Override
+    public void buildGraph() {
+      body.run();
+      log.add(name);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package org.opentripplanner.graph_builder.issue.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class DefaultDataImportIssueStoreTest {
+
+  private final DefaultDataImportIssueStore subject = new DefaultDataImportIssueStore();
+
+  @Test
+  void sourceIsPassedOnToWorkerThreads() throws InterruptedException, ExecutionException {
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      subject.startProcessingSource("stops.xml");
+      executor
+        .submit(
+          subject.withCurrentSource(() -> {
+            subject.add("Issue", "In worker");
+            return null;
+          })
+        )
+        .get();
+      subject.stopProcessingSource();
+
+      // The source is not kept by the worker thread
+      executor
+        .submit(() -> {
+          subject.add("Issue", "Without source");
+          return null;
+        })
+        .get();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    var issues = subject.listIssues();
+    assertEquals(2, issues.size());
+    assertEquals("In worker - stops.xml", issues.get(0).getMessage());
+    assertEquals("Without source", issues.get(1).getMessage());
+  }
+}
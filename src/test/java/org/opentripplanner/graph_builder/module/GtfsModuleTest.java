@@ -3,6 +3,9 @@ package org.opentripplanner.graph_builder.module;
 import static graphql.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Nested;
@@ -11,12 +14,16 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.ext.fares.impl.DefaultFareServiceFactory;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.gtfs.graphbuilder.GtfsBundle;
 import org.opentripplanner.gtfs.graphbuilder.GtfsModule;
 import org.opentripplanner.model.calendar.ServiceDateInterval;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.test.support.ResourceLoader;
 import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
 import org.opentripplanner.transit.service.TransitModel;
 
@@ -53,6 +60,86 @@ class GtfsModuleTest {
     assertNotNull(pattern.getHopGeometry(0));
   }
 
+  /**
+   * The bundles are read ahead in parallel, but mapped in order, so the transit model must be the
+   * same as when the bundles are read one by one. The first two bundles have the same feed id and
+   * agency id, so the agency id of the second bundle is replaced while the next bundle is read.
+   */
+  @Test
+  public void readingAheadBuildsTheSameTransitModel() {
+    var sequential = buildMultiFeedModel(0);
+    var readAhead = buildMultiFeedModel(2);
+
+    assertEquals(
+      List.of("agency A:F1", "agency A:TEST", "agency C:agency"),
+      describe(sequential.transitModel).stream().filter(it -> it.startsWith("agency")).toList()
+    );
+    assertEquals(describe(sequential.transitModel), describe(readAhead.transitModel));
+  }
+
+  private static TestModels buildMultiFeedModel(int bundlesReadAhead) {
+    var model = buildTestModel();
+    var resources = ResourceLoader.of(GtfsModuleTest.class);
+    var bundles = List.of(
+      bundle(resources.file("/gtfs/interlining"), "A"),
+      bundle(resources.file("/gtfs/agency_id_conflict"), "A"),
+      bundle(ConstantsForTests.SIMPLE_GTFS, "C")
+    );
+    new GtfsModule(
+      bundles,
+      model.transitModel,
+      model.graph,
+      DataImportIssueStore.NOOP,
+      ServiceDateInterval.unbounded(),
+      new DefaultFareServiceFactory(),
+      bundlesReadAhead
+    )
+      .buildGraph();
+    return model;
+  }
+
+  private static GtfsBundle bundle(File file, String feedId) {
+    var bundle = new GtfsBundle(file);
+    bundle.setFeedId(new GtfsFeedId.Builder().id(feedId).build());
+    return bundle;
+  }
+
+  /**
+   * List the agencies, the stops with their index and the patterns with their stops and trip
+   * times in a stable order, so two transit models can be compared.
+   */
+  private static List<String> describe(TransitModel transitModel) {
+    var result = new ArrayList<String>();
+    transitModel
+      .getAgencies()
+      .stream()
+      .map(it -> "agency " + it.getId())
+      .sorted()
+      .forEach(result::add);
+    transitModel
+      .getStopModel()
+      .listStopLocations()
+      .stream()
+      .sorted(Comparator.comparing(StopLocation::getIndex))
+      .map(it -> "stop " + it.getIndex() + " " + it.getId())
+      .forEach(result::add);
+    transitModel
+      .getAllTripPatterns()
+      .stream()
+      .sorted(Comparator.comparing(TripPattern::getId))
+      .forEach(pattern -> {
+        result.add("pattern " + pattern.getId() + " " + pattern.getStops());
+        for (var tripTimes : pattern.getScheduledTimetable().getTripTimes()) {
+          var times = new StringBuilder("trip " + tripTimes.getTrip().getId());
+          for (int i = 0; i < tripTimes.getNumStops(); i++) {
+            times.append(' ').append(tripTimes.getScheduledDepartureTime(i));
+          }
+          result.add(times.toString());
+        }
+      });
+    return result;
+  }
+
   private static TestModels buildTestModel() {
     var deduplicator = new Deduplicator();
     var stopModel = new StopModel();
@@ -0,0 +1,159 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
+import static org.opentripplanner.street.model.StreetTraversalPermission.CAR;
+import static org.opentripplanner.street.model.StreetTraversalPermission.PEDESTRIAN;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertexBuilder;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.transit.service.TransitModel;
+
+/**
+ * Linking the stops in parallel, tile by tile, gives the same links as linking them one at a time.
+ * The street grid spans several tiles, and has streets on the tile borders, so some stops are
+ * linked in the shifted tiles and some at the end.
+ */
+class ParallelStopLinkingTest {
+
+  private static final int GRID_SIZE = 20;
+  private static final double GRID_SPACING = 0.01;
+  private static final double MIN_LON = 10.0;
+  private static final double MIN_LAT = 59.9;
+  private static final int N_STOPS = 300;
+
+  @Test
+  void sameLinksAsSequentialLinking() {
+    var expected = new ArrayList<Links>();
+    var actual = new ArrayList<Links>();
+
+    OTPFeature.ParallelStopLinking.testOff(() -> expected.add(link()));
+    OTPFeature.ParallelStopLinking.testOn(() -> actual.add(link()));
+
+    assertEquals(expected.getFirst().nVertices(), actual.getFirst().nVertices());
+    assertEquals(expected.getFirst().nEdges(), actual.getFirst().nEdges());
+    assertEquals(expected.getFirst().coordinates(), actual.getFirst().coordinates());
+    assertEquals(N_STOPS, actual.getFirst().coordinates().size());
+  }
+
+  @Test
+  void sameSplitLabelsInEveryRun() {
+    var first = new ArrayList<Links>();
+    var second = new ArrayList<Links>();
+
+    OTPFeature.ParallelStopLinking.testOn(() -> {
+      first.add(link());
+      second.add(link());
+    });
+
+    assertEquals(first.getFirst().labels(), second.getFirst().labels());
+    assertTrue(
+      first
+        .getFirst()
+        .labels()
+        .values()
+        .stream()
+        .flatMap(List::stream)
+        .anyMatch(label -> label.matches("split_\\d+_\\d+_\\d+"))
+    );
+  }
+
+  /**
+   * Link the same random stops to a grid of streets. Every third street is for cars only, so the
+   * walk links of some stops are not to the closest street, and every third is for pedestrians.
+   */
+  private static Links link() {
+    var graph = new Graph();
+    var vertices = new IntersectionVertex[GRID_SIZE + 1][GRID_SIZE + 1];
+    for (int i = 0; i <= GRID_SIZE; ++i) {
+      for (int j = 0; j <= GRID_SIZE; ++j) {
+        vertices[i][j] =
+          StreetModelForTest.intersectionVertex(
+            MIN_LON + i * GRID_SPACING,
+            MIN_LAT + j * GRID_SPACING
+          );
+        graph.addVertex(vertices[i][j]);
+      }
+    }
+    for (int i = 0; i <= GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        StreetTraversalPermission permission = i % 3 == 1 ? CAR : (i % 3 == 2 ? PEDESTRIAN : ALL);
+        connect(vertices[i][j], vertices[i][j + 1], permission);
+        connect(vertices[j][i], vertices[j + 1][i], permission);
+      }
+    }
+
+    var random = new Random(42);
+    var stopModel = StopModel.of();
+    for (int i = 0; i < N_STOPS; ++i) {
+      var stop = stopModel
+        .regularStop(id("S" + i))
+        .withCoordinate(
+          MIN_LAT + random.nextDouble() * GRID_SIZE * GRID_SPACING,
+          MIN_LON + random.nextDouble() * GRID_SIZE * GRID_SPACING
+        )
+        .build();
+      stopModel.withRegularStop(stop);
+      graph.addVertex(new TransitStopVertexBuilder().withStop(stop).build());
+    }
+    graph.hasStreets = true;
+
+    var transitModel = new TransitModel(stopModel.build(), new Deduplicator());
+    new StreetLinkerModule(graph, transitModel, DataImportIssueStore.NOOP, false).buildGraph();
+
+    return new Links(
+      graph.countVertices(),
+      graph.countEdges(),
+      linked(graph, v -> String.format(Locale.ROOT, "%.7f,%.7f", v.getLon(), v.getLat())),
+      linked(graph, v -> v.getLabel().toString())
+    );
+  }
+
+  private static void connect(
+    IntersectionVertex a,
+    IntersectionVertex b,
+    StreetTraversalPermission permission
+  ) {
+    StreetModelForTest.streetEdge(a, b, permission);
+    StreetModelForTest.streetEdge(b, a, permission);
+  }
+
+  /** The street vertices each stop is linked to, by stop label. */
+  private static Map<String, List<String>> linked(Graph graph, Function<Vertex, String> mapper) {
+    var linked = new TreeMap<String, List<String>>();
+    for (TransitStopVertex stop : graph.getVerticesOfType(TransitStopVertex.class)) {
+      linked.put(
+        stop.getLabel().toString(),
+        stop.getOutgoing().stream().map(Edge::getToVertex).map(mapper).sorted().toList()
+      );
+    }
+    return linked;
+  }
+
+  private record Links(
+    int nVertices,
+    int nEdges,
+    Map<String, List<String>> coordinates,
+    Map<String, List<String>> labels
+  ) {}
+}
@@ -0,0 +1,40 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+class TilePartitionTest {
+
+  private static final Map<String, Envelope> ENVELOPES = Map.of(
+    "A",
+    new Envelope(10.01, 10.02, 60.01, 60.02),
+    "B",
+    new Envelope(10.11, 10.12, 60.01, 60.02),
+    "C",
+    new Envelope(10.04, 10.06, 60.03, 60.04),
+    "D",
+    new Envelope(10.09, 10.11, 60.01, 60.02),
+    "E",
+    new Envelope(10.01, 10.02, 60.09, 60.11)
+  );
+
+  @Test
+  void itemsInsideATileAreGroupedInOrder() {
+    var subject = TilePartition.of(List.of("A", "B", "C", "D", "E"), ENVELOPES::get, 0.1, 0);
+
+    assertEquals(List.of(List.of("A", "C"), List.of("B")), subject.tiles());
+    assertEquals(List.of("D", "E"), subject.crossingTileBorders());
+  }
+
+  @Test
+  void shiftedTiles() {
+    var subject = TilePartition.of(List.of("A", "B", "C", "D", "E"), ENVELOPES::get, 0.1, 0.05);
+
+    assertEquals(List.of(List.of("A"), List.of("B", "D"), List.of("E")), subject.tiles());
+    assertEquals(List.of("C"), subject.crossingTileBorders());
+  }
+}
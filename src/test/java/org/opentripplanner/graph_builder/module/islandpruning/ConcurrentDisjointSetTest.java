@@ -0,0 +1,36 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentDisjointSetTest {
+
+  @Test
+  void rootIsTheSmallestElement() {
+    var subject = new ConcurrentDisjointSet(6);
+
+    subject.union(5, 3);
+    subject.union(4, 2);
+    subject.union(3, 4);
+
+    assertEquals(2, subject.find(5));
+    assertEquals(2, subject.find(3));
+    assertEquals(1, subject.find(1));
+    assertEquals(0, subject.find(0));
+  }
+
+  @Test
+  void parallelUnions() {
+    int size = 100_000;
+    var subject = new ConcurrentDisjointSet(size);
+
+    // Join the even and the odd elements in two chains, in parallel
+    IntStream.range(2, size).parallel().forEach(i -> subject.union(i, i - 2));
+
+    for (int i = 0; i < size; ++i) {
+      assertEquals(i % 2, subject.find(i));
+    }
+  }
+}
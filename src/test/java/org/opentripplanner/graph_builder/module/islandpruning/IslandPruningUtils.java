@@ -1,6 +1,7 @@
 package org.opentripplanner.graph_builder.module.islandpruning;
 
 import java.io.File;
+import java.util.function.Consumer;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.module.osm.OsmModule;
 import org.opentripplanner.openstreetmap.OsmProvider;
@@ -17,6 +18,47 @@ class IslandPruningUtils {
     int thresholdIslandWithStops,
     double adaptivePruningFactor,
     int adaptivePruningDistance
+  ) {
+    return buildOsmGraph(
+      osmFile,
+      thresholdIslandWithoutStops,
+      thresholdIslandWithStops,
+      adaptivePruningFactor,
+      adaptivePruningDistance,
+      DataImportIssueStore.NOOP
+    );
+  }
+
+  static Graph buildOsmGraph(
+    File osmFile,
+    int thresholdIslandWithoutStops,
+    int thresholdIslandWithStops,
+    double adaptivePruningFactor,
+    int adaptivePruningDistance,
+    DataImportIssueStore issueStore
+  ) {
+    return buildOsmGraph(
+      osmFile,
+      thresholdIslandWithoutStops,
+      thresholdIslandWithStops,
+      adaptivePruningFactor,
+      adaptivePruningDistance,
+      issueStore,
+      graph -> {}
+    );
+  }
+
+  /**
+   * @param addStops called with the street graph before the islands are pruned
+   */
+  static Graph buildOsmGraph(
+    File osmFile,
+    int thresholdIslandWithoutStops,
+    int thresholdIslandWithStops,
+    double adaptivePruningFactor,
+    int adaptivePruningDistance,
+    DataImportIssueStore issueStore,
+    Consumer<Graph> addStops
   ) {
     try {
       var deduplicator = new Deduplicator();
@@ -27,6 +69,7 @@ class IslandPruningUtils {
       OsmModule osmModule = OsmModule.of(osmProvider, graph).withEdgeNamer(new TestNamer()).build();
 
       osmModule.buildGraph();
+      addStops.accept(graph);
 
       transitModel.index();
       graph.index(transitModel.getStopModel());
@@ -35,7 +78,7 @@ class IslandPruningUtils {
       PruneIslands pruneIslands = new PruneIslands(
         graph,
         transitModel,
-        DataImportIssueStore.NOOP,
+        issueStore,
         null
       );
       pruneIslands.setPruningThresholdIslandWithoutStops(thresholdIslandWithoutStops);
@@ -0,0 +1,254 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.graph_builder.module.islandpruning.IslandPruningUtils.buildOsmGraph;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.StreetTransitStopLink;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertexBuilder;
+import org.opentripplanner.test.support.ResourceLoader;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.service.StopModel;
+
+/**
+ * The islands found with union-find are pruned in the same way as the islands found with the
+ * searches, on the test graphs.
+ */
+class ParallelIslandDetectionTest {
+
+  @Test
+  void noThruIslands() {
+    assertSamePruning("herrenberg-island-prune-nothru.osm.pbf", 10, 2, 50, 250);
+  }
+
+  @Test
+  void adaptivePruning() {
+    assertSamePruning("isoiiluoto.pbf", 5, 0, 20, 30);
+  }
+
+  @Test
+  void escalators() {
+    assertSamePruning("matinkyla-escalator.pbf", 10, 2, 50, 250);
+  }
+
+  @Test
+  void linkedStops() {
+    assertSamePruning("herrenberg-island-prune-nothru.osm.pbf", 10, 2, 50, 250, true);
+    assertSamePruning("herrenberg-island-prune-nothru.osm.pbf", 10, 5, 1, 250, true);
+    assertSamePruning("isoiiluoto.pbf", 5, 3, 1, 30, true);
+  }
+
+  /**
+   * Compare the pruning, the time and the peak heap of the two ways of finding the islands on a
+   * large graph, with the default pruning parameters. Run this manually with a big heap and the
+   * path of a regional OSM extract, for example
+   * {@code -Dotp.test.islandPruning.osmFile=/data/norway-latest.osm.pbf}.
+   */
+  @Test
+  @Disabled("Run this test manually")
+  void compareOnRegionalGraph() {
+    var file = new File(System.getProperty("otp.test.islandPruning.osmFile"));
+    var expected = new Result();
+    var actual = new Result();
+
+    OTPFeature.ParallelIslandDetection.testOff(() ->
+      expected.build(measurePruning("Search", file, expected.issueStore))
+    );
+    OTPFeature.ParallelIslandDetection.testOn(() ->
+      actual.build(measurePruning("Union-find", file, actual.issueStore))
+    );
+
+    assertEquals(expected.issues(), actual.issues());
+    assertEquals(expected.edges, actual.edges);
+  }
+
+  private static void assertSamePruning(
+    String osmFile,
+    int thresholdIslandWithoutStops,
+    int thresholdIslandWithStops,
+    double adaptivePruningFactor,
+    int adaptivePruningDistance
+  ) {
+    assertSamePruning(
+      osmFile,
+      thresholdIslandWithoutStops,
+      thresholdIslandWithStops,
+      adaptivePruningFactor,
+      adaptivePruningDistance,
+      false
+    );
+  }
+
+  private static void assertSamePruning(
+    String osmFile,
+    int thresholdIslandWithoutStops,
+    int thresholdIslandWithStops,
+    double adaptivePruningFactor,
+    int adaptivePruningDistance,
+    boolean withStops
+  ) {
+    Consumer<Graph> addStops = withStops ? ParallelIslandDetectionTest::addStops : graph -> {};
+    var file = ResourceLoader.of(ParallelIslandDetectionTest.class).file(osmFile);
+    var expected = new Result();
+    var actual = new Result();
+
+    OTPFeature.ParallelIslandDetection.testOff(() ->
+      expected.build(
+        buildOsmGraph(
+          file,
+          thresholdIslandWithoutStops,
+          thresholdIslandWithStops,
+          adaptivePruningFactor,
+          adaptivePruningDistance,
+          expected.issueStore,
+          addStops
+        )
+      )
+    );
+    OTPFeature.ParallelIslandDetection.testOn(() ->
+      actual.build(
+        buildOsmGraph(
+          file,
+          thresholdIslandWithoutStops,
+          thresholdIslandWithStops,
+          adaptivePruningFactor,
+          adaptivePruningDistance,
+          actual.issueStore,
+          addStops
+        )
+      )
+    );
+
+    assertFalse(expected.issues().isEmpty());
+    assertEquals(expected.issues(), actual.issues());
+    assertEquals(expected.edges, actual.edges);
+  }
+
+  /**
+   * Build the graph and print the time and the peak heap used from the start of the pruning. The
+   * peak is the sum of the peaks of the heap memory pools, so it is an upper bound.
+   */
+  private static Graph measurePruning(String name, File file, DataImportIssueStore issueStore) {
+    var heapPools = ManagementFactory
+      .getMemoryPoolMXBeans()
+      .stream()
+      .filter(it -> it.getType() == MemoryType.HEAP)
+      .toList();
+    var start = new long[1];
+    var graph = buildOsmGraph(
+      file,
+      10,
+      2,
+      50,
+      250,
+      issueStore,
+      g -> {
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        start[0] = System.nanoTime();
+      }
+    );
+    long peakHeap = heapPools.stream().mapToLong(it -> it.getPeakUsage().getUsed()).sum();
+    System.err.printf(
+      Locale.ROOT,
+      "%s: pruned the islands in %d ms, peak heap %d MB%n",
+      name,
+      (System.nanoTime() - start[0]) / 1_000_000,
+      peakHeap >> 20
+    );
+    return graph;
+  }
+
+  /**
+   * Add a stop at every seventh street vertex. Every third stop is also linked to the next
+   * vertex, which is often in another island, so some stops are shared by two islands.
+   */
+  private static void addStops(Graph graph) {
+    var streetVertices = graph
+      .getVerticesOfType(StreetVertex.class)
+      .stream()
+      .sorted(Comparator.comparing(v -> v.getLabel().toString()))
+      .toList();
+    var stopModel = StopModel.of();
+    for (int i = 0; i + 1 < streetVertices.size(); i += 7) {
+      var streetVertex = streetVertices.get(i);
+      var stop = stopModel
+        .regularStop(id("S" + i))
+        .withCoordinate(streetVertex.getLat(), streetVertex.getLon())
+        .build();
+      var stopVertex = new TransitStopVertexBuilder()
+        .withStop(stop)
+        .withModes(Set.of(TransitMode.BUS))
+        .build();
+      graph.addVertex(stopVertex);
+      link(stopVertex, streetVertex);
+      if (i % 3 == 0) {
+        link(stopVertex, streetVertices.get(i + 1));
+      }
+    }
+  }
+
+  private static void link(TransitStopVertex stop, StreetVertex streetVertex) {
+    StreetTransitStopLink.createStreetTransitStopLink(stop, streetVertex);
+    StreetTransitStopLink.createStreetTransitStopLink(streetVertex, stop);
+  }
+
+  private static class Result {
+
+    private final DefaultDataImportIssueStore issueStore = new DefaultDataImportIssueStore();
+    private List<String> edges;
+
+    void build(Graph graph) {
+      edges =
+        graph
+          .getStreetEdges()
+          .stream()
+          .map(e ->
+            String.join(
+              " ",
+              e.getFromVertex().getLabelString(),
+              e.getToVertex().getLabelString(),
+              e.getPermission().toString(),
+              Boolean.toString(e.isWalkNoThruTraffic()),
+              Boolean.toString(e.isBicycleNoThruTraffic()),
+              Boolean.toString(e.isMotorVehicleNoThruTraffic())
+            )
+          )
+          .sorted()
+          .toList();
+    }
+
+    /**
+     * The vertex which represents an island is the first in a hash set of vertices, which are
+     * hashed by identity. So it changes from one build to another, and is left out.
+     */
+    List<String> issues() {
+      return issueStore
+        .listIssues()
+        .stream()
+        .map(DataImportIssue::getMessage)
+        .map(it -> it.replaceAll("subgraph .*? at \\(.*?\\) of ", "subgraph of "))
+        .map(it -> it.replaceAll("subgraph osm:node:\\d+ of ", "subgraph of "))
+        .toList();
+    }
+  }
+}
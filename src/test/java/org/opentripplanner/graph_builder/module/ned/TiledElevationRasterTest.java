@@ -0,0 +1,124 @@
+package org.opentripplanner.graph_builder.module.ned;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TiledElevationRasterTest {
+
+  private static final int WIDTH = 5;
+  private static final int HEIGHT = 4;
+  private static final float NO_DATA = -9999;
+
+  /** The value of pixel (col, row) is 10 * col + row, except for the no-data pixel (4, 3). */
+  private static final float[] RASTER = raster();
+
+  private final List<String> reads = new ArrayList<>();
+
+  @Test
+  void sampleAtPixelCenters() {
+    var subject = subject(2, false);
+
+    assertEquals(0, subject.sample(10.05, 60.95), 1e-4);
+    assertEquals(21, subject.sample(10.25, 60.85), 1e-4);
+    assertEquals(32, subject.sample(10.35, 60.75), 1e-4);
+  }
+
+  @Test
+  void interpolateBetweenPixelsInDifferentTiles() {
+    var subject = subject(2, false);
+
+    // Between pixel (1, 1) and (2, 2), which are in different tiles
+    assertEquals(16.5, subject.sample(10.2, 60.8), 1e-4);
+    assertEquals(4, reads.size());
+    assertEquals(4, subject.nTilesDecoded());
+    assertEquals(6, subject.nTiles());
+  }
+
+  @Test
+  void nearestPixelAtTheBorder() {
+    var subject = subject(2, false);
+
+    assertEquals(0, subject.sample(10.01, 60.99), 1e-4);
+    assertEquals(42, subject.sample(10.49, 60.75), 1e-4);
+  }
+
+  @Test
+  void noValueOutsideTheRasterOrWithoutData() {
+    var subject = subject(2, false);
+
+    assertTrue(Double.isNaN(subject.sample(9.99, 60.95)));
+    assertTrue(Double.isNaN(subject.sample(10.05, 61.01)));
+    assertTrue(Double.isNaN(subject.sample(10.51, 60.95)));
+    assertTrue(Double.isNaN(subject.sample(10.05, 60.59)));
+    assertTrue(Double.isNaN(subject.sample(10.45, 60.65)));
+  }
+
+  @Test
+  void noValueIfOneOfTheInterpolatedPixelsHasNoData() {
+    for (boolean integerSamples : new boolean[] { false, true }) {
+      var subject = subject(2, integerSamples);
+
+      // Between pixel (3, 2) and the no-data pixel (4, 3)
+      assertTrue(Double.isNaN(subject.sample(10.4, 60.7)));
+      assertTrue(Double.isNaN(subject.sample(10.36, 60.74)));
+      // Between pixel (2, 2) and (3, 3), next to the no-data pixel
+      assertEquals(27, subject.sample(10.3, 60.75), 1e-4);
+    }
+  }
+
+  @Test
+  void integerSamplesAreInterpolatedWithSubsampleBits() {
+    // A fifth of the way from pixel (0, 0) to (1, 0), and half way from row 0 to row 1
+    assertEquals(2.5, subject(2, false).sample(10.07, 60.9), 1e-4);
+    assertEquals(2, subject(2, true).sample(10.07, 60.9));
+    assertEquals(21, subject(2, true).sample(10.25, 60.85));
+  }
+
+  @Test
+  void tilesAreReadOnce() {
+    var subject = subject(2, false);
+
+    subject.sample(10.05, 60.95);
+    subject.sample(10.1, 60.9);
+    subject.sample(10.45, 60.65);
+
+    assertEquals(List.of("0,0 2x2", "4,2 1x2"), reads);
+  }
+
+  private TiledElevationRaster subject(int tileSize, boolean integerSamples) {
+    return new TiledElevationRaster(
+      WIDTH,
+      HEIGHT,
+      tileSize,
+      10.0,
+      61.0,
+      0.1,
+      -0.1,
+      NO_DATA,
+      integerSamples,
+      (x, y, width, height) -> {
+        reads.add(x + "," + y + " " + width + "x" + height);
+        float[] tile = new float[width * height];
+        for (int row = 0; row < height; ++row) {
+          System.arraycopy(RASTER, (y + row) * WIDTH + x, tile, row * width, width);
+        }
+        return tile;
+      }
+    );
+  }
+
+  private static float[] raster() {
+    float[] raster = new float[WIDTH * HEIGHT];
+    for (int row = 0; row < HEIGHT; ++row) {
+      for (int col = 0; col < WIDTH; ++col) {
+        raster[row * WIDTH + col] = 10 * col + row;
+      }
+    }
+    raster[3 * WIDTH + 4] = NO_DATA;
+    return raster;
+  }
+}
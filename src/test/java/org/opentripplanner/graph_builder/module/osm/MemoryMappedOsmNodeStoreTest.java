@@ -0,0 +1,113 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.openstreetmap.OsmProvider;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+import org.opentripplanner.openstreetmap.model.OSMWay;
+import org.opentripplanner.test.support.ResourceLoader;
+
+class MemoryMappedOsmNodeStoreTest {
+
+  private final MemoryMappedOsmNodeStore subject = new MemoryMappedOsmNodeStore();
+
+  @AfterEach
+  void tearDown() {
+    subject.close();
+  }
+
+  @Test
+  void nodesAreSortedAndDuplicatesRemoved() {
+    subject.add(node(30, 59.1, 10.1));
+    subject.add(node(10, 59.2, 10.2));
+    subject.add(node(20, -33.8688197, 151.2092955));
+    subject.add(node(10, 59.2, 10.2));
+
+    assertEquals(3, subject.size());
+    assertTrue(subject.contains(10));
+    assertFalse(subject.contains(15));
+    assertNull(subject.get(40));
+
+    var node = subject.get(20);
+    assertEquals(20, node.getId());
+    assertEquals(-33.8688197, node.lat, 1e-9);
+    assertEquals(151.2092955, node.lon, 1e-9);
+    assertEquals(node, subject.get(20));
+
+    // Nodes can be added after the lookup
+    subject.add(node(5, 60.0, 11.0));
+    assertEquals(4, subject.size());
+    assertEquals(60.0, subject.get(5).lat, 1e-9);
+  }
+
+  @Test
+  void nodesWithTagsAreKeptOnTheHeap() {
+    var crossing = node(1, 59.0, 10.0);
+    crossing.addTag("highway", "crossing");
+    var withIgnoredTag = node(2, 59.0, 10.0);
+    withIgnoredTag.addTag("created_by", "JOSM");
+
+    subject.add(crossing);
+    subject.add(withIgnoredTag);
+
+    assertSame(crossing, subject.get(1));
+    assertFalse(subject.get(2).hasTag("created_by"));
+  }
+
+  @Test
+  void nodesAreReleasedWhenClosed() {
+    subject.add(node(10, 59.2, 10.2));
+    var crossing = node(20, 59.0, 10.0);
+    crossing.addTag("highway", "crossing");
+    subject.add(crossing);
+
+    subject.close();
+
+    assertEquals(0, subject.size());
+    assertFalse(subject.contains(10));
+    assertNull(subject.get(20));
+  }
+
+  @Test
+  void readOsm() {
+    File file = ResourceLoader.of(this).file("map.osm.pbf");
+    var heap = new OsmDatabase(DataImportIssueStore.NOOP);
+    var memoryMapped = new OsmDatabase(DataImportIssueStore.NOOP, subject);
+    new OsmProvider(file, true).readOSM(heap);
+    new OsmProvider(file, true).readOSM(memoryMapped);
+
+    assertEquals(heap.nodeCount(), memoryMapped.nodeCount());
+    for (OSMWay way : heap.getWays()) {
+      way
+        .getNodeRefs()
+        .forEach(id -> {
+          var expected = heap.getNode(id);
+          var actual = memoryMapped.getNode(id);
+          assertEquals(expected, actual);
+          assertEquals(expected.lat, actual.lat, 1e-7);
+          assertEquals(expected.lon, actual.lon, 1e-7);
+          // The tags not used in routing, like source, are dropped
+          if (expected.hasTag("highway") || expected.hasTag("railway")) {
+            assertEquals(expected.getTags(), actual.getTags());
+          }
+          return true;
+        });
+    }
+  }
+
+  private static OSMNode node(long id, double lat, double lon) {
+    var node = new OSMNode();
+    node.setId(id);
+    node.lat = lat;
+    node.lon = lon;
+    return node;
+  }
+}
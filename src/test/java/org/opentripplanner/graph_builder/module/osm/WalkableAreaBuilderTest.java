@@ -30,6 +30,10 @@ import org.opentripplanner.test.support.ResourceLoader;
 public class WalkableAreaBuilderTest {
 
   public Graph buildGraph(final TestInfo testInfo) {
+    return buildGraph(testInfo, false);
+  }
+
+  private Graph buildGraph(final TestInfo testInfo, final boolean parallelVisibility) {
     var graph = new Graph();
     final Method testMethod = testInfo.getTestMethod().get();
     final String osmFile = testMethod.getAnnotation(OsmFile.class).value();
@@ -67,7 +71,15 @@ public class WalkableAreaBuilderTest {
       ? walkableAreaBuilder::buildWithVisibility
       : walkableAreaBuilder::buildWithoutVisibility;
 
-    areaGroups.forEach(build);
+    if (visibility && parallelVisibility) {
+      areaGroups
+        .parallelStream()
+        .map(walkableAreaBuilder::findVisibility)
+        .toList()
+        .forEach(walkableAreaBuilder::buildWithVisibility);
+    } else {
+      areaGroups.forEach(build);
+    }
     return graph;
   }
 
@@ -197,6 +209,25 @@ public class WalkableAreaBuilderTest {
     assertFalse(areas.get(0).getAreas().isEmpty());
   }
 
+  @Test
+  @OsmFile("wendlingen-bahnhof.osm.pbf")
+  @Visibility(true)
+  @MaxAreaNodes(50)
+  void testParallelVisibilityGivesTheSameEdges(TestInfo testInfo) {
+    var expected = areaEdges(buildGraph(testInfo, false));
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, areaEdges(buildGraph(testInfo, true)));
+  }
+
+  private static List<String> areaEdges(Graph graph) {
+    return graph
+      .getEdgesOfType(AreaEdge.class)
+      .stream()
+      .map(e -> e.getFromVertex().getLabel() + " -> " + e.getToVertex().getLabel())
+      .sorted()
+      .toList();
+  }
+
   private static boolean hasNodeId(AreaEdge a, long nodeId) {
     return (
       a.getToVertex().getLabel() instanceof OsmNodeOnLevelLabel label && label.nodeId() == nodeId
@@ -0,0 +1,72 @@
+package org.opentripplanner.gtfs.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
+import org.onebusaway.gtfs.serialization.GtfsReader;
+import org.onebusaway.gtfs.services.GtfsMutableRelationalDao;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.impl.OtpTransitServiceBuilder;
+import org.opentripplanner.transit.model.site.StopTransferPriority;
+import org.opentripplanner.transit.service.StopModel;
+
+class GTFSToOtpTransitServiceMapperTest {
+
+  private static final String FEED_ID = "F";
+
+  @Test
+  void releasingTheStopTimesMapsTheSameStopTimes() throws IOException {
+    var dao = readDao(ConstantsForTests.SIMPLE_GTFS);
+    var released = readDao(ConstantsForTests.SIMPLE_GTFS);
+
+    var expected = map(dao, false);
+    var result = map(released, true);
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, result);
+    assertFalse(dao.getAllStopTimes().isEmpty());
+    assertTrue(released.getAllStopTimes().isEmpty());
+  }
+
+  private static List<String> map(GtfsMutableRelationalDao dao, boolean releaseStopTimes) {
+    var builder = new OtpTransitServiceBuilder(new StopModel(), DataImportIssueStore.NOOP);
+    var mapper = new GTFSToOtpTransitServiceMapper(
+      builder,
+      FEED_ID,
+      DataImportIssueStore.NOOP,
+      false,
+      dao,
+      StopTransferPriority.ALLOWED
+    );
+    mapper.mapStopTripAndRouteDataIntoBuilder(releaseStopTimes);
+
+    var stopTimes = builder.getStopTimesSortedByTrip();
+    var result = new ArrayList<String>();
+    for (var trip : stopTimes.keys()) {
+      for (StopTime it : stopTimes.get(trip)) {
+        result.add(it + " " + it.getPickupType() + " " + it.getDropOffType());
+      }
+    }
+    result.sort(String::compareTo);
+    return result;
+  }
+
+  private static GtfsMutableRelationalDao readDao(File path) throws IOException {
+    var reader = new GtfsReader();
+    reader.setInputLocation(path);
+    reader.setDefaultAgencyId(FEED_ID);
+    var dao = new GtfsRelationalDaoImpl();
+    reader.setEntityStore(dao);
+    reader.run();
+    return dao;
+  }
+}
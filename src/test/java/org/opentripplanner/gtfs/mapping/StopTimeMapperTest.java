@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -193,6 +194,19 @@ public class StopTimeMapperTest {
     assertSame(result1, result2);
   }
 
+  @Test
+  public void testMapWithoutCache() {
+    var stopTime = buildDefaultStopTime();
+
+    var result = subject.mapWithoutCache(List.of(stopTime, buildDefaultStopTime()));
+
+    assertEquals(2, result.size());
+    assertEquals(ARRIVAL_TIME, result.get(0).getArrivalTime());
+    assertEquals(STOP_SEQUENCE, result.get(1).getStopSequence());
+    // The stop time is not cached, so it is mapped again
+    assertNotSame(result.get(0), subject.map(stopTime));
+  }
+
   @Test
   public void testNull() {
     var st = buildStopTime();
@@ -0,0 +1,52 @@
+package org.opentripplanner.netex.loader.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.xml.bind.JAXBException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.netex.index.NetexEntityIndex;
+import org.opentripplanner.netex.loader.NetexXmlParser;
+import org.opentripplanner.test.support.ResourceLoader;
+
+class NetexDocumentParserTest {
+
+  private final NetexXmlParser xmlParser = new NetexXmlParser();
+
+  @Test
+  void streamingGivesTheSameIndexAsTheWholeDocument() throws IOException, JAXBException {
+    var dir = ResourceLoader.of(this).file("/netex/epip/netex_epip_minimal");
+    var files = Objects.requireNonNull(dir.listFiles());
+    Arrays.sort(files);
+
+    var documentIndex = new NetexEntityIndex();
+    var streamingIndex = new NetexEntityIndex();
+    for (File file : files) {
+      try (var stream = new FileInputStream(file)) {
+        var doc = xmlParser.parseXmlDoc(stream);
+        NetexDocumentParser.parseAndPopulateIndex(documentIndex, doc, false);
+      }
+      try (var stream = new FileInputStream(file)) {
+        NetexDocumentParser.parseAndPopulateIndex(streamingIndex, xmlParser, stream, false);
+      }
+    }
+
+    assertTrue(documentIndex.serviceJourneyById.size() > 0);
+    assertEquals(documentIndex.serviceJourneyById.size(), streamingIndex.serviceJourneyById.size());
+    assertEquals(
+      documentIndex.journeyPatternsById.size(),
+      streamingIndex.journeyPatternsById.size()
+    );
+    assertEquals(documentIndex.lineById.size(), streamingIndex.lineById.size());
+    assertEquals(documentIndex.quayById.size(), streamingIndex.quayById.size());
+    assertEquals(documentIndex.stopPlaceById.size(), streamingIndex.stopPlaceById.size());
+    assertEquals(documentIndex.dayTypeById.size(), streamingIndex.dayTypeById.size());
+    assertEquals(documentIndex.timeZone.get(), streamingIndex.timeZone.get());
+    assertEquals("Europe/Berlin", streamingIndex.timeZone.get());
+  }
+}
@@ -0,0 +1,57 @@
+package org.opentripplanner.openstreetmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.opentripplanner.graph_builder.module.osm.OsmModuleTest;
+import org.opentripplanner.test.support.ResourceLoader;
+
+class OsmPbfBlockReaderTest {
+
+  private static final File FILE = ResourceLoader.of(OsmModuleTest.class).file("map.osm.pbf");
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void blocksWithoutEntitiesForThePhaseAreSkipped() throws IOException {
+    var provider = new OsmProvider(FILE, false);
+    var osmdb = new OsmDatabase(DataImportIssueStore.NOOP);
+    var parser = new OpenStreetMapParser(osmdb, provider);
+    var subject = new OsmPbfBlockReader(executor, DataImportIssueStore.NOOP, 1);
+
+    // All blocks are decoded the first time the file is read
+    read(subject, parser, OsmParserPhase.Ways);
+    assertEquals(2, subject.decodedBlockCount());
+    assertEquals(0, subject.skippedBlockCount());
+    assertEquals(545, osmdb.wayCount());
+
+    // The file has no relations, so only the header block is decoded
+    read(subject, parser, OsmParserPhase.Relations);
+    assertEquals(1, subject.decodedBlockCount());
+    assertEquals(1, subject.skippedBlockCount());
+  }
+
+  private static void read(
+    OsmPbfBlockReader subject,
+    OpenStreetMapParser parser,
+    OsmParserPhase phase
+  ) throws IOException {
+    parser.setPhase(phase);
+    try (var in = new FileInputStream(FILE)) {
+      subject.read(in, parser, phase);
+    }
+  }
+}
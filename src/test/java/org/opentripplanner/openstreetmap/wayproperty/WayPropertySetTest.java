@@ -65,6 +65,44 @@ class WayPropertySetTest {
     }
   }
 
+  @Nested
+  class Caching {
+
+    @Test
+    void waysWithTheSameTagsShareThePickerResult() {
+      var wps = new WayPropertySet();
+      wps.setProperties("highway=primary", withModes(CAR));
+      wps.setMixinProperties("cycleway=lane", ofBicycleSafety(5));
+
+      assertEquals(CAR, wps.getDataForWay(way("highway", "primary", "name", "A")).getPermission());
+      assertEquals(CAR, wps.getDataForWay(way("highway", "primary", "name", "B")).getPermission());
+      // Direction suffixes are part of the signature
+      var cycleway = way("highway", "primary", "cycleway:left", "lane");
+      assertEquals(new SafetyFeatures(1, 5), wps.getDataForWay(cycleway).bicycleSafety());
+
+      var statistics = wps.cacheStatistics().get(0);
+      assertTrue(statistics.contains("3 lookups, 2 distinct tag signatures"), statistics);
+    }
+
+    @Test
+    void cacheIsClearedWhenAPickerIsAdded() {
+      var wps = new WayPropertySet();
+      var way = way("highway", "primary", "tunnel", "yes");
+      assertEquals(StreetTraversalPermission.ALL, wps.getDataForWay(way).getPermission());
+
+      wps.setProperties("highway=primary", withModes(CAR));
+      assertEquals(CAR, wps.getDataForWay(way).getPermission());
+    }
+
+    private static OSMWay way(String... tags) {
+      var way = new OSMWay();
+      for (int i = 0; i < tags.length; i += 2) {
+        way.addTag(tags[i], tags[i + 1]);
+      }
+      return way;
+    }
+  }
+
   @Nested
   class NoMapper {
 
@@ -0,0 +1,133 @@
+package org.opentripplanner.routing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPRequestRejectedException;
+import org.opentripplanner.model.plan.TripPlan;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+
+class RoutingAdmissionControllerTest {
+
+  private static final RoutingResponse RESPONSE = new RoutingResponse(
+    new TripPlan(null, null, Instant.EPOCH, List.of()),
+    null,
+    null,
+    null,
+    List.of(),
+    null
+  );
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RoutingAdmissionController subject = new RoutingAdmissionController(
+    new AdmissionControlParameters(
+      true,
+      2,
+      1,
+      Duration.ofSeconds(1),
+      3,
+      Duration.ofMinutes(30),
+      true
+    ),
+    meterRegistry
+  );
+
+  @Test
+  void acceptRequest() {
+    var request = new RouteRequest();
+    var routed = new AtomicReference<RouteRequest>();
+
+    assertSame(RESPONSE, subject.route(request, r -> route(routed, r)));
+    assertSame(request, routed.get());
+    assertEquals(0, subject.inFlight());
+    assertEquals(1.0, count("accepted"));
+  }
+
+  @Test
+  void degradeRequestWhenBusy() {
+    var request = new RouteRequest();
+    request.setNumItineraries(10);
+    var routed = new AtomicReference<RouteRequest>();
+
+    subject.route(request, outer -> subject.route(request, r -> route(routed, r)));
+
+    var degraded = routed.get();
+    assertEquals(3, degraded.numItineraries());
+    assertEquals(Duration.ofMinutes(30), degraded.searchWindow());
+    assertEquals(StreetMode.NOT_SET, degraded.journey().direct().mode());
+    // The original request is not changed
+    assertEquals(10, request.numItineraries());
+    assertNull(request.searchWindow());
+    assertEquals(1.0, count("degraded"));
+  }
+
+  @Test
+  void shorterSearchWindowIsKept() {
+    var request = new RouteRequest();
+    request.setSearchWindow(Duration.ofMinutes(10));
+
+    assertEquals(Duration.ofMinutes(10), subject.degrade(request).searchWindow());
+  }
+
+  @Test
+  void directSearchIsKeptWhenTransitIsDisabled() {
+    var request = new RouteRequest();
+    request.journey().transit().disable();
+    request.journey().direct().setMode(StreetMode.BIKE);
+
+    assertEquals(StreetMode.BIKE, subject.degrade(request).journey().direct().mode());
+  }
+
+  @Test
+  void rejectRequestWhenOverloaded() {
+    var request = new RouteRequest();
+
+    assertThrows(
+      OTPRequestRejectedException.class,
+      () ->
+        subject.route(
+          request,
+          r1 -> subject.route(request, r2 -> subject.route(request, r3 -> RESPONSE))
+        )
+    );
+    assertEquals(0, subject.inFlight());
+    assertEquals(1.0, count("rejected"));
+  }
+
+  @Test
+  void recentLatenciesPercentile() {
+    var latencies = new RoutingAdmissionController.RecentLatencies(100);
+    for (int i = 0; i < 19; i++) {
+      latencies.record(10);
+    }
+    // Not enough samples
+    assertEquals(0, latencies.p95());
+
+    latencies.record(10);
+    assertEquals(10, latencies.p95());
+
+    for (int i = 0; i < 5; i++) {
+      latencies.record(1000);
+    }
+    assertEquals(1000, latencies.p95());
+  }
+
+  private static RoutingResponse route(AtomicReference<RouteRequest> routed, RouteRequest request) {
+    routed.set(request);
+    return RESPONSE;
+  }
+
+  private double count(String result) {
+    return meterRegistry.get("routing.admission").tag("result", result).counter().count();
+  }
+}
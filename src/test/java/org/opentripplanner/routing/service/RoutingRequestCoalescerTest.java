@@ -0,0 +1,288 @@
+package org.opentripplanner.routing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPRequestCancelledException;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.plan.TripPlan;
+import org.opentripplanner.routing.api.request.DebugRaptor;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class RoutingRequestCoalescerTest {
+
+  private static final Instant TIME = Instant.parse("2023-11-15T12:00:10Z");
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RoutingRequestCoalescer subject = new RoutingRequestCoalescer(
+    new RequestCoalescingParameters(true, 10.0, Duration.ofMinutes(1)),
+    Duration.ofSeconds(5),
+    meterRegistry
+  );
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void sameKeyForNearbyRequestsInTheSameTimeBucket() {
+    var a = request(59.91, 10.75, TIME);
+    var b = request(59.91001, 10.75002, TIME.plusSeconds(30));
+
+    assertEquals(subject.key(a), subject.key(b));
+  }
+
+  @Test
+  void otherKeyForDistantRequests() {
+    var a = request(59.91, 10.75, TIME);
+
+    assertNotEquals(subject.key(a), subject.key(request(59.92, 10.75, TIME)));
+    assertNotEquals(subject.key(a), subject.key(request(59.91, 10.75, TIME.plusSeconds(60))));
+  }
+
+  @Test
+  void otherKeyForOtherPreferences() {
+    var a = request(59.91, 10.75, TIME);
+    var b = request(59.91, 10.75, TIME);
+    b.withPreferences(p -> p.withWalk(w -> w.withSpeed(2.0)));
+
+    assertNotEquals(subject.key(a), subject.key(b));
+  }
+
+  @Test
+  void sameKeyForEqualFilters() {
+    var a = request(59.91, 10.75, TIME);
+    var b = request(59.91, 10.75, TIME);
+    a.journey().transit().setFilters(List.of(groupOfRoutesFilter("F:GOR1")));
+    b.journey().transit().setFilters(List.of(groupOfRoutesFilter("F:GOR1")));
+
+    assertEquals(subject.key(a), subject.key(b));
+  }
+
+  @Test
+  void otherKeyForOtherGroupOfRoutes() {
+    var a = request(59.91, 10.75, TIME);
+    var b = request(59.91, 10.75, TIME);
+    a.journey().transit().setFilters(List.of(groupOfRoutesFilter("F:GOR1")));
+    b.journey().transit().setFilters(List.of(groupOfRoutesFilter("F:GOR2")));
+
+    assertNotEquals(subject.key(a), subject.key(b));
+  }
+
+  @Test
+  void exactMatchWithZeroResolution() {
+    var exact = new RoutingRequestCoalescer(
+      new RequestCoalescingParameters(true, 0.0, Duration.ofSeconds(1)),
+      Duration.ofSeconds(5),
+      meterRegistry
+    );
+    var a = request(59.91, 10.75, TIME);
+
+    assertEquals(exact.key(a), exact.key(request(59.91, 10.75, TIME)));
+    assertNotEquals(exact.key(a), exact.key(request(59.91001, 10.75, TIME)));
+  }
+
+  @Test
+  void raptorDebuggingIsNotCoalesced() {
+    var request = request(59.91, 10.75, TIME);
+    request.journey().transit().setRaptorDebugging(new DebugRaptor().withStops("1"));
+
+    assertNull(subject.key(request));
+  }
+
+  @Test
+  void concurrentRequestsShareOneComputation() throws Exception {
+    var tripPlan = new TripPlan(null, null, TIME, List.of());
+    var response = new RoutingResponse(tripPlan, null, null, null, List.of(), null);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var computations = new AtomicInteger();
+
+    Future<RoutingResponse> first = executor.submit(() ->
+      subject.route(
+        request(59.91, 10.75, TIME),
+        () -> {
+          computations.incrementAndGet();
+          started.countDown();
+          await(release);
+          return response;
+        }
+      )
+    );
+    started.await(5, TimeUnit.SECONDS);
+
+    var others = List.of(
+      executor.submit(() -> subject.route(request(59.91, 10.75, TIME), () -> fail(computations))),
+      executor.submit(() -> subject.route(request(59.91, 10.75, TIME), () -> fail(computations)))
+    );
+    waitForCoalesced(2);
+    release.countDown();
+
+    assertSame(response, first.get(5, TimeUnit.SECONDS));
+    for (var other : others) {
+      var otherResponse = other.get(5, TimeUnit.SECONDS);
+      assertSame(tripPlan, otherResponse.getTripPlan());
+      assertNotNull(otherResponse.getDebugTimingAggregator());
+    }
+    assertNotSame(
+      others.get(0).get().getDebugTimingAggregator(),
+      others.get(1).get().getDebugTimingAggregator()
+    );
+    assertEquals(1, computations.get());
+    assertEquals(0, subject.inFlight());
+    assertEquals(1.0, count("computed"));
+  }
+
+  @Test
+  void exceptionIsThrownToAllWaitingRequests() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    Future<RoutingResponse> first = executor.submit(() ->
+      subject.route(
+        request(59.91, 10.75, TIME),
+        () -> {
+          started.countDown();
+          await(release);
+          throw new IllegalStateException("Routing failed");
+        }
+      )
+    );
+    started.await(5, TimeUnit.SECONDS);
+    Future<RoutingResponse> other = executor.submit(() ->
+      subject.route(request(59.91, 10.75, TIME), () -> null)
+    );
+    waitForCoalesced(1);
+    release.countDown();
+
+    for (var future : List.of(first, other)) {
+      var e = assertThrows(ExecutionException.class, future::get);
+      assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+    assertEquals(0, subject.inFlight());
+  }
+
+  @Test
+  void waitingRequestsAreRoutedWhenTheRoutingIsCancelled() throws Exception {
+    var tripPlan = new TripPlan(null, null, TIME, List.of());
+    var response = new RoutingResponse(tripPlan, null, null, null, List.of(), null);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    Future<RoutingResponse> first = executor.submit(() ->
+      subject.route(
+        request(59.91, 10.75, TIME),
+        () -> {
+          started.countDown();
+          await(release);
+          throw new OTPRequestCancelledException();
+        }
+      )
+    );
+    started.await(5, TimeUnit.SECONDS);
+    Future<RoutingResponse> other = executor.submit(() ->
+      subject.route(request(59.91, 10.75, TIME), () -> response)
+    );
+    waitForCoalesced(1);
+    release.countDown();
+
+    var e = assertThrows(ExecutionException.class, first::get);
+    assertEquals(OTPRequestCancelledException.class, e.getCause().getClass());
+    assertSame(response, other.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void waitingRequestTimesOut() throws Exception {
+    var impatient = new RoutingRequestCoalescer(
+      new RequestCoalescingParameters(true, 10.0, Duration.ofMinutes(1)),
+      Duration.ofMillis(50),
+      meterRegistry
+    );
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    Future<RoutingResponse> first = executor.submit(() ->
+      impatient.route(
+        request(59.91, 10.75, TIME),
+        () -> {
+          started.countDown();
+          await(release);
+          return new RoutingResponse(null, null, null, null, List.of(), null);
+        }
+      )
+    );
+    started.await(5, TimeUnit.SECONDS);
+
+    assertThrows(
+      OTPRequestTimeoutException.class,
+      () -> impatient.route(request(59.91, 10.75, TIME), () -> null)
+    );
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+  }
+
+  private static TransitFilterRequest groupOfRoutesFilter(String id) {
+    return TransitFilterRequest
+      .of()
+      .addNot(SelectRequest.of().withGroupOfRoutes(List.of(FeedScopedId.parse(id))).build())
+      .build();
+  }
+
+  private static RouteRequest request(double lat, double lng, Instant time) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(lat, lng));
+    request.setTo(new GenericLocation(59.95, 10.80));
+    request.setDateTime(time);
+    return request;
+  }
+
+  private void waitForCoalesced(int expected) throws InterruptedException {
+    long end = System.currentTimeMillis() + 5000;
+    while (count("coalesced") < expected && System.currentTimeMillis() < end) {
+      Thread.sleep(5);
+    }
+    assertEquals(expected, count("coalesced"));
+  }
+
+  private double count(String result) {
+    return meterRegistry.get("routing.coalescing").tag("result", result).counter().count();
+  }
+
+  private static RoutingResponse fail(AtomicInteger computations) {
+    computations.incrementAndGet();
+    throw new IllegalStateException("The request should be coalesced");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
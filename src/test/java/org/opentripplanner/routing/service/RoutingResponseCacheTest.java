@@ -0,0 +1,159 @@
+package org.opentripplanner.routing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.model.plan.TripPlan;
+import org.opentripplanner.routing.api.request.DebugRaptor;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.routing.service.RoutingResponseCache.DataVersion;
+import org.opentripplanner.routing.service.RoutingResponseCache.TransitVersion;
+
+class RoutingResponseCacheTest {
+
+  private static final Instant TIME = Instant.parse("2023-11-15T12:00:10Z");
+  private static final DataVersion VERSION = new DataVersion(
+    new TransitVersion(new TimetableSnapshot(), null),
+    -1
+  );
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RoutingResponseCache subject = new RoutingResponseCache(
+    new RoutingResponseCacheParameters(true, 10, Duration.ofMinutes(5), 0.0, Duration.ofMinutes(1)),
+    meterRegistry
+  );
+  private final AtomicInteger computations = new AtomicInteger();
+
+  @Test
+  void sameRequestIsRoutedOnce() {
+    var first = subject.route(request(TIME), VERSION, this::route);
+    var second = subject.route(request(TIME.plusSeconds(20)), VERSION, this::route);
+
+    assertSame(first.getTripPlan(), second.getTripPlan());
+    assertEquals(1, computations.get());
+    assertEquals(1, subject.cache().stats().hitCount());
+    assertEquals(1, subject.cache().stats().missCount());
+  }
+
+  @Test
+  void eachHitRecordsItsOwnTiming() {
+    var routed = subject.route(request(TIME), VERSION, this::route);
+    var first = subject.route(request(TIME), VERSION, this::route);
+    var second = subject.route(request(TIME), VERSION, this::route);
+
+    assertNotSame(routed.getDebugTimingAggregator(), first.getDebugTimingAggregator());
+    assertNotSame(first.getDebugTimingAggregator(), second.getDebugTimingAggregator());
+
+    assertNotNull(first.getDebugTimingAggregator().finishedRendering());
+    assertNotNull(second.getDebugTimingAggregator().finishedRendering());
+    assertEquals(2, meterRegistry.get(DebugTimingAggregator.ROUTING_TOTAL).timer().count());
+  }
+
+  @Test
+  void otherRequestIsRouted() {
+    subject.route(request(TIME), VERSION, this::route);
+    subject.route(request(TIME.plusSeconds(60)), VERSION, this::route);
+
+    assertEquals(2, computations.get());
+    assertEquals(2, subject.cache().size());
+  }
+
+  @Test
+  void newTransitVersionInvalidatesTheCache() {
+    subject.route(request(TIME), VERSION, this::route);
+    subject.route(request(TIME.plusSeconds(60)), VERSION, this::route);
+
+    var newVersion = new DataVersion(new TransitVersion(new TimetableSnapshot(), null), -1);
+    subject.route(request(TIME), newVersion, this::route);
+
+    assertEquals(3, computations.get());
+    assertEquals(1, subject.cache().size());
+    assertEquals(1.0, meterRegistry.get("routing.responseCache.invalidated").counter().count());
+  }
+
+  @Test
+  void newRentalVersionIsNotInvalidatingTheCache() {
+    var rentalVersion = new DataVersion(VERSION.transit(), 7);
+    subject.route(request(TIME), VERSION, this::route);
+    subject.route(request(TIME), rentalVersion, this::route);
+    subject.route(request(TIME), new DataVersion(VERSION.transit(), 8), this::route);
+
+    assertEquals(3, computations.get());
+    assertEquals(3, subject.cache().size());
+    assertEquals(0.0, meterRegistry.get("routing.responseCache.invalidated").counter().count());
+  }
+
+  @Test
+  void raptorDebuggingIsNotCached() {
+    var request = request(TIME);
+    request.journey().transit().setRaptorDebugging(new DebugRaptor().withStops("1"));
+
+    subject.route(request, VERSION, this::route);
+    subject.route(request, VERSION, this::route);
+
+    assertEquals(2, computations.get());
+    assertEquals(0, subject.cache().size());
+    assertEquals(2.0, meterRegistry.get("routing.responseCache.notCacheable").counter().count());
+  }
+
+  @Test
+  void exceptionIsNotCached() {
+    assertThrows(
+      IllegalStateException.class,
+      () ->
+        subject.route(
+          request(TIME),
+          VERSION,
+          () -> {
+            throw new IllegalStateException("Routing failed");
+          }
+        )
+    );
+    subject.route(request(TIME), VERSION, this::route);
+
+    assertEquals(1, computations.get());
+  }
+
+  @Test
+  void maxSize() {
+    for (int i = 0; i < 20; i++) {
+      subject.route(request(TIME.plusSeconds(60L * i)), VERSION, this::route);
+    }
+
+    assertEquals(10, subject.cache().size());
+  }
+
+  private RoutingResponse route() {
+    computations.incrementAndGet();
+    var tripPlan = new TripPlan(null, null, TIME, List.of());
+    return new RoutingResponse(
+      tripPlan,
+      null,
+      null,
+      null,
+      List.of(),
+      new DebugTimingAggregator(meterRegistry, List.of())
+    );
+  }
+
+  private static RouteRequest request(Instant time) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(59.91, 10.75));
+    request.setTo(new GenericLocation(59.95, 10.80));
+    request.setDateTime(time);
+    return request;
+  }
+}
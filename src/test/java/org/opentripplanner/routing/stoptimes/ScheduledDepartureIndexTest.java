@@ -0,0 +1,250 @@
+package org.opentripplanner.routing.stoptimes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gnu.trove.set.hash.TIntHashSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.model.TripTimeOnDate;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+
+class ScheduledDepartureIndexTest {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2023, 11, 15);
+  private static final int SERVICE_CODE = 1;
+  private static final int OTHER_SERVICE_CODE = 2;
+  private static final int N_PATTERNS = 500;
+  private static final int N_TRIPS = 40;
+
+  private static final RegularStop HUB = TEST_MODEL.stop("hub").build();
+  private static final List<TripPattern> PATTERNS = new ArrayList<>();
+  private static DefaultTransitService transitService;
+
+  /**
+   * A hub served by 500 patterns, with the trips of each pattern in random order in the
+   * timetable, some of them running on another service and some staying at the hub for a while.
+   */
+  @BeforeAll
+  static void setUp() {
+    var deduplicator = new Deduplicator();
+    var random = new Random(42);
+    var transitModel = new TransitModel(TEST_MODEL.stopModelBuilder().build(), deduplicator);
+
+    for (int p = 0; p < N_PATTERNS; p++) {
+      var route = TransitModelForTest.route("R" + p).build();
+      var pattern = TransitModelForTest
+        .tripPattern("P" + p, route)
+        .withStopPattern(
+          TransitModelForTest.stopPattern(
+            TEST_MODEL.stop("A" + p).build(),
+            HUB,
+            TEST_MODEL.stop("B" + p).build()
+          )
+        )
+        .build();
+
+      for (int t = 0; t < N_TRIPS; t++) {
+        var trip = TransitModelForTest.trip("T" + p + "-" + t).withRoute(route).build();
+        int time = (4 + random.nextInt(22)) * 3600 + random.nextInt(3600);
+        int dwellTime = random.nextInt(10) == 0 ? 900 : 0;
+        var stopTimes = List.of(
+          stopTime(trip, 0, pattern.getStop(0), time - 300, time - 300),
+          stopTime(trip, 1, HUB, time, time + dwellTime),
+          stopTime(trip, 2, pattern.getStop(2), time + dwellTime + 300, time + dwellTime + 300)
+        );
+        var tripTimes = TripTimesFactory.tripTimes(trip, stopTimes, deduplicator);
+        tripTimes.setServiceCode(random.nextInt(4) == 0 ? OTHER_SERVICE_CODE : SERVICE_CODE);
+        pattern.add(tripTimes);
+      }
+      transitModel.addTripPattern(pattern.getId(), pattern);
+      PATTERNS.add(pattern);
+    }
+    transitModel.initTimeZone(ZoneIds.BERLIN);
+    transitModel.index();
+    var servicesRunning = transitModel.getTransitModelIndex().getServiceCodesRunningForDate();
+    servicesRunning.put(SERVICE_DATE.minusDays(1), new TIntHashSet(new int[] { SERVICE_CODE }));
+    servicesRunning.put(SERVICE_DATE, new TIntHashSet(new int[] { SERVICE_CODE }));
+    transitService = new DefaultTransitService(transitModel);
+  }
+
+  @Test
+  void departuresAreSortedAndFilteredByService() {
+    var departures = transitService
+      .getScheduledDepartureIndex()
+      .departures(HUB, PATTERNS.get(0), SERVICE_DATE);
+
+    assertNotNull(departures);
+    assertEquals(1, departures.size());
+    var stopDepartures = departures.get(0);
+    assertEquals(1, stopDepartures.stopPosInPattern());
+
+    var expected = PATTERNS
+      .get(0)
+      .getScheduledTimetable()
+      .getTripTimes()
+      .stream()
+      .filter(t -> t.getServiceCode() == SERVICE_CODE)
+      .map(t -> t.getDepartureTime(1))
+      .sorted()
+      .toList();
+    var actual = new ArrayList<Integer>();
+    for (int i = 0; i < stopDepartures.size(); i++) {
+      actual.add(stopDepartures.departureTime(i));
+    }
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void patternNotVisitingStop() {
+    var otherStop = PATTERNS.get(1).getStop(0);
+
+    assertNull(
+      transitService
+        .getScheduledDepartureIndex()
+        .departures(otherStop, PATTERNS.get(0), SERVICE_DATE)
+    );
+  }
+
+  @Test
+  void evict() {
+    var index = transitService.getScheduledDepartureIndex();
+    var before = index.departures(HUB, PATTERNS.get(0), SERVICE_DATE);
+
+    assertSame(before, index.departures(HUB, PATTERNS.get(0), SERVICE_DATE));
+
+    index.evict(SERVICE_DATE);
+    var after = index.departures(HUB, PATTERNS.get(0), SERVICE_DATE);
+
+    assertNotSame(before, after);
+    assertEquals(before.get(0).size(), after.get(0).size());
+  }
+
+  @Test
+  void sameDeparturesAsScanningTheTimetables() {
+    for (ArrivalDeparture arrivalDeparture : ArrivalDeparture.values()) {
+      for (int hour : new int[] { 0, 7, 12, 23 }) {
+        var startTime = SERVICE_DATE.atTime(LocalTime.of(hour, 17)).atZone(ZoneIds.BERLIN);
+        assertSameAsScan(startTime.toInstant(), Duration.ofHours(2), 3, arrivalDeparture);
+      }
+    }
+  }
+
+  private static void assertSameAsScan(
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture
+  ) {
+    var result = StopTimesHelper.stopTimesForStop(
+      transitService,
+      HUB,
+      startTime,
+      timeRange,
+      numberOfDepartures,
+      arrivalDeparture,
+      false
+    );
+
+    var expected = new ArrayList<String>();
+    for (TripPattern pattern : PATTERNS) {
+      expected.addAll(scan(pattern, startTime, timeRange, numberOfDepartures, arrivalDeparture));
+    }
+    var actual = result
+      .stream()
+      .flatMap(stopTimes -> toString(stopTimes).stream())
+      .sorted()
+      .toList();
+
+    assertEquals(expected.stream().sorted().toList(), actual);
+  }
+
+  /**
+   * Find the departures by looking at every trip of the pattern.
+   */
+  private static List<String> scan(
+    TripPattern pattern,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture
+  ) {
+    var result = new ArrayList<TripTimeOnDate>();
+    for (LocalDate serviceDate : List.of(SERVICE_DATE.minusDays(1), SERVICE_DATE)) {
+      var midnight = ServiceDateUtils.asStartOfService(serviceDate, ZoneIds.BERLIN).toInstant();
+      long from = startTime.getEpochSecond() - midnight.getEpochSecond();
+      long to = from + timeRange.toSeconds();
+      for (TripTimes tripTimes : pattern.getScheduledTimetable().getTripTimes()) {
+        if (tripTimes.getServiceCode() != SERVICE_CODE) {
+          continue;
+        }
+        int arrival = tripTimes.getArrivalTime(1);
+        int departure = tripTimes.getDepartureTime(1);
+        boolean departureInRange = departure >= from && departure <= to;
+        boolean arrivalInRange = arrival >= from && arrival <= to;
+        if (
+          (arrivalDeparture != ArrivalDeparture.ARRIVALS && departureInRange) ||
+          (arrivalDeparture != ArrivalDeparture.DEPARTURES && arrivalInRange)
+        ) {
+          result.add(new TripTimeOnDate(tripTimes, 1, pattern, serviceDate, midnight));
+        }
+      }
+    }
+    var stopTimes = new StopTimesInPattern(pattern);
+    result
+      .stream()
+      .sorted(
+        Comparator.comparing((TripTimeOnDate t) ->
+          t.getServiceDayMidnight() + t.getRealtimeDeparture()
+        )
+      )
+      .limit(numberOfDepartures)
+      .forEach(stopTimes.times::add);
+    return toString(stopTimes);
+  }
+
+  private static List<String> toString(StopTimesInPattern stopTimes) {
+    return stopTimes.times
+      .stream()
+      .map(t -> t.getTrip().getId() + " " + t.getServiceDay() + " " + t.getRealtimeDeparture())
+      .toList();
+  }
+
+  private static StopTime stopTime(
+    Trip trip,
+    int seq,
+    StopLocation stop,
+    int arrival,
+    int departure
+  ) {
+    var stopTime = TEST_MODEL.stopTime(trip, seq, stop);
+    stopTime.setArrivalTime(arrival);
+    stopTime.setDepartureTime(departure);
+    return stopTime;
+  }
+}
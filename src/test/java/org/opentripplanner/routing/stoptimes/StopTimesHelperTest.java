@@ -185,6 +185,39 @@ class StopTimesHelperTest {
     assertEquals(serviceDate.plusDays(1), stopTime.getServiceDay());
   }
 
+  /**
+   * Case 5, several stops at once should give the same result as one stop at a time
+   */
+  @Test
+  void stopTimesForStops_sameAsForEachStop() {
+    var stops = List.copyOf(transitService.listRegularStops());
+    var startTime = serviceDate.atStartOfDay(transitService.getTimeZone()).toInstant();
+
+    var result = StopTimesHelper.stopTimesForStops(
+      transitService,
+      stops,
+      startTime,
+      Duration.ofHours(36),
+      3,
+      ArrivalDeparture.BOTH,
+      true
+    );
+
+    assertEquals(stops.size(), result.size());
+    for (int i = 0; i < stops.size(); i++) {
+      var expected = StopTimesHelper.stopTimesForStop(
+        transitService,
+        stops.get(i),
+        startTime,
+        Duration.ofHours(36),
+        3,
+        ArrivalDeparture.BOTH,
+        true
+      );
+      assertEquals(toString(expected), toString(result.get(i)));
+    }
+  }
+
   /**
    * Case 1, midnight, time range one day, should only find one trip, which is on the same day
    */
@@ -304,6 +337,14 @@ class StopTimesHelperTest {
     assertEquals(serviceDate, stopTime.getServiceDay());
   }
 
+  private static List<String> toString(List<StopTimesInPattern> stopTimes) {
+    return stopTimes
+      .stream()
+      .flatMap(s -> s.times.stream())
+      .map(t -> t.getTrip().getId() + " " + t.getServiceDay() + " " + t.getScheduledDeparture())
+      .toList();
+  }
+
   boolean hasCancelledTrips(List<StopTimesInPattern> stopTimes) {
     return !stopTimes
       .stream()
@@ -7,9 +7,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.transit.model.framework.Deduplicator;
@@ -197,6 +201,36 @@ public class DeduplicatorTest {
     assertNotSame(dateList, subject.deduplicateImmutableList(DATE_CL, DATE_LIST));
   }
 
+  @Test
+  public void deduplicateConcurrently() throws Exception {
+    int nThreads = 8;
+    var executor = Executors.newFixedThreadPool(nThreads);
+    try {
+      var start = new CountDownLatch(1);
+      var results = new ArrayList<Future<List<LocalTime>>>();
+      for (int i = 0; i < nThreads; i++) {
+        results.add(
+          executor.submit(() -> {
+            start.await();
+            return subject.deduplicateImmutableList(
+              TIME_CL,
+              List.of(LocalTime.of(12, 45), LocalTime.of(13, 0))
+            );
+          })
+        );
+      }
+      start.countDown();
+
+      var canonical = results.get(0).get();
+      for (var result : results) {
+        assertSame(canonical, result.get());
+        assertSame(canonical.get(1), result.get().get(1));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void testToStringForEmptyDeduplicator() {
     assertEquals("Deduplicator{}", subject.toString());
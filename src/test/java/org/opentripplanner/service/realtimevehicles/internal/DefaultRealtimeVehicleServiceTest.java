@@ -0,0 +1,266 @@
+package org.opentripplanner.service.realtimevehicles.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.Trip;
+
+class DefaultRealtimeVehicleServiceTest {
+
+  private static final int NUMBER_OF_PATTERNS = 200;
+  private static final int VEHICLES_PER_PATTERN = 60;
+
+  private final TransitModelForTest testModel = TransitModelForTest.of();
+  private final Trip trip = TransitModelForTest.trip("t1").build();
+  private final Random random = new Random(42);
+
+  @Test
+  void findVehiclesInEnvelope() {
+    var service = new DefaultRealtimeVehicleService(null);
+    var all = new ArrayList<List<RealtimeVehicle>>();
+    patterns()
+      .forEach(p -> {
+        var vehicles = vehicles();
+        all.add(vehicles);
+        service.setRealtimeVehicles(p, vehicles);
+      });
+    assertTrue(all.stream().mapToInt(List::size).sum() > 10_000);
+
+    for (int i = 0; i < 50; i++) {
+      var envelope = randomEnvelope();
+      var expected = scan(
+        all,
+        c -> envelope.contains(c.longitude(), c.latitude())
+      );
+      assertEquals(expected, asSet(service.findRealtimeVehicles(envelope)));
+    }
+
+    // an envelope covering everything takes the path iterating over the non-empty cells
+    var world = new Envelope(-180, 180, -90, 90);
+    assertEquals(
+      scan(all, c -> true),
+      asSet(service.findRealtimeVehicles(world))
+    );
+  }
+
+  @Test
+  void findVehiclesWithinRadius() {
+    var service = new DefaultRealtimeVehicleService(null);
+    var all = new ArrayList<List<RealtimeVehicle>>();
+    patterns()
+      .forEach(p -> {
+        var vehicles = vehicles();
+        all.add(vehicles);
+        service.setRealtimeVehicles(p, vehicles);
+      });
+
+    for (int i = 0; i < 50; i++) {
+      var center = randomCoordinate();
+      double radius = 200 + random.nextDouble() * 3000;
+      var expected = scan(
+        all,
+        c ->
+          SphericalDistanceLibrary.fastDistance(
+            center.latitude(),
+            center.longitude(),
+            c.latitude(),
+            c.longitude()
+          ) <=
+          radius
+      );
+      assertEquals(expected, asSet(service.findRealtimeVehicles(center, radius)));
+    }
+  }
+
+  @Test
+  void indexIsUpdatedIncrementally() {
+    var service = new DefaultRealtimeVehicleService(null);
+    var pattern = testModel.pattern(TransitMode.BUS).build();
+    var everywhere = new Envelope(-180, 180, -90, 90);
+
+    var first = vehicle(new WgsCoordinate(59.91, 10.75));
+    service.setRealtimeVehicles(pattern, List.of(first));
+    assertEquals(List.of(first), service.findRealtimeVehicles(everywhere));
+
+    var moved = vehicle(new WgsCoordinate(59.95, 10.80));
+    var withoutPosition = RealtimeVehicle.builder().withTrip(trip).build();
+    service.setRealtimeVehicles(pattern, List.of(moved, withoutPosition));
+    assertEquals(List.of(moved), service.findRealtimeVehicles(everywhere));
+    assertEquals(
+      List.of(),
+      service.findRealtimeVehicles(new WgsCoordinate(59.91, 10.75), 500)
+    );
+
+    service.clearRealtimeVehicles(pattern);
+    assertEquals(List.of(), service.findRealtimeVehicles(everywhere));
+  }
+
+  /**
+   * Measure the update and query throughput with 12 000 live vehicles, all moved every 5 seconds
+   * like the vehicle position updater does, while other threads query random envelopes. The
+   * queries are compared with scanning the vehicles of every pattern, which is what the map
+   * layers did before the index.
+   */
+  @Test
+  @Disabled("Run this test manually")
+  void updateAndQueryThroughput() throws Exception {
+    int nCycles = 6;
+    long updateIntervalMs = 5_000;
+    int nQueryThreads = 4;
+
+    var service = new DefaultRealtimeVehicleService(null);
+    var patterns = patterns();
+    patterns.forEach(p -> service.setRealtimeVehicles(p, vehicles()));
+
+    var stop = new AtomicBoolean(false);
+    var nQueries = new LongAdder();
+    var nVehiclesFound = new LongAdder();
+    var executor = Executors.newFixedThreadPool(nQueryThreads);
+    for (int t = 0; t < nQueryThreads; t++) {
+      var threadRandom = new Random(t);
+      executor.execute(() -> {
+        while (!stop.get()) {
+          var envelope = randomEnvelope(threadRandom, 0.05);
+          nVehiclesFound.add(service.findRealtimeVehicles(envelope).size());
+          nQueries.increment();
+        }
+      });
+    }
+
+    long start = System.currentTimeMillis();
+    for (int cycle = 0; cycle < nCycles; cycle++) {
+      var positions = patterns.stream().map(p -> vehicles()).toList();
+      long cycleStart = System.nanoTime();
+      for (int i = 0; i < patterns.size(); i++) {
+        service.setRealtimeVehicles(patterns.get(i), positions.get(i));
+      }
+      long updateNs = System.nanoTime() - cycleStart;
+      System.err.printf(
+        Locale.ROOT,
+        "Cycle %d: updated %d vehicles in %.1f ms%n",
+        cycle,
+        NUMBER_OF_PATTERNS * VEHICLES_PER_PATTERN,
+        updateNs / 1_000_000.0
+      );
+      Thread.sleep(Math.max(0, updateIntervalMs - updateNs / 1_000_000));
+    }
+    stop.set(true);
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    double seconds = (System.currentTimeMillis() - start) / 1000.0;
+
+    System.err.printf(
+      Locale.ROOT,
+      "Index: %.0f queries/s on %d threads, %.1f vehicles per query%n",
+      nQueries.sum() / seconds,
+      nQueryThreads,
+      nVehiclesFound.sum() / (double) nQueries.sum()
+    );
+
+    int nScans = 200;
+    long nScanned = 0;
+    long scanStart = System.nanoTime();
+    for (int i = 0; i < nScans; i++) {
+      var envelope = randomEnvelope(random, 0.05);
+      nScanned +=
+        patterns
+          .stream()
+          .flatMap(p -> service.getRealtimeVehicles(p).stream())
+          .filter(v -> {
+            var c = v.coordinates().orElseThrow();
+            return envelope.contains(c.longitude(), c.latitude());
+          })
+          .count();
+    }
+    System.err.printf(
+      Locale.ROOT,
+      "Scan: %.0f queries/s on 1 thread, %.1f vehicles per query%n",
+      nScans / ((System.nanoTime() - scanStart) / 1_000_000_000.0),
+      nScanned / (double) nScans
+    );
+  }
+
+  private List<TripPattern> patterns() {
+    var patterns = new ArrayList<TripPattern>();
+    var route = TransitModelForTest.route("r1").build();
+    for (int i = 0; i < NUMBER_OF_PATTERNS; i++) {
+      patterns.add(
+        TransitModelForTest
+          .tripPattern("p" + i, route)
+          .withStopPattern(testModel.stopPattern(2))
+          .build()
+      );
+    }
+    return patterns;
+  }
+
+  private List<RealtimeVehicle> vehicles() {
+    var vehicles = new ArrayList<RealtimeVehicle>();
+    for (int i = 0; i < VEHICLES_PER_PATTERN; i++) {
+      vehicles.add(vehicle(randomCoordinate()));
+    }
+    return vehicles;
+  }
+
+  private RealtimeVehicle vehicle(WgsCoordinate coordinate) {
+    return RealtimeVehicle.builder().withTrip(trip).withCoordinates(coordinate).build();
+  }
+
+  /** A coordinate in an area of roughly 50x50 km */
+  private WgsCoordinate randomCoordinate() {
+    return new WgsCoordinate(59.7 + random.nextDouble() * 0.45, 10.4 + random.nextDouble() * 0.9);
+  }
+
+  private Envelope randomEnvelope() {
+    var a = randomCoordinate();
+    var b = randomCoordinate();
+    return new Envelope(a.longitude(), b.longitude(), a.latitude(), b.latitude());
+  }
+
+  /** An envelope of the given size in degrees, around a random coordinate */
+  private static Envelope randomEnvelope(Random random, double size) {
+    double lat = 59.7 + random.nextDouble() * 0.45;
+    double lon = 10.4 + random.nextDouble() * 0.9;
+    return new Envelope(lon, lon + size, lat, lat + size);
+  }
+
+  private static Set<RealtimeVehicle> scan(
+    Collection<List<RealtimeVehicle>> all,
+    Predicate<WgsCoordinate> filter
+  ) {
+    return asSet(
+      all
+        .stream()
+        .flatMap(List::stream)
+        .filter(v -> filter.test(v.coordinates().orElseThrow()))
+        .toList()
+    );
+  }
+
+  private static Set<RealtimeVehicle> asSet(List<RealtimeVehicle> vehicles) {
+    var set = new HashSet<>(vehicles);
+    assertEquals(vehicles.size(), set.size(), "duplicates in result");
+    return set;
+  }
+}
@@ -26,6 +26,12 @@ public class ServerConfigTest {
     var config = new ServerConfig("server", root);
 
     assertEquals(SERVER_DEFAULT.apiProcessingTimeout(), config.apiProcessingTimeout());
+    assertEquals(SERVER_DEFAULT.requestCoalescing(), config.requestCoalescing());
+    assertFalse(config.requestCoalescing().enabled());
+    assertEquals(SERVER_DEFAULT.responseCache(), config.responseCache());
+    assertFalse(config.responseCache().enabled());
+    assertEquals(SERVER_DEFAULT.admissionControl(), config.admissionControl());
+    assertFalse(config.admissionControl().enabled());
   }
 
   @Test
@@ -42,7 +48,26 @@ public class ServerConfigTest {
               logKey : "LOG-ID",
               generateIdIfMissing: true
             }
-          ]
+          ],
+          requestCoalescing : {
+            enabled : true,
+            coordinateResolution : 25,
+            timeResolution : "30s"
+          },
+          responseCache : {
+            enabled : true,
+            maxSize : 200,
+            timeToLive : "2m"
+          },
+          admissionControl : {
+            enabled : true,
+            maxConcurrentRequests : 40,
+            degradeConcurrentRequests : 20,
+            degradeLatency : "3s",
+            numItineraries : 2,
+            searchWindow : "20m",
+            skipDirectModes : true
+          }
         }
       }
       """
@@ -56,6 +81,23 @@ public class ServerConfigTest {
     assertEquals("OUT-ID", traceParameters.httpResponseHeader());
     assertEquals("LOG-ID", traceParameters.logKey());
     assertTrue(traceParameters.generateIdIfMissing());
+    var requestCoalescing = config.requestCoalescing();
+    assertTrue(requestCoalescing.enabled());
+    assertEquals(25.0, requestCoalescing.coordinateResolution());
+    assertEquals(Duration.ofSeconds(30), requestCoalescing.timeResolution());
+    var responseCache = config.responseCache();
+    assertTrue(responseCache.enabled());
+    assertEquals(200, responseCache.maxSize());
+    assertEquals(Duration.ofMinutes(2), responseCache.timeToLive());
+    assertEquals(0.0, responseCache.coordinateResolution());
+    var admissionControl = config.admissionControl();
+    assertTrue(admissionControl.enabled());
+    assertEquals(40, admissionControl.maxConcurrentRequests());
+    assertEquals(20, admissionControl.degradeConcurrentRequests());
+    assertEquals(Duration.ofSeconds(3), admissionControl.degradeLatency());
+    assertEquals(2, admissionControl.numItineraries());
+    assertEquals(Duration.ofMinutes(20), admissionControl.searchWindow());
+    assertTrue(admissionControl.skipDirectModes());
   }
 
   static List<String> parseIncompleteServerConfigTestCases() {
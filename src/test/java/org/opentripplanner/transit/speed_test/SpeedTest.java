@@ -119,6 +119,9 @@ public class SpeedTest {
         config.flexConfig,
         List.of(),
         null,
+        null,
+        null,
+        null,
         null
       );
     // Creating transitLayerForRaptor should be integrated into the TransitModel, but for now
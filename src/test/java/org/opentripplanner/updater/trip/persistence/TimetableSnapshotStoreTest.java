@@ -0,0 +1,158 @@
+package org.opentripplanner.updater.trip.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.standalone.configure.ConstructApplication.creatTransitLayerForRaptor;
+import static org.opentripplanner.updater.trip.BackwardsDelayPropagationType.REQUIRED_NO_DATA;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.RealTimeState;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.TimetableSnapshotSourceParameters;
+import org.opentripplanner.updater.trip.TimetableSnapshotSource;
+import org.opentripplanner.updater.trip.TripUpdateBuilder;
+
+class TimetableSnapshotStoreTest {
+
+  private static final LocalDate SERVICE_DATE = LocalDate.parse("2009-02-01");
+  private static final Duration MAX_AGE = Duration.ofMinutes(10);
+  private static final Instant WRITTEN_AT = Instant.parse("2009-02-01T10:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private Path file;
+  private TransitModel restoredModel;
+  private String feedId;
+
+  @BeforeEach
+  void setUp() {
+    file = directory.resolve("timetable-snapshot.otpts");
+    var transitModel = ConstantsForTests
+      .buildGtfsGraph(ConstantsForTests.SIMPLE_GTFS)
+      .transitModel();
+    feedId = transitModel.getFeedIds().stream().findFirst().get();
+
+    var source = new TimetableSnapshotSource(
+      TimetableSnapshotSourceParameters.DEFAULT
+        .withMaxSnapshotFrequency(Duration.ofMillis(-1))
+        .withPurgeExpiredData(false),
+      transitModel
+    );
+    var tripUpdate = new TripUpdateBuilder(
+      "1.1",
+      SERVICE_DATE,
+      ScheduleRelationship.CANCELED,
+      transitModel.getTimeZone()
+    )
+      .build();
+    source.applyTripUpdates(null, REQUIRED_NO_DATA, false, List.of(tripUpdate), feedId);
+
+    new TimetableSnapshotStore(file, MAX_AGE, transitModel, clock(WRITTEN_AT))
+      .write(source.getTimetableSnapshot());
+
+    restoredModel = ConstantsForTests.buildGtfsGraph(ConstantsForTests.SIMPLE_GTFS).transitModel();
+  }
+
+  @Test
+  void restoreWrittenSnapshot() {
+    var buffer = new TimetableSnapshot();
+    int count = restore(restoredModel, WRITTEN_AT.plus(Duration.ofMinutes(5)), buffer);
+    assertEquals(1, count);
+
+    var tripTimes = buffer
+      .commit()
+      .resolve(pattern("1.1"), SERVICE_DATE)
+      .getTripTimes(new FeedScopedId(feedId, "1.1"));
+    assertEquals(RealTimeState.CANCELED, tripTimes.getRealTimeState());
+  }
+
+  @Test
+  void restoreRevertsExistingTimetablesInTheTransitLayer() {
+    creatTransitLayerForRaptor(restoredModel, RouterConfig.DEFAULT.transitTuningConfig());
+    var transitLayerUpdater = restoredModel.getTransitLayerUpdater();
+    var tripId = new FeedScopedId(feedId, "2.1");
+    var pattern = pattern("2.1");
+
+    var delayed = pattern.getScheduledTimetable().getTripTimes(tripId).copyScheduledTimes();
+    delayed.updateArrivalDelay(1, 60);
+    var buffer = new TimetableSnapshot();
+    buffer.replaceTimetables(pattern, Map.of(SERVICE_DATE, List.of(delayed)));
+    buffer.commit(transitLayerUpdater, true);
+    assertEquals(60, realtimeTransitLayerTripTimes(tripId).getArrivalDelay(1));
+
+    // The persisted snapshot has no realtime timetable for the pattern
+    restore(restoredModel, WRITTEN_AT, buffer);
+    buffer.commit(transitLayerUpdater, true);
+    assertEquals(0, realtimeTransitLayerTripTimes(tripId).getArrivalDelay(1));
+  }
+
+  @Test
+  void snapshotTooOldIsNotRestored() {
+    var buffer = new TimetableSnapshot();
+    assertEquals(-1, restore(restoredModel, WRITTEN_AT.plus(Duration.ofMinutes(11)), buffer));
+    var pattern = pattern("1.1");
+    assertSame(pattern.getScheduledTimetable(), buffer.resolve(pattern, SERVICE_DATE));
+  }
+
+  @Test
+  void snapshotForAnotherTransitModelIsNotRestored() {
+    var otherModel = ConstantsForTests
+      .buildGtfsGraph(ConstantsForTests.SHAPE_DIST_GTFS)
+      .transitModel();
+    assertEquals(-1, restore(otherModel, WRITTEN_AT, new TimetableSnapshot()));
+  }
+
+  @Test
+  void missingFileIsIgnored() {
+    var store = new TimetableSnapshotStore(
+      directory.resolve("missing.otpts"),
+      MAX_AGE,
+      restoredModel,
+      clock(WRITTEN_AT)
+    );
+    assertEquals(-1, store.restore(new TimetableSnapshot()));
+  }
+
+  private int restore(TransitModel transitModel, Instant now, TimetableSnapshot buffer) {
+    return new TimetableSnapshotStore(file, MAX_AGE, transitModel, clock(now)).restore(buffer);
+  }
+
+  private TripTimes realtimeTransitLayerTripTimes(FeedScopedId tripId) {
+    return restoredModel
+      .getRealtimeTransitLayer()
+      .getTripPatternsForDate(SERVICE_DATE)
+      .stream()
+      .flatMap(it -> it.tripTimes().stream())
+      .filter(it -> it.getTrip().getId().equals(tripId))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  private TripPattern pattern(String tripId) {
+    var index = restoredModel.getTransitModelIndex();
+    var trip = index.getTripForId().get(new FeedScopedId(feedId, tripId));
+    return index.getPatternForTrip().get(trip);
+  }
+
+  private static Clock clock(Instant instant) {
+    return Clock.fixed(instant, ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,61 @@
+package org.opentripplanner.updater.trip.replication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileReplicationTransportTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void publishAndFetch() {
+    var subject = new FileReplicationTransport(directory, 5);
+    assertEquals(-1, subject.lastSequenceNumber());
+
+    subject.publish(new ReplicationMessage(1, true, new byte[] { 1, 2 }));
+    subject.publish(new ReplicationMessage(2, false, new byte[] { 3 }));
+
+    assertEquals(2, subject.lastSequenceNumber());
+
+    var messages = subject.fetch(-1);
+    assertEquals(2, messages.size());
+    assertEquals(1, messages.get(0).sequenceNumber());
+    assertTrue(messages.get(0).fullSnapshot());
+    assertArrayEquals(new byte[] { 1, 2 }, messages.get(0).payload());
+    assertEquals(2, messages.get(1).sequenceNumber());
+    assertFalse(messages.get(1).fullSnapshot());
+
+    messages = subject.fetch(1);
+    assertEquals(1, messages.size());
+    assertArrayEquals(new byte[] { 3 }, messages.get(0).payload());
+  }
+
+  @Test
+  void expiredMessagesAreDeleted() {
+    var subject = new FileReplicationTransport(directory, 2);
+
+    for (int i = 1; i <= 4; i++) {
+      subject.publish(new ReplicationMessage(i, i == 1, new byte[] { (byte) i }));
+    }
+
+    var messages = subject.fetch(-1);
+    assertEquals(2, messages.size());
+    assertEquals(3, messages.get(0).sequenceNumber());
+    assertEquals(4, messages.get(1).sequenceNumber());
+  }
+
+  @Test
+  void leaderContinuesSequenceAfterRestart() {
+    var leader = new FileReplicationTransport(directory, 5);
+    leader.publish(new ReplicationMessage(7, true, new byte[0]));
+
+    assertEquals(7, new FileReplicationTransport(directory, 5).lastSequenceNumber());
+  }
+}
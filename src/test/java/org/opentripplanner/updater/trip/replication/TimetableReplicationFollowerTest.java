@@ -0,0 +1,83 @@
+package org.opentripplanner.updater.trip.replication;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.transit.service.TransitModel;
+
+class TimetableReplicationFollowerTest {
+
+  private static final TimetableReplicationParameters PARAMETERS = new TimetableReplicationParameters(
+    "follower",
+    Duration.ofSeconds(1),
+    TimetableReplicationParameters.Role.FOLLOWER,
+    Path.of("replication"),
+    1,
+    2
+  );
+
+  private final TransitModel transitModel = new TransitModel(new StopModel(), new Deduplicator());
+  private final InMemoryTransport transport = new InMemoryTransport();
+  private TimetableReplicationFollower subject;
+  private byte[] emptySnapshot;
+
+  @BeforeEach
+  void setUp() {
+    transitModel.index();
+    subject = new TimetableReplicationFollower(PARAMETERS, transport, transitModel);
+    subject.setGraphUpdaterManager(runnable -> {
+      runnable.run(null, transitModel);
+      return CompletableFuture.completedFuture(null);
+    });
+    emptySnapshot =
+      new TimetableSnapshotEncoder(new DefaultTransitService(transitModel))
+        .encodeFull(new TimetableSnapshot().commit(null, true));
+  }
+
+  @Test
+  void notPrimedBeforeAFullSnapshotIsApplied() {
+    subject.run();
+    assertFalse(subject.isPrimed(), "Nothing is published yet");
+
+    transport.publish(new ReplicationMessage(0, false, emptySnapshot));
+    subject.run();
+    assertFalse(subject.isPrimed(), "A delta can not be applied without a full snapshot");
+
+    transport.publish(new ReplicationMessage(1, true, emptySnapshot));
+    subject.run();
+    assertTrue(subject.isPrimed());
+    assertNotNull(transitModel.getTimetableSnapshot());
+  }
+
+  private static class InMemoryTransport implements ReplicationTransport {
+
+    private final List<ReplicationMessage> messages = new ArrayList<>();
+
+    @Override
+    public void publish(ReplicationMessage message) {
+      messages.add(message);
+    }
+
+    @Override
+    public List<ReplicationMessage> fetch(long afterSequenceNumber) {
+      return messages.stream().filter(it -> it.sequenceNumber() > afterSequenceNumber).toList();
+    }
+
+    @Override
+    public long lastSequenceNumber() {
+      return messages.isEmpty() ? -1 : messages.get(messages.size() - 1).sequenceNumber();
+    }
+  }
+}
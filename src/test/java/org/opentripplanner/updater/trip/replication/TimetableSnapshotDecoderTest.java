@@ -0,0 +1,176 @@
+package org.opentripplanner.updater.trip.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.standalone.configure.ConstructApplication.creatTransitLayerForRaptor;
+import static org.opentripplanner.updater.trip.BackwardsDelayPropagationType.REQUIRED_NO_DATA;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.RealTimeState;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.TimetableSnapshotSourceParameters;
+import org.opentripplanner.updater.trip.TimetableSnapshotSource;
+import org.opentripplanner.updater.trip.TripUpdateBuilder;
+
+/**
+ * Encode snapshots from one transit model and decode them into another one built from the same
+ * GTFS feed, like a replication leader and follower do.
+ */
+class TimetableSnapshotDecoderTest {
+
+  private static final LocalDate SERVICE_DATE = LocalDate.parse("2009-02-01");
+
+  private TransitModel leaderModel;
+  private TransitModel followerModel;
+  private TimetableSnapshotSource leader;
+  private TimetableSnapshotEncoder encoder;
+  private TimetableSnapshotDecoder decoder;
+  private String feedId;
+
+  @BeforeEach
+  void setUp() {
+    leaderModel = ConstantsForTests.buildGtfsGraph(ConstantsForTests.SIMPLE_GTFS).transitModel();
+    followerModel = ConstantsForTests.buildGtfsGraph(ConstantsForTests.SIMPLE_GTFS).transitModel();
+    feedId = leaderModel.getFeedIds().stream().findFirst().get();
+
+    leader =
+      new TimetableSnapshotSource(
+        TimetableSnapshotSourceParameters.DEFAULT
+          .withMaxSnapshotFrequency(Duration.ofMillis(-1))
+          .withPurgeExpiredData(false),
+        leaderModel
+      );
+    encoder = new TimetableSnapshotEncoder(new DefaultTransitService(leaderModel));
+    decoder =
+      new TimetableSnapshotDecoder(
+        new DefaultTransitService(followerModel),
+        followerModel.getDeduplicator()
+      );
+  }
+
+  @Test
+  void fullSnapshot() {
+    applyOnLeader(delayed("1.1", 2, 60));
+
+    var buffer = new TimetableSnapshot();
+    decoder.apply(encoder.encodeFull(leader.getTimetableSnapshot()), buffer);
+    var snapshot = buffer.commit();
+
+    var pattern = followerPattern("1.1");
+    var timetable = snapshot.resolve(pattern, SERVICE_DATE);
+    assertNotSame(pattern.getScheduledTimetable(), timetable);
+
+    var tripTimes = timetable.getTripTimes(new FeedScopedId(feedId, "1.1"));
+    assertEquals(RealTimeState.UPDATED, tripTimes.getRealTimeState());
+    assertEquals(60, tripTimes.getArrivalDelay(1));
+    assertEquals(60, tripTimes.getDepartureDelay(1));
+
+    // Trip times without updates are shared with the scheduled timetable
+    var scheduled = pattern.getScheduledTimetable().getTripTimes(new FeedScopedId(feedId, "1.2"));
+    assertSame(scheduled, timetable.getTripTimes(new FeedScopedId(feedId, "1.2")));
+  }
+
+  @Test
+  void delta() {
+    applyOnLeader(delayed("1.1", 2, 60));
+    var first = leader.getTimetableSnapshot();
+
+    var buffer = new TimetableSnapshot();
+    decoder.apply(encoder.encodeFull(first), buffer);
+
+    applyOnLeader(cancelled("1.1"));
+    var second = leader.getTimetableSnapshot();
+    decoder.apply(encoder.encodeDelta(first, second), buffer);
+    var snapshot = buffer.commit();
+
+    var tripTimes = snapshot
+      .resolve(followerPattern("1.1"), SERVICE_DATE)
+      .getTripTimes(new FeedScopedId(feedId, "1.1"));
+    assertEquals(RealTimeState.CANCELED, tripTimes.getRealTimeState());
+  }
+
+  @Test
+  void fullSnapshotReplacesPreviousState() {
+    applyOnLeader(cancelled("1.1"));
+    var buffer = new TimetableSnapshot();
+    decoder.apply(encoder.encodeFull(leader.getTimetableSnapshot()), buffer);
+
+    decoder.apply(encoder.encodeFull(new TimetableSnapshot().commit(null, true)), buffer);
+    var snapshot = buffer.commit(null, true);
+
+    var pattern = followerPattern("1.1");
+    assertSame(pattern.getScheduledTimetable(), snapshot.resolve(pattern, SERVICE_DATE));
+  }
+
+  @Test
+  void removedTimetableIsRevertedInTheTransitLayer() {
+    creatTransitLayerForRaptor(followerModel, RouterConfig.DEFAULT.transitTuningConfig());
+    var follower = new ReplicatedTimetableSnapshotSource(followerModel);
+
+    applyOnLeader(delayed("1.1", 2, 60));
+    var first = encoder.encodeFull(leader.getTimetableSnapshot());
+    follower.applyMessages(List.of(new ReplicationMessage(0, true, first)));
+    assertEquals(60, realtimeTransitLayerTripTimes("1.1").getArrivalDelay(1));
+
+    var second = encoder.encodeFull(new TimetableSnapshot().commit(null, true));
+    follower.applyMessages(List.of(new ReplicationMessage(1, true, second)));
+    assertEquals(0, realtimeTransitLayerTripTimes("1.1").getArrivalDelay(1));
+  }
+
+  private TripTimes realtimeTransitLayerTripTimes(String tripId) {
+    var id = new FeedScopedId(feedId, tripId);
+    return followerModel
+      .getRealtimeTransitLayer()
+      .getTripPatternsForDate(SERVICE_DATE)
+      .stream()
+      .flatMap(it -> it.tripTimes().stream())
+      .filter(it -> it.getTrip().getId().equals(id))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  private void applyOnLeader(TripUpdate tripUpdate) {
+    leader.applyTripUpdates(null, REQUIRED_NO_DATA, false, List.of(tripUpdate), feedId);
+  }
+
+  private TripPattern followerPattern(String tripId) {
+    var index = followerModel.getTransitModelIndex();
+    var trip = index.getTripForId().get(new FeedScopedId(feedId, tripId));
+    return index.getPatternForTrip().get(trip);
+  }
+
+  private TripUpdate delayed(String tripId, int stopSequence, int delay) {
+    return new TripUpdateBuilder(
+      tripId,
+      SERVICE_DATE,
+      ScheduleRelationship.SCHEDULED,
+      leaderModel.getTimeZone()
+    )
+      .addDelayedStopTime(stopSequence, delay)
+      .build();
+  }
+
+  private TripUpdate cancelled(String tripId) {
+    return new TripUpdateBuilder(
+      tripId,
+      SERVICE_DATE,
+      ScheduleRelationship.CANCELED,
+      leaderModel.getTimeZone()
+    )
+      .build();
+  }
+}
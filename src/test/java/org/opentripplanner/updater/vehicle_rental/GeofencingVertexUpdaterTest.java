@@ -116,4 +116,20 @@ class GeofencingVertexUpdaterTest {
     var ext = (BusinessAreaBorder) businessBorder.getFromVertex().rentalRestrictions();
     assertInstanceOf(BusinessAreaBorder.class, ext);
   }
+
+  @Test
+  void unchangedZonesAreCached() {
+    var first = updater.applyGeofencingZones(List.of(zone, businessArea));
+    assertEquals(2, updater.computedGeometries());
+    assertEquals(0, updater.cachedGeometries());
+
+    first.forEach(StreetEdge::removeRentalExtension);
+
+    // A zone with an equal geometry, like a zone parsed again from an unchanged feed
+    var sameZone = new GeofencingZone(id("frogner-park"), frognerPark.copy(), true, false);
+    var second = updater.applyGeofencingZones(List.of(sameZone, businessArea));
+    assertEquals(0, updater.computedGeometries());
+    assertEquals(2, updater.cachedGeometries());
+    assertEquals(first.keySet(), second.keySet());
+  }
 }
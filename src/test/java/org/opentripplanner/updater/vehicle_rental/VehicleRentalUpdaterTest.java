@@ -1,6 +1,8 @@
 package org.opentripplanner.updater.vehicle_rental;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.util.concurrent.Futures;
@@ -14,7 +16,10 @@ import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.vehiclerental.internal.DefaultVehicleRentalService;
+import org.opentripplanner.service.vehiclerental.model.TestFreeFloatingRentalVehicleBuilder;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
+import org.opentripplanner.transit.service.StopModel;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GraphUpdaterManager;
 import org.opentripplanner.updater.GraphWriterRunnable;
@@ -42,6 +47,46 @@ class VehicleRentalUpdaterTest {
     assertTrue(updater.isPrimed());
   }
 
+  @Test
+  void onlyMovedPlacesAreLinkedAgain() {
+    var graph = new Graph();
+    var source = new StaticDatasource();
+    var updater = new VehicleRentalUpdater(
+      new VehicleRentalUpdaterParameters("A", Duration.ofMinutes(1), new FakeParams()),
+      source,
+      graph.getLinkerSafe(new StopModel()),
+      new DefaultVehicleRentalService()
+    );
+    updater.setGraphUpdaterManager(runnable -> {
+      runnable.run(graph, null);
+      return Futures.immediateVoidFuture();
+    });
+
+    var scooter = TestFreeFloatingRentalVehicleBuilder.of().withVehicleScooter();
+    var bicycle = TestFreeFloatingRentalVehicleBuilder.of().withVehicleBicycle();
+
+    source.places = List.of(scooter.build(), bicycle.build());
+    updater.run();
+    var scooterVertex = vertex(graph, "free-floating-scooter");
+    var bicycleVertex = vertex(graph, "free-floating-bicycle");
+
+    // The bicycle moved, the scooter is updated in place
+    var movedBicycle = bicycle.withLatitude(47.53).build();
+    source.places = List.of(scooter.build(), movedBicycle);
+    updater.run();
+
+    assertSame(scooterVertex, vertex(graph, "free-floating-scooter"));
+    assertSame(source.places.get(0), scooterVertex.getStation());
+    var movedBicycleVertex = vertex(graph, "free-floating-bicycle");
+    assertNotSame(bicycleVertex, movedBicycleVertex);
+    assertSame(movedBicycle, movedBicycleVertex.getStation());
+  }
+
+  private static VehicleRentalPlaceVertex vertex(Graph graph, String id) {
+    var label = "vehicle rental station " + TestFreeFloatingRentalVehicleBuilder.NETWORK_1;
+    return (VehicleRentalPlaceVertex) graph.getVertex(label + ":" + id);
+  }
+
   static class MockManager extends GraphUpdaterManager {
 
     public MockManager(VehicleRentalUpdater updater) {
@@ -78,6 +123,21 @@ class VehicleRentalUpdaterTest {
     }
   }
 
+  static class StaticDatasource implements VehicleRentalDatasource {
+
+    private List<VehicleRentalPlace> places = List.of();
+
+    @Override
+    public boolean update() {
+      return true;
+    }
+
+    @Override
+    public List<VehicleRentalPlace> getUpdates() {
+      return places;
+    }
+  }
+
   static class FakeParams implements VehicleRentalDataSourceParameters {
 
     @Nonnull
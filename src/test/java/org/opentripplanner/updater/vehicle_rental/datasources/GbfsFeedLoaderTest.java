@@ -1,6 +1,7 @@
 package org.opentripplanner.updater.vehicle_rental.datasources;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -87,6 +88,19 @@ class GbfsFeedLoaderTest {
     validateV10Feed(loader);
   }
 
+  @Test
+  void feedWithUnchangedLastUpdatedIsNotReportedAsUpdated() {
+    GbfsFeedLoader loader = new GbfsFeedLoader(
+      "file:src/test/resources/gbfs/lillestrombysykkel/gbfs.json",
+      HttpHeaders.empty(),
+      LANGUAGE_NB
+    );
+
+    assertTrue(loader.update());
+    // The files are fetched again, since the ttl is expired, but the content is the same
+    assertFalse(loader.update());
+  }
+
   @Test
   @Disabled
   void fetchAllPublicFeeds() {